@@ -19,12 +19,15 @@ package org.datavec.api.io;
 import org.datavec.api.writable.Text;
 import org.datavec.api.util.ReflectionUtils;
 import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableType;
 import org.datavec.api.conf.Configuration;
 
 import java.io.*;
 
 
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -411,4 +414,65 @@ public final class WritableUtils  {
         }
         return out.getData();
     }
-}
\ No newline at end of file
+
+    /**
+     * Write a Writable along with its type, such that it can be read back with {@link #readWritable(DataInput)}
+     * without knowing the type in advance. Built-in types (see {@link WritableType}) are encoded using a single byte
+     * for the type; any other Writable classes additionally have their class name written.
+     *
+     * @param w   Writable to write
+     * @param out Output to write to
+     */
+    public static void writeWritable(Writable w, DataOutput out) throws IOException {
+        WritableType type = WritableType.typeOf(w);
+        out.writeByte(type.typeIdx());
+        if (type == WritableType.Other) {
+            out.writeUTF(w.getClass().getName());
+        }
+        w.write(out);
+    }
+
+    /**
+     * Read a Writable previously written by {@link #writeWritable(Writable, DataOutput)}
+     */
+    @SuppressWarnings("unchecked")
+    public static Writable readWritable(DataInput in) throws IOException {
+        WritableType type = WritableType.fromTypeIdx(in.readByte());
+        Writable w;
+        if (type == WritableType.Other) {
+            String className = in.readUTF();
+            try {
+                Class<? extends Writable> c = (Class<? extends Writable>) Class.forName(className);
+                w = ReflectionUtils.newInstance(c, null);
+            } catch (ClassNotFoundException e) {
+                throw new IOException("Could not find Writable class: " + className, e);
+            }
+        } else {
+            w = type.newWritable();
+        }
+        w.readFields(in);
+        return w;
+    }
+
+    /**
+     * Write a record (list of writables), such that it can be read back with {@link #readRecord(DataInput)}
+     */
+    public static void writeRecord(List<Writable> record, DataOutput out) throws IOException {
+        writeVInt(out, record.size());
+        for (Writable w : record) {
+            writeWritable(w, out);
+        }
+    }
+
+    /**
+     * Read a record previously written by {@link #writeRecord(List, DataOutput)}
+     */
+    public static List<Writable> readRecord(DataInput in) throws IOException {
+        int size = readVInt(in);
+        List<Writable> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            out.add(readWritable(in));
+        }
+        return out;
+    }
+}
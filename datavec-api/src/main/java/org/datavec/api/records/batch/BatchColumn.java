@@ -0,0 +1,108 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single column of a {@link RecordBatch}: the values of one column for all records in the batch.<br>
+ * Columns are immutable: the arrays returned by {@link #asDoubles()}, {@link #asInts()} and {@link #asLongs()} may be
+ * the internal storage of the column, and must not be modified.
+ */
+public abstract class BatchColumn implements Serializable {
+
+    /**
+     * @return Number of values in the column
+     */
+    public abstract int size();
+
+    /**
+     * Get the value at the specified row as a Writable. Note that for primitive columns, this allocates a new Writable.
+     */
+    public abstract Writable get(int row);
+
+    /**
+     * @return The values of the column as doubles (with the same conversion as {@link Writable#toDouble()})
+     */
+    public abstract double[] asDoubles();
+
+    /**
+     * @return The values of the column as ints (with the same conversion as {@link Writable#toInt()})
+     */
+    public abstract int[] asInts();
+
+    /**
+     * @return The values of the column as longs (with the same conversion as {@link Writable#toLong()})
+     */
+    public abstract long[] asLongs();
+
+    /**
+     * Create a new column containing only the specified rows (in the specified order)
+     */
+    public abstract BatchColumn select(int[] rows);
+
+    /**
+     * Create a column from a list of writables. The column type is inferred from the writables: if all values are
+     * {@link DoubleWritable}, {@link IntWritable} or {@link LongWritable}, a {@link DoubleColumn}, {@link IntColumn}
+     * or {@link LongColumn} is returned respectively. If all values are {@link Text}, a {@link DictionaryColumn} is
+     * returned. Otherwise, the writables are stored as-is in a {@link WritableColumn}.
+     */
+    public static BatchColumn fromWritables(List<Writable> values) {
+        int n = values.size();
+        if (n == 0) return new WritableColumn(new ArrayList<Writable>());
+        Class<?> c = values.get(0).getClass();
+        for (int i = 1; i < n; i++) {
+            if (values.get(i).getClass() != c) return new WritableColumn(new ArrayList<>(values));
+        }
+
+        if (c == DoubleWritable.class) {
+            double[] d = new double[n];
+            for (int i = 0; i < n; i++) d[i] = ((DoubleWritable) values.get(i)).get();
+            return new DoubleColumn(d);
+        } else if (c == IntWritable.class) {
+            int[] d = new int[n];
+            for (int i = 0; i < n; i++) d[i] = ((IntWritable) values.get(i)).get();
+            return new IntColumn(d);
+        } else if (c == LongWritable.class) {
+            long[] d = new long[n];
+            for (int i = 0; i < n; i++) d[i] = ((LongWritable) values.get(i)).get();
+            return new LongColumn(d);
+        } else if (c == Text.class) {
+            int[] codes = new int[n];
+            List<String> dictionary = new ArrayList<>();
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                String s = values.get(i).toString();
+                Integer code = index.get(s);
+                if (code == null) {
+                    code = dictionary.size();
+                    index.put(s, code);
+                    dictionary.add(s);
+                }
+                codes[i] = code;
+            }
+            return new DictionaryColumn(codes, dictionary);
+        }
+        return new WritableColumn(new ArrayList<>(values));
+    }
+}
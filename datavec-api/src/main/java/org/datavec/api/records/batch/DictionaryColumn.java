@@ -0,0 +1,106 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.util.List;
+
+/**
+ * A dictionary-encoded batch column of String values: each row is stored as an int code, which is an index into a
+ * list of distinct values (the dictionary). Values are returned as {@link Text} writables.<br>
+ * Numerical conversions ({@link #asDoubles()} etc) parse each distinct value only once.
+ */
+public class DictionaryColumn extends BatchColumn {
+
+    private final int[] codes;
+    private final List<String> dictionary;
+
+    /**
+     * @param codes      Code (index in the dictionary) for each row. Not copied
+     * @param dictionary Distinct values
+     */
+    public DictionaryColumn(int[] codes, List<String> dictionary) {
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public int size() {
+        return codes.length;
+    }
+
+    @Override
+    public Writable get(int row) {
+        return new Text(dictionary.get(codes[row]));
+    }
+
+    public String getString(int row) {
+        return dictionary.get(codes[row]);
+    }
+
+    /**
+     * @return The code (index in the dictionary) for each row. Must not be modified
+     */
+    public int[] getCodes() {
+        return codes;
+    }
+
+    public List<String> getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public double[] asDoubles() {
+        double[] parsed = new double[dictionary.size()];
+        for (int i = 0; i < parsed.length; i++) parsed[i] = Double.parseDouble(dictionary.get(i));
+        double[] out = new double[codes.length];
+        for (int i = 0; i < out.length; i++) out[i] = parsed[codes[i]];
+        return out;
+    }
+
+    @Override
+    public int[] asInts() {
+        int[] parsed = new int[dictionary.size()];
+        for (int i = 0; i < parsed.length; i++) parsed[i] = Integer.parseInt(dictionary.get(i));
+        int[] out = new int[codes.length];
+        for (int i = 0; i < out.length; i++) out[i] = parsed[codes[i]];
+        return out;
+    }
+
+    @Override
+    public long[] asLongs() {
+        long[] parsed = new long[dictionary.size()];
+        for (int i = 0; i < parsed.length; i++) parsed[i] = Long.parseLong(dictionary.get(i));
+        long[] out = new long[codes.length];
+        for (int i = 0; i < out.length; i++) out[i] = parsed[codes[i]];
+        return out;
+    }
+
+    @Override
+    public BatchColumn select(int[] rows) {
+        int[] out = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) out[i] = codes[rows[i]];
+        return new DictionaryColumn(out, dictionary);
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryColumn(size=" + codes.length + ",dictionarySize=" + dictionary.size() + ")";
+    }
+}
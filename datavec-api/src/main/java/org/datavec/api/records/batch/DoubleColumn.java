@@ -0,0 +1,80 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * A batch column of double values, backed by a double[]
+ */
+public class DoubleColumn extends BatchColumn {
+
+    private final double[] values;
+
+    /**
+     * @param values Values for the column. The array is not copied, and should not be modified after this call
+     */
+    public DoubleColumn(double[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Writable get(int row) {
+        return new DoubleWritable(values[row]);
+    }
+
+    public double getDouble(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double[] asDoubles() {
+        return values;
+    }
+
+    @Override
+    public int[] asInts() {
+        int[] out = new int[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = (int) values[i];
+        return out;
+    }
+
+    @Override
+    public long[] asLongs() {
+        long[] out = new long[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = (long) values[i];
+        return out;
+    }
+
+    @Override
+    public BatchColumn select(int[] rows) {
+        double[] out = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) out[i] = values[rows[i]];
+        return new DoubleColumn(out);
+    }
+
+    @Override
+    public String toString() {
+        return "DoubleColumn(size=" + values.length + ")";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * A batch column of integer values, backed by an int[]
+ */
+public class IntColumn extends BatchColumn {
+
+    private final int[] values;
+
+    /**
+     * @param values Values for the column. The array is not copied, and should not be modified after this call
+     */
+    public IntColumn(int[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Writable get(int row) {
+        return new IntWritable(values[row]);
+    }
+
+    public int getInt(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double[] asDoubles() {
+        double[] out = new double[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = values[i];
+        return out;
+    }
+
+    @Override
+    public int[] asInts() {
+        return values;
+    }
+
+    @Override
+    public long[] asLongs() {
+        long[] out = new long[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = values[i];
+        return out;
+    }
+
+    @Override
+    public BatchColumn select(int[] rows) {
+        int[] out = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) out[i] = values[rows[i]];
+        return new IntColumn(out);
+    }
+
+    @Override
+    public String toString() {
+        return "IntColumn(size=" + values.length + ")";
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * A batch column of long values, backed by a long[]
+ */
+public class LongColumn extends BatchColumn {
+
+    private final long[] values;
+
+    /**
+     * @param values Values for the column. The array is not copied, and should not be modified after this call
+     */
+    public LongColumn(long[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public Writable get(int row) {
+        return new LongWritable(values[row]);
+    }
+
+    public long getLong(int row) {
+        return values[row];
+    }
+
+    @Override
+    public double[] asDoubles() {
+        double[] out = new double[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = values[i];
+        return out;
+    }
+
+    @Override
+    public int[] asInts() {
+        int[] out = new int[values.length];
+        for (int i = 0; i < out.length; i++) out[i] = (int) values[i];
+        return out;
+    }
+
+    @Override
+    public long[] asLongs() {
+        return values;
+    }
+
+    @Override
+    public BatchColumn select(int[] rows) {
+        long[] out = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) out[i] = values[rows[i]];
+        return new LongColumn(out);
+    }
+
+    @Override
+    public String toString() {
+        return "LongColumn(size=" + values.length + ")";
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.records.reader.BatchRecordReader;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RecordBatch: a batch of records (examples) stored in columnar format. Each column is a {@link BatchColumn}:
+ * numerical columns are stored as primitive arrays ({@link DoubleColumn}, {@link IntColumn}, {@link LongColumn}),
+ * and String columns are dictionary encoded ({@link DictionaryColumn}).<br>
+ * RecordBatch objects (and their columns) are immutable: transforms create new columns, and columns that aren't
+ * modified are shared between the input and output batches.
+ *
+ * @see org.datavec.api.records.reader.BatchRecordReader#next(int)
+ * @see org.datavec.api.transform.BatchTransform#mapBatch(RecordBatch)
+ */
+public class RecordBatch implements Serializable {
+
+    private final int numRows;
+    private final List<BatchColumn> columns;
+
+    /**
+     * @param columns Columns for the batch. All columns must have the same number of values
+     */
+    public RecordBatch(List<BatchColumn> columns) {
+        this(columns.isEmpty() ? 0 : columns.get(0).size(), columns);
+    }
+
+    /**
+     * @param numRows Number of rows (records) in the batch
+     * @param columns Columns for the batch. All columns must have numRows values
+     */
+    public RecordBatch(int numRows, List<BatchColumn> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).size() != numRows) {
+                throw new IllegalStateException("Invalid column " + i + ": expected " + numRows + " values, got "
+                        + columns.get(i).size());
+            }
+        }
+        this.numRows = numRows;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    }
+
+    /**
+     * @return Number of rows (records) in the batch
+     */
+    public int numRows() {
+        return numRows;
+    }
+
+    public int numColumns() {
+        return columns.size();
+    }
+
+    public BatchColumn getColumn(int column) {
+        return columns.get(column);
+    }
+
+    /**
+     * @return All columns (unmodifiable list)
+     */
+    public List<BatchColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get a single record (row) from the batch
+     */
+    public List<Writable> getRecord(int row) {
+        List<Writable> out = new ArrayList<>(columns.size());
+        for (BatchColumn c : columns) {
+            out.add(c.get(row));
+        }
+        return out;
+    }
+
+    /**
+     * Convert the batch to row format: one {@code List<Writable>} per record
+     */
+    public List<List<Writable>> toRecords() {
+        List<List<Writable>> out = new ArrayList<>(numRows);
+        for (int i = 0; i < numRows; i++) {
+            out.add(getRecord(i));
+        }
+        return out;
+    }
+
+    /**
+     * Create a new batch containing only the specified rows (in the specified order)
+     */
+    public RecordBatch select(int[] rows) {
+        List<BatchColumn> out = new ArrayList<>(columns.size());
+        for (BatchColumn c : columns) {
+            out.add(c.select(rows));
+        }
+        return new RecordBatch(rows.length, out);
+    }
+
+    /**
+     * Create a batch from a list of records. Column types are inferred from the writables; see
+     * {@link BatchColumn#fromWritables(List)}. All records must have the same number of values.<br>
+     * Note that the batch for an empty list of records has no columns.
+     */
+    public static RecordBatch fromRecords(final List<List<Writable>> records) {
+        if (records.isEmpty()) return new RecordBatch(0, Collections.<BatchColumn>emptyList());
+        int numColumns = records.get(0).size();
+        for (List<Writable> l : records) {
+            if (l.size() != numColumns) {
+                throw new IllegalStateException("Cannot create batch: records have different numbers of values ("
+                        + numColumns + " vs. " + l.size() + ")");
+            }
+        }
+
+        List<BatchColumn> columns = new ArrayList<>(numColumns);
+        for (int i = 0; i < numColumns; i++) {
+            final int column = i;
+            columns.add(BatchColumn.fromWritables(new AbstractList<Writable>() {
+                @Override
+                public Writable get(int index) {
+                    return records.get(index).get(column);
+                }
+
+                @Override
+                public int size() {
+                    return records.size();
+                }
+            }));
+        }
+        return new RecordBatch(records.size(), columns);
+    }
+
+    /**
+     * Read the next (up to) num records from a record reader, as a batch. Uses {@link BatchRecordReader#next(int)} if
+     * the reader supports it; otherwise, the records are read one at a time and converted with
+     * {@link #fromRecords(List)}
+     */
+    public static RecordBatch read(RecordReader reader, int num) {
+        if (reader instanceof BatchRecordReader) return ((BatchRecordReader) reader).next(num);
+        List<List<Writable>> records = new ArrayList<>(Math.min(num, 1024));
+        while (records.size() < num && reader.hasNext()) {
+            records.add(reader.next());
+        }
+        return fromRecords(records);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordBatch(numRows=" + numRows + ",columns=" + columns + ")";
+    }
+}
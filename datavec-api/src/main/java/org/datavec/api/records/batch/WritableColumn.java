@@ -0,0 +1,81 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.writable.Writable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A batch column that stores its values as Writable objects. Used for columns that can't be stored in one of the
+ * primitive column types (for example: columns with mixed or non-standard Writable types)
+ */
+public class WritableColumn extends BatchColumn {
+
+    private final List<Writable> values;
+
+    /**
+     * @param values Values for the column. The list is not copied, and should not be modified after this call
+     */
+    public WritableColumn(List<Writable> values) {
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public Writable get(int row) {
+        return values.get(row);
+    }
+
+    @Override
+    public double[] asDoubles() {
+        double[] out = new double[values.size()];
+        for (int i = 0; i < out.length; i++) out[i] = values.get(i).toDouble();
+        return out;
+    }
+
+    @Override
+    public int[] asInts() {
+        int[] out = new int[values.size()];
+        for (int i = 0; i < out.length; i++) out[i] = values.get(i).toInt();
+        return out;
+    }
+
+    @Override
+    public long[] asLongs() {
+        long[] out = new long[values.size()];
+        for (int i = 0; i < out.length; i++) out[i] = values.get(i).toLong();
+        return out;
+    }
+
+    @Override
+    public BatchColumn select(int[] rows) {
+        List<Writable> out = new ArrayList<>(rows.length);
+        for (int r : rows) out.add(values.get(r));
+        return new WritableColumn(out);
+    }
+
+    @Override
+    public String toString() {
+        return "WritableColumn(size=" + values.size() + ")";
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.records.listener;
+
+import org.datavec.api.records.reader.RecordReader;
+
+/**
+ * Extended {@link RecordListener} that also receives timing and I/O information from record readers: the time taken
+ * to read and decode a record, the number of bytes read, and (for asynchronous readers) the time spent waiting for
+ * the next record.<br>
+ * To keep overhead low, readers only measure time for records where {@link #timeNextRecord(RecordReader)} returns
+ * true; implementations should return true for a small sample of records only.<br>
+ * Record readers extending {@link org.datavec.api.records.reader.BaseRecordReader} call
+ * {@link #recordRead(RecordReader, Object, long, long)} instead of {@link #recordRead(RecordReader, Object)} for
+ * listeners implementing this interface.
+ */
+public interface ReaderStatsListener extends RecordListener {
+
+    /**
+     * Called before reading a record (or waiting for one).
+     *
+     * @param reader the record reader
+     * @return true if the reader should measure the time taken for the next record
+     */
+    boolean timeNextRecord(RecordReader reader);
+
+    /**
+     * Event listener for each record read.
+     *
+     * @param reader      the record reader
+     * @param record      in raw format (Collection, File, String, Writable, etc)
+     * @param decodeNanos time taken to read and decode the record in nanoseconds, or -1 if not measured
+     * @param bytes       (approximate) number of bytes read for this record, or -1 if not known
+     */
+    void recordRead(RecordReader reader, Object record, long decodeNanos, long bytes);
+
+    /**
+     * Called by asynchronous record readers after waiting for a record to become available, when the wait was timed
+     * (i.e., {@link #timeNextRecord(RecordReader)} returned true).
+     *
+     * @param reader    the record reader
+     * @param waitNanos time spent waiting, in nanoseconds
+     */
+    void queueWait(RecordReader reader, long waitNanos);
+}
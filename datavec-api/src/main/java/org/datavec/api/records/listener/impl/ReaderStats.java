@@ -0,0 +1,122 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.records.listener.impl;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read statistics for a single record reader, as collected by {@link ThroughputRecordListener}. Records and bytes are
+ * counted exactly; decode and queue wait times are measured for a sample of records, and extrapolated for the
+ * estimated totals.
+ */
+public class ReaderStats implements Serializable {
+
+    private final String readerName;
+    final AtomicLong records = new AtomicLong();
+    final AtomicLong bytes = new AtomicLong();
+    final AtomicLong recordsWritten = new AtomicLong();
+    final AtomicLong timedRecords = new AtomicLong();
+    final AtomicLong timedDecodeNanos = new AtomicLong();
+    final AtomicLong timedQueueWaits = new AtomicLong();
+    final AtomicLong timedQueueWaitNanos = new AtomicLong();
+    final AtomicLong firstTimestamp = new AtomicLong(-1);
+    final AtomicLong lastTimestamp = new AtomicLong(-1);
+
+    public ReaderStats(String readerName) {
+        this.readerName = readerName;
+    }
+
+    void timestamp(long nanos) {
+        firstTimestamp.compareAndSet(-1, nanos);
+        lastTimestamp.set(nanos);
+    }
+
+    public String getReaderName() {
+        return readerName;
+    }
+
+    /** Number of records read */
+    public long getRecords() {
+        return records.get();
+    }
+
+    /** Number of bytes read, for readers that report bytes */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    /** Number of records written */
+    public long getRecordsWritten() {
+        return recordsWritten.get();
+    }
+
+    /** Number of records for which the decode time was measured */
+    public long getTimedRecords() {
+        return timedRecords.get();
+    }
+
+    /**
+     * Elapsed time between the first and the most recent timed record, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        long first = firstTimestamp.get();
+        return (first < 0 ? 0 : lastTimestamp.get() - first);
+    }
+
+    /** Records per second, over the elapsed time (see {@link #getElapsedNanos()}) */
+    public double getRecordsPerSecond() {
+        long elapsed = getElapsedNanos();
+        return (elapsed <= 0 ? 0.0 : records.get() * 1e9 / elapsed);
+    }
+
+    /** Bytes per second, over the elapsed time (see {@link #getElapsedNanos()}) */
+    public double getBytesPerSecond() {
+        long elapsed = getElapsedNanos();
+        return (elapsed <= 0 ? 0.0 : bytes.get() * 1e9 / elapsed);
+    }
+
+    /** Mean (sampled) time to read and decode a record, in nanoseconds */
+    public double getMeanDecodeNanos() {
+        long n = timedRecords.get();
+        return (n == 0 ? 0.0 : timedDecodeNanos.get() / (double) n);
+    }
+
+    /** Estimated total time spent reading and decoding records, in nanoseconds */
+    public double getEstimatedDecodeNanos() {
+        return getMeanDecodeNanos() * records.get();
+    }
+
+    /** Mean (sampled) time spent waiting for a record, in nanoseconds. Only reported by asynchronous readers */
+    public double getMeanQueueWaitNanos() {
+        long n = timedQueueWaits.get();
+        return (n == 0 ? 0.0 : timedQueueWaitNanos.get() / (double) n);
+    }
+
+    /** Estimated total time spent waiting for records, in nanoseconds. Only reported by asynchronous readers */
+    public double getEstimatedQueueWaitNanos() {
+        return getMeanQueueWaitNanos() * records.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d records, %d bytes, %.1f records/sec, %.1f MB/sec, decode %.2f us/record, "
+                        + "queue wait %.2f us/record", readerName, getRecords(), getBytes(), getRecordsPerSecond(),
+                getBytesPerSecond() / (1024 * 1024), getMeanDecodeNanos() / 1e3, getMeanQueueWaitNanos() / 1e3);
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.records.listener.impl;
+
+import org.datavec.api.records.listener.ReaderStatsListener;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.writer.RecordWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A record listener that collects throughput statistics per record reader: records/sec, bytes/sec, decode time per
+ * record and (for asynchronous readers) queue wait time. See {@link ReaderStats}.<br>
+ * Intended to be cheap enough to leave enabled: counters are lock-free, and only one in every {@code sampleInterval}
+ * records is timed. Optionally, the statistics are logged periodically.<br>
+ * Readers are held by weak references: once a reader has been garbage collected, its statistics are no longer
+ * returned by {@link #getAllStats()}. The statistics are not serialized with the listener.
+ */
+public class ThroughputRecordListener implements ReaderStatsListener {
+    private static final Logger log = LoggerFactory.getLogger(ThroughputRecordListener.class);
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    private final int sampleInterval;
+    private final long reportIntervalNanos;
+    private transient ConcurrentMap<IdentityKey, StatsRef> stats = new ConcurrentHashMap<>();
+    private transient ReferenceQueue<Object> collected = new ReferenceQueue<>();
+    private transient ThreadLocal<LastReader> last = new ThreadLocal<>();
+    private final AtomicLong nextReport = new AtomicLong(-1);
+    private volatile boolean invoked = false;
+
+    /**
+     * Create a listener that times one in every {@link #DEFAULT_SAMPLE_INTERVAL} records, without periodic logging
+     */
+    public ThroughputRecordListener() {
+        this(DEFAULT_SAMPLE_INTERVAL, 0);
+    }
+
+    /**
+     * @param sampleInterval       Time one in every sampleInterval records. 1: time every record
+     * @param reportIntervalMillis If > 0: log the statistics at most once every reportIntervalMillis milliseconds
+     */
+    public ThroughputRecordListener(int sampleInterval, long reportIntervalMillis) {
+        if (sampleInterval <= 0) throw new IllegalArgumentException("Sample interval must be > 0");
+        this.sampleInterval = sampleInterval;
+        this.reportIntervalNanos = reportIntervalMillis * 1000000L;
+    }
+
+    @Override
+    public boolean invoked() {
+        return invoked;
+    }
+
+    @Override
+    public void invoke() {
+        this.invoked = true;
+    }
+
+    /**
+     * Get the statistics for the specified reader (or writer)
+     *
+     * @return Statistics, or null if no records have been read by the reader
+     */
+    public ReaderStats getStats(Object readerOrWriter) {
+        StatsRef ref = stats.get(new LookupKey(readerOrWriter));
+        return (ref == null ? null : ref.stats);
+    }
+
+    /**
+     * @return Statistics for all readers (and writers) this listener has been invoked for
+     */
+    public List<ReaderStats> getAllStats() {
+        expungeCollected();
+        List<ReaderStats> out = new ArrayList<>(stats.size());
+        for (StatsRef ref : stats.values()) {
+            out.add(ref.stats);
+        }
+        return out;
+    }
+
+    /**
+     * Log the current statistics for all readers
+     */
+    public void report() {
+        for (ReaderStats s : getAllStats()) {
+            log.info(s.toString());
+        }
+    }
+
+    private ReaderStats statsFor(Object source) {
+        //Fast path: same reader as the last call on this thread. No locking or allocation
+        LastReader l = last.get();
+        if (l == null) {
+            l = new LastReader();
+            last.set(l);
+        } else if (l.ref != null && l.ref.get() == source) {
+            return l.ref.stats;
+        }
+
+        l.lookup.source = source;
+        StatsRef ref = stats.get(l.lookup);
+        l.lookup.source = null;
+        if (ref == null) {
+            expungeCollected();
+            ReaderStats s = new ReaderStats(source.getClass().getSimpleName() + "@"
+                    + Integer.toHexString(System.identityHashCode(source)));
+            StatsRef newRef = new StatsRef(source, s, collected);
+            ref = stats.putIfAbsent(newRef, newRef);
+            if (ref == null) ref = newRef;
+        }
+        l.ref = ref;
+        return ref.stats;
+    }
+
+    private void expungeCollected() {
+        Reference<?> r;
+        while ((r = collected.poll()) != null) {
+            stats.remove(r);
+        }
+    }
+
+    @Override
+    public boolean timeNextRecord(RecordReader reader) {
+        return statsFor(reader).records.get() % sampleInterval == 0;
+    }
+
+    @Override
+    public void recordRead(RecordReader reader, Object record) {
+        recordRead(reader, record, -1, -1);
+    }
+
+    @Override
+    public void recordRead(RecordReader reader, Object record, long decodeNanos, long bytes) {
+        invoked = true;
+        ReaderStats s = statsFor(reader);
+        long n = s.records.incrementAndGet();
+        if (bytes > 0) s.bytes.addAndGet(bytes);
+        if (decodeNanos >= 0) {
+            s.timedRecords.incrementAndGet();
+            s.timedDecodeNanos.addAndGet(decodeNanos);
+        }
+        if (decodeNanos >= 0 || n % sampleInterval == 1 || sampleInterval == 1) {
+            long now = System.nanoTime();
+            s.timestamp(now);
+            maybeReport(now);
+        }
+    }
+
+    @Override
+    public void queueWait(RecordReader reader, long waitNanos) {
+        ReaderStats s = statsFor(reader);
+        s.timedQueueWaits.incrementAndGet();
+        s.timedQueueWaitNanos.addAndGet(waitNanos);
+    }
+
+    @Override
+    public void recordWrite(RecordWriter writer, Object record) {
+        invoked = true;
+        statsFor(writer).recordsWritten.incrementAndGet();
+    }
+
+    private void maybeReport(long now) {
+        if (reportIntervalNanos <= 0) return;
+        long next = nextReport.get();
+        if (next < 0) {
+            nextReport.compareAndSet(-1, now + reportIntervalNanos);
+        } else if (now >= next && nextReport.compareAndSet(next, now + reportIntervalNanos)) {
+            report();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        stats = new ConcurrentHashMap<>();
+        collected = new ReferenceQueue<>();
+        last = new ThreadLocal<>();
+    }
+
+    /** Map key that compares readers by identity */
+    private interface IdentityKey {
+        Object source();
+    }
+
+    private static boolean identityEquals(IdentityKey key, Object o) {
+        if (key == o) return true;
+        if (!(o instanceof IdentityKey)) return false;
+        Object source = key.source();
+        return source != null && source == ((IdentityKey) o).source();
+    }
+
+    /** Key stored in the map: holds the reader weakly, along with its statistics */
+    private static class StatsRef extends WeakReference<Object> implements IdentityKey {
+        private final int hash;
+        private final ReaderStats stats;
+
+        private StatsRef(Object source, ReaderStats stats, ReferenceQueue<Object> queue) {
+            super(source, queue);
+            this.hash = System.identityHashCode(source);
+            this.stats = stats;
+        }
+
+        @Override
+        public Object source() {
+            return get();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return identityEquals(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /** Key used only for lookups */
+    private static class LookupKey implements IdentityKey {
+        private Object source;
+
+        private LookupKey() {
+        }
+
+        private LookupKey(Object source) {
+            this.source = source;
+        }
+
+        @Override
+        public Object source() {
+            return source;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return identityEquals(this, o);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(source);
+        }
+    }
+
+    /** Per thread: the last reader seen, and a reusable lookup key */
+    private static class LastReader {
+        private StatsRef ref;
+        private final LookupKey lookup = new LookupKey();
+    }
+}
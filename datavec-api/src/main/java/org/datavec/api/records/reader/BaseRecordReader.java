@@ -17,22 +17,81 @@ package org.datavec.api.records.reader;
 
 import java.util.*;
 
+import org.datavec.api.records.batch.RecordBatch;
+import org.datavec.api.records.listener.ReaderStatsListener;
 import org.datavec.api.records.listener.RecordListener;
+import org.datavec.api.writable.Writable;
 
 /**
  * Manages record listeners.
  *
  * @author saudet
  */
-public abstract class BaseRecordReader implements RecordReader {
+public abstract class BaseRecordReader implements BatchRecordReader {
 
     protected List<RecordListener> listeners = new ArrayList<>();
 
     /** Invokes {@link RecordListener#recordRead(RecordReader, Object)} on all listeners. */
     protected void invokeListeners(Object record) {
+        invokeListeners(record, -1, -1);
+    }
+
+    /**
+     * Invokes {@link RecordListener#recordRead(RecordReader, Object)} on all listeners, or
+     * {@link ReaderStatsListener#recordRead(RecordReader, Object, long, long)} for stats listeners.
+     *
+     * @param record     the record
+     * @param startNanos value returned by {@link #startTiming()} before reading the record
+     * @param bytes      number of bytes read for this record, or -1 if not known
+     */
+    protected void invokeListeners(Object record, long startNanos, long bytes) {
+        long decodeNanos = (startNanos >= 0 ? System.nanoTime() - startNanos : -1);
+        for(RecordListener listener : listeners) {
+            if(listener instanceof ReaderStatsListener) {
+                ((ReaderStatsListener) listener).recordRead(this, record, decodeNanos, bytes);
+            } else {
+                listener.recordRead(this, record);
+            }
+        }
+    }
+
+    /**
+     * Call before reading a record.
+     *
+     * @return {@code System.nanoTime()} if any {@link ReaderStatsListener} wants the next record timed, otherwise -1
+     */
+    protected long startTiming() {
+        if(listeners.isEmpty()) return -1;
+        for(RecordListener listener : listeners) {
+            if(listener instanceof ReaderStatsListener && ((ReaderStatsListener) listener).timeNextRecord(this)) {
+                return System.nanoTime();
+            }
+        }
+        return -1;
+    }
+
+    /** Invokes {@link ReaderStatsListener#queueWait(RecordReader, long)} on all stats listeners. */
+    protected void invokeQueueWait(long startNanos) {
+        if(startNanos < 0) return;
+        long waitNanos = System.nanoTime() - startNanos;
         for(RecordListener listener : listeners) {
-            listener.recordRead(this, record);
+            if(listener instanceof ReaderStatsListener) {
+                ((ReaderStatsListener) listener).queueWait(this, waitNanos);
+            }
+        }
+    }
+
+    /**
+     * Reads the records one at a time using {@link #next()}, and converts them to a batch. Record readers that
+     * can produce columns directly should override this.
+     */
+    @Override
+    public RecordBatch next(int num) {
+        List<List<Writable>> records = new ArrayList<>(Math.min(num, 1024));
+        while (records.size() < num && hasNext()) {
+            records.add(next());
         }
+        return RecordBatch.fromRecords(records);
     }
 
     @Override
@@ -0,0 +1,36 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader;
+
+import org.datavec.api.records.batch.RecordBatch;
+
+/**
+ * A record reader that can return multiple records at once, in columnar format ({@link RecordBatch}).
+ * All readers extending {@link BaseRecordReader} implement this interface; for other readers, use
+ * {@link RecordBatch#read(RecordReader, int)}, which falls back to reading one record at a time.
+ */
+public interface BatchRecordReader extends RecordReader {
+
+    /**
+     * Get the next (up to) num records, in columnar format.
+     * Fewer than num records are returned if the end of the data is reached.
+     * @param num maximum number of records to return
+     * @return the records, as a batch
+     */
+    RecordBatch next(int num);
+
+}
@@ -0,0 +1,86 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.writable.Writable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A record reader that reads (and decodes) records in background threads, ahead of the consumer, so that I/O and
+ * decoding is overlapped with the processing of records by the caller.<br>
+ * With a single underlying record reader, one background thread is used. For record readers that produce one record
+ * per file (such as image and audio record readers), multiple underlying readers can be provided: records are then
+ * read by one thread per reader. See {@link BaseAsyncRecordReader} for details.<br>
+ * Usage: initialize the AsyncRecordReader (not the underlying readers) with the input split.
+ */
+public class AsyncRecordReader extends BaseAsyncRecordReader<List<Writable>> {
+
+    /**
+     * Read ahead using a single background thread, with the default queue size
+     *
+     * @param recordReader Underlying record reader
+     */
+    public AsyncRecordReader(RecordReader recordReader) {
+        this(recordReader, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Read ahead using a single background thread
+     *
+     * @param recordReader Underlying record reader
+     * @param queueSize    Maximum number of records to read ahead
+     */
+    public AsyncRecordReader(RecordReader recordReader, int queueSize) {
+        this(Collections.singletonList(recordReader), queueSize, true);
+    }
+
+    /**
+     * Read ahead using one background thread per record reader. Each location (file) of the input split is read as a
+     * single record, using {@link RecordReader#record(URI, DataInputStream)}
+     *
+     * @param recordReaders Underlying record readers: one per thread. Should be identically configured
+     * @param queueSize     Maximum number of records to read ahead
+     * @param ordered       If true: return records in the order of the input split locations. If false: return records
+     *                      as soon as they are available
+     */
+    public AsyncRecordReader(List<? extends RecordReader> recordReaders, int queueSize, boolean ordered) {
+        super(recordReaders, queueSize, ordered);
+    }
+
+    @Override
+    protected List<Writable> readNext(RecordReader reader) {
+        return reader.next();
+    }
+
+    @Override
+    protected List<Writable> read(RecordReader reader, URI uri, DataInputStream dataInputStream) throws IOException {
+        return reader.record(uri, dataInputStream);
+    }
+
+    @Override
+    public List<Writable> next() {
+        List<Writable> ret = nextRecord();
+        invokeListeners(ret);
+        return ret;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.writable.Writable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sequence record reader that reads (and decodes) sequences in background threads, ahead of the consumer.
+ * The sequence equivalent of {@link AsyncRecordReader}; see {@link BaseAsyncRecordReader} for details.<br>
+ * Usage: initialize the AsyncSequenceRecordReader (not the underlying readers) with the input split.
+ */
+public class AsyncSequenceRecordReader extends BaseAsyncRecordReader<List<List<Writable>>> implements SequenceRecordReader {
+
+    /**
+     * Read ahead using a single background thread, with the default queue size
+     *
+     * @param sequenceRecordReader Underlying sequence record reader
+     */
+    public AsyncSequenceRecordReader(SequenceRecordReader sequenceRecordReader) {
+        this(sequenceRecordReader, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Read ahead using a single background thread
+     *
+     * @param sequenceRecordReader Underlying sequence record reader
+     * @param queueSize            Maximum number of sequences to read ahead
+     */
+    public AsyncSequenceRecordReader(SequenceRecordReader sequenceRecordReader, int queueSize) {
+        this(Collections.singletonList(sequenceRecordReader), queueSize, true);
+    }
+
+    /**
+     * Read ahead using one background thread per sequence record reader. Each location (file) of the input split is
+     * read as a single sequence, using {@link SequenceRecordReader#sequenceRecord(URI, DataInputStream)}
+     *
+     * @param sequenceRecordReaders Underlying sequence record readers: one per thread. Should be identically configured
+     * @param queueSize             Maximum number of sequences to read ahead
+     * @param ordered               If true: return sequences in the order of the input split locations. If false:
+     *                              return sequences as soon as they are available
+     */
+    public AsyncSequenceRecordReader(List<? extends SequenceRecordReader> sequenceRecordReaders, int queueSize,
+                                     boolean ordered) {
+        super(sequenceRecordReaders, queueSize, ordered);
+    }
+
+    @Override
+    protected List<List<Writable>> readNext(RecordReader reader) {
+        return ((SequenceRecordReader) reader).sequenceRecord();
+    }
+
+    @Override
+    protected List<List<Writable>> read(RecordReader reader, URI uri, DataInputStream dataInputStream) throws IOException {
+        return ((SequenceRecordReader) reader).sequenceRecord(uri, dataInputStream);
+    }
+
+    @Override
+    public List<List<Writable>> sequenceRecord() {
+        List<List<Writable>> ret = nextRecord();
+        invokeListeners(ret);
+        return ret;
+    }
+
+    @Override
+    public List<List<Writable>> sequenceRecord(URI uri, DataInputStream dataInputStream) throws IOException {
+        return ((SequenceRecordReader) readers.get(0)).sequenceRecord(uri, dataInputStream);
+    }
+
+    @Override
+    public List<Writable> next() {
+        throw new UnsupportedOperationException("next() not supported for AsyncSequenceRecordReader; use sequenceRecord()");
+    }
+}
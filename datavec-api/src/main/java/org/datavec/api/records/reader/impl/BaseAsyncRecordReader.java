@@ -0,0 +1,315 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for {@link AsyncRecordReader} and {@link AsyncSequenceRecordReader}: reads (and decodes) records ahead of
+ * the consumer, in background threads.<br>
+ * There are two modes of operation:<br>
+ * - A single underlying record reader: one background thread calls {@link RecordReader#next()} (or
+ * {@link org.datavec.api.records.reader.SequenceRecordReader#sequenceRecord()}) on the underlying reader. Records are
+ * always returned in order. This works for any record reader.<br>
+ * - Multiple underlying record readers (one per worker thread): each location of the {@link InputSplit} is read as a
+ * single record, using {@link RecordReader#record(URI, DataInputStream)} on the worker's own reader. This is for record
+ * readers that produce one record per file, such as image and audio record readers. All readers are initialized with
+ * the full input split, so that any state derived from it (such as the list of labels) is the same for all readers.<br>
+ * In both cases, at most queueSize records are read ahead of the consumer.
+ *
+ * @param <T> Type of the records: {@code List<Writable>} or {@code List<List<Writable>>}
+ */
+public abstract class BaseAsyncRecordReader<T> extends BaseRecordReader {
+
+    public static final int DEFAULT_QUEUE_SIZE = 32;
+
+    protected final List<? extends RecordReader> readers;
+    protected final int queueSize;
+    protected final boolean ordered;
+    protected Configuration conf;
+
+    private URI[] locations;
+
+    private transient Thread[] workers;
+    private transient BlockingQueue<Item<T>> queue;
+    private transient Semaphore permits;
+    private transient AtomicInteger nextIndex;
+    private transient volatile boolean shutdown;
+    private transient Map<Integer, Item<T>> pending;
+    private transient Item<T> peeked;
+    private int consumeIndex;
+
+    /**
+     * @param readers   Underlying record readers: one per worker thread
+     * @param queueSize Maximum number of records to read ahead of the consumer
+     * @param ordered   If true: return records in the same order as the underlying reader/input split. If false:
+     *                  return records in the order in which they are read (only applies for multiple readers)
+     */
+    protected BaseAsyncRecordReader(List<? extends RecordReader> readers, int queueSize, boolean ordered) {
+        if (readers == null || readers.isEmpty()) throw new IllegalArgumentException("No record readers provided");
+        if (queueSize <= 0) throw new IllegalArgumentException("Invalid queue size: must be > 0. Got: " + queueSize);
+        this.readers = new ArrayList<>(readers);
+        this.queueSize = queueSize;
+        this.ordered = ordered;
+    }
+
+    /** Read the next record from the underlying reader (single reader mode). Called from a worker thread */
+    protected abstract T readNext(RecordReader reader);
+
+    /** Read a single record from the given stream (multiple reader mode). Called from a worker thread */
+    protected abstract T read(RecordReader reader, URI uri, DataInputStream dataInputStream) throws IOException;
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        stop();
+        for (RecordReader r : readers) {
+            r.initialize(split);
+        }
+        initLocations(split);
+        start();
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        this.conf = conf;
+        stop();
+        for (RecordReader r : readers) {
+            r.initialize(conf, split);
+        }
+        initLocations(split);
+        start();
+    }
+
+    private void initLocations(InputSplit split) {
+        if (readers.size() == 1) {
+            locations = null;
+            return;
+        }
+        locations = split.locations();
+        if (locations == null || locations.length == 0) {
+            throw new IllegalStateException("Cannot read using multiple record readers: InputSplit has no locations. "
+                    + "Multiple readers can only be used with one record per location (file)");
+        }
+    }
+
+    private void start() {
+        queue = new LinkedBlockingQueue<>();
+        permits = new Semaphore(queueSize);
+        nextIndex = new AtomicInteger(0);
+        pending = new HashMap<>();
+        peeked = null;
+        consumeIndex = 0;
+        shutdown = false;
+
+        workers = new Thread[readers.size()];
+        for (int i = 0; i < workers.length; i++) {
+            final RecordReader reader = readers.get(i);
+            Runnable r = (locations == null ? new Runnable() {
+                @Override
+                public void run() {
+                    runSingle(reader);
+                }
+            } : new Runnable() {
+                @Override
+                public void run() {
+                    runLocations(reader);
+                }
+            });
+            workers[i] = new Thread(r, getClass().getSimpleName() + "-worker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Stop the worker threads. Workers are not interrupted, as they may be in the middle of (interruptible) channel
+     * or memory mapped file I/O in the underlying reader, which would close the channel. Instead, the shutdown flag is
+     * set and permits are released so that any worker waiting for queue space wakes up; each worker finishes its
+     * current record (if any) and exits. The queue is then drained
+     */
+    private void stop() {
+        if (workers == null) return;
+        shutdown = true;
+        permits.release(workers.length);
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while stopping worker threads", e);
+            }
+        }
+        workers = null;
+        queue.clear();
+        pending.clear();
+        peeked = null;
+    }
+
+    private void runSingle(RecordReader reader) {
+        int idx = -1;
+        try {
+            while (!shutdown) {
+                permits.acquire();
+                if (shutdown) return;
+                idx = nextIndex.getAndIncrement();
+                if (!reader.hasNext()) {
+                    queue.put(new Item<T>(idx, null, null, true));
+                    return;
+                }
+                queue.put(new Item<T>(idx, readNext(reader), null, false));
+            }
+        } catch (InterruptedException e) {
+            //Interrupted by the user: exit
+        } catch (Throwable t) {
+            if (!shutdown) queue.add(new Item<T>(idx, null, t, false));
+        }
+    }
+
+    private void runLocations(RecordReader reader) {
+        int idx = -1;
+        try {
+            while (!shutdown) {
+                permits.acquire();
+                if (shutdown) return;
+                idx = nextIndex.getAndIncrement();
+                if (idx >= locations.length) {
+                    permits.release();
+                    return;
+                }
+                URI uri = locations[idx];
+                T record;
+                try (DataInputStream dis = new DataInputStream(new BufferedInputStream(uri.toURL().openStream()))) {
+                    record = read(reader, uri, dis);
+                }
+                queue.put(new Item<T>(idx, record, null, false));
+            }
+        } catch (InterruptedException e) {
+            //Interrupted by the user: exit
+        } catch (Throwable t) {
+            if (!shutdown) queue.add(new Item<T>(idx, null, t, false));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (workers == null) throw new IllegalStateException("Cannot get next record: record reader is not initialized");
+        if (locations != null && consumeIndex >= locations.length) return false;
+        if (peeked == null) {
+            long start = startTiming();
+            peeked = take();
+            invokeQueueWait(start);
+        }
+        if (peeked.error != null) {
+            throw new RuntimeException("Error reading record in worker thread", peeked.error);
+        }
+        return !peeked.end;
+    }
+
+    private Item<T> take() {
+        try {
+            if (!ordered) return queue.take();
+            Item<T> item = pending.remove(consumeIndex);
+            while (item == null) {
+                Item<T> i = queue.take();
+                if (i.index == consumeIndex) {
+                    item = i;
+                } else {
+                    pending.put(i.index, i);
+                }
+            }
+            return item;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for next record", e);
+        }
+    }
+
+    /**
+     * Get the next record, as read by the worker threads
+     */
+    protected T nextRecord() {
+        if (!hasNext()) throw new NoSuchElementException("No more elements found!");
+        T out = peeked.value;
+        peeked = null;
+        consumeIndex++;
+        permits.release();
+        return out;
+    }
+
+    @Override
+    public void reset() {
+        stop();
+        for (RecordReader r : readers) {
+            r.reset();
+        }
+        start();
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return readers.get(0).getLabels();
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        return readers.get(0).record(uri, dataInputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        stop();
+        for (RecordReader r : readers) {
+            r.close();
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    private static class Item<T> {
+        private final int index;
+        private final T value;
+        private final Throwable error;
+        private final boolean end;
+
+        private Item(int index, T value, Throwable error, boolean end) {
+            this.index = index;
+            this.value = value;
+            this.error = error;
+            this.end = end;
+        }
+    }
+}
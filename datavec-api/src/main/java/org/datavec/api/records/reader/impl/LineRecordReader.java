@@ -76,9 +76,10 @@ public class LineRecordReader extends BaseRecordReader {
     public List<Writable> next() {
         List<Writable> ret = new ArrayList<>();
 
+        long start = startTiming();
         if(iter.hasNext()) {
             String record = iter.next();
-            invokeListeners(record);
+            invokeListeners(record, start, listeners.isEmpty() ? -1 : lineBytes(record));
             ret.add(new Text(record));
             return ret;
         } else {
@@ -94,7 +95,7 @@ public class LineRecordReader extends BaseRecordReader {
 
                 if(iter.hasNext()) {
                     String record = iter.next();
-                    invokeListeners(record);
+                    invokeListeners(record, start, listeners.isEmpty() ? -1 : lineBytes(record));
                     ret.add(new Text(record));
                     return ret;
                 }
@@ -104,6 +105,24 @@ public class LineRecordReader extends BaseRecordReader {
         }
     }
 
+    /**
+     * Approximate number of bytes read for a line: its UTF-8 encoded length (calculated without encoding it), plus
+     * one byte for the line terminator
+     */
+    private static long lineBytes(String line) {
+        long bytes = line.length() + 1;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= 0x800) {
+                //Surrogate pairs: 4 bytes for 2 chars. Other chars: 3 bytes
+                bytes += (Character.isSurrogate(c) ? 1 : 2);
+            } else if (c >= 0x80) {
+                bytes += 1;
+            }
+        }
+        return bytes;
+    }
+
     @Override
     public boolean hasNext() {
         if ( iter != null && iter.hasNext() ) {
@@ -0,0 +1,267 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.split.FileRangeSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.InputStreamInputSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Reads local files line by line, using memory mapped I/O. Produces the same output as {@link LineRecordReader}
+ * (one {@link Text} per line, with '\n', '\r' and '\r\n' line endings removed), but reads UTF-8 bytes directly from the
+ * mapped file, without a Reader/String conversion per line.<br>
+ * When initialized with a {@link FileRangeSplit}, only the lines in the split's byte ranges are read. This allows a
+ * single large file to be read in parallel (by multiple threads, or multiple Spark partitions) by splitting it with
+ * {@link FileRangeSplit#split(File, int)} and using one record reader per split. Any other InputSplit is read as
+ * the full contents of each of its (local file) locations.<br>
+ * Files are mapped in windows of at most maxMappedBytes; a single line may not be longer than this.
+ */
+public class MemoryMappedLineRecordReader extends BaseRecordReader {
+
+    public static final int DEFAULT_MAX_MAPPED_BYTES = 64 * 1024 * 1024;
+
+    private final int maxMappedBytes;
+    protected Configuration conf;
+    protected InputSplit inputSplit;
+
+    private URI[] locations;
+    private long[] starts;
+    private long[] ends;
+    private int currIndex = -1;
+
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+    private long position;
+    private long rangeEnd;
+    private byte[] lineBuffer = new byte[1024];
+    private final ByteBuffer single = ByteBuffer.allocate(1);
+
+    public MemoryMappedLineRecordReader() {
+        this(DEFAULT_MAX_MAPPED_BYTES);
+    }
+
+    /**
+     * @param maxMappedBytes Maximum number of bytes to map at once. Also the maximum line length
+     */
+    public MemoryMappedLineRecordReader(int maxMappedBytes) {
+        if (maxMappedBytes <= 0)
+            throw new IllegalArgumentException("maxMappedBytes must be > 0. Got: " + maxMappedBytes);
+        this.maxMappedBytes = maxMappedBytes;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        if (split instanceof StringSplit || split instanceof InputStreamInputSplit) {
+            throw new UnsupportedOperationException("Cannot read " + split.getClass().getSimpleName()
+                    + " using memory mapped I/O: only splits with local file locations are supported. "
+                    + "Use LineRecordReader instead");
+        }
+        close();
+        this.inputSplit = split;
+        if (split instanceof FileRangeSplit) {
+            FileRangeSplit frs = (FileRangeSplit) split;
+            int n = frs.numRanges();
+            locations = frs.locations();
+            starts = new long[n];
+            ends = new long[n];
+            for (int i = 0; i < n; i++) {
+                starts[i] = frs.getStart(i);
+                ends[i] = frs.getEnd(i);
+            }
+        } else {
+            locations = split.locations();
+            if (locations == null) locations = new URI[0];
+            starts = new long[locations.length];
+            ends = new long[locations.length];
+            Arrays.fill(ends, Long.MAX_VALUE);
+        }
+        currIndex = -1;
+        position = 0;
+        rangeEnd = 0;
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        this.conf = conf;
+        initialize(split);
+    }
+
+    private void openNextRange() throws IOException {
+        close();
+        currIndex++;
+        URI uri = locations[currIndex];
+        channel = new RandomAccessFile(new File(uri), "r").getChannel();
+        long size = channel.size();
+        position = Math.min(starts[currIndex], size);
+        rangeEnd = Math.min(ends[currIndex], size);
+        window = null;
+        windowStart = windowEnd = position;
+        onLocationOpen(uri);
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(maxMappedBytes, rangeEnd - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+        windowEnd = start + size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (locations == null) throw new IllegalStateException("Record reader has not been initialized");
+        try {
+            while (position >= rangeEnd) {
+                if (currIndex >= locations.length - 1) return false;
+                openNextRange();
+            }
+            return true;
+        } catch (IOException e) {
+            throw new RuntimeException("Error opening file " + locations[currIndex], e);
+        }
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext()) throw new NoSuchElementException("No more elements found!");
+        long start = startTiming();
+        long startPosition = position;
+        Text t;
+        try {
+            t = readLine();
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading file " + locations[currIndex], e);
+        }
+        invokeListeners(t, start, position - startPosition);
+        return Collections.singletonList((Writable) t);
+    }
+
+    private Text readLine() throws IOException {
+        if (window == null || position >= windowEnd) map(position);
+
+        //Find the end of the line, re-mapping from the line start if the line crosses the end of the window.
+        //As per BufferedReader.readLine(), a line is terminated by '\n', '\r' or "\r\n"
+        long lineEnd = -1;
+        long next = -1;
+        while (true) {
+            int idx = (int) (position - windowStart);
+            int limit = (int) (windowEnd - windowStart);
+            for (int i = idx; i < limit; i++) {
+                byte b = window.get(i);
+                if (b == '\n') {
+                    lineEnd = windowStart + i;
+                    next = lineEnd + 1;
+                    break;
+                }
+                if (b == '\r') {
+                    lineEnd = windowStart + i;
+                    next = lineEnd + (nextByte(i + 1) == '\n' ? 2 : 1);
+                    break;
+                }
+            }
+            if (lineEnd >= 0 || windowEnd >= rangeEnd) break;
+            if (windowStart == position && limit == maxMappedBytes) {
+                throw new IllegalStateException("Line at byte offset " + position + " of " + locations[currIndex]
+                        + " exceeds the maximum line length of " + maxMappedBytes + " bytes");
+            }
+            map(position);
+        }
+        if (lineEnd < 0) {
+            //Last line, with no trailing new line
+            lineEnd = windowEnd;
+            next = windowEnd;
+        }
+
+        int len = (int) (lineEnd - position);
+        if (lineBuffer.length < len) lineBuffer = new byte[Math.max(len, 2 * lineBuffer.length)];
+        window.position((int) (position - windowStart));
+        window.get(lineBuffer, 0, len);
+        position = next;
+
+        Text t = new Text();
+        t.set(lineBuffer, 0, len);
+        return t;
+    }
+
+    /** @return the byte at the given window index, reading past the end of the window if required; -1 if none */
+    private int nextByte(int idx) throws IOException {
+        if (windowStart + idx < windowEnd) return window.get(idx);
+        if (windowStart + idx >= rangeEnd) return -1;
+        single.clear();
+        return channel.read(single, windowStart + idx) > 0 ? single.get(0) : -1;
+    }
+
+    protected void onLocationOpen(URI location) {
+
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        if (inputSplit == null) throw new UnsupportedOperationException("Cannot reset without first initializing");
+        try {
+            initialize(inputSplit);
+        } catch (Exception e) {
+            throw new RuntimeException("Error during MemoryMappedLineRecordReader reset", e);
+        }
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        invokeListeners(uri);
+        //Here: we are reading a single line from the DataInputStream
+        BufferedReader br = new BufferedReader(new InputStreamReader(dataInputStream));
+        String line = br.readLine();
+        return Collections.singletonList((Writable) new Text(line));
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.records.reader.impl.csv.CSVByteParser;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.metadata.CategoricalMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SchemaWritableParser: converts the String (or raw CSV byte) values read by a record reader into typed Writables,
+ * according to the column types of a {@link Schema}. Each value is parsed once at read time:<br>
+ * - Integer columns: {@link IntWritable}<br>
+ * - Long and Time columns: {@link LongWritable} (time values must be numeric, i.e., epoch milliseconds)<br>
+ * - Double columns: {@link DoubleWritable}<br>
+ * - String and Bytes columns: {@link Text}<br>
+ * - Categorical columns: {@link Text}, or optionally {@link CategoricalWritable} (the index of the state in the
+ * column's state names, so downstream transforms don't need to look up the state by name)<br>
+ * Optionally, records where all columns are Double columns can be returned as a {@link DoubleArrayRecord}, and records
+ * where all columns are Long or Time columns as a {@link LongArrayRecord}: see
+ * {@link #SchemaWritableParser(Schema, InvalidValueMode, boolean, boolean)}.
+ * <p>
+ * Values that cannot be parsed for the column type are handled according to the {@link InvalidValueMode}.
+ * Note that only the format of values is checked here; column restrictions (such as min/max values) are not.
+ * Use {@link org.datavec.api.transform.filter.FilterInvalidValues} for that.
+ */
+public class SchemaWritableParser implements Serializable {
+
+    /**
+     * How to handle values that cannot be parsed as the column type:<br>
+     * - KeepText: return the original value as a {@link Text} writable (the same as when no schema is used)<br>
+     * - NullWritable: return {@link NullWritable#INSTANCE}<br>
+     * - Exception: throw an exception
+     */
+    public enum InvalidValueMode {KeepText, NullWritable, Exception}
+
+    private final Schema schema;
+    private final InvalidValueMode invalidValueMode;
+    private final ColumnType[] columnTypes;
+    private final boolean categoricalCodes;
+    private final CategoricalMetaData[] categoricalMetaData;
+    private final boolean primitiveRecords;
+    private final ColumnType primitiveType;
+
+    /**
+     * Create a parser that keeps invalid values as Text (see {@link InvalidValueMode#KeepText})
+     *
+     * @param schema Schema for the data
+     */
+    public SchemaWritableParser(Schema schema) {
+        this(schema, InvalidValueMode.KeepText);
+    }
+
+    /**
+     * @param schema           Schema for the data
+     * @param invalidValueMode How to handle values that can't be parsed
+     */
+    public SchemaWritableParser(Schema schema, InvalidValueMode invalidValueMode) {
+        this(schema, invalidValueMode, false);
+    }
+
+    /**
+     * @param schema           Schema for the data
+     * @param invalidValueMode How to handle values that can't be parsed. For categorical columns with
+     *                         categoricalCodes = true, values that are not one of the column's states are invalid
+     * @param categoricalCodes If true: return {@link CategoricalWritable} values for categorical columns
+     */
+    public SchemaWritableParser(Schema schema, InvalidValueMode invalidValueMode, boolean categoricalCodes) {
+        this(schema, invalidValueMode, categoricalCodes, false);
+    }
+
+    /**
+     * @param schema           Schema for the data
+     * @param invalidValueMode How to handle values that can't be parsed
+     * @param categoricalCodes If true: return {@link CategoricalWritable} values for categorical columns
+     * @param primitiveRecords If true: if all columns are Double columns, return each record as a
+     *                         {@link DoubleArrayRecord}; if all columns are Long or Time columns, as a
+     *                         {@link LongArrayRecord}. Records with an invalid value are returned as standard lists,
+     *                         as per the invalidValueMode. For other schemas, this has no effect
+     */
+    public SchemaWritableParser(Schema schema, InvalidValueMode invalidValueMode, boolean categoricalCodes,
+                                boolean primitiveRecords) {
+        this.schema = schema;
+        this.invalidValueMode = invalidValueMode;
+        this.columnTypes = schema.getColumnTypes().toArray(new ColumnType[schema.numColumns()]);
+        this.categoricalCodes = categoricalCodes;
+        this.categoricalMetaData = new CategoricalMetaData[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (columnTypes[i] == ColumnType.Categorical) {
+                categoricalMetaData[i] = (CategoricalMetaData) schema.getMetaData(i);
+            }
+        }
+        this.primitiveRecords = primitiveRecords;
+        this.primitiveType = (primitiveRecords ? primitiveType(columnTypes) : null);
+    }
+
+    /**
+     * @return Double if all columns are Double columns, Long if all columns are Long or Time columns, null otherwise
+     */
+    private static ColumnType primitiveType(ColumnType[] columnTypes) {
+        if (columnTypes.length == 0) return null;
+        boolean allDouble = true;
+        boolean allLong = true;
+        for (ColumnType t : columnTypes) {
+            allDouble &= (t == ColumnType.Double);
+            allLong &= (t == ColumnType.Long || t == ColumnType.Time);
+        }
+        return (allDouble ? ColumnType.Double : (allLong ? ColumnType.Long : null));
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public InvalidValueMode getInvalidValueMode() {
+        return invalidValueMode;
+    }
+
+    public boolean isCategoricalCodes() {
+        return categoricalCodes;
+    }
+
+    public boolean isPrimitiveRecords() {
+        return primitiveRecords;
+    }
+
+    /**
+     * Parse the String values for a single record
+     */
+    public List<Writable> parse(String[] values) {
+        checkNumValues(values.length);
+        if (primitiveType == ColumnType.Double) {
+            try {
+                double[] d = new double[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    d[i] = Double.parseDouble(values[i]);
+                }
+                return new DoubleArrayRecord(d);
+            } catch (NumberFormatException e) {
+                //Invalid value: parse as a standard list below
+            }
+        } else if (primitiveType == ColumnType.Long) {
+            try {
+                long[] l = new long[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    l[i] = Long.parseLong(values[i]);
+                }
+                return new LongArrayRecord(l);
+            } catch (NumberFormatException e) {
+                //Invalid value: parse as a standard list below
+            }
+        }
+        List<Writable> out = new ArrayList<>(values.length);
+        for (int i = 0; i < values.length; i++) {
+            out.add(parse(i, values[i]));
+        }
+        return out;
+    }
+
+    /**
+     * Parse the current record of a {@link CSVByteParser}, directly from the bytes of each field
+     */
+    public List<Writable> parse(CSVByteParser parser) {
+        int n = parser.numFields();
+        checkNumValues(n);
+        if (primitiveType == ColumnType.Double) {
+            try {
+                double[] d = new double[n];
+                for (int i = 0; i < n; i++) {
+                    d[i] = parser.parseDouble(i);
+                }
+                return new DoubleArrayRecord(d);
+            } catch (NumberFormatException e) {
+                //Invalid value: parse as a standard list below
+            }
+        } else if (primitiveType == ColumnType.Long) {
+            try {
+                long[] l = new long[n];
+                for (int i = 0; i < n; i++) {
+                    l[i] = parser.parseLong(i);
+                }
+                return new LongArrayRecord(l);
+            } catch (NumberFormatException e) {
+                //Invalid value: parse as a standard list below
+            }
+        }
+        List<Writable> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Writable w;
+            try {
+                switch (columnTypes[i]) {
+                    case Integer:
+                        w = new IntWritable(parser.parseInt(i));
+                        break;
+                    case Long:
+                    case Time:
+                        w = new LongWritable(parser.parseLong(i));
+                        break;
+                    case Double:
+                        w = new DoubleWritable(parser.parseDouble(i));
+                        break;
+                    case Categorical:
+                        if (categoricalCodes) {
+                            w = parseCategorical(i, parser.getString(i));
+                            break;
+                        }
+                        //fall through: without categorical codes, categorical values are parsed as Text
+                    default:
+                        Text t = new Text();
+                        parser.setText(i, t);
+                        w = t;
+                }
+            } catch (NumberFormatException e) {
+                w = invalidValue(i, parser.getString(i), e);
+            }
+            out.add(w);
+        }
+        return out;
+    }
+
+    /**
+     * Parse the String value for the specified column
+     *
+     * @param column Index of the column
+     * @param value  Value to parse
+     */
+    public Writable parse(int column, String value) {
+        try {
+            switch (columnTypes[column]) {
+                case Integer:
+                    return new IntWritable(Integer.parseInt(value));
+                case Long:
+                case Time:
+                    return new LongWritable(Long.parseLong(value));
+                case Double:
+                    return new DoubleWritable(Double.parseDouble(value));
+                case Categorical:
+                    if (categoricalCodes) return parseCategorical(column, value);
+                    //fall through: without categorical codes, categorical values are parsed as Text
+                default:
+                    return new Text(value);
+            }
+        } catch (NumberFormatException e) {
+            return invalidValue(column, value, e);
+        }
+    }
+
+    private Writable parseCategorical(int column, String value) {
+        CategoricalMetaData meta = categoricalMetaData[column];
+        int idx = meta.getStateIndex(value);
+        if (idx < 0) {
+            return invalidValue(column, value, new IllegalArgumentException("Unknown categorical state: " + value));
+        }
+        return new CategoricalWritable(idx, meta.getStateNames().get(idx));
+    }
+
+    private Writable invalidValue(int column, String value, RuntimeException e) {
+        switch (invalidValueMode) {
+            case KeepText:
+                return new Text(value);
+            case NullWritable:
+                return org.datavec.api.writable.NullWritable.INSTANCE;
+            default:
+                throw new IllegalStateException("Invalid value \"" + value + "\" for column \"" + schema.getName(column)
+                        + "\" of type " + columnTypes[column], e);
+        }
+    }
+
+    private void checkNumValues(int numValues) {
+        if (numValues != columnTypes.length) {
+            throw new IllegalStateException("Invalid record: expected " + columnTypes.length + " values for schema, got "
+                    + numValues);
+        }
+    }
+}
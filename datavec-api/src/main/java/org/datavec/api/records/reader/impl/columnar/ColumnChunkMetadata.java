@@ -0,0 +1,82 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.columnar;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.datavec.api.writable.WritableType;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * Metadata for a single column chunk (the values of one column within one row group) of a columnar record file.
+ * Stored in the file footer; see {@link ColumnarFormat}.<br>
+ * Min and max are only available for numerical values (NaN otherwise), and can be used to skip row groups without
+ * decoding them.
+ */
+@Data
+@AllArgsConstructor
+public class ColumnChunkMetadata implements Serializable {
+
+    /** Byte offset of the chunk in the file */
+    private long offset;
+    /** Number of bytes of the chunk in the file (after compression, if any) */
+    private int length;
+    /** Number of bytes of the chunk before compression. Equal to length if the chunk is not compressed */
+    private int uncompressedLength;
+    /** Whether the chunk is compressed (DEFLATE) */
+    private boolean compressed;
+    /** Number of values in the chunk */
+    private int numValues;
+    /** The WritableType index of all values, or {@link ColumnarFormat#TYPE_MIXED} if the chunk has mixed types */
+    private byte type;
+    private double min;
+    private double max;
+
+    /**
+     * @return True if all values in the chunk are of the same type
+     */
+    public boolean isSingleType() {
+        return type != ColumnarFormat.TYPE_MIXED;
+    }
+
+    /**
+     * @return The type of all values in the chunk, or null if the chunk has mixed types
+     */
+    public WritableType getWritableType() {
+        return (isSingleType() ? WritableType.fromTypeIdx(type) : null);
+    }
+
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(offset);
+        out.writeInt(length);
+        out.writeInt(uncompressedLength);
+        out.writeBoolean(compressed);
+        out.writeInt(numValues);
+        out.writeByte(type);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    public static ColumnChunkMetadata read(DataInput in) throws IOException {
+        return new ColumnChunkMetadata(in.readLong(), in.readInt(), in.readInt(), in.readBoolean(), in.readInt(),
+                in.readByte(), in.readDouble(), in.readDouble());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.columnar;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.writable.NullWritable;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableType;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary columnar file format for Writable records, as written by
+ * {@link org.datavec.api.records.writer.impl.columnar.ColumnarRecordWriter} and read by {@link ColumnarRecordReader}.
+ * Intended as a cache: data is parsed/transformed once, written in this format, and then read many times.<br>
+ * Layout of a file:
+ * <pre>
+ * MAGIC, version (int)
+ * Row group 0: column chunk 0, column chunk 1, ..., column chunk (numColumns-1)
+ * Row group 1: ...
+ * Footer: numColumns (int), numRowGroups (int), then for each row group: numRows (int), followed by
+ *         {@link ColumnChunkMetadata} for each column
+ * Footer offset (long), MAGIC
+ * </pre>
+ * Each column chunk contains the values of one column for the rows in the row group. If all values in a chunk have the
+ * same (built-in) type, each value is encoded using {@link Writable#write(DataOutput)}; otherwise, each value is encoded
+ * along with its type using {@link WritableUtils#writeWritable(Writable, DataOutput)}. Chunks may optionally be
+ * compressed (DEFLATE).
+ */
+public class ColumnarFormat {
+
+    public static final byte[] MAGIC = {'D', 'V', 'C', 'F'};
+    public static final int VERSION = 1;
+    /** Type value for column chunks with mixed (or non built-in) Writable types */
+    public static final byte TYPE_MIXED = -1;
+    /** Length of the file trailer: footer offset (long) plus MAGIC */
+    public static final int TRAILER_LENGTH = 8 + 4;
+
+    private ColumnarFormat() {
+    }
+
+    /**
+     * Encode the values of a column chunk (uncompressed)
+     *
+     * @param values Values to encode
+     * @param type   Type of the values (as per {@link WritableType#typeIdx()}), or {@link #TYPE_MIXED}
+     * @return The encoded values
+     */
+    public static byte[] encodeChunk(List<Writable> values, byte type) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        for (Writable w : values) {
+            if (type == TYPE_MIXED) {
+                WritableUtils.writeWritable(w, out);
+            } else {
+                w.write(out);
+            }
+        }
+        out.flush();
+        return baos.toByteArray();
+    }
+
+    /**
+     * @return True if values of the given type are numerical. Min/max statistics are only calculated for (and column
+     * filters only match) numerical values
+     */
+    public static boolean isNumerical(WritableType type) {
+        switch (type) {
+            case Byte:
+            case Double:
+            case Float:
+            case Int:
+            case Long:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compress an encoded column chunk (DEFLATE)
+     */
+    public static byte[] compress(byte[] encoded) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(encoded.length / 2 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream dos = new DeflaterOutputStream(baos, deflater)) {
+            dos.write(encoded);
+        } finally {
+            deflater.end();
+        }
+        return baos.toByteArray();
+    }
+
+    /**
+     * Decode the values of a column chunk
+     *
+     * @param data     Encoded (possibly compressed) chunk bytes. For example, a memory mapped region of the file
+     * @param metadata Metadata for the chunk
+     * @return The decoded values
+     */
+    public static Writable[] decodeChunk(ByteBuffer data, ColumnChunkMetadata metadata) throws IOException {
+        InputStream is = new ByteBufferInputStream(data);
+        Inflater inflater = null;
+        if (metadata.isCompressed()) {
+            inflater = new Inflater();
+            is = new BufferedInputStream(new InflaterInputStream(is, inflater));
+        }
+        DataInputStream in = new DataInputStream(is);
+
+        Writable[] out = new Writable[metadata.getNumValues()];
+        WritableType type = metadata.getWritableType();
+        for (int i = 0; i < out.length; i++) {
+            if (type == null) {
+                out[i] = WritableUtils.readWritable(in);
+            } else if (type == WritableType.Null) {
+                out[i] = NullWritable.INSTANCE;
+            } else {
+                Writable w = type.newWritable();
+                w.readFields(in);
+                out[i] = w;
+            }
+        }
+        if (inflater != null) inflater.end();
+        return out;
+    }
+
+    /**
+     * Minimal InputStream over a ByteBuffer (such as a MappedByteBuffer), without copying it
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
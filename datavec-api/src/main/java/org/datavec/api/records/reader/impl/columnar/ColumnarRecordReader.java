@@ -0,0 +1,383 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.columnar;
+
+import org.apache.commons.io.IOUtils;
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableType;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Reads records from one or more (local) files in the binary columnar format described in {@link ColumnarFormat}, as
+ * written by {@link org.datavec.api.records.writer.impl.columnar.ColumnarRecordWriter}.<br>
+ * Column chunks are read via memory mapping, and decoded one row group at a time. In addition to sequential iteration,
+ * records can be accessed randomly by index via {@link #getRecord(long)}, using the row group index in each file's
+ * footer. Files are treated as if they were concatenated: record indices span all locations of the input split.<br>
+ * A filter on the values of one numerical column can be set with {@link #setColumnFilter(int, double, double)}: row
+ * groups whose min/max statistics show that no value can match are skipped without being decoded.
+ */
+public class ColumnarRecordReader extends BaseRecordReader {
+
+    protected Configuration conf;
+    private URI[] locations;
+    private Footer[] footers;
+    private long[] fileStart;
+    private long numRecords;
+    private long nextIndex;
+
+    private int openFile = -1;
+    private FileChannel channel;
+    private int loadedFile = -1;
+    private int loadedRowGroup = -1;
+    private Writable[][] loadedColumns;
+
+    private int filterColumn = -1;
+    private double filterMin;
+    private double filterMax;
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        close();
+        locations = split.locations();
+        if (locations == null) locations = new URI[0];
+        footers = new Footer[locations.length];
+        fileStart = new long[locations.length];
+        numRecords = 0;
+        for (int i = 0; i < locations.length; i++) {
+            try (RandomAccessFile raf = new RandomAccessFile(new File(locations[i]), "r")) {
+                footers[i] = readFooter(raf.getChannel(), locations[i]);
+            }
+            fileStart[i] = numRecords;
+            numRecords += footers[i].numRecords;
+        }
+        nextIndex = 0;
+        loadedFile = -1;
+        loadedRowGroup = -1;
+        loadedColumns = null;
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        this.conf = conf;
+        initialize(split);
+    }
+
+    private static final int HEADER_LENGTH = ColumnarFormat.MAGIC.length + 4;
+
+    private static Footer readFooter(FileChannel channel, URI uri) throws IOException {
+        long size = channel.size();
+        checkLength(size, uri);
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_LENGTH);
+        ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - ColumnarFormat.TRAILER_LENGTH,
+                ColumnarFormat.TRAILER_LENGTH);
+        long footerOffset = readFooterOffset(header, trailer, size, uri);
+        return readFooter(channel.map(FileChannel.MapMode.READ_ONLY, footerOffset,
+                size - ColumnarFormat.TRAILER_LENGTH - footerOffset));
+    }
+
+    /** Read the footer of a complete columnar record file that is held in memory */
+    private static Footer readFooter(ByteBuffer file, URI uri) throws IOException {
+        int size = file.remaining();
+        checkLength(size, uri);
+        long footerOffset = readFooterOffset(slice(file, 0, HEADER_LENGTH),
+                slice(file, size - ColumnarFormat.TRAILER_LENGTH, ColumnarFormat.TRAILER_LENGTH), size, uri);
+        return readFooter(slice(file, (int) footerOffset, size - ColumnarFormat.TRAILER_LENGTH - (int) footerOffset));
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        ByteBuffer dup = buffer.duplicate();
+        dup.position(offset);
+        dup.limit(offset + length);
+        return dup.slice();
+    }
+
+    private static void checkLength(long size, URI uri) {
+        if (size < HEADER_LENGTH + ColumnarFormat.TRAILER_LENGTH) {
+            throw new IllegalStateException("Invalid columnar record file (too short): " + uri);
+        }
+    }
+
+    /** Validate the header and trailer, and return the footer offset */
+    private static long readFooterOffset(ByteBuffer header, ByteBuffer trailer, long size, URI uri) {
+        long footerOffset = trailer.getLong();
+        byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+        trailer.get(magic);
+        byte[] headerMagic = new byte[ColumnarFormat.MAGIC.length];
+        header.get(headerMagic);
+        int version = header.getInt();
+        if (!Arrays.equals(magic, ColumnarFormat.MAGIC) || !Arrays.equals(headerMagic, ColumnarFormat.MAGIC)) {
+            throw new IllegalStateException("Invalid columnar record file (bad magic number; file may be incomplete): "
+                    + uri);
+        }
+        if (version != ColumnarFormat.VERSION) {
+            throw new IllegalStateException("Unsupported columnar record file version " + version + ": " + uri);
+        }
+        if (footerOffset < HEADER_LENGTH || footerOffset > size - ColumnarFormat.TRAILER_LENGTH) {
+            throw new IllegalStateException("Invalid columnar record file (bad footer offset " + footerOffset + "): "
+                    + uri);
+        }
+        return footerOffset;
+    }
+
+    private static Footer readFooter(ByteBuffer footerBytes) throws IOException {
+        byte[] b = new byte[footerBytes.remaining()];
+        footerBytes.get(b);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(b));
+        int numColumns = in.readInt();
+        int numRowGroups = in.readInt();
+        Footer f = new Footer(numColumns, numRowGroups);
+        long start = 0;
+        for (int i = 0; i < numRowGroups; i++) {
+            f.rowGroupStart[i] = start;
+            f.rowGroupNumRows[i] = in.readInt();
+            start += f.rowGroupNumRows[i];
+            for (int c = 0; c < numColumns; c++) {
+                f.chunks[i][c] = ColumnChunkMetadata.read(in);
+            }
+        }
+        f.numRecords = start;
+        return f;
+    }
+
+    /**
+     * @return Total number of records in all files
+     */
+    public long numRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Get the metadata (including min/max statistics) for all chunks of the specified column, in order: one per row
+     * group of each file.
+     *
+     * @param column Index of the column
+     */
+    public List<ColumnChunkMetadata> getColumnChunkMetadata(int column) {
+        if (footers == null) throw new IllegalStateException("Record reader has not been initialized");
+        List<ColumnChunkMetadata> out = new ArrayList<>();
+        for (Footer f : footers) {
+            for (ColumnChunkMetadata[] chunks : f.chunks) {
+                out.add(chunks[column]);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Only return records for which the value of the specified column is numerical, and between min and max
+     * (inclusive), when iterating with {@link #next()}. Row groups are skipped without decoding them if the min/max
+     * statistics for the column (see {@link #getColumnChunkMetadata(int)}) show that none of their values can match.
+     * The filter does not apply to {@link #getRecord(long)} or {@link #numRecords()}, which always refer to all
+     * records.
+     *
+     * @param column Index of the column to filter on
+     * @param min    Minimum value (inclusive)
+     * @param max    Maximum value (inclusive)
+     */
+    public void setColumnFilter(int column, double min, double max) {
+        if (column < 0) throw new IllegalArgumentException("Invalid column index: " + column);
+        if (!(min <= max)) throw new IllegalArgumentException("Invalid range: min (" + min + ") must be <= max (" + max + ")");
+        this.filterColumn = column;
+        this.filterMin = min;
+        this.filterMax = max;
+    }
+
+    /**
+     * Remove the filter set by {@link #setColumnFilter(int, double, double)}, if any
+     */
+    public void clearColumnFilter() {
+        this.filterColumn = -1;
+    }
+
+    /**
+     * Get the record at the specified index (over all files), without affecting the sequential position of
+     * {@link #next()}. Access is fastest when records in the same row group are accessed consecutively.
+     *
+     * @param index Index of the record, 0 to {@link #numRecords()}-1
+     */
+    public List<Writable> getRecord(long index) {
+        if (footers == null) throw new IllegalStateException("Record reader has not been initialized");
+        if (index < 0 || index >= numRecords) {
+            throw new IndexOutOfBoundsException("Invalid record index " + index + ": must be between 0 and "
+                    + (numRecords - 1) + " inclusive");
+        }
+        int file = upperBound(fileStart, index);
+        long inFile = index - fileStart[file];
+        int rowGroup = upperBound(footers[file].rowGroupStart, inFile);
+        int row = (int) (inFile - footers[file].rowGroupStart[rowGroup]);
+        try {
+            loadRowGroup(file, rowGroup);
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading columnar record file " + locations[file], e);
+        }
+        List<Writable> out = new ArrayList<>(loadedColumns.length);
+        for (Writable[] col : loadedColumns) {
+            out.add(col[row]);
+        }
+        return out;
+    }
+
+    /** Index of the last element of the (sorted) array that is <= value */
+    private static int upperBound(long[] starts, long value) {
+        int idx = Arrays.binarySearch(starts, value);
+        if (idx < 0) return -idx - 2;
+        //Skip over empty files/row groups with the same start
+        while (idx < starts.length - 1 && starts[idx + 1] == value) idx++;
+        return idx;
+    }
+
+    private void loadRowGroup(int file, int rowGroup) throws IOException {
+        if (file == loadedFile && rowGroup == loadedRowGroup) return;
+        if (file != openFile) {
+            close();
+            channel = new RandomAccessFile(new File(locations[file]), "r").getChannel();
+            openFile = file;
+        }
+        ColumnChunkMetadata[] chunks = footers[file].chunks[rowGroup];
+        Writable[][] columns = new Writable[chunks.length][0];
+        for (int c = 0; c < chunks.length; c++) {
+            ByteBuffer bb = channel.map(FileChannel.MapMode.READ_ONLY, chunks[c].getOffset(), chunks[c].getLength());
+            columns[c] = ColumnarFormat.decodeChunk(bb, chunks[c]);
+        }
+        loadedColumns = columns;
+        loadedFile = file;
+        loadedRowGroup = rowGroup;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (footers == null) throw new IllegalStateException("Record reader has not been initialized");
+        if (filterColumn >= 0) {
+            try {
+                skipToNextMatch();
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading columnar record file", e);
+            }
+        }
+        return nextIndex < numRecords;
+    }
+
+    /**
+     * Advance nextIndex to the next record that matches the column filter, skipping row groups that cannot match
+     */
+    private void skipToNextMatch() throws IOException {
+        while (nextIndex < numRecords) {
+            int file = upperBound(fileStart, nextIndex);
+            long inFile = nextIndex - fileStart[file];
+            Footer f = footers[file];
+            int rowGroup = upperBound(f.rowGroupStart, inFile);
+            ColumnChunkMetadata[] chunks = f.chunks[rowGroup];
+            if (filterColumn >= chunks.length) {
+                throw new IllegalStateException("Invalid filter column " + filterColumn + ": file " + locations[file]
+                        + " has " + chunks.length + " columns");
+            }
+            ColumnChunkMetadata m = chunks[filterColumn];
+            //NaN statistics: no numerical values in the chunk, so nothing can match
+            if (Double.isNaN(m.getMin()) || m.getMax() < filterMin || m.getMin() > filterMax) {
+                nextIndex = fileStart[file] + f.rowGroupStart[rowGroup] + f.rowGroupNumRows[rowGroup];
+                continue;
+            }
+            loadRowGroup(file, rowGroup);
+            Writable w = loadedColumns[filterColumn][(int) (inFile - f.rowGroupStart[rowGroup])];
+            if (ColumnarFormat.isNumerical(WritableType.typeOf(w))) {
+                double d = w.toDouble();
+                if (d >= filterMin && d <= filterMax) return;
+            }
+            nextIndex++;
+        }
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext()) throw new NoSuchElementException("No more elements found!");
+        List<Writable> ret = getRecord(nextIndex++);
+        invokeListeners(ret);
+        return ret;
+    }
+
+    @Override
+    public void reset() {
+        nextIndex = 0;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    /**
+     * Read the first record of a columnar record file from a stream. The stream is buffered in memory, and the footer
+     * and the first row group are decoded from the buffer. Intended for files that each hold a single record (or where
+     * only the first record is needed); otherwise, use {@link #initialize(InputSplit)}
+     */
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        invokeListeners(uri);
+        ByteBuffer file = ByteBuffer.wrap(IOUtils.toByteArray(dataInputStream));
+        Footer f = readFooter(file, uri);
+        if (f.numRecords == 0) {
+            throw new IllegalStateException("Columnar record file contains no records: " + uri);
+        }
+        ColumnChunkMetadata[] chunks = f.chunks[0];
+        List<Writable> out = new ArrayList<>(chunks.length);
+        for (ColumnChunkMetadata m : chunks) {
+            Writable[] values = ColumnarFormat.decodeChunk(slice(file, (int) m.getOffset(), m.getLength()), m);
+            out.add(values[0]);
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+        openFile = -1;
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    private static class Footer {
+        private final long[] rowGroupStart;
+        private final int[] rowGroupNumRows;
+        private final ColumnChunkMetadata[][] chunks;
+        private long numRecords;
+
+        private Footer(int numColumns, int numRowGroups) {
+            this.rowGroupStart = new long[numRowGroups];
+            this.rowGroupNumRows = new int[numRowGroups];
+            this.chunks = new ColumnChunkMetadata[numRowGroups][numColumns];
+        }
+    }
+}
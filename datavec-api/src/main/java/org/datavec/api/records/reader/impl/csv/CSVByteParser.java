@@ -0,0 +1,361 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.csv;
+
+import org.datavec.api.writable.Text;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A streaming CSV parser that works directly on raw (UTF-8) bytes, without decoding lines to Strings.<br>
+ * Parsing follows RFC 4180: fields may be enclosed in quotes, in which case they may contain delimiters and line breaks,
+ * and a quote character inside a quoted field is escaped by doubling it. Both "\n" and "\r\n" line endings are supported.
+ * <p>
+ * After each call to {@link #next()}, the fields of the current record are available as slices of an internal row
+ * buffer (see {@link #fieldStart(int)} and {@link #fieldLength(int)}), and can be converted directly to Java primitives
+ * with {@link #parseInt(int)}, {@link #parseLong(int)} and {@link #parseDouble(int)}, or copied into a {@link Text}.
+ * The read buffer, row buffer and field offset arrays are reused between records, so no objects are allocated
+ * per record once the buffers have grown to the size of the largest record.
+ * <p>
+ * The delimiter and quote characters must be single-byte (ASCII) characters. Instances are not thread safe.
+ */
+public class CSVByteParser {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final byte delimiter;
+    private final byte quote;
+
+    private InputStream is;
+    private final byte[] buffer;
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private byte[] row = new byte[1024];
+    private int rowLength;
+    private int[] fieldStarts = new int[16];
+    private int[] fieldEnds = new int[16];
+    private int numFields;
+
+    public CSVByteParser() {
+        this(',', '"');
+    }
+
+    public CSVByteParser(char delimiter, char quote) {
+        this(delimiter, quote, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param delimiter  Field delimiter. Must be an ASCII character
+     * @param quote      Quote character. Must be an ASCII character
+     * @param bufferSize Size of the read buffer, in bytes
+     */
+    public CSVByteParser(char delimiter, char quote, int bufferSize) {
+        if (delimiter > 127 || quote > 127)
+            throw new IllegalArgumentException("Delimiter and quote characters must be ASCII characters");
+        if (delimiter == quote) throw new IllegalArgumentException("Delimiter and quote characters must differ");
+        if (delimiter == '\n' || delimiter == '\r') throw new IllegalArgumentException("Invalid delimiter: line break");
+        this.delimiter = (byte) delimiter;
+        this.quote = (byte) quote;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Start parsing a new input stream. The previous stream (if any) is not closed.
+     */
+    public void reset(InputStream is) {
+        this.is = is;
+        this.pos = 0;
+        this.limit = 0;
+        this.eof = false;
+        this.rowLength = 0;
+        this.numFields = 0;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        int n = is.read(buffer, 0, buffer.length);
+        while (n == 0) n = is.read(buffer, 0, buffer.length);
+        if (n < 0) {
+            eof = true;
+            limit = 0;
+            pos = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+
+    /**
+     * Parse the next record.
+     *
+     * @return True if a record was parsed, false if the end of the stream has been reached
+     */
+    public boolean next() throws IOException {
+        if (is == null) throw new IllegalStateException("No input stream: call reset(InputStream) first");
+        rowLength = 0;
+        numFields = 0;
+        if (pos >= limit && !fill()) return false;
+
+        while (true) {
+            //Start of a field
+            int fieldStart = rowLength;
+            boolean endOfRecord;
+            if (pos >= limit && !fill()) {
+                endOfRecord = true;
+            } else if (buffer[pos] == quote) {
+                pos++;
+                readQuoted();
+                endOfRecord = readUnquoted();
+            } else {
+                endOfRecord = readUnquoted();
+            }
+            addField(fieldStart, rowLength);
+            if (endOfRecord) return true;
+        }
+    }
+
+    /** Read (unescaped) quoted field content, up to and including the closing quote */
+    private void readQuoted() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) return;   //Unterminated quote: take everything up to the end of the input
+            int start = pos;
+            while (pos < limit && buffer[pos] != quote) pos++;
+            append(buffer, start, pos - start);
+            if (pos < limit) {
+                //Found a quote: either an escaped quote ("") or the end of the quoted section
+                pos++;
+                if (pos >= limit && !fill()) return;
+                if (buffer[pos] == quote) {
+                    appendByte(quote);
+                    pos++;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read unquoted field content up to the next delimiter or end of line (consuming it)
+     *
+     * @return true if the end of the record was reached
+     */
+    private boolean readUnquoted() throws IOException {
+        while (true) {
+            if (pos >= limit && !fill()) return true;
+            int start = pos;
+            byte b = 0;
+            while (pos < limit) {
+                b = buffer[pos];
+                if (b == delimiter || b == '\n' || b == '\r') break;
+                pos++;
+            }
+            append(buffer, start, pos - start);
+            if (pos < limit) {
+                pos++;
+                if (b == delimiter) return false;
+                if (b == '\r') {
+                    if (pos < limit || fill()) {
+                        if (buffer[pos] == '\n') pos++;
+                    }
+                }
+                return true;
+            }
+        }
+    }
+
+    private void append(byte[] src, int start, int length) {
+        if (length == 0) return;
+        ensureRowCapacity(rowLength + length);
+        System.arraycopy(src, start, row, rowLength, length);
+        rowLength += length;
+    }
+
+    private void appendByte(byte b) {
+        ensureRowCapacity(rowLength + 1);
+        row[rowLength++] = b;
+    }
+
+    private void ensureRowCapacity(int capacity) {
+        if (capacity > row.length) {
+            row = Arrays.copyOf(row, Math.max(capacity, 2 * row.length));
+        }
+    }
+
+    private void addField(int start, int end) {
+        if (numFields == fieldStarts.length) {
+            fieldStarts = Arrays.copyOf(fieldStarts, 2 * numFields);
+            fieldEnds = Arrays.copyOf(fieldEnds, 2 * numFields);
+        }
+        fieldStarts[numFields] = start;
+        fieldEnds[numFields] = end;
+        numFields++;
+    }
+
+    /**
+     * @return Number of fields in the current record
+     */
+    public int numFields() {
+        return numFields;
+    }
+
+    /**
+     * The row buffer, containing the (unescaped) bytes of all fields in the current record. Only valid until the next
+     * call to {@link #next()}.
+     */
+    public byte[] rowBuffer() {
+        return row;
+    }
+
+    /**
+     * @return Start offset of the specified field in the {@link #rowBuffer()}
+     */
+    public int fieldStart(int field) {
+        checkField(field);
+        return fieldStarts[field];
+    }
+
+    /**
+     * @return Length (in bytes) of the specified field
+     */
+    public int fieldLength(int field) {
+        checkField(field);
+        return fieldEnds[field] - fieldStarts[field];
+    }
+
+    private void checkField(int field) {
+        if (field < 0 || field >= numFields)
+            throw new IndexOutOfBoundsException("Invalid field index " + field + ": record has " + numFields + " fields");
+    }
+
+    /**
+     * @return The specified field as a String (decoded as UTF-8)
+     */
+    public String getString(int field) {
+        return new String(row, fieldStart(field), fieldLength(field), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy the specified field into the given Text object
+     */
+    public void setText(int field, Text text) {
+        text.set(row, fieldStart(field), fieldLength(field));
+    }
+
+    /**
+     * Parse the specified field as an int, without creating a String
+     *
+     * @throws NumberFormatException If the field is not a valid integer
+     */
+    public int parseInt(int field) {
+        long l = parseLong(field);
+        if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Value out of range for int: \"" + getString(field) + "\"");
+        }
+        return (int) l;
+    }
+
+    /**
+     * Parse the specified field as a long, without creating a String
+     *
+     * @throws NumberFormatException If the field is not a valid integer
+     */
+    public long parseLong(int field) {
+        int start = fieldStart(field);
+        int end = fieldEnds[field];
+        if (end - start > 18) {
+            //Possible overflow: let Long.parseLong deal with it
+            return Long.parseLong(getString(field));
+        }
+        int i = start;
+        boolean negative = false;
+        if (i < end && (row[i] == '-' || row[i] == '+')) {
+            negative = row[i] == '-';
+            i++;
+        }
+        if (i == end) throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+        long value = 0;
+        for (; i < end; i++) {
+            int d = row[i] - '0';
+            if (d < 0 || d > 9) throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            value = value * 10 + d;
+        }
+        return (negative ? -value : value);
+    }
+
+    /**
+     * Parse the specified field as a double. Plain decimal values (no exponent, at most 15 significant digits) are
+     * parsed directly from the bytes; the result is identical to {@link Double#parseDouble(String)}.
+     * Any other values are parsed using {@link Double#parseDouble(String)}.
+     *
+     * @throws NumberFormatException If the field is not a valid number
+     */
+    public double parseDouble(int field) {
+        int start = fieldStart(field);
+        int end = fieldEnds[field];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (row[i] == '-' || row[i] == '+')) {
+            negative = row[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int nDigits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        boolean fastPath = i < end;
+        for (; i < end; i++) {
+            byte b = row[i];
+            if (b >= '0' && b <= '9') {
+                if (mantissa != 0 || b != '0') nDigits++;
+                mantissa = mantissa * 10 + (b - '0');
+                if (seenPoint) fractionDigits++;
+                if (nDigits > 15 || fractionDigits > 22) {
+                    fastPath = false;
+                    break;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                fastPath = false;
+                break;
+            }
+        }
+        if (fastPath && (end - start) > (negative || row[start] == '+' ? 1 : 0) + (seenPoint ? 1 : 0)) {
+            //mantissa and 10^fractionDigits are both exactly representable: division is correctly rounded
+            double d = mantissa / POWERS_OF_TEN[fractionDigits];
+            return (negative ? -d : d);
+        }
+        return Double.parseDouble(getString(field));
+    }
+
+    /**
+     * @return True if the specified field is empty (zero length)
+     */
+    public boolean isEmpty(int field) {
+        return fieldLength(field) == 0;
+    }
+}
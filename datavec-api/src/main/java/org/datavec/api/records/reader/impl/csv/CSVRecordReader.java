@@ -20,6 +20,8 @@ package org.datavec.api.records.reader.impl.csv;
 
 import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.reader.impl.LineRecordReader;
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Text;
 import org.datavec.api.split.InputSplit;
 import org.datavec.api.writable.Writable;
@@ -37,11 +39,13 @@ import java.util.*;
 public class CSVRecordReader extends LineRecordReader {
     /** A regex delimiter that can parse quotes (string literals) that may have commas in them: http://stackoverflow.com/a/1757107/523744
      * Note: This adds considerable overhead compared to the default "," delimiter, and should only be used when necessary.
+     * See also {@link FastCSVRecordReader}, which handles quoted fields without the use of regular expressions.
      * */
     public final static String QUOTE_HANDLING_DELIMITER = ",(?=([^\"]*\"[^\"]*\")*[^\"]*$)";
     private boolean skippedLines = false;
     private int skipNumLines = 0;
     private String delimiter = DEFAULT_DELIMITER;
+    private SchemaWritableParser schemaParser;
     public final static String DEFAULT_DELIMITER = ",";
     public final static String SKIP_NUM_LINES = NAME_SPACE + ".skipnumlines";
     public final static String DELIMITER = NAME_SPACE + ".delimiter";
@@ -64,6 +68,38 @@ public class CSVRecordReader extends LineRecordReader {
         this.delimiter = delimiter;
     }
 
+    /**
+     * Skip lines, use delimiter, and parse each value according to the column types of the schema
+     * (instead of returning Text values). Values that can't be parsed are returned as Text.
+     * @param skipNumLines the number of lines to skip
+     * @param delimiter the delimiter
+     * @param schema the schema for the data
+     */
+    public CSVRecordReader(int skipNumLines, String delimiter, Schema schema) {
+        this(skipNumLines, delimiter, schema, SchemaWritableParser.InvalidValueMode.KeepText);
+    }
+
+    /**
+     * Skip lines, use delimiter, and parse each value according to the column types of the schema
+     * @param skipNumLines the number of lines to skip
+     * @param delimiter the delimiter
+     * @param schema the schema for the data
+     * @param invalidValueMode how to handle values that can't be parsed according to the schema
+     */
+    public CSVRecordReader(int skipNumLines, String delimiter, Schema schema, SchemaWritableParser.InvalidValueMode invalidValueMode) {
+        this(skipNumLines, delimiter);
+        this.schemaParser = new SchemaWritableParser(schema, invalidValueMode);
+    }
+
+    /**
+     * Parse each value using the specified parser (for example, to return {@link org.datavec.api.writable.CategoricalWritable}
+     * values for categorical columns: see {@link SchemaWritableParser#SchemaWritableParser(Schema, SchemaWritableParser.InvalidValueMode, boolean)})
+     */
+    public CSVRecordReader(int skipNumLines, String delimiter, SchemaWritableParser schemaParser) {
+        this(skipNumLines, delimiter);
+        this.schemaParser = schemaParser;
+    }
+
     public CSVRecordReader() {
         this(0,DEFAULT_DELIMITER);
     }
@@ -89,6 +125,8 @@ public class CSVRecordReader extends LineRecordReader {
         Text t =  (Text) super.next().iterator().next();
         String val = t.toString();
         String[] split = val.split(delimiter, -1);
+        if(schemaParser != null)
+            return schemaParser.parse(split);
         List<Writable> ret = new ArrayList<>();
         for(String s : split)
             ret.add(new Text(s));
@@ -18,6 +18,8 @@ package org.datavec.api.records.reader.impl.csv;
 
 import org.apache.commons.io.IOUtils;
 import org.datavec.api.records.reader.impl.FileRecordReader;
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Text;
 import org.datavec.api.records.reader.SequenceRecordReader;
 import org.datavec.api.writable.Writable;
@@ -27,6 +29,7 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 
 /**
  * CSV Sequence Record Reader
@@ -38,6 +41,7 @@ import java.util.List;
 public class CSVSequenceRecordReader extends FileRecordReader implements SequenceRecordReader {
     private int skipNumLines = 0;
     private String delimiter = ",";
+    private SchemaWritableParser schemaParser;
 
     public CSVSequenceRecordReader() {
         this(0, ",");
@@ -52,6 +56,26 @@ public class CSVSequenceRecordReader extends FileRecordReader implements Sequenc
         this.delimiter = delimiter;
     }
 
+    /**
+     * Parse each value according to the column types of the schema (instead of returning Text values).
+     * Values that can't be parsed are returned as Text.<br>
+     * With a schema, the delimiter is a literal String (not a regular expression), and trailing empty values are kept,
+     * so that each line has one value per column of the schema.
+     */
+    public CSVSequenceRecordReader(int skipNumLines, String delimiter, Schema schema) {
+        this(skipNumLines, delimiter, schema, SchemaWritableParser.InvalidValueMode.KeepText);
+    }
+
+    /**
+     * Parse each value according to the column types of the schema (instead of returning Text values)
+     *
+     * @param invalidValueMode How to handle values that can't be parsed according to the schema
+     */
+    public CSVSequenceRecordReader(int skipNumLines, String delimiter, Schema schema, SchemaWritableParser.InvalidValueMode invalidValueMode) {
+        this(skipNumLines, delimiter);
+        this.schemaParser = new SchemaWritableParser(schema, invalidValueMode);
+    }
+
     @Override
     public List<List<Writable>> sequenceRecord(URI uri, DataInputStream dataInputStream) throws IOException {
         invokeListeners(uri);
@@ -65,10 +89,7 @@ public class CSVSequenceRecordReader extends FileRecordReader implements Sequenc
         List<List<Writable>> out = new ArrayList<>();
         while (lineIter.hasNext()) {
             String line = lineIter.next();
-            String[] split = line.split(delimiter);
-            ArrayList<Writable> list = new ArrayList<>();
-            for (String s : split) list.add(new Text(s));
-            out.add(list);
+            out.add(parseLine(line));
         }
 
         return out;
@@ -95,14 +116,17 @@ public class CSVSequenceRecordReader extends FileRecordReader implements Sequenc
         List<List<Writable>> out = new ArrayList<>();
         while (lineIter.hasNext()) {
             String line = lineIter.next();
-            String[] split = line.split(delimiter);
-            ArrayList<Writable> list = new ArrayList<>();
-            for (String s : split) list.add(new Text(s));
-            out.add(list);
+            out.add(parseLine(line));
         }
 
         return out;
     }
 
-
+    private List<Writable> parseLine(String line) {
+        if (schemaParser != null) return schemaParser.parse(line.split(Pattern.quote(delimiter), -1));
+        String[] split = line.split(delimiter);
+        List<Writable> list = new ArrayList<>(split.length);
+        for (String s : split) list.add(new Text(s));
+        return list;
+    }
 }
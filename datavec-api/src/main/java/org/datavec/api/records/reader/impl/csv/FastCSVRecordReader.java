@@ -0,0 +1,397 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.csv;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.batch.*;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.InputStreamInputSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * A CSV record reader that parses the raw bytes of the input using a {@link CSVByteParser}, instead of decoding each
+ * line to a String and splitting it (as {@link CSVRecordReader} does).<br>
+ * Quoted fields are handled as per RFC 4180: quotes around a field are removed, escaped ("") quotes are unescaped, and
+ * quoted fields may contain delimiters and line breaks. Note that this differs from {@link CSVRecordReader}, which
+ * returns the quote characters as part of the field values.
+ * <p>
+ * Lines to skip (at the start of each file) are counted as CSV records, not physical lines.
+ */
+public class FastCSVRecordReader extends BaseRecordReader {
+
+    public final static String QUOTE = NAME_SPACE + ".quote";
+    public final static char DEFAULT_DELIMITER = ',';
+    public final static char DEFAULT_QUOTE = '"';
+
+    private int skipNumLines;
+    private char delimiter;
+    private char quote;
+    private SchemaWritableParser schemaParser;
+
+    private CSVByteParser parser;
+    private InputSplit inputSplit;
+    private URI[] locations;
+    private int currIndex;
+    private InputStream currStream;
+    private boolean haveRecord;
+    protected Configuration conf;
+
+    public FastCSVRecordReader() {
+        this(0);
+    }
+
+    /**
+     * @param skipNumLines Number of records to skip at the start of each file
+     */
+    public FastCSVRecordReader(int skipNumLines) {
+        this(skipNumLines, DEFAULT_DELIMITER);
+    }
+
+    /**
+     * @param skipNumLines Number of records to skip at the start of each file
+     * @param delimiter    Field delimiter (ASCII character)
+     */
+    public FastCSVRecordReader(int skipNumLines, char delimiter) {
+        this(skipNumLines, delimiter, DEFAULT_QUOTE);
+    }
+
+    /**
+     * @param skipNumLines Number of records to skip at the start of each file
+     * @param delimiter    Field delimiter (ASCII character)
+     * @param quote        Quote character (ASCII character)
+     */
+    public FastCSVRecordReader(int skipNumLines, char delimiter, char quote) {
+        this.skipNumLines = skipNumLines;
+        this.delimiter = delimiter;
+        this.quote = quote;
+    }
+
+    /**
+     * Parse each value directly from the input bytes according to the column types of the schema (instead of
+     * returning Text values). Values that can't be parsed are returned as Text.
+     *
+     * @param skipNumLines Number of records to skip at the start of each file
+     * @param delimiter    Field delimiter (ASCII character)
+     * @param quote        Quote character (ASCII character)
+     * @param schema       Schema for the data
+     */
+    public FastCSVRecordReader(int skipNumLines, char delimiter, char quote, Schema schema) {
+        this(skipNumLines, delimiter, quote, schema, SchemaWritableParser.InvalidValueMode.KeepText);
+    }
+
+    /**
+     * Parse each value directly from the input bytes according to the column types of the schema (instead of
+     * returning Text values)
+     *
+     * @param skipNumLines     Number of records to skip at the start of each file
+     * @param delimiter        Field delimiter (ASCII character)
+     * @param quote            Quote character (ASCII character)
+     * @param schema           Schema for the data
+     * @param invalidValueMode How to handle values that can't be parsed according to the schema
+     */
+    public FastCSVRecordReader(int skipNumLines, char delimiter, char quote, Schema schema,
+                               SchemaWritableParser.InvalidValueMode invalidValueMode) {
+        this(skipNumLines, delimiter, quote);
+        this.schemaParser = new SchemaWritableParser(schema, invalidValueMode);
+    }
+
+    /**
+     * Parse each value using the specified parser (for example, to return {@link org.datavec.api.writable.CategoricalWritable}
+     * values for categorical columns: see {@link SchemaWritableParser#SchemaWritableParser(Schema, SchemaWritableParser.InvalidValueMode, boolean)})
+     */
+    public FastCSVRecordReader(int skipNumLines, char delimiter, char quote, SchemaWritableParser schemaParser) {
+        this(skipNumLines, delimiter, quote);
+        this.schemaParser = schemaParser;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        this.inputSplit = split;
+        this.parser = new CSVByteParser(delimiter, quote);
+        this.currIndex = 0;
+        this.haveRecord = false;
+        this.locations = null;
+
+        if (split instanceof StringSplit) {
+            openStream(new ByteArrayInputStream(((StringSplit) split).getData().getBytes(StandardCharsets.UTF_8)));
+        } else if (split instanceof InputStreamInputSplit) {
+            openStream(((InputStreamInputSplit) split).getIs());
+        } else {
+            this.locations = split.locations();
+            if (locations != null && locations.length > 0) {
+                openStream(locations[0].toURL().openStream());
+            }
+        }
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        this.conf = conf;
+        this.skipNumLines = conf.getInt(CSVRecordReader.SKIP_NUM_LINES, this.skipNumLines);
+        this.delimiter = conf.get(CSVRecordReader.DELIMITER, String.valueOf(this.delimiter)).charAt(0);
+        this.quote = conf.get(QUOTE, String.valueOf(this.quote)).charAt(0);
+        initialize(split);
+    }
+
+    private void openStream(InputStream is) throws IOException {
+        currStream = is;
+        parser.reset(is);
+        for (int i = 0; i < skipNumLines; i++) {
+            if (!parser.next()) break;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (haveRecord) return true;
+        if (currStream == null) return false;
+        try {
+            while (true) {
+                if (parser.next()) {
+                    haveRecord = true;
+                    return true;
+                }
+                if (locations == null || currIndex >= locations.length - 1) return false;
+                currStream.close();
+                currIndex++;
+                openStream(locations[currIndex].toURL().openStream());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error reading CSV data", e);
+        }
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext()) throw new NoSuchElementException("No more elements found!");
+        haveRecord = false;
+        long start = startTiming();
+        List<Writable> ret = toWritables(parser);
+        invokeListeners(ret, start, rowBytes());
+        return ret;
+    }
+
+    /**
+     * Approximate size of the current record in bytes: the field contents plus one delimiter or line break per field
+     * (quotes are not included)
+     */
+    private long rowBytes() {
+        int n = parser.numFields();
+        if (n == 0) return 1;
+        return parser.fieldStart(n - 1) + parser.fieldLength(n - 1) - parser.fieldStart(0) + n;
+    }
+
+    /**
+     * When a schema has been provided, numerical values are parsed directly from the input bytes into the primitive
+     * arrays of the batch columns (without creating a Writable for each value), and String values are dictionary
+     * encoded. Otherwise (or if listeners have been set), records are read one at a time.
+     */
+    @Override
+    public RecordBatch next(int num) {
+        if (schemaParser == null || !listeners.isEmpty()) return super.next(num);
+
+        List<ColumnType> types = schemaParser.getSchema().getColumnTypes();
+        int capacity = Math.min(num, 1024);
+        ColumnBuilder[] builders = new ColumnBuilder[types.size()];
+        for (int i = 0; i < builders.length; i++) {
+            builders[i] = new ColumnBuilder(types.get(i), i, capacity);
+        }
+
+        int numRows = 0;
+        while (numRows < num && hasNext()) {
+            haveRecord = false;
+            if (parser.numFields() != builders.length) {
+                throw new IllegalStateException("Invalid record: expected " + builders.length + " values for schema, got "
+                        + parser.numFields());
+            }
+            for (ColumnBuilder b : builders) {
+                b.add(parser, numRows);
+            }
+            numRows++;
+        }
+
+        List<BatchColumn> columns = new ArrayList<>(builders.length);
+        for (ColumnBuilder b : builders) {
+            columns.add(b.build(numRows));
+        }
+        return new RecordBatch(numRows, columns);
+    }
+
+    /**
+     * Collects the values of one column for {@link #next(int)}. If a value can't be parsed as the column type, the
+     * column switches to storing Writables (as returned by the {@link SchemaWritableParser})
+     */
+    private class ColumnBuilder {
+        private final ColumnType type;
+        private final int column;
+        private double[] doubles;
+        private int[] ints;
+        private long[] longs;
+        private Map<String, Integer> dictionaryIndex;
+        private List<String> dictionary;
+        private List<Writable> writables;
+
+        private ColumnBuilder(ColumnType type, int column, int capacity) {
+            this.type = type;
+            this.column = column;
+            switch (type) {
+                case Double:
+                    doubles = new double[capacity];
+                    break;
+                case Long:
+                case Time:
+                    longs = new long[capacity];
+                    break;
+                case Integer:
+                    ints = new int[capacity];
+                    break;
+                default:
+                    //int codes for dictionary encoded values
+                    ints = new int[capacity];
+                    dictionaryIndex = new HashMap<>();
+                    dictionary = new ArrayList<>();
+            }
+        }
+
+        private void add(CSVByteParser parser, int row) {
+            if (writables != null) {
+                writables.add(schemaParser.parse(column, parser.getString(column)));
+                return;
+            }
+            try {
+                switch (type) {
+                    case Double:
+                        if (row == doubles.length) doubles = Arrays.copyOf(doubles, 2 * row);
+                        doubles[row] = parser.parseDouble(column);
+                        break;
+                    case Long:
+                    case Time:
+                        if (row == longs.length) longs = Arrays.copyOf(longs, 2 * row);
+                        longs[row] = parser.parseLong(column);
+                        break;
+                    case Integer:
+                        if (row == ints.length) ints = Arrays.copyOf(ints, 2 * row);
+                        ints[row] = parser.parseInt(column);
+                        break;
+                    default:
+                        if (row == ints.length) ints = Arrays.copyOf(ints, 2 * row);
+                        String value = parser.getString(column);
+                        Integer code = dictionaryIndex.get(value);
+                        if (code == null) {
+                            code = dictionary.size();
+                            dictionaryIndex.put(value, code);
+                            dictionary.add(value);
+                        }
+                        ints[row] = code;
+                }
+            } catch (NumberFormatException e) {
+                //Invalid value: store the values parsed so far (and all subsequent values) as writables
+                BatchColumn parsed = build(row);
+                writables = new ArrayList<>();
+                for (int i = 0; i < row; i++) {
+                    writables.add(parsed.get(i));
+                }
+                writables.add(schemaParser.parse(column, parser.getString(column)));
+            }
+        }
+
+        private BatchColumn build(int numRows) {
+            if (writables != null) return new WritableColumn(writables);
+            switch (type) {
+                case Double:
+                    return new DoubleColumn(doubles.length == numRows ? doubles : Arrays.copyOf(doubles, numRows));
+                case Long:
+                case Time:
+                    return new LongColumn(longs.length == numRows ? longs : Arrays.copyOf(longs, numRows));
+                case Integer:
+                    return new IntColumn(ints.length == numRows ? ints : Arrays.copyOf(ints, numRows));
+                default:
+                    return new DictionaryColumn(ints.length == numRows ? ints : Arrays.copyOf(ints, numRows), dictionary);
+            }
+        }
+    }
+
+    /**
+     * Convert the current record of the parser to a list of writables: typed writables if a schema was provided,
+     * or Text otherwise. Subclasses may override this to produce other Writable types.
+     */
+    protected List<Writable> toWritables(CSVByteParser parser) {
+        if (schemaParser != null) return schemaParser.parse(parser);
+        int n = parser.numFields();
+        List<Writable> ret = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Text t = new Text();
+            parser.setText(i, t);
+            ret.add(t);
+        }
+        return ret;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public void reset() {
+        if (inputSplit == null) throw new UnsupportedOperationException("Cannot reset without first initializing");
+        try {
+            close();
+            initialize(inputSplit);
+        } catch (Exception e) {
+            throw new RuntimeException("Error during FastCSVRecordReader reset", e);
+        }
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        invokeListeners(uri);
+        //Here: we are reading a single record from the DataInputStream
+        CSVByteParser p = new CSVByteParser(delimiter, quote);
+        p.reset(dataInputStream);
+        if (!p.next()) return new ArrayList<>();
+        return toWritables(p);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (currStream != null && !(inputSplit instanceof InputStreamInputSplit)) {
+            currStream.close();
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+}
@@ -20,6 +20,7 @@ import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.reader.impl.LineRecordReader;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.split.InputSplit;
 import org.datavec.api.writable.Writable;
@@ -39,10 +40,15 @@ public class LibSvmRecordReader extends LineRecordReader {
     public static final String CLASSIFICATION = "libsvm.classification";
     public static final String NAME_SPACE = LibSvmRecordReader.class.getName();
     public static final String NUM_FEATURES = NAME_SPACE + ".numfeatures";
+    /** If true: return the features as a single {@link SparseVectorWritable} (of size {@link #NUM_FEATURES} if set,
+     * or the maximum index on each line otherwise), rather than one writable per feature */
+    public static final String SPARSE = NAME_SPACE + ".sparse";
 
     private boolean appendLabel = false;
     private boolean classification = true;
     private int numFeatures;
+    private boolean sparse = false;
+    private final SparseVectorBuilder sparseBuilder = new SparseVectorBuilder();
 
     @Override
     public void initialize(InputSplit split) throws IOException, InterruptedException {
@@ -55,6 +61,7 @@ public class LibSvmRecordReader extends LineRecordReader {
         appendLabel = conf.getBoolean(APPEND_LABEL,false);
         classification = conf.getBoolean(CLASSIFICATION,true);
         numFeatures = conf.getInt(NUM_FEATURES, 0);
+        sparse = conf.getBoolean(SPARSE, false);
     }
 
     @Override
@@ -78,9 +85,24 @@ public class LibSvmRecordReader extends LineRecordReader {
         }
 
 
-        tokens = line.trim().split("\\s+");
-
         List<Writable> record = new ArrayList<>();
+        if (sparse) {
+            sparseBuilder.clear();
+            for (int k = 1; k < tokens.length; k++) {
+                int colon = tokens[k].indexOf(':');
+                if (colon <= 0 || colon != tokens[k].lastIndexOf(':')) {
+                    throw new NumberFormatException("Invalid data: " + tokens[k]);
+                }
+                int j = Integer.parseInt(tokens[k].substring(0, colon)) - 1;
+                sparseBuilder.add(j, Double.parseDouble(tokens[k].substring(colon + 1)));
+            }
+            record.add(sparseBuilder.build(numFeatures));
+            if (classification && appendLabel || !classification) {
+                record.add(new DoubleWritable(response));
+            }
+            return record;
+        }
+
         int read = 0;
         for (int k = 1; k < tokens.length; k++) {
             String[] pair = tokens[k].split(":");
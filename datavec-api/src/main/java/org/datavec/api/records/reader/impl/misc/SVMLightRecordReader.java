@@ -19,6 +19,7 @@ package org.datavec.api.records.reader.impl.misc;
 
 import org.datavec.api.records.reader.impl.LineRecordReader;
 import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.split.InputSplit;
 import org.datavec.api.writable.Writable;
@@ -46,6 +47,11 @@ public class SVMLightRecordReader extends LineRecordReader {
     private static Logger log = LoggerFactory.getLogger(SVMLightRecordReader.class);
     private int numAttributes = -1;
     public final static String NUM_ATTRIBUTES = SVMLightRecordReader.class.getName() + ".numattributes";
+    /** If true: return each record as [SparseVectorWritable, label] instead of one DoubleWritable per attribute.
+     * The vector size is {@link #NUM_ATTRIBUTES} if set, or the maximum index on each line otherwise */
+    public final static String SPARSE = SVMLightRecordReader.class.getName() + ".sparse";
+    private boolean sparse = false;
+    private final SparseVectorBuilder sparseBuilder = new SparseVectorBuilder();
     public SVMLightRecordReader() {
     }
 
@@ -55,35 +61,22 @@ public class SVMLightRecordReader extends LineRecordReader {
         String val = new String(t.getBytes());
         List<Writable> ret = new ArrayList<>();
         StringTokenizer tok;
-        int	index,max;
+        int	index;
         String	col;
         double	value;
 
         // actual data
         try {
-            // determine max index
-            max = 0;
-            tok = new StringTokenizer(val, " \t");
-            tok.nextToken();  // skip class
-            while (tok.hasMoreTokens()) {
-                col = tok.nextToken();
-                // finished?
-                if (col.startsWith("#"))
-                    break;
-                // qid is not supported
-                if (col.startsWith("qid:"))
-                    continue;
-                // actual value
-                index = Integer.parseInt(col.substring(0, col.indexOf(":")));
-                if (index > max)
-                    max = index;
-            }
-
-            // read values into array
+            // single pass: indices are sorted, so no need to find the max index first
             tok    = new StringTokenizer(val, " \t");
 
             // 1. class
             double classVal = Double.parseDouble(tok.nextToken());
+            if(sparse) {
+                ret.add(parseSparse(tok));
+                ret.add(new DoubleWritable(classVal));
+                return ret;
+            }
             int numAttributesAdded = 0;
             // 2. attributes
             while (tok.hasMoreTokens()) {
@@ -131,6 +124,7 @@ public class SVMLightRecordReader extends LineRecordReader {
         super.initialize(conf, split);
         if(conf.get(NUM_ATTRIBUTES) != null)
             numAttributes = conf.getInt(NUM_ATTRIBUTES,-1);
+        sparse = conf.getBoolean(SPARSE, false);
 
     }
 
@@ -139,6 +133,22 @@ public class SVMLightRecordReader extends LineRecordReader {
         super.setConf(conf);
         if(conf.get(NUM_ATTRIBUTES) != null)
             numAttributes = conf.getInt(NUM_ATTRIBUTES,-1);
+        sparse = conf.getBoolean(SPARSE, false);
+    }
+
+    private SparseVectorWritable parseSparse(StringTokenizer tok) {
+        sparseBuilder.clear();
+        while (tok.hasMoreTokens()) {
+            String col = tok.nextToken();
+            if (col.startsWith("#"))
+                break;
+            if (col.startsWith("qid:"))
+                continue;
+            int colon = col.indexOf(':');
+            int index = Integer.parseInt(col.substring(0, colon)) - 1;
+            sparseBuilder.add(index, Double.parseDouble(col.substring(colon + 1)));
+        }
+        return sparseBuilder.build(numAttributes);
     }
 
     @Override
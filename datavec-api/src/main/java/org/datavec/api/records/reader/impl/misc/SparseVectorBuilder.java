@@ -0,0 +1,98 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.misc;
+
+import org.datavec.api.writable.SparseVectorWritable;
+
+import java.util.Arrays;
+
+/**
+ * Accumulates (index, value) pairs parsed from a single LibSVM/SVMLight line, without densifying, and builds a
+ * {@link SparseVectorWritable}. Buffers are reused between lines. Not thread safe.
+ */
+public class SparseVectorBuilder {
+
+    private int[] indices = new int[16];
+    private double[] values = new double[16];
+    private int count;
+    private int maxIndex = -1;
+    private boolean sorted = true;
+
+    /** Clear all entries, to start building a new vector */
+    public void clear() {
+        count = 0;
+        maxIndex = -1;
+        sorted = true;
+    }
+
+    /** Add an entry; zero values are skipped. Index is 0-based */
+    public void add(int index, double value) {
+        if (index < 0) {
+            throw new IllegalStateException("Invalid (negative) feature index: " + index);
+        }
+        if (value == 0.0) {
+            return;
+        }
+        if (count == indices.length) {
+            indices = Arrays.copyOf(indices, 2 * count);
+            values = Arrays.copyOf(values, 2 * count);
+        }
+        if (index <= maxIndex) {
+            sorted = false;
+        } else {
+            maxIndex = index;
+        }
+        indices[count] = index;
+        values[count++] = value;
+    }
+
+    /**
+     * @param size Vector size. If less than 1: use the maximum index seen + 1
+     */
+    public SparseVectorWritable build(int size) {
+        int[] idx = Arrays.copyOf(indices, count);
+        double[] vals = Arrays.copyOf(values, count);
+        if (!sorted) {
+            sortByIndex(idx, vals);
+        }
+        int n = size >= 1 ? size : maxIndex + 1;
+        if (maxIndex >= n) {
+            throw new IllegalStateException("Feature index " + (maxIndex + 1) + " (1-based) exceeds number of features ("
+                    + n + ")");
+        }
+        return new SparseVectorWritable(n, idx, vals);
+    }
+
+    private static void sortByIndex(int[] idx, double[] vals) {
+        //Insertion sort: lines are normally sorted or nearly sorted
+        for (int i = 1; i < idx.length; i++) {
+            int ki = idx[i];
+            double kv = vals[i];
+            int j = i - 1;
+            while (j >= 0 && idx[j] > ki) {
+                idx[j + 1] = idx[j];
+                vals[j + 1] = vals[j];
+                j--;
+            }
+            if (j >= 0 && idx[j] == ki) {
+                throw new IllegalStateException("Duplicate feature index: " + (ki + 1) + " (1-based)");
+            }
+            idx[j + 1] = ki;
+            vals[j + 1] = kv;
+        }
+    }
+}
@@ -20,6 +20,8 @@ import org.datavec.api.writable.Text;
 import org.datavec.api.split.InputSplit;
 import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.reader.impl.LineRecordReader;
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Writable;
 
 import java.io.DataInputStream;
@@ -49,6 +51,7 @@ public class RegexLineRecordReader extends LineRecordReader {
     private Pattern pattern;
     private int numLinesSkipped;
     private int currLine = 0;
+    private SchemaWritableParser schemaParser;
 
     public RegexLineRecordReader(String regex, int skipNumLines){
         this.regex = regex;
@@ -56,6 +59,25 @@ public class RegexLineRecordReader extends LineRecordReader {
         this.pattern = Pattern.compile(regex);
     }
 
+    /**
+     * As per {@link #RegexLineRecordReader(String, int)}, but parse each value according to the column types of the
+     * schema (instead of returning Text values). Values that can't be parsed are returned as Text.
+     */
+    public RegexLineRecordReader(String regex, int skipNumLines, Schema schema){
+        this(regex, skipNumLines, schema, SchemaWritableParser.InvalidValueMode.KeepText);
+    }
+
+    /**
+     * As per {@link #RegexLineRecordReader(String, int)}, but parse each value according to the column types of the
+     * schema (instead of returning Text values)
+     *
+     * @param invalidValueMode How to handle values that can't be parsed according to the schema
+     */
+    public RegexLineRecordReader(String regex, int skipNumLines, Schema schema, SchemaWritableParser.InvalidValueMode invalidValueMode){
+        this(regex, skipNumLines);
+        this.schemaParser = new SchemaWritableParser(schema, invalidValueMode);
+    }
+
     @Override
     public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
         super.initialize(conf, split);
@@ -90,6 +112,13 @@ public class RegexLineRecordReader extends LineRecordReader {
         List<Writable> ret;
         if(m.matches()){
             int count = m.groupCount();
+            if(schemaParser != null){
+                String[] values = new String[count];
+                for( int i=1; i<=count; i++){
+                    values[i-1] = m.group(i);
+                }
+                return schemaParser.parse(values);
+            }
             ret = new ArrayList<>(count);
             for( int i=1; i<=count; i++){    //Note: Matcher.group(0) is the entire sequence; we only care about groups 1 onward
                 ret.add(new Text(m.group(i)));
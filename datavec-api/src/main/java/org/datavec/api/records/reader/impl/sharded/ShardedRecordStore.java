@@ -0,0 +1,203 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.sharded;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * A sharded, seekable store of records, as written by
+ * {@link org.datavec.api.records.writer.impl.sharded.ShardedRecordWriter}.<br>
+ * Each shard consists of a data file (records encoded using
+ * {@link WritableUtils#writeRecord(List, DataOutput)}, back to back) and an index file ({@link #INDEX_EXTENSION})
+ * containing the byte offset of each record, plus the end offset of the last record. The index files are memory
+ * mapped, so random access to any record ({@link #getRecord(long)}) requires a single positioned read, without
+ * loading the index onto the heap. Entire shards can also be read sequentially, via {@link #readShard(int)}.<br>
+ * Instances are thread safe.
+ */
+public class ShardedRecordStore implements Closeable {
+
+    public static final String SHARD_EXTENSION = ".bin";
+    public static final String INDEX_EXTENSION = ".idx";
+
+    private final File[] shards;
+    private final LongBuffer[] indexes;
+    private final long[] shardStart;
+    private final long numRecords;
+    private final FileChannel[] channels;
+
+    /**
+     * Open the sharded record store in the specified directory
+     */
+    public ShardedRecordStore(File directory) throws IOException {
+        this(listShards(directory));
+    }
+
+    /**
+     * Open a sharded record store with the specified shard files, in the order provided. Only files with extension
+     * {@link #SHARD_EXTENSION} are used as shards: any other files (such as the index files, or files written by other
+     * tools into the same directory) in the array are ignored.
+     *
+     * @param locations Shard files
+     */
+    public ShardedRecordStore(URI[] locations) throws IOException {
+        List<File> files = new ArrayList<>();
+        for (URI u : locations) {
+            if (u.getPath().endsWith(SHARD_EXTENSION)) files.add(new File(u));
+        }
+        this.shards = files.toArray(new File[files.size()]);
+        this.indexes = new LongBuffer[shards.length];
+        this.shardStart = new long[shards.length];
+        this.channels = new FileChannel[shards.length];
+        long count = 0;
+        for (int i = 0; i < shards.length; i++) {
+            File idx = indexFileFor(shards[i]);
+            if (!idx.exists()) throw new IllegalStateException("Index file for shard " + shards[i] + " does not exist");
+            try (RandomAccessFile raf = new RandomAccessFile(idx, "r")) {
+                indexes[i] = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length()).asLongBuffer();
+            }
+            shardStart[i] = count;
+            count += numRecords(i);
+        }
+        this.numRecords = count;
+    }
+
+    private static URI[] listShards(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) throw new IllegalStateException("Not a directory: " + directory);
+        List<URI> out = new ArrayList<>();
+        Arrays.sort(files);
+        for (File f : files) {
+            if (f.getName().endsWith(SHARD_EXTENSION)) out.add(f.toURI());
+        }
+        return out.toArray(new URI[out.size()]);
+    }
+
+    /**
+     * @return File name for the shard with the specified index
+     */
+    public static String shardName(int shardIdx) {
+        return String.format("shard-%05d%s", shardIdx, SHARD_EXTENSION);
+    }
+
+    /**
+     * @return The index file for the specified shard
+     */
+    public static File indexFileFor(File shard) {
+        String name = shard.getName();
+        if (name.endsWith(SHARD_EXTENSION)) name = name.substring(0, name.length() - SHARD_EXTENSION.length());
+        return new File(shard.getParentFile(), name + INDEX_EXTENSION);
+    }
+
+    /**
+     * @return Total number of records in all shards
+     */
+    public long numRecords() {
+        return numRecords;
+    }
+
+    /**
+     * @return Number of shards
+     */
+    public int numShards() {
+        return shards.length;
+    }
+
+    /**
+     * @return Number of records in the specified shard
+     */
+    public int numRecords(int shard) {
+        return indexes[shard].limit() - 1;
+    }
+
+    /**
+     * Get the record with the specified index (over all shards)
+     *
+     * @param index Index of the record, 0 to {@link #numRecords()}-1
+     */
+    public List<Writable> getRecord(long index) throws IOException {
+        if (index < 0 || index >= numRecords) {
+            throw new IndexOutOfBoundsException("Invalid record index " + index + ": must be between 0 and "
+                    + (numRecords - 1) + " inclusive");
+        }
+        int shard = Arrays.binarySearch(shardStart, index);
+        if (shard < 0) {
+            shard = -shard - 2;
+        } else {
+            //Skip over any empty shards
+            while (shard < shardStart.length - 1 && shardStart[shard + 1] == index) shard++;
+        }
+        return getRecord(shard, (int) (index - shardStart[shard]));
+    }
+
+    /**
+     * Get the record with the specified index within a shard
+     *
+     * @param shard Index of the shard
+     * @param index Index of the record within the shard
+     */
+    public List<Writable> getRecord(int shard, int index) throws IOException {
+        LongBuffer idx = indexes[shard];
+        long start = idx.get(index);
+        int length = (int) (idx.get(index + 1) - start);
+        ByteBuffer bb = ByteBuffer.allocate(length);
+        FileChannel channel = channel(shard);
+        while (bb.hasRemaining()) {
+            int n = channel.read(bb, start + bb.position());
+            if (n < 0) throw new EOFException("Unexpected end of shard file " + shards[shard]);
+        }
+        return WritableUtils.readRecord(new DataInputStream(new ByteArrayInputStream(bb.array())));
+    }
+
+    /**
+     * Read all records in the specified shard, sequentially
+     */
+    public List<List<Writable>> readShard(int shard) throws IOException {
+        int n = numRecords(shard);
+        List<List<Writable>> out = new ArrayList<>(n);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(shards[shard])))) {
+            for (int i = 0; i < n; i++) {
+                out.add(WritableUtils.readRecord(in));
+            }
+        }
+        return out;
+    }
+
+    private synchronized FileChannel channel(int shard) throws IOException {
+        if (channels[shard] == null) {
+            channels[shard] = new RandomAccessFile(shards[shard], "r").getChannel();
+        }
+        return channels[shard];
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (int i = 0; i < channels.length; i++) {
+            if (channels[i] != null) {
+                channels[i].close();
+                channels[i] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.sharded;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.records.reader.BaseRecordReader;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * A record reader that returns the records of a {@link ShardedRecordStore} in a different random order each epoch,
+ * using bounded memory and (mostly) sequential I/O.<br>
+ * Each epoch: the order of the shards is randomly permuted; shards are then read sequentially, shardsPerBuffer shards
+ * at a time, and the records in each buffer are shuffled before being returned. Consequently, at most shardsPerBuffer
+ * shards are held in memory at once. Increasing shardsPerBuffer (or decreasing the number of records per shard)
+ * makes the ordering closer to a uniformly random permutation of all records.<br>
+ * The ordering is a deterministic function of the seed and the epoch number. The epoch is incremented on each call
+ * to {@link #reset()}, or can be set directly using {@link #setEpoch(int)}.<br>
+ * Initialize with an InputSplit whose locations are the shard files (index files are ignored); for example, a
+ * {@link org.datavec.api.split.FileSplit} for the store's directory.
+ */
+public class ShuffledRecordReader extends BaseRecordReader {
+
+    public static final int DEFAULT_SHARDS_PER_BUFFER = 4;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final int shardsPerBuffer;
+    protected Configuration conf;
+
+    private ShardedRecordStore store;
+    private int epoch;
+    private Random rng;
+    private int[] shardOrder;
+    private int nextShard;
+    private List<List<Writable>> buffer = Collections.emptyList();
+    private int bufferPos;
+
+    /**
+     * @param seed Random seed
+     */
+    public ShuffledRecordReader(long seed) {
+        this(seed, DEFAULT_SHARDS_PER_BUFFER);
+    }
+
+    /**
+     * @param seed            Random seed
+     * @param shardsPerBuffer Number of shards to read into memory and shuffle together
+     */
+    public ShuffledRecordReader(long seed, int shardsPerBuffer) {
+        if (shardsPerBuffer <= 0)
+            throw new IllegalArgumentException("Shards per buffer must be > 0. Got: " + shardsPerBuffer);
+        this.seed = seed;
+        this.shardsPerBuffer = shardsPerBuffer;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException, InterruptedException {
+        close();
+        store = new ShardedRecordStore(split.locations());
+        epoch = 0;
+        startEpoch();
+    }
+
+    @Override
+    public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
+        this.conf = conf;
+        initialize(split);
+    }
+
+    /**
+     * @return The underlying record store, for random access
+     */
+    public ShardedRecordStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return The current epoch number
+     */
+    public int getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Set the epoch number, and restart iteration using the ordering for that epoch
+     */
+    public void setEpoch(int epoch) {
+        this.epoch = epoch;
+        startEpoch();
+    }
+
+    /**
+     * Seed for the given epoch: the seed and epoch are combined using the SplitMix64 finalizer, so that the orderings
+     * for consecutive epochs (or for seeds that differ by a multiple of the epoch) are unrelated
+     */
+    private static long epochSeed(long seed, int epoch) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        return mix(h + GOLDEN_GAMMA * (epoch + 1L));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void startEpoch() {
+        if (store == null) throw new IllegalStateException("Record reader has not been initialized");
+        rng = new Random(epochSeed(seed, epoch));
+        shardOrder = new int[store.numShards()];
+        for (int i = 0; i < shardOrder.length; i++) shardOrder[i] = i;
+        for (int i = shardOrder.length - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = shardOrder[i];
+            shardOrder[i] = shardOrder[j];
+            shardOrder[j] = tmp;
+        }
+        nextShard = 0;
+        buffer = Collections.emptyList();
+        bufferPos = 0;
+    }
+
+    private void fillBuffer() throws IOException {
+        List<List<Writable>> b = new ArrayList<>();
+        for (int i = 0; i < shardsPerBuffer && nextShard < shardOrder.length; i++) {
+            b.addAll(store.readShard(shardOrder[nextShard++]));
+        }
+        Collections.shuffle(b, rng);
+        buffer = b;
+        bufferPos = 0;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (store == null) throw new IllegalStateException("Record reader has not been initialized");
+        while (bufferPos >= buffer.size()) {
+            if (nextShard >= shardOrder.length) return false;
+            try {
+                fillBuffer();
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading shard", e);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<Writable> next() {
+        if (!hasNext()) throw new NoSuchElementException("No more elements found!");
+        List<Writable> ret = buffer.get(bufferPos);
+        //Release references as we go, so buffered records can be garbage collected
+        buffer.set(bufferPos++, null);
+        invokeListeners(ret);
+        return ret;
+    }
+
+    /**
+     * Restart iteration, using the ordering for the next epoch
+     */
+    @Override
+    public void reset() {
+        setEpoch(epoch + 1);
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return null;
+    }
+
+    @Override
+    public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+        invokeListeners(uri);
+        return WritableUtils.readRecord(dataInputStream);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (store != null) store.close();
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+}
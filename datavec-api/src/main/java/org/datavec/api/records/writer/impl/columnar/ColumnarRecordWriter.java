@@ -0,0 +1,176 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.writer.impl.columnar;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.records.reader.impl.columnar.ColumnChunkMetadata;
+import org.datavec.api.records.reader.impl.columnar.ColumnarFormat;
+import org.datavec.api.records.writer.RecordWriter;
+import org.datavec.api.writable.Writable;
+import org.datavec.api.writable.WritableType;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes records in the binary columnar format described in {@link ColumnarFormat}, for reading with
+ * {@link org.datavec.api.records.reader.impl.columnar.ColumnarRecordReader}.<br>
+ * Records are buffered in memory until a full row group has been collected; the row group is then written one column
+ * chunk at a time, along with min/max statistics for each chunk. The footer is written when the writer is closed:
+ * the file is not readable until {@link #close()} has been called.<br>
+ * All records must have the same number of values.
+ */
+public class ColumnarRecordWriter implements RecordWriter {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 8192;
+
+    private final int rowGroupSize;
+    private final boolean compress;
+    private Configuration conf;
+
+    private OutputStream out;
+    private long position;
+    private int numColumns = -1;
+    private List<List<Writable>> buffer;
+    private List<Integer> rowGroupNumRows = new ArrayList<>();
+    private List<ColumnChunkMetadata[]> rowGroupChunks = new ArrayList<>();
+
+    /**
+     * Create a writer with the default row group size and no compression
+     *
+     * @param file File to write to. Will be overwritten if it exists
+     */
+    public ColumnarRecordWriter(File file) throws IOException {
+        this(file, DEFAULT_ROW_GROUP_SIZE, false);
+    }
+
+    /**
+     * @param file         File to write to. Will be overwritten if it exists
+     * @param rowGroupSize Number of records per row group
+     * @param compress     If true: compress each column chunk (DEFLATE)
+     */
+    public ColumnarRecordWriter(File file, int rowGroupSize, boolean compress) throws IOException {
+        if (rowGroupSize <= 0) throw new IllegalArgumentException("Row group size must be > 0. Got: " + rowGroupSize);
+        this.rowGroupSize = rowGroupSize;
+        this.compress = compress;
+        this.buffer = new ArrayList<>(rowGroupSize);
+        this.out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.write(ColumnarFormat.MAGIC);
+            dos.writeInt(ColumnarFormat.VERSION);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+        position = ColumnarFormat.MAGIC.length + 4;
+    }
+
+    @Override
+    public void write(Collection<Writable> record) throws IOException {
+        if (out == null) throw new IllegalStateException("Cannot write record: writer has been closed");
+        if (numColumns < 0) {
+            numColumns = record.size();
+        } else if (record.size() != numColumns) {
+            throw new IllegalStateException("Invalid record: expected " + numColumns + " values, got "
+                    + record.size() + " values. All records must have the same number of values");
+        }
+        buffer.add(new ArrayList<>(record));
+        if (buffer.size() >= rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    private void writeRowGroup() throws IOException {
+        if (buffer.isEmpty()) return;
+        ColumnChunkMetadata[] chunks = new ColumnChunkMetadata[numColumns];
+        List<Writable> values = new ArrayList<>(buffer.size());
+        for (int c = 0; c < numColumns; c++) {
+            values.clear();
+            for (List<Writable> record : buffer) {
+                values.add(record.get(c));
+            }
+
+            byte type = chunkType(values);
+            double min = Double.NaN;
+            double max = Double.NaN;
+            for (Writable w : values) {
+                if (!ColumnarFormat.isNumerical(WritableType.typeOf(w))) continue;
+                double d = w.toDouble();
+                if (Double.isNaN(d)) continue;
+                if (Double.isNaN(min) || d < min) min = d;
+                if (Double.isNaN(max) || d > max) max = d;
+            }
+
+            byte[] encoded = ColumnarFormat.encodeChunk(values, type);
+            byte[] bytes = (compress ? ColumnarFormat.compress(encoded) : encoded);
+            out.write(bytes);
+            chunks[c] = new ColumnChunkMetadata(position, bytes.length, encoded.length, compress, values.size(), type,
+                    min, max);
+            position += bytes.length;
+        }
+        rowGroupNumRows.add(buffer.size());
+        rowGroupChunks.add(chunks);
+        buffer.clear();
+    }
+
+    private static byte chunkType(List<Writable> values) {
+        WritableType type = null;
+        for (Writable w : values) {
+            WritableType t = WritableType.typeOf(w);
+            if (t == WritableType.Other || (type != null && t != type)) return ColumnarFormat.TYPE_MIXED;
+            type = t;
+        }
+        return (type == null ? ColumnarFormat.TYPE_MIXED : type.typeIdx());
+    }
+
+    @Override
+    public void close() {
+        if (out == null) return;
+        //The stream is closed even if writing the last row group or the footer fails
+        try (DataOutputStream dos = new DataOutputStream(out)) {
+            writeRowGroup();
+            long footerOffset = position;
+            dos.writeInt(Math.max(numColumns, 0));
+            dos.writeInt(rowGroupNumRows.size());
+            for (int i = 0; i < rowGroupNumRows.size(); i++) {
+                dos.writeInt(rowGroupNumRows.get(i));
+                for (ColumnChunkMetadata m : rowGroupChunks.get(i)) {
+                    m.write(dos);
+                }
+            }
+            dos.writeLong(footerOffset);
+            dos.write(ColumnarFormat.MAGIC);
+        } catch (IOException e) {
+            throw new RuntimeException("Error writing columnar record file", e);
+        } finally {
+            out = null;
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+}
@@ -18,6 +18,7 @@ package org.datavec.api.records.writer.impl.misc;
 
 import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.writer.impl.LineRecordWriter;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.writable.ArrayWritable;
 
@@ -72,6 +73,18 @@ public class LibSvmRecordWriter extends LineRecordWriter {
         write.append(" ");
 
         for(int i = 0; i < asList.size() - 1; i++) {
+            if(asList.get(i) instanceof SparseVectorWritable) {
+                //only the stored entries need to be written
+                SparseVectorWritable v = (SparseVectorWritable) asList.get(i);
+                int[] indices = v.getIndices();
+                double[] values = v.getValues();
+                for(int j = 0; j < indices.length; j++) {
+                    if(values[j] == 0.0)
+                        continue;
+                    write.append(indices[j] + 1).append(":").append(values[j]).append(" ");
+                }
+                continue;
+            }
             //sparse format
             try {
                 double val = Double.valueOf(asList.get(i).toString());
@@ -20,6 +20,7 @@ package org.datavec.api.records.writer.impl.misc;
 import org.datavec.api.conf.Configuration;
 import org.datavec.api.records.writer.impl.FileRecordWriter;
 import org.datavec.api.writable.ArrayWritable;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Writable;
 
 import java.io.*;
@@ -63,6 +64,18 @@ public class SVMLightRecordWriter extends FileRecordWriter {
             Double value = 0.0;
             
             for (int i = 0; i < recordList.size() - 1; i++) {
+                if (recordList.get(i) instanceof SparseVectorWritable) {
+                    //only the stored entries need to be written
+                    SparseVectorWritable v = (SparseVectorWritable) recordList.get(i);
+                    int[] indices = v.getIndices();
+                    double[] values = v.getValues();
+                    for (int j = 0; j < indices.length; j++) {
+                        if ( values[j] != 0.0 ) {
+                            result.append(" " + (indices[j] + 1) + ":" + values[j]);
+                        }
+                    }
+                    continue;
+                }
 
                 try {
                     value = Double.valueOf(recordList.get(i).toString());
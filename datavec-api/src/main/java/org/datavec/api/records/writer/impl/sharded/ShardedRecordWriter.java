@@ -0,0 +1,132 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.writer.impl.sharded;
+
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.records.reader.impl.sharded.ShardedRecordStore;
+import org.datavec.api.records.writer.RecordWriter;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes records to a sharded record store (see {@link ShardedRecordStore}): a directory of shard files, each
+ * containing at most recordsPerShard records, plus an offset index file per shard.<br>
+ * Records are written using {@link WritableUtils#writeRecord(List, DataOutput)}.
+ */
+public class ShardedRecordWriter implements RecordWriter {
+
+    public static final int DEFAULT_RECORDS_PER_SHARD = 10000;
+
+    private final File directory;
+    private final int recordsPerShard;
+    private Configuration conf;
+
+    private int shardIdx = 0;
+    private int shardRecords = 0;
+    private long shardOffset = 0;
+    private OutputStream shardOut;
+    private DataOutputStream indexOut;
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream recordOut = new DataOutputStream(recordBuffer);
+    private boolean closed;
+
+    /**
+     * @param directory Directory to write the shards to. Created if it does not exist
+     */
+    public ShardedRecordWriter(File directory) {
+        this(directory, DEFAULT_RECORDS_PER_SHARD);
+    }
+
+    /**
+     * @param directory       Directory to write the shards to. Created if it does not exist
+     * @param recordsPerShard Maximum number of records per shard
+     */
+    public ShardedRecordWriter(File directory, int recordsPerShard) {
+        if (recordsPerShard <= 0)
+            throw new IllegalArgumentException("Records per shard must be > 0. Got: " + recordsPerShard);
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IllegalStateException("Could not create directory: " + directory);
+        }
+        this.directory = directory;
+        this.recordsPerShard = recordsPerShard;
+    }
+
+    @Override
+    public void write(Collection<Writable> record) throws IOException {
+        if (closed) throw new IllegalStateException("Cannot write record: writer has been closed");
+        if (shardOut == null) openShard();
+
+        recordBuffer.reset();
+        WritableUtils.writeRecord(record instanceof List ? (List<Writable>) record : new ArrayList<>(record),
+                recordOut);
+        recordOut.flush();
+        recordBuffer.writeTo(shardOut);
+        indexOut.writeLong(shardOffset);
+        shardOffset += recordBuffer.size();
+
+        if (++shardRecords >= recordsPerShard) {
+            closeShard();
+        }
+    }
+
+    private void openShard() throws IOException {
+        File shard = new File(directory, ShardedRecordStore.shardName(shardIdx));
+        shardOut = new BufferedOutputStream(new FileOutputStream(shard));
+        indexOut = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(ShardedRecordStore.indexFileFor(shard))));
+        shardRecords = 0;
+        shardOffset = 0;
+    }
+
+    private void closeShard() throws IOException {
+        //Index has numRecords+1 entries: the last is the end offset of the last record
+        indexOut.writeLong(shardOffset);
+        indexOut.close();
+        shardOut.close();
+        indexOut = null;
+        shardOut = null;
+        shardIdx++;
+    }
+
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (shardOut != null) {
+            try {
+                closeShard();
+            } catch (IOException e) {
+                throw new RuntimeException("Error closing shard", e);
+            }
+        }
+    }
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+}
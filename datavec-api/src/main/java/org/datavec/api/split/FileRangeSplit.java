@@ -0,0 +1,237 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.split;
+
+import java.io.*;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An InputSplit consisting of one or more byte ranges of local files. Each range is defined by a file, a start offset
+ * (inclusive) and an end offset (exclusive).<br>
+ * Use {@link #split(URI[], int)} to divide one or more (large) files into a number of splits of approximately equal
+ * size, with all range boundaries aligned to the start of a line. Each split can then be read independently (for
+ * example, by separate threads or Spark partitions) using a
+ * {@link org.datavec.api.records.reader.impl.MemoryMappedLineRecordReader}.
+ */
+public class FileRangeSplit extends BaseInputSplit {
+
+    private long[] starts;
+    private long[] ends;
+
+    /** For use with {@link #readFields(DataInput)} only */
+    public FileRangeSplit() {
+        this(new URI[0], new long[0], new long[0]);
+    }
+
+    /**
+     * @param locations Files for each range (may contain duplicates)
+     * @param starts    Start byte offset (inclusive) of each range
+     * @param ends      End byte offset (exclusive) of each range
+     */
+    public FileRangeSplit(URI[] locations, long[] starts, long[] ends) {
+        if (locations.length != starts.length || locations.length != ends.length) {
+            throw new IllegalArgumentException("Locations, starts and ends arrays must have the same length");
+        }
+        for (int i = 0; i < starts.length; i++) {
+            if (starts[i] < 0 || ends[i] < starts[i]) {
+                throw new IllegalArgumentException("Invalid range " + i + ": start=" + starts[i] + ", end=" + ends[i]);
+            }
+        }
+        this.locations = locations;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @return Number of byte ranges in this split
+     */
+    public int numRanges() {
+        return locations.length;
+    }
+
+    /**
+     * @return Start byte offset (inclusive) of the specified range
+     */
+    public long getStart(int range) {
+        return starts[range];
+    }
+
+    /**
+     * @return End byte offset (exclusive) of the specified range
+     */
+    public long getEnd(int range) {
+        return ends[range];
+    }
+
+    /**
+     * @return Total number of bytes in all ranges of this split
+     */
+    @Override
+    public long length() {
+        long sum = 0;
+        for (int i = 0; i < starts.length; i++) {
+            sum += ends[i] - starts[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Split the given file into (up to) numSplits splits of approximately equal size, aligned to line boundaries
+     */
+    public static List<FileRangeSplit> split(File file, int numSplits) throws IOException {
+        return split(new URI[]{file.toURI()}, numSplits);
+    }
+
+    /**
+     * Split the given files into numSplits splits of approximately equal size (in bytes). The files are treated as if
+     * they were concatenated: a split may contain ranges from multiple files, and a file may be split across multiple
+     * splits. Range boundaries within a file are moved forward to the start of the next line, so each line is
+     * contained in exactly one split. Consequently, splits may be empty if lines are long relative to the split size.
+     * If there are no files, an empty list is returned.
+     *
+     * @param files     Local files to split
+     * @param numSplits Number of splits
+     */
+    public static List<FileRangeSplit> split(URI[] files, int numSplits) throws IOException {
+        if (numSplits <= 0) throw new IllegalArgumentException("Number of splits must be > 0. Got: " + numSplits);
+        if (files.length == 0) return new ArrayList<>();
+        long[] sizes = new long[files.length];
+        long total = 0;
+        for (int i = 0; i < files.length; i++) {
+            sizes[i] = new File(files[i]).length();
+            total += sizes[i];
+        }
+
+        //Boundaries between splits, as (file index, aligned offset) pairs
+        int[] boundaryFile = new int[numSplits + 1];
+        long[] boundaryOffset = new long[numSplits + 1];
+        boundaryFile[numSplits] = files.length;
+        for (int s = 1; s < numSplits; s++) {
+            long target = total * s / numSplits;
+            int f = 0;
+            while (f < files.length - 1 && target >= sizes[f]) {
+                target -= sizes[f];
+                f++;
+            }
+            boundaryFile[s] = f;
+            boundaryOffset[s] = alignToLineStart(new File(files[f]), Math.min(target, sizes[f]));
+            //Boundaries must not move backwards
+            if (boundaryFile[s] == boundaryFile[s - 1] && boundaryOffset[s] < boundaryOffset[s - 1]) {
+                boundaryOffset[s] = boundaryOffset[s - 1];
+            }
+        }
+
+        List<FileRangeSplit> out = new ArrayList<>(numSplits);
+        for (int s = 0; s < numSplits; s++) {
+            List<URI> uris = new ArrayList<>();
+            List<Long> starts = new ArrayList<>();
+            List<Long> ends = new ArrayList<>();
+            for (int f = boundaryFile[s]; f <= boundaryFile[s + 1] && f < files.length; f++) {
+                long start = (f == boundaryFile[s] ? boundaryOffset[s] : 0);
+                long end = (f == boundaryFile[s + 1] ? boundaryOffset[s + 1] : sizes[f]);
+                if (end > start) {
+                    uris.add(files[f]);
+                    starts.add(start);
+                    ends.add(end);
+                }
+            }
+            long[] st = new long[starts.size()];
+            long[] en = new long[ends.size()];
+            for (int i = 0; i < st.length; i++) {
+                st[i] = starts.get(i);
+                en[i] = ends.get(i);
+            }
+            out.add(new FileRangeSplit(uris.toArray(new URI[uris.size()]), st, en));
+        }
+        return out;
+    }
+
+    /**
+     * @return The offset of the first line that starts at or after the given offset (or the file length, if none)
+     */
+    private static long alignToLineStart(File file, long offset) throws IOException {
+        if (offset == 0) return 0;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            long length = raf.length();
+            //Offset is already the start of a line if the previous byte is a line terminator. As per
+            //BufferedReader.readLine(), lines are terminated by '\n', '\r' or "\r\n"
+            long pos = offset - 1;
+            raf.seek(pos);
+            byte[] buffer = new byte[8192];
+            boolean prevCR = false;
+            while (pos < length) {
+                int n = raf.read(buffer);
+                if (n <= 0) break;
+                for (int i = 0; i < n; i++) {
+                    if (prevCR && buffer[i] != '\n') return pos + i;
+                    if (buffer[i] == '\n') return pos + i + 1;
+                    prevCR = buffer[i] == '\r';
+                }
+                pos += n;
+            }
+            return length;
+        }
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(locations.length);
+        for (int i = 0; i < locations.length; i++) {
+            out.writeUTF(locations[i].toString());
+            out.writeLong(starts[i]);
+            out.writeLong(ends[i]);
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        int n = in.readInt();
+        locations = new URI[n];
+        starts = new long[n];
+        ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            locations[i] = URI.create(in.readUTF());
+            starts[i] = in.readLong();
+            ends[i] = in.readLong();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("FileRangeSplit(");
+        for (int i = 0; i < locations.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(locations[i]).append("[").append(starts[i]).append("-").append(ends[i]).append(")");
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof FileRangeSplit)) return false;
+        FileRangeSplit s = (FileRangeSplit) o;
+        return Arrays.equals(locations, s.locations) && Arrays.equals(starts, s.starts) && Arrays.equals(ends, s.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(locations) + Arrays.hashCode(starts)) + Arrays.hashCode(ends);
+    }
+}
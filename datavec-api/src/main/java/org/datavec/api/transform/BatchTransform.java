@@ -0,0 +1,34 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform;
+
+import org.datavec.api.records.batch.RecordBatch;
+
+/**
+ * A transform that can operate on a batch of examples in columnar format ({@link RecordBatch}), for example by
+ * operating on whole primitive columns. Transforms that do not implement this interface are executed on batches one
+ * example at a time (see {@link org.datavec.api.transform.transform.BaseTransform#mapBatchRowWise(Transform, RecordBatch)}).
+ */
+public interface BatchTransform extends Transform {
+
+    /**
+     * Transform a batch of examples, in columnar format. The result is the same as calling {@link #map(java.util.List)}
+     * on each example in the batch
+     */
+    RecordBatch mapBatch(RecordBatch batch);
+
+}
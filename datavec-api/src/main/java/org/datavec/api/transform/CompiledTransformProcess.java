@@ -0,0 +1,350 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform;
+
+import org.datavec.api.transform.filter.Filter;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.transform.BaseColumnTransform;
+import org.datavec.api.transform.transform.column.DuplicateColumnsTransform;
+import org.datavec.api.transform.transform.column.RemoveColumnsTransform;
+import org.datavec.api.transform.transform.column.RenameColumnsTransform;
+import org.datavec.api.transform.transform.column.ReorderColumnsTransform;
+import org.datavec.api.writable.Writable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compiled form of the transform and filter steps of a {@link TransformProcess}, for executing examples individually.
+ * <p>
+ * {@link TransformProcess#execute(List)} creates a new list for every step, even for steps that only modify a single
+ * column. Here, each example is instead copied once into a working array of "slots", and:<br>
+ * - Single column transforms ({@link BaseColumnTransform}) replace the value in a slot, in place<br>
+ * - Remove, rename, reorder and duplicate column steps are applied at compile time: they only change the mapping from
+ * columns to slots, and are combined into a single projection when the output is created<br>
+ * - Filters are applied to a view of the current slots (the views of all steps, for sequences)<br>
+ * Any other transforms are executed as normal (via {@link Transform#map(List)}, or {@link Transform#mapSequence(List)}
+ * for sequences), after which their output is copied back into the slots. Consequently, in the absence of such
+ * transforms, only the output list is allocated per example (plus any Writables created by the transforms themselves).
+ * <p>
+ * Only transforms and filters are supported: as per {@link TransformProcess#execute(List)}, other operations (reductions,
+ * conversions to/from sequences, etc.) require the full data set to be processed at once.<br>
+ * Instances are thread safe (assuming the transforms and filters are).
+ *
+ * @see TransformProcess#compile()
+ */
+public class CompiledTransformProcess implements Serializable {
+
+    private final int numInputColumns;
+    private final int numSlots;
+    private final Op[] ops;
+    private final int[] outputSlots;
+    private final Schema finalSchema;
+
+    private transient ThreadLocal<Writable[]> slots = new ThreadLocal<>();
+
+    /**
+     * @param inputSchema Schema of the input data
+     * @param actions     Actions to compile. All actions must be transforms or filters
+     */
+    public CompiledTransformProcess(Schema inputSchema, List<DataAction> actions) {
+        this.numInputColumns = inputSchema.numColumns();
+
+        Schema current = inputSchema;
+        int[] mapping = identity(current.numColumns());
+        int nextSlot = mapping.length;
+        int maxSlots = mapping.length;
+        List<Op> opList = new ArrayList<>();
+
+        for (DataAction d : actions) {
+            Transform t = d.getTransform();
+            if (t != null) {
+                Schema out = t.transform(current);
+                if (t instanceof BaseColumnTransform) {
+                    int column = current.getIndexOfColumn(((BaseColumnTransform) t).getColumnName());
+                    int src = mapping[column];
+                    int dst = src;
+                    if (isShared(mapping, column)) {
+                        //Slot is also used by another (duplicated) column: don't modify it
+                        dst = nextSlot++;
+                        mapping[column] = dst;
+                    }
+                    opList.add(new ColumnOp((BaseColumnTransform) t, src, dst));
+                } else if (t instanceof RenameColumnsTransform) {
+                    //No op: only the column names change
+                } else if (t instanceof RemoveColumnsTransform || t instanceof ReorderColumnsTransform) {
+                    int[] newMapping = new int[out.numColumns()];
+                    for (int i = 0; i < newMapping.length; i++) {
+                        newMapping[i] = mapping[current.getIndexOfColumn(out.getName(i))];
+                    }
+                    mapping = newMapping;
+                } else if (t instanceof DuplicateColumnsTransform) {
+                    //Each duplicate is placed directly after the original column, and has a new name
+                    int[] newMapping = new int[out.numColumns()];
+                    int inIdx = 0;
+                    for (int i = 0; i < newMapping.length; i++) {
+                        if (inIdx < current.numColumns() && out.getName(i).equals(current.getName(inIdx))) {
+                            newMapping[i] = mapping[inIdx++];
+                        } else {
+                            newMapping[i] = mapping[inIdx - 1];
+                        }
+                    }
+                    mapping = newMapping;
+                } else {
+                    opList.add(new TransformOp(t, mapping.clone()));
+                    mapping = identity(out.numColumns());
+                    nextSlot = mapping.length;
+                }
+                current = out;
+            } else if (d.getFilter() != null) {
+                opList.add(new FilterOp(d.getFilter(), mapping.clone()));
+            } else {
+                throw new IllegalStateException("Cannot compile TransformProcess: only transform and filter operations "
+                        + "can be compiled. Got: " + d);
+            }
+            maxSlots = Math.max(maxSlots, Math.max(nextSlot, mapping.length));
+        }
+
+        this.numSlots = maxSlots;
+        this.ops = opList.toArray(new Op[opList.size()]);
+        this.outputSlots = mapping;
+        this.finalSchema = current;
+    }
+
+    private static int[] identity(int n) {
+        int[] out = new int[n];
+        for (int i = 0; i < n; i++) out[i] = i;
+        return out;
+    }
+
+    private static boolean isShared(int[] mapping, int column) {
+        for (int i = 0; i < mapping.length; i++) {
+            if (i != column && mapping[i] == mapping[column]) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Schema of the output data
+     */
+    public Schema getFinalSchema() {
+        return finalSchema;
+    }
+
+    /**
+     * Execute the compiled transforms and filters on a single example.
+     *
+     * @param input Example to transform. Not modified.
+     * @return The transformed example, or null if the example was removed by a filter
+     */
+    public List<Writable> execute(List<Writable> input) {
+        if (input.size() != numInputColumns) {
+            throw new IllegalStateException("Cannot execute: input writables list length (" + input.size() + ") does not "
+                    + "match expected number of elements (schema: " + numInputColumns + ")");
+        }
+        Writable[] s = slots.get();
+        if (s == null) {
+            s = new Writable[numSlots];
+            slots.set(s);
+        }
+
+        for (int i = 0; i < numInputColumns; i++) {
+            s[i] = input.get(i);
+        }
+        for (Op op : ops) {
+            if (!op.apply(s)) return null;
+        }
+
+        List<Writable> out = new ArrayList<>(outputSlots.length);
+        for (int slot : outputSlots) {
+            out.add(s[slot]);
+        }
+        return out;
+    }
+
+    /**
+     * Execute the compiled transforms and filters on a sequence. As per
+     * {@link TransformProcess#executeSequenceToSequence(List)}, transforms other than single column and
+     * remove/rename/reorder/duplicate column transforms are executed via {@link Transform#mapSequence(List)} on the
+     * entire sequence, and filters via {@link Filter#removeSequence(List)}.
+     *
+     * @param input Sequence to transform. Not modified.
+     * @return The transformed sequence, or null if the sequence was removed by a filter
+     */
+    public List<List<Writable>> executeSequenceToSequence(List<List<Writable>> input) {
+        List<Writable[]> steps = new ArrayList<>(input.size());
+        for (List<Writable> step : input) {
+            if (step.size() != numInputColumns) {
+                throw new IllegalStateException("Cannot execute: input writables list length (" + step.size()
+                        + ") does not match expected number of elements (schema: " + numInputColumns + ")");
+            }
+            Writable[] s = new Writable[numSlots];
+            for (int i = 0; i < numInputColumns; i++) {
+                s[i] = step.get(i);
+            }
+            steps.add(s);
+        }
+
+        for (Op op : ops) {
+            steps = op.applySequence(steps, numSlots);
+            if (steps == null) return null;
+        }
+
+        List<List<Writable>> out = new ArrayList<>(steps.size());
+        for (Writable[] s : steps) {
+            List<Writable> step = new ArrayList<>(outputSlots.length);
+            for (int slot : outputSlots) {
+                step.add(s[slot]);
+            }
+            out.add(step);
+        }
+        return out;
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        slots = new ThreadLocal<>();
+    }
+
+    private interface Op extends Serializable {
+        /** @return false if the example should be removed */
+        boolean apply(Writable[] slots);
+
+        /** @return the steps of the sequence after this op (possibly of a different length), or null if the sequence
+         * should be removed */
+        List<Writable[]> applySequence(List<Writable[]> steps, int numSlots);
+    }
+
+    private static class ColumnOp implements Op {
+        private final BaseColumnTransform transform;
+        private final int src;
+        private final int dst;
+
+        private ColumnOp(BaseColumnTransform transform, int src, int dst) {
+            this.transform = transform;
+            this.src = src;
+            this.dst = dst;
+        }
+
+        @Override
+        public boolean apply(Writable[] slots) {
+            slots[dst] = transform.map(slots[src]);
+            return true;
+        }
+
+        @Override
+        public List<Writable[]> applySequence(List<Writable[]> steps, int numSlots) {
+            //Single column transforms are applied to each step independently
+            for (Writable[] s : steps) {
+                s[dst] = transform.map(s[src]);
+            }
+            return steps;
+        }
+    }
+
+    private static class FilterOp implements Op {
+        private final Filter filter;
+        private final int[] mapping;
+
+        private FilterOp(Filter filter, int[] mapping) {
+            this.filter = filter;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public boolean apply(Writable[] slots) {
+            return !filter.removeExample(new SlotList(slots, mapping));
+        }
+
+        @Override
+        public List<Writable[]> applySequence(List<Writable[]> steps, int numSlots) {
+            List<List<Writable>> sequence = new ArrayList<>(steps.size());
+            for (Writable[] s : steps) {
+                sequence.add(new SlotList(s, mapping));
+            }
+            return filter.removeSequence(sequence) ? null : steps;
+        }
+    }
+
+    private static class TransformOp implements Op {
+        private final Transform transform;
+        private final int[] mapping;
+
+        private TransformOp(Transform transform, int[] mapping) {
+            this.transform = transform;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public boolean apply(Writable[] slots) {
+            List<Writable> in = new ArrayList<>(mapping.length);
+            for (int slot : mapping) {
+                in.add(slots[slot]);
+            }
+            List<Writable> out = transform.map(in);
+            for (int i = 0; i < out.size(); i++) {
+                slots[i] = out.get(i);
+            }
+            return true;
+        }
+
+        @Override
+        public List<Writable[]> applySequence(List<Writable[]> steps, int numSlots) {
+            List<List<Writable>> in = new ArrayList<>(steps.size());
+            for (Writable[] s : steps) {
+                in.add(new SlotList(s, mapping));
+            }
+            //The transform may change the length of the sequence (for example, window reductions), so new slots are
+            //created for its output
+            List<List<Writable>> out = transform.mapSequence(in);
+            List<Writable[]> outSteps = new ArrayList<>(out.size());
+            for (List<Writable> step : out) {
+                Writable[] s = new Writable[numSlots];
+                for (int i = 0; i < step.size(); i++) {
+                    s[i] = step.get(i);
+                }
+                outSteps.add(s);
+            }
+            return outSteps;
+        }
+    }
+
+    /** Read-only view of the current columns, as stored in the slots */
+    private static class SlotList extends AbstractList<Writable> {
+        private final Writable[] slots;
+        private final int[] mapping;
+
+        private SlotList(Writable[] slots, int[] mapping) {
+            this.slots = slots;
+            this.mapping = mapping;
+        }
+
+        @Override
+        public Writable get(int index) {
+            return slots[mapping[index]];
+        }
+
+        @Override
+        public int size() {
+            return mapping.length;
+        }
+    }
+}
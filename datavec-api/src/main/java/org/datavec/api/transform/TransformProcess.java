@@ -25,9 +25,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import com.fasterxml.jackson.datatype.joda.JodaModule;
+import org.datavec.api.records.batch.RecordBatch;
 import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
 import org.datavec.api.transform.condition.Condition;
 import org.datavec.api.transform.filter.Filter;
+import org.datavec.api.transform.metrics.PipelineMetrics;
+import org.datavec.api.transform.metrics.ThreadAllocation;
 import org.datavec.api.transform.rank.CalculateSortedRank;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.sequence.ConvertFromSequence;
@@ -35,6 +38,7 @@ import org.datavec.api.transform.sequence.ConvertToSequence;
 import org.datavec.api.transform.sequence.SequenceSplit;
 import org.datavec.api.transform.sequence.window.ReduceSequenceByWindowTransform;
 import org.datavec.api.transform.sequence.window.WindowFunction;
+import org.datavec.api.transform.transform.BaseTransform;
 import org.datavec.api.transform.transform.categorical.CategoricalToIntegerTransform;
 import org.datavec.api.transform.transform.categorical.IntegerToCategoricalTransform;
 import org.datavec.api.transform.transform.categorical.StringToCategoricalTransform;
@@ -221,6 +225,86 @@ public class TransformProcess implements Serializable {
         return currValues;
     }
 
+    /**
+     * Compile this TransformProcess, for faster execution of examples individually. See {@link CompiledTransformProcess}
+     * for details. As per {@link #execute(List)}, the TransformProcess may only contain transforms and filters.
+     *
+     * @return The compiled TransformProcess
+     */
+    public CompiledTransformProcess compile() {
+        return new CompiledTransformProcess(initialSchema, actionList);
+    }
+
+    /**
+     * As per {@link #execute(List)}, but also reports the duration, records in/out and (optionally) bytes allocated
+     * for each step to the specified {@link PipelineMetrics} instance. Steps after a filter that removes the example
+     * are not executed, and hence are not reported.
+     *
+     * @param input   Example to process
+     * @param metrics Metrics listener. May be null, in which case this is equivalent to {@link #execute(List)}
+     * @return The processed example, or null if the example was filtered
+     */
+    public List<Writable> execute(List<Writable> input, PipelineMetrics metrics) {
+        if (metrics == null) return execute(input);
+        boolean measureAlloc = metrics.isMeasureAllocations();
+        List<Writable> currValues = input;
+
+        for (int i = 0; i < actionList.size(); i++) {
+            DataAction d = actionList.get(i);
+            long alloc = (measureAlloc ? ThreadAllocation.currentThreadAllocatedBytes() : -1);
+            long start = System.nanoTime();
+            if (d.getTransform() != null) {
+                currValues = d.getTransform().map(currValues);
+                metrics.onStep(i, d, 1, 1, System.nanoTime() - start, ThreadAllocation.allocatedSince(alloc));
+            } else if (d.getFilter() != null) {
+                boolean remove = d.getFilter().removeExample(currValues);
+                metrics.onStep(i, d, 1, (remove ? 0 : 1), System.nanoTime() - start,
+                        ThreadAllocation.allocatedSince(alloc));
+                if (remove) return null;
+            } else {
+                throw new RuntimeException("Cannot execute examples individually: TransformProcess contains an "
+                        + "operation other than a transform or filter: " + d);
+            }
+        }
+
+        return currValues;
+    }
+
+    /**
+     * Execute the full sequence of transformations on a batch of examples, in columnar format (see
+     * {@link BatchTransform#mapBatch(RecordBatch)}; other transforms are executed one example at a time). Examples
+     * removed by filters are not present in the returned batch.
+     * <b>NOTE:</b> As per {@link #execute(List)}, only transforms and filters are supported here
+     *
+     * @param input Batch of examples to transform
+     * @return Transformed batch
+     */
+    public RecordBatch executeBatch(RecordBatch input) {
+        RecordBatch curr = input;
+
+        for (DataAction d : actionList) {
+            if (d.getTransform() != null) {
+                Transform t = d.getTransform();
+                curr = (t instanceof BatchTransform ? ((BatchTransform) t).mapBatch(curr)
+                        : BaseTransform.mapBatchRowWise(t, curr));
+            } else if (d.getFilter() != null) {
+                Filter f = d.getFilter();
+                int n = curr.numRows();
+                int[] keep = new int[n];
+                int numKeep = 0;
+                for (int i = 0; i < n; i++) {
+                    if (!f.removeExample(curr.getRecord(i))) keep[numKeep++] = i;
+                }
+                if (numKeep != n) curr = curr.select(Arrays.copyOf(keep, numKeep));
+            } else {
+                throw new RuntimeException("Cannot execute batch: TransformProcess contains an operation other than a "
+                        + "transform or filter: " + d);
+            }
+        }
+
+        return curr;
+    }
+
     public List<List<Writable>> executeSequenceToSequence(List<List<Writable>> input) {
         List<List<Writable>> currValues = input;
 
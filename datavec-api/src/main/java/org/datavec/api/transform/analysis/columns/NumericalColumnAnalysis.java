@@ -37,6 +37,12 @@ public abstract class NumericalColumnAnalysis implements ColumnAnalysis {
     protected final long countTotal;
     protected double[] histogramBuckets;
     protected long[] histogramBucketCounts;
+    /** Number of unique values (usually approximate); -1 if not calculated */
+    protected long countUnique;
+    /** Quantiles (values in range 0 to 1) for which {@link #quantileValues} have been calculated. May be null */
+    protected double[] quantileFractions;
+    /** Values (usually approximate) at each of the {@link #quantileFractions}. May be null */
+    protected double[] quantileValues;
 
     protected NumericalColumnAnalysis(Builder builder) {
         this.mean = builder.mean;
@@ -50,6 +56,9 @@ public abstract class NumericalColumnAnalysis implements ColumnAnalysis {
         this.countTotal = builder.countTotal;
         this.histogramBuckets = builder.histogramBuckets;
         this.histogramBucketCounts = builder.histogramBucketCounts;
+        this.countUnique = builder.countUnique;
+        this.quantileFractions = builder.quantileFractions;
+        this.quantileValues = builder.quantileValues;
     }
 
     @Override
@@ -59,6 +68,20 @@ public abstract class NumericalColumnAnalysis implements ColumnAnalysis {
                 + ",countMaxValue=" + countMaxValue + ",count=" + countTotal;
     }
 
+    /**
+     * Get the (usually approximate) value at the specified quantile, if it has been calculated
+     *
+     * @param fraction Quantile, in range 0 to 1
+     * @return Value at the quantile, or NaN if not available
+     */
+    public double getQuantile(double fraction) {
+        if (quantileFractions == null || quantileValues == null) return Double.NaN;
+        for (int i = 0; i < quantileFractions.length; i++) {
+            if (quantileFractions[i] == fraction) return quantileValues[i];
+        }
+        return Double.NaN;
+    }
+
     public abstract double getMinDouble();
 
     public abstract double getMaxDouble();
@@ -76,6 +99,9 @@ public abstract class NumericalColumnAnalysis implements ColumnAnalysis {
         protected long countTotal;
         protected double[] histogramBuckets;
         protected long[] histogramBucketCounts;
+        protected long countUnique = -1;
+        protected double[] quantileFractions;
+        protected double[] quantileValues;
 
         public T mean(double mean) {
             this.mean = mean;
@@ -131,6 +157,17 @@ public abstract class NumericalColumnAnalysis implements ColumnAnalysis {
             this.histogramBucketCounts = histogramBucketCounts;
             return (T) this;
         }
+
+        public T countUnique(long countUnique) {
+            this.countUnique = countUnique;
+            return (T) this;
+        }
+
+        public T quantiles(double[] quantileFractions, double[] quantileValues) {
+            this.quantileFractions = quantileFractions;
+            this.quantileValues = quantileValues;
+            return (T) this;
+        }
     }
 
 }
@@ -34,6 +34,8 @@ public class StringAnalysis implements ColumnAnalysis {
     private final long countTotal;
     private double[] histogramBuckets;
     private long[] histogramBucketCounts;
+    /** Number of unique values (usually approximate); -1 if not calculated */
+    private long countUnique;
 
     private StringAnalysis(Builder builder) {
         this.minLength = builder.minLength;
@@ -44,6 +46,7 @@ public class StringAnalysis implements ColumnAnalysis {
         this.countTotal = builder.countTotal;
         this.histogramBuckets = builder.histogramBuckets;
         this.histogramBucketCounts = builder.histogramBucketCounts;
+        this.countUnique = builder.countUnique;
     }
 
     @Override
@@ -66,6 +69,7 @@ public class StringAnalysis implements ColumnAnalysis {
         private long countTotal;
         private double[] histogramBuckets;
         private long[] histogramBucketCounts;
+        private long countUnique = -1;
 
         public Builder minLength(int minLength) {
             this.minLength = minLength;
@@ -107,6 +111,11 @@ public class StringAnalysis implements ColumnAnalysis {
             return this;
         }
 
+        public Builder countUnique(long countUnique) {
+            this.countUnique = countUnique;
+            return this;
+        }
+
         public StringAnalysis build() {
             return new StringAnalysis(this);
         }
@@ -0,0 +1,47 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.analysis.columns.BytesAnalysis;
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Single-pass sketch for Bytes columns: currently, the total count only
+ */
+public class BytesColumnSketch implements ColumnSketch {
+
+    private long countTotal;
+
+    @Override
+    public void add(Writable writable) {
+        countTotal++;
+    }
+
+    @Override
+    public void merge(ColumnSketch other) {
+        if (!(other instanceof BytesColumnSketch)) {
+            throw new IllegalArgumentException("Cannot merge " + other + " into BytesColumnSketch");
+        }
+        countTotal += ((BytesColumnSketch) other).countTotal;
+    }
+
+    @Override
+    public ColumnAnalysis toAnalysis(int maxHistogramBuckets) {
+        return new BytesAnalysis.Builder().countTotal(countTotal).build();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.analysis.columns.CategoricalAnalysis;
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.writable.Writable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-pass sketch for Categorical columns: exact counts for each category
+ */
+public class CategoricalColumnSketch implements ColumnSketch {
+
+    private final Map<String, Long> counts = new HashMap<>();
+
+    @Override
+    public void add(Writable writable) {
+        String value = writable.toString();
+        Long c = counts.get(value);
+        counts.put(value, (c == null ? 1L : c + 1));
+    }
+
+    @Override
+    public void merge(ColumnSketch other) {
+        if (!(other instanceof CategoricalColumnSketch)) {
+            throw new IllegalArgumentException("Cannot merge " + other + " into CategoricalColumnSketch");
+        }
+        for (Map.Entry<String, Long> e : ((CategoricalColumnSketch) other).counts.entrySet()) {
+            Long c = counts.get(e.getKey());
+            counts.put(e.getKey(), (c == null ? e.getValue() : c + e.getValue()));
+        }
+    }
+
+    @Override
+    public ColumnAnalysis toAnalysis(int maxHistogramBuckets) {
+        return new CategoricalAnalysis(new HashMap<>(counts));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+
+/**
+ * ColumnSketch: a mergeable, single-pass summary of the values in one column, used to calculate a
+ * {@link ColumnAnalysis}. Sketches for different parts of a data set (partitions, chunks) can be calculated
+ * independently and then merged.
+ */
+public interface ColumnSketch extends Serializable {
+
+    /**
+     * Add a single value
+     */
+    void add(Writable writable);
+
+    /**
+     * Merge another sketch (of the same type, and for the same column) into this sketch
+     */
+    void merge(ColumnSketch other);
+
+    /**
+     * @param maxHistogramBuckets Number of buckets for histograms, where applicable
+     * @return Column analysis for all values added to (or merged into) this sketch
+     */
+    ColumnAnalysis toAnalysis(int maxHistogramBuckets);
+
+}
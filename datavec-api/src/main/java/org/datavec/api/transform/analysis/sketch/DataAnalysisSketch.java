@@ -0,0 +1,212 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.analysis.DataAnalysis;
+import org.datavec.api.transform.analysis.SequenceDataAnalysis;
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.transform.analysis.columns.IntegerAnalysis;
+import org.datavec.api.transform.analysis.sequence.SequenceLengthAnalysis;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.util.StreamingHistogram;
+import org.datavec.api.util.TDigest;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataAnalysisSketch: a mergeable, single-pass summary of a data set, from which a {@link DataAnalysis} (or
+ * {@link SequenceDataAnalysis}) can be calculated. One {@link ColumnSketch} is kept per column; all statistics,
+ * including histograms, quantiles and unique value counts, are calculated in a single pass over the data, using a
+ * fixed amount of memory per column (other than for categorical columns, where the count for each category is kept).
+ * <br>
+ * Sketches for separate parts of the data (for example, partitions on Spark) can be calculated independently and
+ * combined using {@link #merge(DataAnalysisSketch)}. The column sketches are created lazily, so an empty sketch is
+ * cheap to create and serialize.
+ */
+public class DataAnalysisSketch implements Serializable {
+
+    private final Schema schema;
+    private final int hyperLogLogPrecision;
+    private final double tDigestCompression;
+    private final int histogramMaxBins;
+
+    private ColumnSketch[] columns;
+    private NumericalColumnSketch sequenceLengths;
+    private long countOneLength;
+
+    /**
+     * Create a sketch with the default settings
+     *
+     * @param schema Schema for the data
+     */
+    public DataAnalysisSketch(Schema schema) {
+        this(schema, HyperLogLog.DEFAULT_PRECISION, TDigest.DEFAULT_COMPRESSION, StreamingHistogram.DEFAULT_MAX_BINS);
+    }
+
+    /**
+     * @param schema               Schema for the data
+     * @param hyperLogLogPrecision Precision for the unique value sketches. If <= 0, unique values are not counted
+     * @param tDigestCompression   Compression for the quantile sketches
+     * @param histogramMaxBins     Maximum number of adaptive bins for histograms
+     */
+    public DataAnalysisSketch(Schema schema, int hyperLogLogPrecision, double tDigestCompression, int histogramMaxBins) {
+        this.schema = schema;
+        this.hyperLogLogPrecision = hyperLogLogPrecision;
+        this.tDigestCompression = tDigestCompression;
+        this.histogramMaxBins = histogramMaxBins;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    private void initialize() {
+        int n = schema.numColumns();
+        columns = new ColumnSketch[n];
+        for (int i = 0; i < n; i++) {
+            ColumnType ct = schema.getType(i);
+            switch (ct) {
+                case Integer:
+                case Long:
+                case Double:
+                case Time:
+                    columns[i] = new NumericalColumnSketch(ct, hyperLogLogPrecision, tDigestCompression,
+                            histogramMaxBins, NumericalColumnSketch.DEFAULT_QUANTILES);
+                    break;
+                case String:
+                    columns[i] = new StringColumnSketch(hyperLogLogPrecision, histogramMaxBins);
+                    break;
+                case Categorical:
+                    columns[i] = new CategoricalColumnSketch();
+                    break;
+                case Bytes:
+                    columns[i] = new BytesColumnSketch();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown column type: " + ct);
+            }
+        }
+    }
+
+    /**
+     * Add a single example
+     */
+    public DataAnalysisSketch add(List<Writable> example) {
+        if (columns == null) initialize();
+        if (example.size() != columns.length) {
+            throw new IllegalStateException("Writables list and number of columns does not match (" + example.size()
+                    + " vs " + columns.length + ")");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].add(example.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Add a single sequence: each time step is added as an example, and the sequence length is recorded
+     */
+    public DataAnalysisSketch addSequence(List<List<Writable>> sequence) {
+        for (List<Writable> step : sequence) {
+            add(step);
+        }
+        if (sequenceLengths == null) sequenceLengths = newSequenceLengthSketch();
+        int length = sequence.size();
+        sequenceLengths.add(new IntWritable(length));
+        if (length == 1) countOneLength++;
+        return this;
+    }
+
+    private NumericalColumnSketch newSequenceLengthSketch() {
+        return new NumericalColumnSketch(ColumnType.Integer, 0, tDigestCompression, histogramMaxBins,
+                new double[0]);
+    }
+
+    /**
+     * Merge the other sketch into this one
+     *
+     * @return This sketch, after merging
+     */
+    public DataAnalysisSketch merge(DataAnalysisSketch other) {
+        if (other.columns != null) {
+            if (columns == null) initialize();
+            if (columns.length != other.columns.length) {
+                throw new IllegalStateException("Number of columns differ: " + columns.length + " vs. " + other.columns.length);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].merge(other.columns[i]);
+            }
+        }
+        if (other.sequenceLengths != null) {
+            if (sequenceLengths == null) sequenceLengths = newSequenceLengthSketch();
+            sequenceLengths.merge(other.sequenceLengths);
+            countOneLength += other.countOneLength;
+        }
+        return this;
+    }
+
+    /**
+     * @param maxHistogramBuckets Number of buckets for histograms
+     * @return The data analysis for all examples added to (or merged into) this sketch
+     */
+    public DataAnalysis toDataAnalysis(int maxHistogramBuckets) {
+        return new DataAnalysis(schema, columnAnalysis(maxHistogramBuckets));
+    }
+
+    /**
+     * @param maxHistogramBuckets Maximum number of buckets for histograms
+     * @return The sequence data analysis for all sequences added to (or merged into) this sketch
+     */
+    public SequenceDataAnalysis toSequenceDataAnalysis(int maxHistogramBuckets) {
+        NumericalColumnSketch lengths = (sequenceLengths != null ? sequenceLengths : newSequenceLengthSketch());
+
+        //One bucket per sequence length, where possible
+        IntegerAnalysis ia = (IntegerAnalysis) lengths.toAnalysis(maxHistogramBuckets);
+        int range = ia.getMax() - ia.getMin();
+        if (lengths.getCountTotal() > 0 && range < maxHistogramBuckets) {
+            ia = (IntegerAnalysis) lengths.toAnalysis(Math.max(1, range));
+        }
+
+        SequenceLengthAnalysis lengthAnalysis = SequenceLengthAnalysis.builder()
+                .totalNumSequences(ia.getCountTotal())
+                .minSeqLength(ia.getMin())
+                .maxSeqLength(ia.getMax())
+                .countZeroLength(ia.getCountZero())
+                .countOneLength(countOneLength)
+                .meanLength(ia.getMean())
+                .histogramBuckets(ia.getHistogramBuckets())
+                .histogramBucketCounts(ia.getHistogramBucketCounts())
+                .build();
+
+        return new SequenceDataAnalysis(schema, columnAnalysis(maxHistogramBuckets), lengthAnalysis);
+    }
+
+    private List<ColumnAnalysis> columnAnalysis(int maxHistogramBuckets) {
+        if (columns == null) initialize();
+        List<ColumnAnalysis> list = new ArrayList<>(columns.length);
+        for (ColumnSketch cs : columns) {
+            list.add(cs.toAnalysis(maxHistogramBuckets));
+        }
+        return list;
+    }
+}
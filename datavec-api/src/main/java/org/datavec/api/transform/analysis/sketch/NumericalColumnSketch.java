@@ -0,0 +1,251 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.analysis.columns.*;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.util.StreamingHistogram;
+import org.datavec.api.util.TDigest;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Single-pass sketch for Integer, Long, Double and Time columns. Calculates:<br>
+ * - Exact counts (zero/positive/negative/NaN/total), min and max (and their counts)<br>
+ * - Mean and variance, using Welford's algorithm (and Chan et al.'s parallel formula for merging)<br>
+ * - Approximate number of unique values, using a {@link HyperLogLog} sketch<br>
+ * - Approximate quantiles, using a {@link TDigest}<br>
+ * - A histogram, using a {@link StreamingHistogram} (exact for columns with few unique values)<br>
+ * NaN values (Double columns only) are counted, but are otherwise excluded from the statistics.
+ */
+public class NumericalColumnSketch implements ColumnSketch {
+
+    public static final double[] DEFAULT_QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    private final ColumnType columnType;
+    private final boolean integral;
+    private final double[] quantiles;
+
+    private long countTotal;
+    private long countZero;
+    private long countPositive;
+    private long countNegative;
+    private long countNaN;
+
+    private long minLong = Long.MAX_VALUE;
+    private long maxLong = Long.MIN_VALUE;
+    private double minDouble = Double.POSITIVE_INFINITY;
+    private double maxDouble = Double.NEGATIVE_INFINITY;
+    private long countMinValue;
+    private long countMaxValue;
+
+    private long countMoments;
+    private double mean;
+    private double m2;
+
+    private final HyperLogLog unique;
+    private final TDigest digest;
+    private final StreamingHistogram histogram;
+
+    /**
+     * Create a sketch with the default settings
+     *
+     * @param columnType Type of the column: Integer, Long, Double or Time
+     */
+    public NumericalColumnSketch(ColumnType columnType) {
+        this(columnType, HyperLogLog.DEFAULT_PRECISION, TDigest.DEFAULT_COMPRESSION, StreamingHistogram.DEFAULT_MAX_BINS,
+                DEFAULT_QUANTILES);
+    }
+
+    /**
+     * @param columnType           Type of the column: Integer, Long, Double or Time
+     * @param hyperLogLogPrecision Precision for the unique value sketch. If <= 0, unique values are not counted
+     * @param tDigestCompression   Compression for the quantile sketch
+     * @param histogramMaxBins     Maximum number of adaptive bins for the histogram
+     * @param quantiles            Quantiles to calculate (values in range 0 to 1)
+     */
+    public NumericalColumnSketch(ColumnType columnType, int hyperLogLogPrecision, double tDigestCompression,
+                                 int histogramMaxBins, double[] quantiles) {
+        switch (columnType) {
+            case Integer:
+            case Long:
+            case Time:
+                integral = true;
+                break;
+            case Double:
+                integral = false;
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot create numerical sketch for column type " + columnType);
+        }
+        this.columnType = columnType;
+        this.quantiles = quantiles;
+        this.unique = (hyperLogLogPrecision > 0 ? new HyperLogLog(hyperLogLogPrecision) : null);
+        this.digest = new TDigest(tDigestCompression);
+        this.histogram = new StreamingHistogram(histogramMaxBins);
+    }
+
+    @Override
+    public void add(Writable writable) {
+        countTotal++;
+        double value;
+        if (integral) {
+            long l = writable.toLong();
+            if (l == minLong) {
+                countMinValue++;
+            } else if (l < minLong) {
+                minLong = l;
+                countMinValue = 1;
+            }
+            if (l == maxLong) {
+                countMaxValue++;
+            } else if (l > maxLong) {
+                maxLong = l;
+                countMaxValue = 1;
+            }
+            if (unique != null) unique.offer(l);
+            value = l;
+        } else {
+            value = writable.toDouble();
+            if (Double.isNaN(value)) {
+                countNaN++;
+                return;
+            }
+            if (value == minDouble) {
+                countMinValue++;
+            } else if (value < minDouble) {
+                minDouble = value;
+                countMinValue = 1;
+            }
+            if (value == maxDouble) {
+                countMaxValue++;
+            } else if (value > maxDouble) {
+                maxDouble = value;
+                countMaxValue = 1;
+            }
+            if (unique != null) unique.offer(value);
+        }
+
+        if (value == 0) countZero++;
+        else if (value < 0) countNegative++;
+        else countPositive++;
+
+        countMoments++;
+        double delta = value - mean;
+        mean += delta / countMoments;
+        m2 += delta * (value - mean);
+
+        digest.add(value);
+        histogram.add(value);
+    }
+
+    @Override
+    public void merge(ColumnSketch other) {
+        if (!(other instanceof NumericalColumnSketch)) {
+            throw new IllegalArgumentException("Cannot merge " + other + " into NumericalColumnSketch");
+        }
+        NumericalColumnSketch o = (NumericalColumnSketch) other;
+        if (o.columnType != columnType) {
+            throw new IllegalStateException("Cannot merge sketches for different column types: " + columnType + " vs. " + o.columnType);
+        }
+
+        if (integral) {
+            countMinValue = mergeExtremeCount(minLong == o.minLong, o.minLong < minLong, countMinValue, o.countMinValue);
+            countMaxValue = mergeExtremeCount(maxLong == o.maxLong, o.maxLong > maxLong, countMaxValue, o.countMaxValue);
+            minLong = Math.min(minLong, o.minLong);
+            maxLong = Math.max(maxLong, o.maxLong);
+        } else {
+            countMinValue = mergeExtremeCount(minDouble == o.minDouble, o.minDouble < minDouble, countMinValue, o.countMinValue);
+            countMaxValue = mergeExtremeCount(maxDouble == o.maxDouble, o.maxDouble > maxDouble, countMaxValue, o.countMaxValue);
+            minDouble = Math.min(minDouble, o.minDouble);
+            maxDouble = Math.max(maxDouble, o.maxDouble);
+        }
+
+        if (o.countMoments > 0) {
+            if (countMoments == 0) {
+                mean = o.mean;
+                m2 = o.m2;
+            } else {
+                long n = countMoments + o.countMoments;
+                double delta = o.mean - mean;
+                mean += delta * o.countMoments / n;
+                m2 += o.m2 + delta * delta * ((double) countMoments * o.countMoments) / n;
+            }
+            countMoments += o.countMoments;
+        }
+
+        countTotal += o.countTotal;
+        countZero += o.countZero;
+        countPositive += o.countPositive;
+        countNegative += o.countNegative;
+        countNaN += o.countNaN;
+
+        if (unique != null) unique.merge(o.unique);
+        digest.merge(o.digest);
+        histogram.merge(o.histogram);
+    }
+
+    private static long mergeExtremeCount(boolean equal, boolean otherIsNewExtreme, long count, long otherCount) {
+        if (equal) return count + otherCount;
+        return (otherIsNewExtreme ? otherCount : count);
+    }
+
+    @Override
+    public ColumnAnalysis toAnalysis(int maxHistogramBuckets) {
+        switch (columnType) {
+            case Integer:
+                return fill(new IntegerAnalysis.Builder().min((int) minLong).max((int) maxLong), maxHistogramBuckets).build();
+            case Long:
+                return fill(new LongAnalysis.Builder().min(minLong).max(maxLong), maxHistogramBuckets).build();
+            case Time:
+                return fill(new TimeAnalysis.Builder().min(minLong).max(maxLong), maxHistogramBuckets).build();
+            case Double:
+                return fill(new DoubleAnalysis.Builder().min(minDouble).max(maxDouble).countNaN(countNaN), maxHistogramBuckets).build();
+            default:
+                throw new IllegalStateException("Unknown column type: " + columnType);
+        }
+    }
+
+    private <T extends NumericalColumnAnalysis.Builder<T>> T fill(T builder, int maxHistogramBuckets) {
+        double sampleVariance = (countMoments <= 1 ? Double.NaN : m2 / (countMoments - 1));
+        double[] quantileValues = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            quantileValues[i] = digest.quantile(quantiles[i]);
+        }
+
+        return builder.mean(mean)
+                .sampleStdev(Math.sqrt(sampleVariance))
+                .sampleVariance(sampleVariance)
+                .countZero(countZero)
+                .countNegative(countNegative)
+                .countPositive(countPositive)
+                .countMinValue(countMinValue)
+                .countMaxValue(countMaxValue)
+                .countTotal(countTotal)
+                .histogramBuckets(histogram.equalWidthEdges(maxHistogramBuckets))
+                .histogramBucketCounts(histogram.equalWidthCounts(maxHistogramBuckets))
+                .countUnique(unique != null ? unique.cardinality() : -1)
+                .quantiles(quantiles.clone(), quantileValues);
+    }
+
+    /**
+     * @return The number of values (including NaNs) added to this sketch
+     */
+    public long getCountTotal() {
+        return countTotal;
+    }
+}
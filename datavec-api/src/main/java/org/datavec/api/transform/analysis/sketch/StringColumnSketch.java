@@ -0,0 +1,106 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.analysis.columns.ColumnAnalysis;
+import org.datavec.api.transform.analysis.columns.StringAnalysis;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.util.StreamingHistogram;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Single-pass sketch for String columns: String length statistics and histogram, and the approximate number of
+ * unique values (using a {@link HyperLogLog} sketch).
+ */
+public class StringColumnSketch implements ColumnSketch {
+
+    private long countTotal;
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength = Integer.MIN_VALUE;
+    private double meanLength;
+    private double m2Length;
+
+    private final HyperLogLog unique;
+    private final StreamingHistogram lengthHistogram;
+
+    public StringColumnSketch() {
+        this(HyperLogLog.DEFAULT_PRECISION, StreamingHistogram.DEFAULT_MAX_BINS);
+    }
+
+    /**
+     * @param hyperLogLogPrecision Precision for the unique value sketch. If <= 0, unique values are not counted
+     * @param histogramMaxBins     Maximum number of adaptive bins for the String length histogram
+     */
+    public StringColumnSketch(int hyperLogLogPrecision, int histogramMaxBins) {
+        this.unique = (hyperLogLogPrecision > 0 ? new HyperLogLog(hyperLogLogPrecision) : null);
+        this.lengthHistogram = new StreamingHistogram(histogramMaxBins);
+    }
+
+    @Override
+    public void add(Writable writable) {
+        String s = writable.toString();
+        int length = s.length();
+        countTotal++;
+        if (length < minLength) minLength = length;
+        if (length > maxLength) maxLength = length;
+        double delta = length - meanLength;
+        meanLength += delta / countTotal;
+        m2Length += delta * (length - meanLength);
+
+        if (unique != null) unique.offer(s);
+        lengthHistogram.add(length);
+    }
+
+    @Override
+    public void merge(ColumnSketch other) {
+        if (!(other instanceof StringColumnSketch)) {
+            throw new IllegalArgumentException("Cannot merge " + other + " into StringColumnSketch");
+        }
+        StringColumnSketch o = (StringColumnSketch) other;
+        if (o.countTotal == 0) return;
+        if (countTotal == 0) {
+            meanLength = o.meanLength;
+            m2Length = o.m2Length;
+        } else {
+            long n = countTotal + o.countTotal;
+            double delta = o.meanLength - meanLength;
+            meanLength += delta * o.countTotal / n;
+            m2Length += o.m2Length + delta * delta * ((double) countTotal * o.countTotal) / n;
+        }
+        countTotal += o.countTotal;
+        minLength = Math.min(minLength, o.minLength);
+        maxLength = Math.max(maxLength, o.maxLength);
+        if (unique != null) unique.merge(o.unique);
+        lengthHistogram.merge(o.lengthHistogram);
+    }
+
+    @Override
+    public ColumnAnalysis toAnalysis(int maxHistogramBuckets) {
+        double sampleVariance = (countTotal <= 1 ? Double.NaN : m2Length / (countTotal - 1));
+        return new StringAnalysis.Builder()
+                .countTotal(countTotal)
+                .minLength(minLength)
+                .maxLength(maxLength)
+                .meanLength(meanLength)
+                .sampleStdevLength(Math.sqrt(sampleVariance))
+                .sampleVarianceLength(sampleVariance)
+                .histogramBuckets(lengthHistogram.equalWidthEdges(maxHistogramBuckets))
+                .histogramBucketCounts(lengthHistogram.equalWidthCounts(maxHistogramBuckets))
+                .countUnique(unique != null ? unique.cardinality() : -1)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.join;
+
+import org.datavec.api.writable.CategoricalWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A (possibly compound) key for a {@link Join}, made up of the values of the key columns of an example.
+ * Keys are compared as typed {@link Writable}s, rather than by concatenating their String representations: this is
+ * cheaper, and avoids ambiguous keys (such as "a_b" + "c" vs. "a" + "b_c").<br>
+ * To allow joining on equivalent columns of different types, integer values are stored as {@link LongWritable}s, and
+ * categorical values ({@link CategoricalWritable}) as {@link Text}.<br>
+ * JoinKeys have a total order (see {@link #compareTo(JoinKey)}), which is consistent with equals, for sort-merge joins.
+ */
+public class JoinKey implements Comparable<JoinKey>, Serializable {
+
+    private final Writable[] values;
+    private final int hashCode;
+
+    /**
+     * @param values Values of the key columns. The array is copied, not modified.
+     */
+    public JoinKey(Writable... values) {
+        this.values = new Writable[values.length];
+        for (int i = 0; i < values.length; i++) {
+            this.values[i] = normalize(values[i]);
+        }
+        this.hashCode = Arrays.hashCode(this.values);
+    }
+
+    /**
+     * Create a JoinKey from the specified columns of an example
+     *
+     * @param example       Example to get the key from
+     * @param keyColumnIdxs Indices of the key columns
+     */
+    public static JoinKey fromExample(List<Writable> example, int[] keyColumnIdxs) {
+        Writable[] values = new Writable[keyColumnIdxs.length];
+        for (int i = 0; i < keyColumnIdxs.length; i++) {
+            values[i] = example.get(keyColumnIdxs[i]);
+        }
+        return new JoinKey(values);
+    }
+
+    private static Writable normalize(Writable w) {
+        if (w instanceof IntWritable) return new LongWritable(w.toLong());
+        if (w instanceof CategoricalWritable) return new Text(w.toString());
+        return w;
+    }
+
+    public Writable[] getValues() {
+        return values;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof JoinKey)) return false;
+        JoinKey other = (JoinKey) o;
+        return hashCode == other.hashCode && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    /**
+     * Compare element by element. Values of the same type are compared using their natural ordering (where available);
+     * values of different types are ordered by class name, and otherwise by their String representation.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int compareTo(JoinKey o) {
+        int n = Math.min(values.length, o.values.length);
+        for (int i = 0; i < n; i++) {
+            Writable a = values[i];
+            Writable b = o.values[i];
+            int c;
+            if (a.getClass() == b.getClass() && a instanceof Comparable) {
+                c = ((Comparable<Object>) a).compareTo(b);
+            } else {
+                c = a.getClass().getName().compareTo(b.getClass().getName());
+                if (c == 0) c = a.toString().compareTo(b.toString());
+            }
+            if (c != 0) return c;
+        }
+        return Integer.compare(values.length, o.values.length);
+    }
+
+    @Override
+    public String toString() {
+        if (values.length == 1) return values[0].toString();
+        return Arrays.toString(values);
+    }
+}
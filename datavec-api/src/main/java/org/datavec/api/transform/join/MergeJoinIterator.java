@@ -0,0 +1,122 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.join;
+
+import org.datavec.api.berkeley.Pair;
+import org.datavec.api.writable.Writable;
+
+import java.util.*;
+
+/**
+ * MergeJoinIterator: executes the merge phase of a sort-merge join, lazily.<br>
+ * The input is the examples from both sides of the join, sorted by {@link TaggedJoinKey} (i.e., by key, with left
+ * examples before right examples for each key). For each key, the left examples are buffered, and then joined with
+ * each right example as it is read; thus one-to-many and many-to-many joins are supported, and only the left
+ * examples for a single key are held in memory at once. Where keys have many duplicates on one side only, that side
+ * should be the right side of the join.<br>
+ * Output for each key: all (left, right) combinations, in input order; left/right examples without a match are
+ * returned (joined with null values) according to the {@link Join.JoinType}.
+ */
+public class MergeJoinIterator implements Iterator<List<Writable>> {
+
+    private final Join join;
+    private final Iterator<Pair<TaggedJoinKey, List<Writable>>> input;
+    private final boolean keepLeftOnly;
+    private final boolean keepRightOnly;
+
+    private final Deque<List<Writable>> pending = new ArrayDeque<>();
+    private final List<List<Writable>> leftBuffer = new ArrayList<>();
+    private Pair<TaggedJoinKey, List<Writable>> next;
+    private JoinKey currentKey;
+    private boolean currentKeyHasRight;
+
+    /**
+     * @param join  Join to execute
+     * @param input Examples from both sides of the join, sorted by TaggedJoinKey
+     */
+    public MergeJoinIterator(Join join, Iterator<Pair<TaggedJoinKey, List<Writable>>> input) {
+        this.join = join;
+        this.input = input;
+        Join.JoinType joinType = join.getJoinType();
+        this.keepLeftOnly = (joinType == Join.JoinType.LeftOuter || joinType == Join.JoinType.FullOuter);
+        this.keepRightOnly = (joinType == Join.JoinType.RightOuter || joinType == Join.JoinType.FullOuter);
+        advance();
+    }
+
+    private void advance() {
+        next = (input.hasNext() ? input.next() : null);
+    }
+
+    private void fill() {
+        while (pending.isEmpty()) {
+            if (currentKey != null && next != null && !next.getFirst().isLeft() && currentKey.equals(next.getFirst().getKey())) {
+                //Right example for the current key: join with all buffered left examples
+                List<Writable> right = next.getSecond();
+                advance();
+                currentKeyHasRight = true;
+                if (!leftBuffer.isEmpty()) {
+                    for (List<Writable> left : leftBuffer) {
+                        pending.add(join.joinExamples(left, right));
+                    }
+                } else if (keepRightOnly) {
+                    pending.add(join.joinExamples(null, right));
+                }
+                continue;
+            }
+
+            if (currentKey != null) {
+                //End of the current key
+                if (!currentKeyHasRight && keepLeftOnly) {
+                    for (List<Writable> left : leftBuffer) {
+                        pending.add(join.joinExamples(left, null));
+                    }
+                }
+                leftBuffer.clear();
+                currentKey = null;
+                continue;
+            }
+
+            if (next == null) return;
+
+            //Start of a new key: buffer all left examples
+            currentKey = next.getFirst().getKey();
+            currentKeyHasRight = false;
+            while (next != null && next.getFirst().isLeft() && currentKey.equals(next.getFirst().getKey())) {
+                leftBuffer.add(next.getSecond());
+                advance();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        fill();
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public List<Writable> next() {
+        fill();
+        if (pending.isEmpty()) throw new NoSuchElementException();
+        return pending.poll();
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.join;
+
+import java.io.Serializable;
+
+/**
+ * A {@link JoinKey}, tagged with the side of the join (left or right) that the example came from.
+ * The natural ordering sorts by key, and then left before right; this is the input order required by
+ * {@link MergeJoinIterator}.
+ */
+public class TaggedJoinKey implements Comparable<TaggedJoinKey>, Serializable {
+
+    private final JoinKey key;
+    private final boolean left;
+
+    public TaggedJoinKey(JoinKey key, boolean left) {
+        this.key = key;
+        this.left = left;
+    }
+
+    public JoinKey getKey() {
+        return key;
+    }
+
+    public boolean isLeft() {
+        return left;
+    }
+
+    @Override
+    public int compareTo(TaggedJoinKey o) {
+        int c = key.compareTo(o.key);
+        if (c != 0) return c;
+        return (left == o.left ? 0 : (left ? -1 : 1));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof TaggedJoinKey)) return false;
+        TaggedJoinKey other = (TaggedJoinKey) o;
+        return left == other.left && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + (left ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return (left ? "left:" : "right:") + key;
+    }
+}
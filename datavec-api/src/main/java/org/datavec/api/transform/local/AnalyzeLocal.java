@@ -0,0 +1,441 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.transform.analysis.DataAnalysis;
+import org.datavec.api.transform.analysis.SequenceDataAnalysis;
+import org.datavec.api.transform.analysis.sketch.DataAnalysisSketch;
+import org.datavec.api.transform.quality.DataQualityAnalysis;
+import org.datavec.api.transform.quality.sketch.DataQualitySketch;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.Writable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.*;
+
+/**
+ * AnalyzeLocal: calculate a {@link DataAnalysis} or {@link DataQualityAnalysis} for local data (in memory, or from
+ * one or more {@link RecordReader}s) without Spark. The analysis objects are the same as those produced by
+ * AnalyzeSpark, and can be used (for example) with TransformProcess.Builder.normalize.
+ * <p>
+ * All statistics are calculated in one streaming pass, using mergeable sketches ({@link DataAnalysisSketch},
+ * {@link DataQualitySketch}). Work is split across threads, with one sketch per thread; the sketches are merged at
+ * the end:<br>
+ * - In-memory data is split into contiguous ranges, one per thread<br>
+ * - A single RecordReader is read on the calling thread, with batches of records handed to the worker threads<br>
+ * - A list of RecordReaders (for example, one per subset of the input files) is read in parallel, one reader per task
+ */
+public class AnalyzeLocal {
+
+    public static final int DEFAULT_HISTOGRAM_BUCKETS = 30;
+    public static final int DEFAULT_READ_BATCH_SIZE = 1000;
+
+    private AnalyzeLocal() {
+    }
+
+    /** Create, add to and merge sketches of type S, for examples or sequences of type T */
+    private interface SketchFunctions<T, S> {
+        S create();
+
+        void add(S sketch, T example);
+
+        S merge(S first, S second);
+    }
+
+    private static SketchFunctions<List<Writable>, DataAnalysisSketch> analysis(final Schema schema) {
+        return new SketchFunctions<List<Writable>, DataAnalysisSketch>() {
+            @Override
+            public DataAnalysisSketch create() {
+                return new DataAnalysisSketch(schema);
+            }
+
+            @Override
+            public void add(DataAnalysisSketch sketch, List<Writable> example) {
+                sketch.add(example);
+            }
+
+            @Override
+            public DataAnalysisSketch merge(DataAnalysisSketch first, DataAnalysisSketch second) {
+                return first.merge(second);
+            }
+        };
+    }
+
+    private static SketchFunctions<List<List<Writable>>, DataAnalysisSketch> sequenceAnalysis(final Schema schema) {
+        return new SketchFunctions<List<List<Writable>>, DataAnalysisSketch>() {
+            @Override
+            public DataAnalysisSketch create() {
+                return new DataAnalysisSketch(schema);
+            }
+
+            @Override
+            public void add(DataAnalysisSketch sketch, List<List<Writable>> sequence) {
+                sketch.addSequence(sequence);
+            }
+
+            @Override
+            public DataAnalysisSketch merge(DataAnalysisSketch first, DataAnalysisSketch second) {
+                return first.merge(second);
+            }
+        };
+    }
+
+    private static SketchFunctions<List<Writable>, DataQualitySketch> quality(final Schema schema) {
+        return new SketchFunctions<List<Writable>, DataQualitySketch>() {
+            @Override
+            public DataQualitySketch create() {
+                return new DataQualitySketch(schema);
+            }
+
+            @Override
+            public void add(DataQualitySketch sketch, List<Writable> example) {
+                sketch.add(example);
+            }
+
+            @Override
+            public DataQualitySketch merge(DataQualitySketch first, DataQualitySketch second) {
+                return first.merge(second);
+            }
+        };
+    }
+
+    private static SketchFunctions<List<List<Writable>>, DataQualitySketch> sequenceQuality(final Schema schema) {
+        return new SketchFunctions<List<List<Writable>>, DataQualitySketch>() {
+            @Override
+            public DataQualitySketch create() {
+                return new DataQualitySketch(schema);
+            }
+
+            @Override
+            public void add(DataQualitySketch sketch, List<List<Writable>> sequence) {
+                sketch.addSequence(sequence);
+            }
+
+            @Override
+            public DataQualitySketch merge(DataQualitySketch first, DataQualitySketch second) {
+                return first.merge(second);
+            }
+        };
+    }
+
+    /** Reads one record (or sequence) from a reader */
+    private interface ReadFunction<T> {
+        boolean hasNext(RecordReader reader);
+
+        T next(RecordReader reader);
+    }
+
+    private static final ReadFunction<List<Writable>> READ_RECORD = new ReadFunction<List<Writable>>() {
+        @Override
+        public boolean hasNext(RecordReader reader) {
+            return reader.hasNext();
+        }
+
+        @Override
+        public List<Writable> next(RecordReader reader) {
+            return reader.next();
+        }
+    };
+
+    private static final ReadFunction<List<List<Writable>>> READ_SEQUENCE = new ReadFunction<List<List<Writable>>>() {
+        @Override
+        public boolean hasNext(RecordReader reader) {
+            return reader.hasNext();
+        }
+
+        @Override
+        public List<List<Writable>> next(RecordReader reader) {
+            return ((SequenceRecordReader) reader).sequenceRecord();
+        }
+    };
+
+    // ----- DataAnalysis -----
+
+    public static DataAnalysis analyze(Schema schema, List<List<Writable>> data) {
+        return analyze(schema, data, DEFAULT_HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Analyze the specified in-memory data, using all available processors
+     *
+     * @param schema              Schema for the data
+     * @param data                Data to analyze
+     * @param maxHistogramBuckets Number of histogram buckets
+     */
+    public static DataAnalysis analyze(Schema schema, List<List<Writable>> data, int maxHistogramBuckets) {
+        return aggregate(data, analysis(schema), numThreads()).toDataAnalysis(maxHistogramBuckets);
+    }
+
+    public static DataAnalysis analyze(Schema schema, RecordReader recordReader) {
+        return analyze(schema, recordReader, DEFAULT_HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Analyze all records from the specified RecordReader, using all available processors
+     *
+     * @param schema              Schema for the data
+     * @param recordReader        RecordReader to analyze the records of
+     * @param maxHistogramBuckets Number of histogram buckets
+     */
+    public static DataAnalysis analyze(Schema schema, RecordReader recordReader, int maxHistogramBuckets) {
+        return aggregate(recordReader, READ_RECORD, analysis(schema), numThreads()).toDataAnalysis(maxHistogramBuckets);
+    }
+
+    /**
+     * Analyze all records from the specified RecordReaders (partitions of the data), reading from the RecordReaders in
+     * parallel
+     *
+     * @param schema              Schema for the data
+     * @param partitions          RecordReaders to analyze the records of; each should be initialized, and must be
+     *                            distinct objects
+     * @param maxHistogramBuckets Number of histogram buckets
+     */
+    public static DataAnalysis analyzePartitioned(Schema schema, List<? extends RecordReader> partitions, int maxHistogramBuckets) {
+        return aggregatePartitions(partitions, READ_RECORD, analysis(schema), numThreads()).toDataAnalysis(maxHistogramBuckets);
+    }
+
+    public static SequenceDataAnalysis analyzeSequence(Schema schema, List<List<List<Writable>>> data) {
+        return analyzeSequence(schema, data, DEFAULT_HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Analyze the specified in-memory sequence data, using all available processors
+     *
+     * @param schema              Schema for the data
+     * @param data                Sequences to analyze
+     * @param maxHistogramBuckets Maximum number of histogram buckets
+     */
+    public static SequenceDataAnalysis analyzeSequence(Schema schema, List<List<List<Writable>>> data, int maxHistogramBuckets) {
+        return aggregate(data, sequenceAnalysis(schema), numThreads()).toSequenceDataAnalysis(maxHistogramBuckets);
+    }
+
+    public static SequenceDataAnalysis analyzeSequence(Schema schema, SequenceRecordReader sequenceRecordReader) {
+        return analyzeSequence(schema, sequenceRecordReader, DEFAULT_HISTOGRAM_BUCKETS);
+    }
+
+    /**
+     * Analyze all sequences from the specified SequenceRecordReader, using all available processors
+     *
+     * @param schema               Schema for the data
+     * @param sequenceRecordReader SequenceRecordReader to analyze the sequences of
+     * @param maxHistogramBuckets  Maximum number of histogram buckets
+     */
+    public static SequenceDataAnalysis analyzeSequence(Schema schema, SequenceRecordReader sequenceRecordReader,
+                                                       int maxHistogramBuckets) {
+        return aggregate(sequenceRecordReader, READ_SEQUENCE, sequenceAnalysis(schema), numThreads())
+                .toSequenceDataAnalysis(maxHistogramBuckets);
+    }
+
+    // ----- DataQualityAnalysis -----
+
+    /**
+     * Analyze the quality (valid, invalid, missing values etc. according to the schema) of the specified in-memory data
+     */
+    public static DataQualityAnalysis analyzeQuality(Schema schema, List<List<Writable>> data) {
+        return aggregate(data, quality(schema), numThreads()).toDataQualityAnalysis();
+    }
+
+    /**
+     * Analyze the quality (valid, invalid, missing values etc. according to the schema) of all records from the
+     * specified RecordReader
+     */
+    public static DataQualityAnalysis analyzeQuality(Schema schema, RecordReader recordReader) {
+        return aggregate(recordReader, READ_RECORD, quality(schema), numThreads()).toDataQualityAnalysis();
+    }
+
+    /**
+     * Analyze the quality of all records from the specified RecordReaders (partitions of the data), reading from the
+     * RecordReaders in parallel
+     */
+    public static DataQualityAnalysis analyzeQualityPartitioned(Schema schema, List<? extends RecordReader> partitions) {
+        return aggregatePartitions(partitions, READ_RECORD, quality(schema), numThreads()).toDataQualityAnalysis();
+    }
+
+    /**
+     * Analyze the quality of all time steps of the specified in-memory sequence data
+     */
+    public static DataQualityAnalysis analyzeQualitySequence(Schema schema, List<List<List<Writable>>> data) {
+        return aggregate(data, sequenceQuality(schema), numThreads()).toDataQualityAnalysis();
+    }
+
+    /**
+     * Analyze the quality of all time steps of all sequences from the specified SequenceRecordReader
+     */
+    public static DataQualityAnalysis analyzeQualitySequence(Schema schema, SequenceRecordReader sequenceRecordReader) {
+        return aggregate(sequenceRecordReader, READ_SEQUENCE, sequenceQuality(schema), numThreads()).toDataQualityAnalysis();
+    }
+
+    // ----- Execution -----
+
+    private static int numThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ExecutorService newExecutor(int numThreads) {
+        return Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "AnalyzeLocal");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /** In-memory data: one contiguous range of the data per thread */
+    private static <T, S> S aggregate(final List<T> data, final SketchFunctions<T, S> functions, int numThreads) {
+        final List<T> input = (data instanceof RandomAccess ? data : new ArrayList<>(data));
+        int n = input.size();
+        int nTasks = Math.max(1, Math.min(numThreads, n / DEFAULT_READ_BATCH_SIZE));
+        if (nTasks == 1) {
+            S sketch = functions.create();
+            for (T t : input) functions.add(sketch, t);
+            return sketch;
+        }
+
+        List<Callable<S>> tasks = new ArrayList<>(nTasks);
+        for (int i = 0; i < nTasks; i++) {
+            final int from = (int) ((long) n * i / nTasks);
+            final int to = (int) ((long) n * (i + 1) / nTasks);
+            tasks.add(new Callable<S>() {
+                @Override
+                public S call() {
+                    S sketch = functions.create();
+                    for (int j = from; j < to; j++) functions.add(sketch, input.get(j));
+                    return sketch;
+                }
+            });
+        }
+        return invokeAndMerge(tasks, functions, nTasks);
+    }
+
+    /** Partitioned reading: one task per RecordReader */
+    private static <T, S> S aggregatePartitions(List<? extends RecordReader> partitions, final ReadFunction<T> read,
+                                                final SketchFunctions<T, S> functions, int numThreads) {
+        if (partitions.isEmpty()) return functions.create();
+        List<Callable<S>> tasks = new ArrayList<>(partitions.size());
+        for (final RecordReader reader : partitions) {
+            tasks.add(new Callable<S>() {
+                @Override
+                public S call() {
+                    S sketch = functions.create();
+                    while (read.hasNext(reader)) functions.add(sketch, read.next(reader));
+                    return sketch;
+                }
+            });
+        }
+        return invokeAndMerge(tasks, functions, Math.min(numThreads, partitions.size()));
+    }
+
+    private static <S> S invokeAndMerge(List<Callable<S>> tasks, SketchFunctions<?, S> functions, int numThreads) {
+        ExecutorService executor = newExecutor(numThreads);
+        try {
+            S merged = null;
+            for (Future<S> f : executor.invokeAll(tasks)) {
+                S s = getResult(f);
+                merged = (merged == null ? s : functions.merge(merged, s));
+            }
+            return merged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during analysis", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Single RecordReader: records are read on the calling thread in batches, and each batch is added to the sketch
+     * of one of the worker threads
+     */
+    private static <T, S> S aggregate(RecordReader reader, ReadFunction<T> read, final SketchFunctions<T, S> functions,
+                                      int numThreads) {
+        if (numThreads <= 1) {
+            S sketch = functions.create();
+            while (read.hasNext(reader)) functions.add(sketch, read.next(reader));
+            return sketch;
+        }
+
+        final List<T> endOfInput = Collections.emptyList();
+        final BlockingQueue<List<T>> queue = new ArrayBlockingQueue<>(2 * numThreads);
+        ExecutorService executor = newExecutor(numThreads);
+        List<Future<S>> futures = new ArrayList<>(numThreads);
+        try {
+            for (int i = 0; i < numThreads; i++) {
+                futures.add(executor.submit(new Callable<S>() {
+                    @Override
+                    public S call() throws Exception {
+                        S sketch = functions.create();
+                        List<T> batch;
+                        while ((batch = queue.take()) != endOfInput) {
+                            for (T t : batch) functions.add(sketch, t);
+                        }
+                        return sketch;
+                    }
+                }));
+            }
+
+            List<T> batch = new ArrayList<>(DEFAULT_READ_BATCH_SIZE);
+            while (read.hasNext(reader)) {
+                batch.add(read.next(reader));
+                if (batch.size() >= DEFAULT_READ_BATCH_SIZE) {
+                    put(queue, batch, futures);
+                    batch = new ArrayList<>(DEFAULT_READ_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) put(queue, batch, futures);
+            for (int i = 0; i < numThreads; i++) put(queue, endOfInput, futures);
+
+            S merged = null;
+            for (Future<S> f : futures) {
+                S s = getResult(f);
+                merged = (merged == null ? s : functions.merge(merged, s));
+            }
+            return merged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during analysis", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Put a batch on the queue; if a worker has failed, rethrow its exception instead of blocking forever */
+    private static <T, S> void put(BlockingQueue<List<T>> queue, List<T> batch, List<Future<S>> workers)
+            throws InterruptedException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<S> f : workers) {
+                if (f.isDone()) getResult(f);
+            }
+        }
+    }
+
+    private static <S> S getResult(Future<S> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new RuntimeException("Error during analysis", cause);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * ExternalSorter: sorts an arbitrary number of records using a bounded amount of memory.<br>
+ * Records are buffered in memory until {@code maxRecordsInMemory} is reached; the buffer is then sorted and written
+ * to a temporary file as a sorted run (using {@link WritableUtils#writeRecord(List, DataOutput)}). When
+ * {@link #sortedIterator()} is called, all runs (plus the final in-memory buffer) are merged k-way, reading only
+ * one record at a time from each run. If there are more than {@code maxMergeFanIn} runs, runs are first merged into
+ * larger runs, to bound the number of files open at once.<br>
+ * The sort is stable: records that compare as equal are returned in the order in which they were added.
+ * <p>
+ * Note: this class is not thread safe.
+ */
+public class ExternalSorter implements Closeable {
+
+    public static final int DEFAULT_MAX_MERGE_FAN_IN = 64;
+    private static final int READ_BUFFER_SIZE = 65536;
+
+    private final Comparator<List<Writable>> comparator;
+    private final int maxRecordsInMemory;
+    private final int maxMergeFanIn;
+    private final File tempDirectory;
+
+    private List<List<Writable>> buffer = new ArrayList<>();
+    private final LinkedList<SortedRun> runs = new LinkedList<>();
+    private final List<Closeable> openStreams = new ArrayList<>();
+    private long totalCount;
+    private long spilledCount;
+    private boolean addingComplete = false;
+
+    /**
+     * @param comparator         Comparator defining the sort order
+     * @param maxRecordsInMemory Maximum number of records to hold in memory before writing a sorted run to disk
+     * @param tempDirectory      Directory for the temporary run files. If null: the default temporary directory is used
+     */
+    public ExternalSorter(Comparator<List<Writable>> comparator, int maxRecordsInMemory, File tempDirectory) {
+        this(comparator, maxRecordsInMemory, DEFAULT_MAX_MERGE_FAN_IN, tempDirectory);
+    }
+
+    /**
+     * @param comparator         Comparator defining the sort order
+     * @param maxRecordsInMemory Maximum number of records to hold in memory before writing a sorted run to disk
+     * @param maxMergeFanIn      Maximum number of runs to merge at once. Must be at least 2
+     * @param tempDirectory      Directory for the temporary run files. If null: the default temporary directory is used
+     */
+    public ExternalSorter(Comparator<List<Writable>> comparator, int maxRecordsInMemory, int maxMergeFanIn,
+                          File tempDirectory) {
+        if (maxRecordsInMemory <= 0)
+            throw new IllegalArgumentException("Max records in memory must be > 0: got " + maxRecordsInMemory);
+        if (maxMergeFanIn < 2) throw new IllegalArgumentException("Max merge fan-in must be >= 2: got " + maxMergeFanIn);
+        this.comparator = comparator;
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        this.maxMergeFanIn = maxMergeFanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Add a record to be sorted
+     */
+    public void add(List<Writable> record) throws IOException {
+        if (addingComplete) throw new IllegalStateException("Cannot add records: sorted output has already been requested");
+        buffer.add(record);
+        totalCount++;
+        if (buffer.size() >= maxRecordsInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * Add all records from the given collection
+     */
+    public void addAll(Collection<List<Writable>> records) throws IOException {
+        for (List<Writable> record : records) {
+            add(record);
+        }
+    }
+
+    private void spill() throws IOException {
+        Collections.sort(buffer, comparator);
+        File f = File.createTempFile("datavec_sort_run_", ".bin", tempDirectory);
+        f.deleteOnExit();
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            for (List<Writable> record : buffer) {
+                WritableUtils.writeRecord(record, dos);
+            }
+        }
+        runs.add(new SortedRun(f, buffer.size()));
+        spilledCount += buffer.size();
+        buffer = new ArrayList<>();
+    }
+
+    /**
+     * @return Total number of records added
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Number of records that have been written to disk in sorted runs
+     */
+    public long spilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * @return Number of sorted runs currently on disk
+     */
+    public int numRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Get an iterator over all records, in sorted order. Once this method has been called, no more records may be
+     * added. If no records were spilled to disk, this is an in-memory sort; otherwise the runs are merged lazily as the
+     * iterator is consumed. Can only be called once.
+     */
+    public Iterator<List<Writable>> sortedIterator() throws IOException {
+        if (addingComplete) throw new IllegalStateException("Sorted iterator has already been requested");
+        addingComplete = true;
+
+        Collections.sort(buffer, comparator);
+        if (runs.isEmpty()) {
+            return buffer.iterator();
+        }
+
+        //Reduce the number of runs so that the final merge (including the in-memory buffer) has at most maxMergeFanIn
+        //inputs. Merging adjacent runs, and putting the result in their place, keeps the sort stable
+        int maxFileRuns = (buffer.isEmpty() ? maxMergeFanIn : maxMergeFanIn - 1);
+        while (runs.size() > maxFileRuns) {
+            int n = Math.min(maxMergeFanIn, runs.size() - maxFileRuns + 1);
+            List<SortedRun> toMerge = new ArrayList<>(runs.subList(0, n));
+            runs.subList(0, n).clear();
+            runs.addFirst(mergeToFile(toMerge));
+        }
+
+        List<Iterator<List<Writable>>> inputs = new ArrayList<>(runs.size() + 1);
+        for (SortedRun r : runs) {
+            inputs.add(r.iterator());
+        }
+        if (!buffer.isEmpty()) {
+            inputs.add(buffer.iterator());
+        }
+        return new MergeIterator(inputs, comparator);
+    }
+
+    private SortedRun mergeToFile(List<SortedRun> toMerge) throws IOException {
+        List<Iterator<List<Writable>>> inputs = new ArrayList<>(toMerge.size());
+        long count = 0;
+        for (SortedRun r : toMerge) {
+            inputs.add(r.iterator());
+            count += r.count;
+        }
+        File f = File.createTempFile("datavec_sort_run_", ".bin", tempDirectory);
+        f.deleteOnExit();
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)))) {
+            MergeIterator iter = new MergeIterator(inputs, comparator);
+            while (iter.hasNext()) {
+                WritableUtils.writeRecord(iter.next(), dos);
+            }
+        }
+        for (SortedRun r : toMerge) {
+            r.delete();
+        }
+        return new SortedRun(f, count);
+    }
+
+    /**
+     * Release any in-memory records, close any open run files, and delete any temporary files
+     */
+    @Override
+    public void close() throws IOException {
+        addingComplete = true;
+        buffer = new ArrayList<>();
+        for (Closeable c : openStreams) {
+            try {
+                c.close();
+            } catch (IOException e) {
+                //Ignore: deleting the file next
+            }
+        }
+        openStreams.clear();
+        for (SortedRun r : runs) {
+            r.delete();
+        }
+        runs.clear();
+    }
+
+    /** A sorted run of records on disk */
+    private class SortedRun {
+        private final File file;
+        private final long count;
+
+        private SortedRun(File file, long count) {
+            this.file = file;
+            this.count = count;
+        }
+
+        private Iterator<List<Writable>> iterator() throws IOException {
+            final DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file), READ_BUFFER_SIZE));
+            openStreams.add(dis);
+            return new Iterator<List<Writable>>() {
+                private long read = 0;
+
+                @Override
+                public boolean hasNext() {
+                    return read < count;
+                }
+
+                @Override
+                public List<Writable> next() {
+                    if (read >= count) throw new NoSuchElementException();
+                    try {
+                        List<Writable> record = WritableUtils.readRecord(dis);
+                        if (++read == count) {
+                            dis.close();
+                            openStreams.remove(dis);
+                        }
+                        return record;
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error reading sorted run from file " + file, e);
+                    }
+                }
+
+                @Override
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        private void delete() {
+            if (!file.delete() && file.exists()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * K-way merge of sorted iterators. Ties are broken by input index, so that merging runs in insertion order is stable
+     */
+    private static class MergeIterator implements Iterator<List<Writable>> {
+        private final List<Iterator<List<Writable>>> inputs;
+        private final PriorityQueue<Head> queue;
+
+        private MergeIterator(List<Iterator<List<Writable>>> inputs, final Comparator<List<Writable>> comparator) {
+            this.inputs = inputs;
+            this.queue = new PriorityQueue<>(Math.max(1, inputs.size()), new Comparator<Head>() {
+                @Override
+                public int compare(Head o1, Head o2) {
+                    int c = comparator.compare(o1.record, o2.record);
+                    return c != 0 ? c : Integer.compare(o1.input, o2.input);
+                }
+            });
+            for (int i = 0; i < inputs.size(); i++) {
+                Iterator<List<Writable>> iter = inputs.get(i);
+                if (iter.hasNext()) {
+                    queue.add(new Head(iter.next(), i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public List<Writable> next() {
+            Head h = queue.poll();
+            if (h == null) throw new NoSuchElementException();
+            List<Writable> out = h.record;
+            Iterator<List<Writable>> iter = inputs.get(h.input);
+            if (iter.hasNext()) {
+                h.record = iter.next();
+                queue.add(h);
+            }
+            return out;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class Head {
+        private List<Writable> record;
+        private final int input;
+
+        private Head(List<Writable> record, int input) {
+            this.record = record;
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,1013 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.berkeley.Pair;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.transform.CompiledTransformProcess;
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.Transform;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.filter.Filter;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.join.JoinKey;
+import org.datavec.api.transform.metrics.PipelineMetrics;
+import org.datavec.api.transform.metrics.ThreadAllocation;
+import org.datavec.api.transform.rank.CalculateSortedRank;
+import org.datavec.api.transform.reduce.AggregableReducer;
+import org.datavec.api.transform.reduce.IReducer;
+import org.datavec.api.transform.reduce.ReduceAccumulator;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.sequence.ConvertToSequence;
+import org.datavec.api.transform.sequence.SequenceComparator;
+import org.datavec.api.transform.sequence.SequenceSplit;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Writable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LocalTransformExecutor: executes a {@link TransformProcess} on a single machine, without Spark.<br>
+ * Unlike {@link TransformProcess#execute(List)}, all types of {@link DataAction} are supported: in addition to
+ * transforms and filters, this includes reductions, conversion to/from sequences, sequence splits and
+ * calculating sorted rank. Joins can be executed using {@link #executeJoin(Join, List, List)}.
+ * <p>
+ * Execution details:<br>
+ * - Consecutive transform/filter steps are executed together in a single pass over the data, split into chunks that
+ * are processed in parallel on a {@link ForkJoinPool}<br>
+ * - Reduce operations group records by the typed values of the key columns (as a {@link JoinKey}). They are
+ * executed as an incremental aggregation where possible (see {@link AggregableReducer}):
+ * chunks of the data are aggregated by key in parallel, and the partial results merged. Only the per-key state is
+ * held in memory.<br>
+ * - Reduce operations that cannot be aggregated first hash-partition the records by key (see
+ * {@link SpillingHashPartitioner}); each partition is then grouped and reduced independently, in parallel.<br>
+ * - ConvertToSequence operations group records by the typed value of the key column (as a {@link JoinKey}). Sequences
+ * are returned in key order ({@link JoinKey#compareTo(JoinKey)}); the examples in each sequence are ordered by the
+ * sequence comparator, with ties kept in input order. In-memory data is grouped by hash partitioning, as for
+ * reductions; data streamed from a RecordReader is sorted by (key, comparator) using an external merge sort
+ * (see {@link ExternalSorter}). Both give the same output.<br>
+ * - CalculateSortedRank operations are executed as a (stable) sort; an external merge sort when the data is streamed
+ * from a RecordReader.<br>
+ * - When the input is a {@link RecordReader}, the leading transform/filter steps are executed as the data is read,
+ * in batches. If the next step is a Reduce, ConvertToSequence or CalculateSortedRank, each batch is passed straight
+ * to it, so the reader output is never collected into a single list: aggregable reductions only hold the per-key
+ * state, non-aggregable reductions spill partitions that exceed maxRecordsInMemoryPerPartition records to disk, and
+ * sorts write sorted runs of at most maxRecordsInMemoryPerPartition records to disk.
+ * <p>
+ * Memory use: data passed in as a List (and the output of every step) is held in memory, so grouping or sorting
+ * in-memory data does not spill. When a spilled partition is grouped, it is read back into memory in full; peak memory
+ * for non-aggregable reductions is therefore set by the size of the partitions being grouped concurrently, not by the
+ * spill limit. External sorts merge their runs lazily, one record per run at a time.
+ * <p>
+ * The executor owns a {@link ForkJoinPool}; call {@link #close()} to shut it down once the executor is no longer needed.
+ */
+public class LocalTransformExecutor implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalTransformExecutor.class);
+
+    private final ForkJoinPool pool;
+    private final int numPartitions;
+    private final int maxRecordsInMemoryPerPartition;
+    private final File tempDirectory;
+    private final int minChunkSize;
+    private final int readBatchSize;
+    private final PipelineMetrics metrics;
+    private final AtomicLong spilledRecordCount = new AtomicLong();
+
+    /**
+     * Create a LocalTransformExecutor with the default configuration. See {@link Builder} for the defaults.
+     */
+    public LocalTransformExecutor() {
+        this(new Builder());
+    }
+
+    private LocalTransformExecutor(Builder builder) {
+        this.pool = new ForkJoinPool(builder.numThreads);
+        this.numPartitions = (builder.numPartitions > 0 ? builder.numPartitions : 4 * builder.numThreads);
+        this.maxRecordsInMemoryPerPartition = builder.maxRecordsInMemoryPerPartition;
+        this.tempDirectory = builder.tempDirectory;
+        this.minChunkSize = builder.minChunkSize;
+        this.readBatchSize = builder.readBatchSize;
+        this.metrics = builder.metrics;
+    }
+
+    /**
+     * Execute the specified TransformProcess with the given input data<br>
+     * Note: this method can only be used if the TransformProcess returns non-sequence data. For TransformProcesses
+     * that return a sequence, use {@link #executeToSequence(List, TransformProcess)}
+     *
+     * @param inputWritables   Input data to process
+     * @param transformProcess TransformProcess to execute
+     * @return Processed data
+     */
+    public List<List<Writable>> execute(List<List<Writable>> inputWritables, TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return execute(inputWritables, null, transformProcess, 0).getFirst();
+    }
+
+    /**
+     * Execute the specified TransformProcess with the given input data<br>
+     * Note: this method can only be used if the TransformProcess starts with non-sequential data,
+     * but returns <it>sequence</it> data (after grouping or converting to a sequence as one of the steps)
+     */
+    public List<List<List<Writable>>> executeToSequence(List<List<Writable>> inputWritables, TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return execute(inputWritables, null, transformProcess, 0).getSecond();
+    }
+
+    /**
+     * Execute the specified TransformProcess with the given <i>sequence</i> input data<br>
+     * Note: this method can only be used if the TransformProcess starts with sequence data, but returns
+     * <i>non-sequential</i> data (after reducing or converting sequential data to individual examples)
+     */
+    public List<List<Writable>> executeSequenceToSeparate(List<List<List<Writable>>> inputSequence, TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return execute(null, inputSequence, transformProcess, 0).getFirst();
+    }
+
+    /**
+     * Execute the specified TransformProcess with the given <i>sequence</i> input data<br>
+     * Note: this method can only be used if the TransformProcess starts with sequence data, and also returns sequence data
+     */
+    public List<List<List<Writable>>> executeSequenceToSequence(List<List<List<Writable>>> inputSequence, TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return execute(null, inputSequence, transformProcess, 0).getSecond();
+    }
+
+    /**
+     * Execute the specified TransformProcess on all records from the given RecordReader.
+     * Any transform/filter steps at the start of the TransformProcess are applied as the data is read.
+     * Note: this method can only be used if the TransformProcess returns non-sequence data.
+     */
+    public List<List<Writable>> execute(RecordReader recordReader, TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return executeFromReader(recordReader, false, transformProcess).getFirst();
+    }
+
+    /**
+     * Execute the specified TransformProcess on all records from the given RecordReader, returning sequence data.
+     */
+    public List<List<List<Writable>>> executeToSequence(RecordReader recordReader, TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return executeFromReader(recordReader, false, transformProcess).getSecond();
+    }
+
+    /**
+     * Execute the specified TransformProcess on all sequences from the given SequenceRecordReader, returning
+     * non-sequence data.
+     */
+    public List<List<Writable>> executeSequenceToSeparate(SequenceRecordReader sequenceRecordReader, TransformProcess transformProcess) {
+        if (transformProcess.getFinalSchema() instanceof SequenceSchema) {
+            throw new IllegalStateException("Cannot return sequence data with this method");
+        }
+        return executeFromReader(sequenceRecordReader, true, transformProcess).getFirst();
+    }
+
+    /**
+     * Execute the specified TransformProcess on all sequences from the given SequenceRecordReader, returning
+     * sequence data.
+     */
+    public List<List<List<Writable>>> executeSequenceToSequence(SequenceRecordReader sequenceRecordReader, TransformProcess transformProcess) {
+        if (!(transformProcess.getFinalSchema() instanceof SequenceSchema)) {
+            throw new IllegalStateException("Cannot return non-sequence data with this method");
+        }
+        return executeFromReader(sequenceRecordReader, true, transformProcess).getSecond();
+    }
+
+    /**
+     * @return Total number of records written to disk by grouping and sorting steps, over all executions by this
+     * executor
+     */
+    public long getSpilledRecordCount() {
+        return spilledRecordCount.get();
+    }
+
+    /**
+     * Shut down the thread pool used by this executor. The executor cannot be used after it has been closed.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private Pair<List<List<Writable>>, List<List<List<Writable>>>> executeFromReader(RecordReader reader, boolean sequence,
+                                                                                  TransformProcess transformProcess) {
+        List<DataAction> list = transformProcess.getActionList();
+
+        //Transform and filter operations at the start of the process can be applied as we read
+        int firstNonLocal = 0;
+        while (firstNonLocal < list.size() && isPerExampleAction(list.get(firstNonLocal))) {
+            firstNonLocal++;
+        }
+        List<DataAction> leading = list.subList(0, firstNonLocal);
+        if (firstNonLocal > 0) {
+            log.info("Executing stages 1 to {} of {} while reading", firstNonLocal, list.size());
+        }
+
+        DataAction next = (firstNonLocal < list.size() ? list.get(firstNonLocal) : null);
+        if (!sequence && next != null && (next.getReducer() != null || next.getConvertToSequence() != null
+                        || next.getCalculateSortedRank() != null)) {
+            //Pass each batch straight to the grouping/sorting step, rather than collecting all of the reader output first
+            log.info("Starting execution of stage {} of {} while reading", firstNonLocal + 1, list.size());
+            long start = System.nanoTime();
+            ReaderBatchIterator batches = new ReaderBatchIterator(reader, leading);
+            List<List<Writable>> writables = null;
+            List<List<List<Writable>>> sequences = null;
+            if (next.getReducer() != null) {
+                writables = executeReduce(next.getReducer(), batches, true);
+            } else if (next.getConvertToSequence() != null) {
+                sequences = executeConvertToSequence(next.getConvertToSequence(), batches, true);
+            } else {
+                writables = executeCalculateSortedRank(next.getCalculateSortedRank(), batches, true);
+            }
+            if (metrics != null) {
+                long recordsOut = (writables != null ? writables.size() : sequences.size());
+                metrics.onStep(firstNonLocal, next, batches.count, recordsOut, System.nanoTime() - start, -1);
+            }
+            return execute(writables, sequences, transformProcess, firstNonLocal + 1);
+        }
+
+        List<Object> out = new ArrayList<>();
+        List<Object> batch = new ArrayList<>(readBatchSize);
+        while (reader.hasNext()) {
+            batch.add(sequence ? ((SequenceRecordReader) reader).sequenceRecord() : reader.next());
+            if (batch.size() >= readBatchSize) {
+                out.addAll(applyPerExample(batch, leading, 0, sequence));
+                batch.clear();
+            }
+        }
+        if (batch.size() > 0) {
+            out.addAll(applyPerExample(batch, leading, 0, sequence));
+        }
+
+        return execute(out, sequence, transformProcess, firstNonLocal);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Pair<List<List<Writable>>, List<List<List<Writable>>>> execute(List<Object> data, boolean sequence,
+                                                                        TransformProcess transformProcess, int startStep) {
+        if (sequence) {
+            return execute(null, (List<List<List<Writable>>>) (List) data, transformProcess, startStep);
+        } else {
+            return execute((List<List<Writable>>) (List) data, null, transformProcess, startStep);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Pair<List<List<Writable>>, List<List<List<Writable>>>> execute(List<List<Writable>> inputWritables,
+                                                                        List<List<List<Writable>>> inputSequence,
+                                                                        TransformProcess transformProcess, int startStep) {
+        List<List<Writable>> currentWritables = inputWritables;
+        List<List<List<Writable>>> currentSequence = inputSequence;
+
+        List<DataAction> list = transformProcess.getActionList();
+
+        int i = startStep;
+        while (i < list.size()) {
+            DataAction d = list.get(i);
+            log.info("Starting execution of stage {} of {}", i + 1, list.size());
+            long recordsIn = (currentWritables != null ? currentWritables.size() : currentSequence.size());
+            long start = System.nanoTime();
+
+            if (isPerExampleAction(d)) {
+                //Fuse all consecutive transform/filter steps into a single pass over the data
+                int end = i + 1;
+                while (end < list.size() && isPerExampleAction(list.get(end))) {
+                    end++;
+                }
+                List<DataAction> fused = list.subList(i, end);
+                if (currentWritables != null) {
+                    currentWritables = (List<List<Writable>>) (List) applyPerExample((List<Object>) (List) currentWritables, fused, i, false);
+                } else {
+                    currentSequence = (List<List<List<Writable>>>) (List) applyPerExample((List<Object>) (List) currentSequence, fused, i, true);
+                }
+                i = end;
+                continue;
+            } else if (d.getConvertToSequence() != null) {
+                if (currentWritables == null) {
+                    throw new IllegalStateException("Cannot execute ConvertToSequence operation: current writables are null");
+                }
+                currentSequence = executeConvertToSequence(d.getConvertToSequence(), singleBatch(currentWritables), false);
+                currentWritables = null;
+            } else if (d.getConvertFromSequence() != null) {
+                if (currentSequence == null) {
+                    throw new IllegalStateException("Cannot execute ConvertFromSequence operation: current sequence is null");
+                }
+                List<List<Writable>> flattened = new ArrayList<>();
+                for (List<List<Writable>> seq : currentSequence) {
+                    flattened.addAll(seq);
+                }
+                currentWritables = flattened;
+                currentSequence = null;
+            } else if (d.getSequenceSplit() != null) {
+                if (currentSequence == null)
+                    throw new IllegalStateException("Error during execution of SequenceSplit: currentSequence is null");
+                currentSequence = executeSequenceSplit(d.getSequenceSplit(), currentSequence);
+            } else if (d.getReducer() != null) {
+                if (currentWritables == null)
+                    throw new IllegalStateException("Error during execution of reduction: current writables are null. "
+                            + "Trying to execute a reduce operation on a sequence?");
+                currentWritables = executeReduce(d.getReducer(), singleBatch(currentWritables), false);
+            } else if (d.getCalculateSortedRank() != null) {
+                if (currentWritables == null) {
+                    throw new IllegalStateException("Error during execution of CalculateSortedRank: current writables are null. "
+                            + "Trying to execute a CalculateSortedRank operation on a sequence? (not currently supported)");
+                }
+                currentWritables = executeCalculateSortedRank(d.getCalculateSortedRank(), singleBatch(currentWritables), false);
+            } else {
+                throw new RuntimeException("Unknown/not implemented action: " + d);
+            }
+            if (metrics != null) {
+                //Whole-data-set steps are executed on the pool threads, so allocations are not measured here
+                long recordsOut = (currentWritables != null ? currentWritables.size() : currentSequence.size());
+                metrics.onStep(i, d, recordsIn, recordsOut, System.nanoTime() - start, -1);
+            }
+            i++;
+        }
+
+        log.info("Completed {} of {} execution steps", list.size(), list.size());
+
+        return new Pair<>(currentWritables, currentSequence);
+    }
+
+    /**
+     * Execute a join on the specified data, as a hash join: the right data is indexed by key, and the left data is
+     * streamed. Keys are compared as typed values (see {@link JoinKey}). Keys may appear multiple times in either data
+     * set (one-to-many and many-to-many joins): all combinations of left and right examples for a key are returned.
+     * Output order: examples are returned in the order of the left data (and for each left example, in the order of the
+     * right data); for right/full outer joins, examples with keys that only appear in the right data are appended at
+     * the end.
+     *
+     * @param join  Join to execute
+     * @param left  Left data for join
+     * @param right Right data for join
+     * @return Joined data
+     */
+    public List<List<Writable>> executeJoin(Join join, List<List<Writable>> left, List<List<Writable>> right) {
+        Schema leftSchema = join.getLeftSchema();
+        Schema rightSchema = join.getRightSchema();
+        int[] leftKeyIdxs = keyIndices(leftSchema, join.getKeyColumnsLeft());
+        int[] rightKeyIdxs = keyIndices(rightSchema, join.getKeyColumnsRight());
+
+        Map<JoinKey, List<List<Writable>>> rightByKey = new LinkedHashMap<>();
+        for (List<Writable> r : right) {
+            JoinKey key = JoinKey.fromExample(r, rightKeyIdxs);
+            List<List<Writable>> list = rightByKey.get(key);
+            if (list == null) {
+                list = new ArrayList<>(1);
+                rightByKey.put(key, list);
+            }
+            list.add(r);
+        }
+
+        Join.JoinType joinType = join.getJoinType();
+        boolean keepLeftOnly = (joinType == Join.JoinType.LeftOuter || joinType == Join.JoinType.FullOuter);
+        boolean keepRightOnly = (joinType == Join.JoinType.RightOuter || joinType == Join.JoinType.FullOuter);
+
+        List<List<Writable>> out = new ArrayList<>();
+        Set<JoinKey> matchedKeys = new HashSet<>();
+        for (List<Writable> l : left) {
+            JoinKey key = JoinKey.fromExample(l, leftKeyIdxs);
+            List<List<Writable>> matches = rightByKey.get(key);
+            if (matches != null) {
+                if (keepRightOnly) matchedKeys.add(key);
+                for (List<Writable> r : matches) {
+                    out.add(join.joinExamples(l, r));
+                }
+            } else if (keepLeftOnly) {
+                out.add(join.joinExamples(l, null));
+            }
+        }
+
+        if (keepRightOnly) {
+            for (Map.Entry<JoinKey, List<List<Writable>>> e : rightByKey.entrySet()) {
+                if (!matchedKeys.contains(e.getKey())) {
+                    for (List<Writable> r : e.getValue()) {
+                        out.add(join.joinExamples(null, r));
+                    }
+                }
+            }
+        }
+
+        return out;
+    }
+
+    private static boolean isPerExampleAction(DataAction d) {
+        return d.getTransform() != null || d.getFilter() != null;
+    }
+
+    private static int[] keyIndices(Schema schema, String[] keyColumns) {
+        int[] idxs = new int[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            idxs[i] = schema.getIndexOfColumn(keyColumns[i]);
+        }
+        return idxs;
+    }
+
+    private static Iterator<List<List<Writable>>> singleBatch(List<List<Writable>> data) {
+        return Collections.singletonList(data).iterator();
+    }
+
+    /**
+     * Apply the given transform/filter actions to each example (or sequence), in parallel. Filtered examples are removed.
+     * If metrics are enabled, each step is timed separately (and the compiled execution path is not used)
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> applyPerExample(List<Object> data, final List<DataAction> actions, final int firstStep,
+                                         final boolean sequence) {
+        if (metrics != null) {
+            final boolean measureAlloc = metrics.isMeasureAllocations();
+            return parallelMap(data, new ElementFunction() {
+                @Override
+                public Object apply(Object in) {
+                    for (int j = 0; j < actions.size(); j++) {
+                        DataAction d = actions.get(j);
+                        long alloc = (measureAlloc ? ThreadAllocation.currentThreadAllocatedBytes() : -1);
+                        long start = System.nanoTime();
+                        boolean remove = false;
+                        if (d.getTransform() != null) {
+                            in = (sequence ? d.getTransform().mapSequence((List<List<Writable>>) in)
+                                    : d.getTransform().map((List<Writable>) in));
+                        } else if (sequence) {
+                            remove = d.getFilter().removeSequence((List<List<Writable>>) in);
+                        } else {
+                            remove = d.getFilter().removeExample((List<Writable>) in);
+                        }
+                        metrics.onStep(firstStep + j, d, 1, (remove ? 0 : 1), System.nanoTime() - start,
+                                ThreadAllocation.allocatedSince(alloc));
+                        if (remove) return null;
+                    }
+                    return in;
+                }
+            });
+        }
+        if (!sequence && !actions.isEmpty()) {
+            DataAction first = actions.get(0);
+            Schema schema = (first.getTransform() != null ? first.getTransform().getInputSchema() : first.getFilter().getInputSchema());
+            final CompiledTransformProcess compiled = new CompiledTransformProcess(schema, actions);
+            return parallelMap(data, new ElementFunction() {
+                @Override
+                public Object apply(Object in) {
+                    return compiled.execute((List<Writable>) in);
+                }
+            });
+        }
+        return parallelMap(data, new ElementFunction() {
+            @Override
+            public Object apply(Object in) {
+                if (sequence) {
+                    List<List<Writable>> seq = (List<List<Writable>>) in;
+                    for (DataAction d : actions) {
+                        if (d.getTransform() != null) {
+                            seq = d.getTransform().mapSequence(seq);
+                        } else {
+                            if (d.getFilter().removeSequence(seq)) return null;
+                        }
+                    }
+                    return seq;
+                } else {
+                    List<Writable> example = (List<Writable>) in;
+                    for (DataAction d : actions) {
+                        Transform t = d.getTransform();
+                        if (t != null) {
+                            example = t.map(example);
+                        } else {
+                            Filter f = d.getFilter();
+                            if (f.removeExample(example)) return null;
+                        }
+                    }
+                    return example;
+                }
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<List<Writable>>> executeSequenceSplit(final SequenceSplit split, List<List<List<Writable>>> sequences) {
+        List<Object> splits = parallelMap((List<Object>) (List) sequences, new ElementFunction() {
+            @Override
+            public Object apply(Object in) {
+                return split.split((List<List<Writable>>) in);
+            }
+        });
+
+        List<List<List<Writable>>> out = new ArrayList<>();
+        for (Object o : splits) {
+            out.addAll((List<List<List<Writable>>>) o);
+        }
+        return out;
+    }
+
+    /**
+     * @param batches Data to reduce, as one or more batches
+     * @param spill   Whether grouping may spill to disk. Only useful if the batches are not otherwise held in memory
+     */
+    @SuppressWarnings("unchecked")
+    private List<List<Writable>> executeReduce(final IReducer reducer, Iterator<List<List<Writable>>> batches,
+                                               boolean spill) {
+        Schema schema = reducer.getInputSchema();
+        List<String> keyColumns = reducer.getKeyColumns();
+        final int[] keyIdxs = new int[keyColumns == null ? 0 : keyColumns.size()];
+        for (int i = 0; i < keyIdxs.length; i++) {
+            keyIdxs[i] = schema.getIndexOfColumn(keyColumns.get(i));
+        }
+
+        if (reducer instanceof AggregableReducer && ((AggregableReducer) reducer).isAggregable()) {
+            return executeReduceAggregate((AggregableReducer) reducer, batches, keyIdxs);
+        }
+
+        List<Object> reduced = groupAndApply(batches, new KeyFunction() {
+            @Override
+            public Object getKey(List<Writable> example) {
+                return JoinKey.fromExample(example, keyIdxs);
+            }
+        }, new ElementFunction() {
+            @Override
+            public Object apply(Object in) {
+                return reducer.reduce((List<List<Writable>>) in);
+            }
+        }, spill);
+
+        return (List<List<Writable>>) (List) reduced;
+    }
+
+    /**
+     * Reduce by incremental aggregation: each chunk of each batch is aggregated by key in parallel (one accumulator per
+     * key per chunk), and the per-chunk accumulators are then merged in chunk order. Only the per-key state is held in
+     * memory, rather than all examples for each key. Output is in order of first appearance of each key
+     */
+    private List<List<Writable>> executeReduceAggregate(AggregableReducer reducer, Iterator<List<List<Writable>>> batches,
+                                                        int[] keyIdxs) {
+        Map<JoinKey, ReduceAccumulator> merged = new LinkedHashMap<>();
+        while (batches.hasNext()) {
+            aggregateBatch(reducer, batches.next(), keyIdxs, merged);
+        }
+
+        List<List<Writable>> out = new ArrayList<>(merged.size());
+        for (ReduceAccumulator acc : merged.values()) {
+            out.add(reducer.finish(acc));
+        }
+        return out;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void aggregateBatch(final AggregableReducer reducer, List<List<Writable>> data, final int[] keyIdxs,
+                                Map<JoinKey, ReduceAccumulator> merged) {
+        final List<List<Writable>> input = (data instanceof RandomAccess ? data : new ArrayList<>(data));
+        int n = input.size();
+        int nChunks = Math.max(1, Math.min(4 * pool.getParallelism(), (n + minChunkSize - 1) / minChunkSize));
+        List<Object> ranges = new ArrayList<>(nChunks);
+        for (int c = 0; c < nChunks; c++) {
+            ranges.add(new int[]{(int) ((long) n * c / nChunks), (int) ((long) n * (c + 1) / nChunks)});
+        }
+
+        List<Object> partials = parallelMap(ranges, new ElementFunction() {
+            @Override
+            public Object apply(Object in) {
+                int[] range = (int[]) in;
+                Map<JoinKey, ReduceAccumulator> accumulators = new LinkedHashMap<>();
+                for (int i = range[0]; i < range[1]; i++) {
+                    List<Writable> example = input.get(i);
+                    JoinKey key = JoinKey.fromExample(example, keyIdxs);
+                    ReduceAccumulator acc = accumulators.get(key);
+                    if (acc == null) {
+                        acc = reducer.createAccumulator();
+                        accumulators.put(key, acc);
+                    }
+                    reducer.aggregate(acc, example);
+                }
+                return accumulators;
+            }
+        }, 1);
+
+        //Merge in chunk order, so order-dependent reductions (take first/last) see the examples in their original order
+        for (Object o : partials) {
+            for (Map.Entry<JoinKey, ReduceAccumulator> e : ((Map<JoinKey, ReduceAccumulator>) o).entrySet()) {
+                ReduceAccumulator existing = merged.get(e.getKey());
+                merged.put(e.getKey(), existing == null ? e.getValue() : reducer.merge(existing, e.getValue()));
+            }
+        }
+    }
+
+    /**
+     * @param batches Data to convert, as one or more batches
+     * @param stream  If true: the batches are not otherwise held in memory, so use an external sort (which can spill
+     *                to disk) rather than in-memory grouping
+     */
+    @SuppressWarnings("unchecked")
+    private List<List<List<Writable>>> executeConvertToSequence(ConvertToSequence cts,
+                    Iterator<List<List<Writable>>> batches, boolean stream) {
+        final int[] keyIdxs = new int[]{cts.getInputSchema().getIndexOfColumn(cts.getKeyColumn())};
+        final SequenceComparator comparator = cts.getComparator();
+
+        if (stream) {
+            return executeConvertToSequenceExternal(keyIdxs, comparator, batches);
+        }
+
+        List<Object> sequences = groupAndApply(batches, new KeyFunction() {
+            @Override
+            public Object getKey(List<Writable> example) {
+                return JoinKey.fromExample(example, keyIdxs);
+            }
+        }, new ElementFunction() {
+            @Override
+            public Object apply(Object in) {
+                List<List<Writable>> group = (List<List<Writable>>) in;
+                Collections.sort(group, comparator);
+                return group;
+            }
+        }, false);
+
+        //Same order as the external sort: by key
+        Collections.sort(sequences, new Comparator<Object>() {
+            @Override
+            public int compare(Object o1, Object o2) {
+                List<Writable> first1 = ((List<List<Writable>>) o1).get(0);
+                List<Writable> first2 = ((List<List<Writable>>) o2).get(0);
+                return JoinKey.fromExample(first1, keyIdxs).compareTo(JoinKey.fromExample(first2, keyIdxs));
+            }
+        });
+        return (List<List<List<Writable>>>) (List) sequences;
+    }
+
+    private List<List<List<Writable>>> executeConvertToSequenceExternal(final int[] keyIdxs,
+                    final SequenceComparator comparator, Iterator<List<List<Writable>>> batches) {
+        Comparator<List<Writable>> keyThenSequenceOrder = new Comparator<List<Writable>>() {
+            @Override
+            public int compare(List<Writable> o1, List<Writable> o2) {
+                int c = JoinKey.fromExample(o1, keyIdxs).compareTo(JoinKey.fromExample(o2, keyIdxs));
+                return c != 0 ? c : comparator.compare(o1, o2);
+            }
+        };
+
+        List<List<List<Writable>>> out = new ArrayList<>();
+        try (ExternalSorter sorter = sort(keyThenSequenceOrder, batches, true)) {
+            Iterator<List<Writable>> iter = sorter.sortedIterator();
+            List<List<Writable>> current = null;
+            JoinKey currentKey = null;
+            while (iter.hasNext()) {
+                List<Writable> example = iter.next();
+                JoinKey key = JoinKey.fromExample(example, keyIdxs);
+                if (current == null || !key.equals(currentKey)) {
+                    current = new ArrayList<>();
+                    out.add(current);
+                    currentKey = key;
+                }
+                current.add(example);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error sorting data for ConvertToSequence", e);
+        }
+        return out;
+    }
+
+    /**
+     * @param batches Data to rank, as one or more batches
+     * @param spill   Whether the sort may write sorted runs to disk. Only useful if the batches are not otherwise held
+     *                in memory
+     */
+    private List<List<Writable>> executeCalculateSortedRank(CalculateSortedRank csr,
+                    Iterator<List<List<Writable>>> batches, boolean spill) {
+        final Comparator<Writable> comparator = csr.getComparator();
+        final int sortColumnIdx = csr.getInputSchema().getIndexOfColumn(csr.getSortOnColumn());
+        final boolean ascending = csr.isAscending();
+
+        Comparator<List<Writable>> rowComparator = new Comparator<List<Writable>>() {
+            @Override
+            public int compare(List<Writable> o1, List<Writable> o2) {
+                int c = comparator.compare(o1.get(sortColumnIdx), o2.get(sortColumnIdx));
+                return (ascending ? c : -c);
+            }
+        };
+
+        List<List<Writable>> out = new ArrayList<>();
+        try (ExternalSorter sorter = sort(rowComparator, batches, spill)) {
+            Iterator<List<Writable>> iter = sorter.sortedIterator();
+            long rank = 0;
+            while (iter.hasNext()) {
+                List<Writable> example = iter.next();
+                List<Writable> withRank = new ArrayList<>(example.size() + 1);
+                withRank.addAll(example);
+                withRank.add(new LongWritable(rank++));
+                out.add(withRank);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error sorting data for CalculateSortedRank", e);
+        }
+        return out;
+    }
+
+    /**
+     * Add all of the batches to a new {@link ExternalSorter}. The caller is responsible for closing the sorter
+     *
+     * @param spill If true: at most maxRecordsInMemoryPerPartition records are held in memory at once for sorting,
+     *              with sorted runs written to disk. Otherwise, the sort is done entirely in memory
+     */
+    private ExternalSorter sort(Comparator<List<Writable>> comparator, Iterator<List<List<Writable>>> batches,
+                                boolean spill) throws IOException {
+        ExternalSorter sorter = new ExternalSorter(comparator,
+                        (spill ? maxRecordsInMemoryPerPartition : Integer.MAX_VALUE), tempDirectory);
+        try {
+            while (batches.hasNext()) {
+                for (List<Writable> example : batches.next()) {
+                    sorter.add(example);
+                }
+            }
+        } catch (IOException e) {
+            sorter.close();
+            throw e;
+        }
+        if (sorter.spilledCount() > 0) {
+            spilledRecordCount.addAndGet(sorter.spilledCount());
+            log.info("Spilled {} of {} records to disk in {} sorted runs", sorter.spilledCount(), sorter.totalCount(),
+                            sorter.numRuns());
+        }
+        return sorter;
+    }
+
+    /**
+     * Hash partition the data by key, then (in parallel, one partition at a time per thread) group each partition by
+     * key and apply the given function to each group. Groups are returned in the order in which their keys first
+     * appear within each partition.
+     *
+     * @param spill If true: partitions with more than maxRecordsInMemoryPerPartition records are spilled to disk as
+     *              the batches are added. Only useful if the batches are not otherwise held in memory
+     */
+    private List<Object> groupAndApply(Iterator<List<List<Writable>>> batches, KeyFunction keyFunction,
+                                       final ElementFunction groupFunction, boolean spill) {
+        final SpillingHashPartitioner partitioner = new SpillingHashPartitioner(numPartitions,
+                        (spill ? maxRecordsInMemoryPerPartition : Integer.MAX_VALUE), tempDirectory);
+        try {
+            while (batches.hasNext()) {
+                for (List<Writable> example : batches.next()) {
+                    partitioner.add(keyFunction.getKey(example), example);
+                }
+            }
+            if (partitioner.spilledCount() > 0) {
+                spilledRecordCount.addAndGet(partitioner.spilledCount());
+                log.info("Spilled {} of {} records to disk during grouping", partitioner.spilledCount(), partitioner.totalCount());
+            }
+
+            List<Object> partitionIdxs = new ArrayList<>(numPartitions);
+            for (int p = 0; p < numPartitions; p++) partitionIdxs.add(p);
+
+            final KeyFunction kf = keyFunction;
+            List<Object> perPartition = parallelMap(partitionIdxs, new ElementFunction() {
+                @Override
+                public Object apply(Object in) {
+                    List<List<Writable>> records;
+                    try {
+                        records = partitioner.getPartition((Integer) in);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error reading partition " + in, e);
+                    }
+                    Map<Object, List<List<Writable>>> groups = new LinkedHashMap<>();
+                    for (List<Writable> example : records) {
+                        Object key = kf.getKey(example);
+                        List<List<Writable>> group = groups.get(key);
+                        if (group == null) {
+                            group = new ArrayList<>();
+                            groups.put(key, group);
+                        }
+                        group.add(example);
+                    }
+                    List<Object> results = new ArrayList<>(groups.size());
+                    for (List<List<Writable>> group : groups.values()) {
+                        results.add(groupFunction.apply(group));
+                    }
+                    return results;
+                }
+            }, 1);
+
+            List<Object> out = new ArrayList<>();
+            for (Object o : perPartition) {
+                out.addAll((List<?>) o);
+            }
+            return out;
+        } catch (IOException e) {
+            throw new RuntimeException("Error partitioning data", e);
+        } finally {
+            try {
+                partitioner.close();
+            } catch (IOException e) {
+                log.warn("Error closing partitioner", e);
+            }
+        }
+    }
+
+    private List<Object> parallelMap(List<Object> data, ElementFunction function) {
+        return parallelMap(data, function, minChunkSize);
+    }
+
+    /**
+     * Apply the function to each element, in parallel. Null results are removed; order is otherwise preserved.
+     */
+    private List<Object> parallelMap(List<Object> data, ElementFunction function, int chunkSize) {
+        Object[] results = new Object[data.size()];
+        if (data.size() <= chunkSize) {
+            new ChunkTask(data, results, 0, data.size(), function, chunkSize).compute();
+        } else {
+            pool.invoke(new ChunkTask(data, results, 0, data.size(), function, chunkSize));
+        }
+
+        List<Object> out = new ArrayList<>(results.length);
+        for (Object o : results) {
+            if (o != null) out.add(o);
+        }
+        return out;
+    }
+
+    private interface ElementFunction {
+        Object apply(Object in);
+    }
+
+    private interface KeyFunction {
+        Object getKey(List<Writable> example);
+    }
+
+    /**
+     * Reads examples from a RecordReader in batches of readBatchSize, applying the given transform/filter steps to
+     * each batch as it is read. Only the current batch is referenced by the iterator
+     */
+    private class ReaderBatchIterator implements Iterator<List<List<Writable>>> {
+        private final RecordReader reader;
+        private final List<DataAction> actions;
+        private long count;
+
+        private ReaderBatchIterator(RecordReader reader, List<DataAction> actions) {
+            this.reader = reader;
+            this.actions = actions;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return reader.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<List<Writable>> next() {
+            if (!reader.hasNext()) throw new NoSuchElementException();
+            List<Object> batch = new ArrayList<>(readBatchSize);
+            while (batch.size() < readBatchSize && reader.hasNext()) {
+                batch.add(reader.next());
+            }
+            List<List<Writable>> out = (List<List<Writable>>) (List) applyPerExample(batch, actions, 0, false);
+            count += out.size();
+            return out;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class ChunkTask extends RecursiveAction {
+        private final List<Object> in;
+        private final Object[] out;
+        private final int from;
+        private final int to;
+        private final ElementFunction function;
+        private final int chunkSize;
+
+        private ChunkTask(List<Object> in, Object[] out, int from, int to, ElementFunction function, int chunkSize) {
+            this.in = in;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+            this.function = function;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    out[i] = function.apply(in.get(i));
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(in, out, from, mid, function, chunkSize),
+                        new ChunkTask(in, out, mid, to, function, chunkSize));
+            }
+        }
+    }
+
+    /**
+     * Builder for a LocalTransformExecutor
+     */
+    public static class Builder {
+
+        private int numThreads = Runtime.getRuntime().availableProcessors();
+        private int numPartitions = -1;
+        private int maxRecordsInMemoryPerPartition = 100000;
+        private File tempDirectory = null;
+        private int minChunkSize = 1000;
+        private int readBatchSize = 10000;
+        private PipelineMetrics metrics = null;
+
+        /**
+         * Number of threads to use. Default: number of available processors
+         */
+        public Builder numThreads(int numThreads) {
+            if (numThreads <= 0) throw new IllegalArgumentException("Number of threads must be > 0");
+            this.numThreads = numThreads;
+            return this;
+        }
+
+        /**
+         * Number of partitions to use for the grouping stages (reduce, convert to sequence). Default: 4 x number of threads
+         */
+        public Builder numPartitions(int numPartitions) {
+            this.numPartitions = numPartitions;
+            return this;
+        }
+
+        /**
+         * Maximum number of records to keep in memory per partition during grouping stages, before spilling to disk
+         * (when the data is streamed from a RecordReader). Also the maximum size of each sorted run for external
+         * sorts. Default: 100,000
+         */
+        public Builder maxRecordsInMemoryPerPartition(int maxRecordsInMemoryPerPartition) {
+            this.maxRecordsInMemoryPerPartition = maxRecordsInMemoryPerPartition;
+            return this;
+        }
+
+        /**
+         * Directory to use for spill files. Default: the system temporary directory
+         */
+        public Builder tempDirectory(File tempDirectory) {
+            this.tempDirectory = tempDirectory;
+            return this;
+        }
+
+        /**
+         * Minimum number of examples to process in each parallel task. Default: 1000
+         */
+        public Builder minChunkSize(int minChunkSize) {
+            if (minChunkSize <= 0) throw new IllegalArgumentException("Min chunk size must be > 0");
+            this.minChunkSize = minChunkSize;
+            return this;
+        }
+
+        /**
+         * Number of examples to read from a RecordReader before processing them. Default: 10,000
+         */
+        public Builder readBatchSize(int readBatchSize) {
+            if (readBatchSize <= 0) throw new IllegalArgumentException("Read batch size must be > 0");
+            this.readBatchSize = readBatchSize;
+            return this;
+        }
+
+        /**
+         * Metrics listener to report per-step timing, records in/out and allocations to. Note that when metrics are
+         * enabled, consecutive transform/filter steps are executed (and timed) one at a time rather than via
+         * {@link CompiledTransformProcess}. Default: null (no metrics)
+         */
+        public Builder metrics(PipelineMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public LocalTransformExecutor build() {
+            return new LocalTransformExecutor(this);
+        }
+    }
+}
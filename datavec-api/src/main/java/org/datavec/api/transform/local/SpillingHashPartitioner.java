@@ -0,0 +1,176 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.writable.Writable;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SpillingHashPartitioner: assigns records to a fixed number of partitions, according to the hash code of a key.
+ * All records with the same key end up in the same partition, which allows each partition to be grouped and processed
+ * independently (and in parallel) by the {@link LocalTransformExecutor}.<br>
+ * To bound memory use, each partition holds at most {@code maxRecordsInMemory} records on the heap; once that limit is
+ * reached the buffered records are appended to a temporary file for that partition
+ * (using {@link WritableUtils#writeRecord(List, DataOutput)}). Records are returned in insertion order.
+ * <p>
+ * Note: {@link #add(Object, List)} is not thread safe. Once all records have been added, {@link #getPartition(int)}
+ * may be called concurrently for different partitions.
+ */
+public class SpillingHashPartitioner implements Closeable {
+
+    private final int numPartitions;
+    private final int maxRecordsInMemory;
+    private final File tempDirectory;
+
+    private final List<List<List<Writable>>> inMemory;
+    private final File[] spillFiles;
+    private final DataOutputStream[] spillStreams;
+    private final long[] spilledCount;
+    private long totalCount;
+    private boolean writingComplete = false;
+
+    /**
+     * @param numPartitions      Number of partitions to split the records into
+     * @param maxRecordsInMemory Maximum number of records to keep in memory for each partition, before spilling to disk
+     * @param tempDirectory      Directory for the temporary spill files. If null: the default temporary directory is used
+     */
+    public SpillingHashPartitioner(int numPartitions, int maxRecordsInMemory, File tempDirectory) {
+        if (numPartitions <= 0) throw new IllegalArgumentException("Number of partitions must be > 0: got " + numPartitions);
+        if (maxRecordsInMemory <= 0)
+            throw new IllegalArgumentException("Max records in memory must be > 0: got " + maxRecordsInMemory);
+        this.numPartitions = numPartitions;
+        this.maxRecordsInMemory = maxRecordsInMemory;
+        this.tempDirectory = tempDirectory;
+
+        this.inMemory = new ArrayList<>(numPartitions);
+        for (int i = 0; i < numPartitions; i++) {
+            inMemory.add(new ArrayList<List<Writable>>());
+        }
+        this.spillFiles = new File[numPartitions];
+        this.spillStreams = new DataOutputStream[numPartitions];
+        this.spilledCount = new long[numPartitions];
+    }
+
+    /**
+     * @return The partition index for the given key
+     */
+    public int partitionFor(Object key) {
+        return (key == null ? 0 : (key.hashCode() & Integer.MAX_VALUE) % numPartitions);
+    }
+
+    /**
+     * Add a record to the partition for the specified key
+     */
+    public void add(Object key, List<Writable> record) throws IOException {
+        if (writingComplete) throw new IllegalStateException("Cannot add records: partitions have already been read");
+        int p = partitionFor(key);
+        List<List<Writable>> buffer = inMemory.get(p);
+        buffer.add(record);
+        totalCount++;
+        if (buffer.size() >= maxRecordsInMemory) {
+            spill(p);
+        }
+    }
+
+    private void spill(int partition) throws IOException {
+        if (spillStreams[partition] == null) {
+            spillFiles[partition] = File.createTempFile("datavec_partition_" + partition + "_", ".bin", tempDirectory);
+            spillFiles[partition].deleteOnExit();
+            spillStreams[partition] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFiles[partition])));
+        }
+        List<List<Writable>> buffer = inMemory.get(partition);
+        DataOutputStream dos = spillStreams[partition];
+        for (List<Writable> record : buffer) {
+            WritableUtils.writeRecord(record, dos);
+        }
+        spilledCount[partition] += buffer.size();
+        buffer.clear();
+    }
+
+    private synchronized void completeWriting() throws IOException {
+        if (writingComplete) return;
+        for (DataOutputStream dos : spillStreams) {
+            if (dos != null) dos.close();
+        }
+        writingComplete = true;
+    }
+
+    /**
+     * @return Number of partitions
+     */
+    public int numPartitions() {
+        return numPartitions;
+    }
+
+    /**
+     * @return Total number of records added, across all partitions
+     */
+    public long totalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return Number of records that have been written to disk, across all partitions
+     */
+    public long spilledCount() {
+        long sum = 0;
+        for (long l : spilledCount) sum += l;
+        return sum;
+    }
+
+    /**
+     * Get all records for the given partition, in the order they were added. Records that were spilled to disk
+     * are read back into memory.
+     *
+     * @param partition Index of the partition to get
+     */
+    public List<List<Writable>> getPartition(int partition) throws IOException {
+        completeWriting();
+
+        List<List<Writable>> buffer = inMemory.get(partition);
+        if (spillFiles[partition] == null) return buffer;
+
+        long nSpilled = spilledCount[partition];
+        List<List<Writable>> out = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, nSpilled + buffer.size()));
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFiles[partition])))) {
+            for (long i = 0; i < nSpilled; i++) {
+                out.add(WritableUtils.readRecord(dis));
+            }
+        }
+        out.addAll(buffer);
+        return out;
+    }
+
+    /**
+     * Release any in-memory records, and delete any temporary files
+     */
+    @Override
+    public void close() throws IOException {
+        completeWriting();
+        for (int i = 0; i < numPartitions; i++) {
+            inMemory.get(i).clear();
+            if (spillFiles[i] != null) {
+                spillFiles[i].delete();
+                spillFiles[i] = null;
+            }
+        }
+    }
+}
@@ -20,22 +20,21 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
 import org.datavec.api.transform.ColumnType;
+import org.datavec.api.writable.CategoricalWritable;
 import org.datavec.api.writable.Writable;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Metadata for categorical columns.
  */
-@JsonIgnoreProperties({"stateNamesSet"})
+@JsonIgnoreProperties({"stateNamesSet", "stateIndices"})
 @EqualsAndHashCode
 public class CategoricalMetaData extends BaseColumnMetaData {
 
     private final List<String> stateNames;
     private final Set<String> stateNamesSet;  //For fast lookup
+    private final Map<String, Integer> stateIndices;
 
     public CategoricalMetaData(String name, String... stateNames) {
         this(name, Arrays.asList(stateNames));
@@ -45,6 +44,10 @@ public class CategoricalMetaData extends BaseColumnMetaData {
         super(name);
         this.stateNames = stateNames;
         stateNamesSet = new HashSet<>(stateNames);
+        stateIndices = new HashMap<>(stateNames.size() * 2);
+        for (int i = 0; i < stateNames.size(); i++) {
+            stateIndices.put(stateNames.get(i), i);
+        }
     }
 
     @Override
@@ -54,6 +57,7 @@ public class CategoricalMetaData extends BaseColumnMetaData {
 
     @Override
     public boolean isValid(Writable writable) {
+        if (writable instanceof CategoricalWritable) return getStateIndex(writable) >= 0;
         return stateNamesSet.contains(writable.toString());
     }
 
@@ -66,6 +70,42 @@ public class CategoricalMetaData extends BaseColumnMetaData {
         return stateNames;
     }
 
+    /**
+     * @return The index of the specified state in the state names list, or -1 if it is not a valid state
+     */
+    public int getStateIndex(String state) {
+        Integer idx = stateIndices.get(state);
+        return (idx == null ? -1 : idx);
+    }
+
+    /**
+     * Get the index of the state for the specified (categorical) writable: for a {@link CategoricalWritable} whose
+     * code matches this column's state names, the code is used directly; otherwise the state name is looked up.
+     *
+     * @return Index of the state, or -1 if it is not a valid state
+     */
+    public int getStateIndex(Writable writable) {
+        if (writable instanceof CategoricalWritable) {
+            CategoricalWritable cw = (CategoricalWritable) writable;
+            int code = cw.getCode();
+            if (code >= 0 && code < stateNames.size()) {
+                String s = stateNames.get(code);
+                if (s == cw.getState() || s.equals(cw.getState())) return code;
+            }
+        }
+        return getStateIndex(writable.toString());
+    }
+
+    /**
+     * @return A {@link CategoricalWritable} for the specified state
+     * @throws IllegalArgumentException If the state is not valid for this column
+     */
+    public CategoricalWritable toWritable(String state) {
+        int idx = getStateIndex(state);
+        if (idx < 0) throw new IllegalArgumentException("Invalid state \"" + state + "\" for column \"" + name + "\"");
+        return new CategoricalWritable(idx, stateNames.get(idx));
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -0,0 +1,173 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Exposes the metrics of a {@link LocalPipelineMetrics} instance via JMX (for example, for viewing in JConsole or
+ * VisualVM), under the object name {@code org.datavec:type=PipelineMetrics,name=<name>}.
+ */
+public class JmxMetricsReporter implements PipelineMetricsMXBean, Closeable {
+
+    private final LocalPipelineMetrics metrics;
+    private final ObjectName objectName;
+    private boolean registered;
+
+    public JmxMetricsReporter(LocalPipelineMetrics metrics, String name) {
+        this.metrics = metrics;
+        try {
+            this.objectName = new ObjectName("org.datavec:type=PipelineMetrics,name=" + ObjectName.quote(name));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid name: " + name, e);
+        }
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    /**
+     * Register this MXBean with the platform MBean server
+     */
+    public synchronized void register() {
+        if (registered) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (Exception e) {
+            throw new RuntimeException("Error registering pipeline metrics MXBean " + objectName, e);
+        }
+        registered = true;
+    }
+
+    /**
+     * Unregister this MXBean from the platform MBean server
+     */
+    public synchronized void unregister() {
+        if (!registered) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (Exception e) {
+            throw new RuntimeException("Error unregistering pipeline metrics MXBean " + objectName, e);
+        }
+        registered = false;
+    }
+
+    @Override
+    public void close() {
+        unregister();
+    }
+
+    @Override
+    public int[] getSteps() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        int[] out = new int[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getStep();
+        return out;
+    }
+
+    @Override
+    public String[] getStepNames() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        String[] out = new String[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getName();
+        return out;
+    }
+
+    @Override
+    public long[] getRecordsIn() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        long[] out = new long[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getRecordsIn();
+        return out;
+    }
+
+    @Override
+    public long[] getRecordsOut() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        long[] out = new long[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getRecordsOut();
+        return out;
+    }
+
+    @Override
+    public double[] getFilterRatios() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        double[] out = new double[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getFilterRatio();
+        return out;
+    }
+
+    @Override
+    public double[] getTotalTimeMillis() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        double[] out = new double[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getTotalNanos() / 1e6;
+        return out;
+    }
+
+    @Override
+    public double[] getMeanLatencyMicros() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        double[] out = new double[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getMeanNanos() / 1e3;
+        return out;
+    }
+
+    @Override
+    public double[] getP99LatencyMicros() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        double[] out = new double[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getLatencyHistogram().getPercentile(99) / 1e3;
+        return out;
+    }
+
+    @Override
+    public long[] getAllocatedBytes() {
+        List<StepMetrics> list = metrics.getStepMetrics();
+        long[] out = new long[list.size()];
+        for (int i = 0; i < out.length; i++) out[i] = list.get(i).getAllocatedBytes();
+        return out;
+    }
+
+    @Override
+    public double getTotalTimeMillisAllSteps() {
+        return metrics.getTotalNanos() / 1e6;
+    }
+
+    @Override
+    public String getBottleneckStep() {
+        StepMetrics m = metrics.getBottleneck();
+        return (m == null ? null : m.getStep() + " (" + m.getName() + ")");
+    }
+
+    @Override
+    public String getSummary() {
+        return metrics.summary();
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+}
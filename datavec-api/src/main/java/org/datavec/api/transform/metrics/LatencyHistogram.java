@@ -0,0 +1,129 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A simple, lock-free latency histogram with power-of-two bucket boundaries: bucket i holds values in the range
+ * [2^i, 2^(i+1)) nanoseconds (bucket 0 also holds 0). Percentiles are therefore approximate (within a factor of 2),
+ * which is sufficient to tell a 10&mu;s step from a 1ms step, at a fixed cost of 64 counters per histogram.
+ */
+public class LatencyHistogram implements Serializable {
+
+    public static final int NUM_BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a single value
+     *
+     * @param nanos Latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(bucketFor(nanos));
+        long currMax = max.get();
+        while (nanos > currMax && !max.compareAndSet(currMax, nanos)) {
+            currMax = max.get();
+        }
+    }
+
+    /**
+     * Add all values from the other histogram to this histogram
+     */
+    public void merge(LatencyHistogram other) {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) counts.addAndGet(i, c);
+        }
+        long otherMax = other.max.get();
+        long currMax = max.get();
+        while (otherMax > currMax && !max.compareAndSet(currMax, otherMax)) {
+            currMax = max.get();
+        }
+    }
+
+    /**
+     * @return Number of values recorded
+     */
+    public long getCount() {
+        long sum = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            sum += counts.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @return Maximum recorded value, in nanoseconds
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Number of values recorded in the specified bucket
+     */
+    public long getBucketCount(int bucket) {
+        return counts.get(bucket);
+    }
+
+    /**
+     * Approximate percentile: returns the upper bound of the bucket containing the specified percentile (capped at
+     * the maximum recorded value)
+     *
+     * @param percentile Percentile, 0 to 100
+     * @return Approximate latency at the specified percentile, in nanoseconds (0 if no values have been recorded)
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Invalid percentile: " + percentile + " (must be 0 to 100)");
+        long total = getCount();
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(percentile / 100.0 * total);
+        if (target < 1) target = 1;
+        long cumulative = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                long upper = (i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+                return Math.min(upper, max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Reset all counts to zero
+     */
+    public void reset() {
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        max.set(0);
+    }
+
+    static int bucketFor(long nanos) {
+        if (nanos <= 1) return 0;
+        return 63 - Long.numberOfLeadingZeros(nanos);
+    }
+}
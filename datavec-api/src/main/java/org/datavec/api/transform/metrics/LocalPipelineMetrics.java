@@ -0,0 +1,163 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import org.datavec.api.transform.DataAction;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory {@link PipelineMetrics} implementation: keeps one {@link StepMetrics} object per step. Thread safe and
+ * lock-free for updates of existing steps.<br>
+ * Use {@link #summary()} for a per-step table, or {@link Slf4jMetricsReporter} / {@link JmxMetricsReporter} to
+ * report the metrics periodically or via JMX.
+ */
+public class LocalPipelineMetrics implements PipelineMetrics {
+
+    private final ConcurrentMap<Integer, StepMetrics> steps = new ConcurrentHashMap<>();
+    private final boolean measureAllocations;
+
+    /**
+     * Create a LocalPipelineMetrics instance that measures allocations, if supported by the JVM
+     */
+    public LocalPipelineMetrics() {
+        this(true);
+    }
+
+    /**
+     * @param measureAllocations Whether to measure the number of bytes allocated by each step
+     */
+    public LocalPipelineMetrics(boolean measureAllocations) {
+        this.measureAllocations = measureAllocations && ThreadAllocation.isSupported();
+    }
+
+    @Override
+    public boolean isMeasureAllocations() {
+        return measureAllocations;
+    }
+
+    @Override
+    public void onStep(int step, DataAction action, long recordsIn, long recordsOut, long durationNanos,
+                       long allocatedBytes) {
+        getOrCreate(step, action).record(recordsIn, recordsOut, durationNanos, allocatedBytes);
+    }
+
+    private StepMetrics getOrCreate(int step, DataAction action) {
+        StepMetrics m = steps.get(step);
+        if (m == null) {
+            m = new StepMetrics(step, (action == null ? "DataAction" : StepMetrics.nameOf(action)));
+            StepMetrics prev = steps.putIfAbsent(step, m);
+            if (prev != null) m = prev;
+        }
+        return m;
+    }
+
+    /**
+     * @return Metrics for the specified step, or null if the step has not been executed
+     */
+    public StepMetrics getStepMetrics(int step) {
+        return steps.get(step);
+    }
+
+    /**
+     * @return Metrics for all executed steps, ordered by step index
+     */
+    public List<StepMetrics> getStepMetrics() {
+        List<StepMetrics> list = new ArrayList<>(steps.values());
+        Collections.sort(list, new Comparator<StepMetrics>() {
+            @Override
+            public int compare(StepMetrics o1, StepMetrics o2) {
+                return Integer.compare(o1.getStep(), o2.getStep());
+            }
+        });
+        return list;
+    }
+
+    /**
+     * @return The step with the largest total time, or null if no steps have been executed
+     */
+    public StepMetrics getBottleneck() {
+        StepMetrics max = null;
+        for (StepMetrics m : steps.values()) {
+            if (max == null || m.getTotalNanos() > max.getTotalNanos()) max = m;
+        }
+        return max;
+    }
+
+    /**
+     * @return Total time of all steps, in nanoseconds
+     */
+    public long getTotalNanos() {
+        long sum = 0;
+        for (StepMetrics m : steps.values()) {
+            sum += m.getTotalNanos();
+        }
+        return sum;
+    }
+
+    /**
+     * Add all metrics from the other instance to this instance
+     */
+    public void merge(LocalPipelineMetrics other) {
+        for (StepMetrics m : other.steps.values()) {
+            StepMetrics mine = steps.get(m.getStep());
+            if (mine == null) {
+                mine = new StepMetrics(m.getStep(), m.getName());
+                StepMetrics prev = steps.putIfAbsent(m.getStep(), mine);
+                if (prev != null) mine = prev;
+            }
+            mine.merge(m);
+        }
+    }
+
+    /**
+     * Remove all recorded metrics
+     */
+    public void reset() {
+        steps.clear();
+    }
+
+    /**
+     * @return A table of the per-step metrics: records in/out, filter ratio, total time (and % of total), mean/p50/p99
+     * latency and bytes allocated
+     */
+    public String summary() {
+        List<StepMetrics> list = getStepMetrics();
+        long total = getTotalNanos();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-5s %-32s %12s %12s %8s %12s %7s %10s %10s %10s %14s%n", "Step", "Name", "In", "Out",
+                "Filter%", "Total(ms)", "Time%", "Mean(us)", "p50(us)", "p99(us)", "Allocated"));
+        for (StepMetrics m : list) {
+            LatencyHistogram h = m.getLatencyHistogram();
+            long alloc = m.getAllocatedBytes();
+            sb.append(String.format("%-5d %-32s %12d %12d %8.2f %12.2f %7.2f %10.2f %10.2f %10.2f %14s%n",
+                    m.getStep(), m.getName(), m.getRecordsIn(), m.getRecordsOut(), 100.0 * m.getFilterRatio(),
+                    m.getTotalNanos() / 1e6, (total == 0 ? 0.0 : 100.0 * m.getTotalNanos() / total),
+                    m.getMeanNanos() / 1e3, h.getPercentile(50) / 1e3, h.getPercentile(99) / 1e3,
+                    (alloc < 0 ? "-" : String.valueOf(alloc))));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "LocalPipelineMetrics(numSteps=" + steps.size() + ",totalNanos=" + getTotalNanos() + ")";
+    }
+}
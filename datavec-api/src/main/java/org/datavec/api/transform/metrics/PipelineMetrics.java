@@ -0,0 +1,56 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import org.datavec.api.transform.DataAction;
+
+import java.io.Serializable;
+
+/**
+ * Listener interface for collecting per-step metrics during execution of a
+ * {@link org.datavec.api.transform.TransformProcess}.<br>
+ * Executors call {@link #onStep(int, DataAction, long, long, long, long)} each time a step (DataAction) has been
+ * applied: once per example (or sequence) for transforms and filters executed one example at a time, or once per
+ * step for operations that are applied to the entire data set at once (reductions, conversions to/from sequences,
+ * etc).<br>
+ * Implementations must be thread safe, as steps may be executed concurrently from multiple threads.
+ *
+ * @see LocalPipelineMetrics
+ */
+public interface PipelineMetrics extends Serializable {
+
+    /**
+     * Whether the executor should measure the number of bytes allocated by each step. Measuring allocations
+     * adds a small overhead to each step, and is only supported on some JVMs (see {@link ThreadAllocation})
+     */
+    boolean isMeasureAllocations();
+
+    /**
+     * Called after a step has been executed
+     *
+     * @param step           Index of the step in the TransformProcess (0 to numSteps-1)
+     * @param action         The step that was executed
+     * @param recordsIn      Number of records (or sequences) input to the step
+     * @param recordsOut     Number of records (or sequences) output by the step. For filters, this is recordsIn minus
+     *                       the number of records removed
+     * @param durationNanos  Duration of the step, in nanoseconds
+     * @param allocatedBytes Number of bytes allocated by the step, or -1 if not measured
+     */
+    void onStep(int step, DataAction action, long recordsIn, long recordsOut, long durationNanos, long allocatedBytes);
+
+}
@@ -0,0 +1,53 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+/**
+ * JMX management interface for pipeline metrics. Array-valued attributes have one entry per executed step, in step
+ * order.
+ *
+ * @see JmxMetricsReporter
+ */
+public interface PipelineMetricsMXBean {
+
+    int[] getSteps();
+
+    String[] getStepNames();
+
+    long[] getRecordsIn();
+
+    long[] getRecordsOut();
+
+    double[] getFilterRatios();
+
+    double[] getTotalTimeMillis();
+
+    double[] getMeanLatencyMicros();
+
+    double[] getP99LatencyMicros();
+
+    long[] getAllocatedBytes();
+
+    double getTotalTimeMillisAllSteps();
+
+    String getBottleneckStep();
+
+    String getSummary();
+
+    void reset();
+}
@@ -0,0 +1,101 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the per-step metrics of a {@link LocalPipelineMetrics} instance via SLF4J, either on demand ({@link #report()})
+ * or periodically ({@link #start(long, TimeUnit)}).
+ */
+public class Slf4jMetricsReporter implements Closeable {
+
+    private final LocalPipelineMetrics metrics;
+    private final Logger logger;
+    private ScheduledExecutorService executor;
+
+    public Slf4jMetricsReporter(LocalPipelineMetrics metrics) {
+        this(metrics, LoggerFactory.getLogger(Slf4jMetricsReporter.class));
+    }
+
+    public Slf4jMetricsReporter(LocalPipelineMetrics metrics, Logger logger) {
+        this.metrics = metrics;
+        this.logger = logger;
+    }
+
+    /**
+     * Log the current metrics at INFO level
+     */
+    public void report() {
+        StepMetrics bottleneck = metrics.getBottleneck();
+        if (bottleneck == null) {
+            logger.info("Pipeline metrics: no steps executed");
+            return;
+        }
+        logger.info("Pipeline metrics: total step time {} ms; slowest step: {} ({}), {} ms\n{}",
+                metrics.getTotalNanos() / 1000000, bottleneck.getStep(), bottleneck.getName(),
+                bottleneck.getTotalNanos() / 1000000, metrics.summary());
+    }
+
+    /**
+     * Start reporting the metrics periodically, from a background (daemon) thread
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executor != null) throw new IllegalStateException("Reporter has already been started");
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Slf4jMetricsReporter");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    report();
+                } catch (Exception e) {
+                    logger.warn("Error reporting pipeline metrics", e);
+                }
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stop periodic reporting, if it was started
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+}
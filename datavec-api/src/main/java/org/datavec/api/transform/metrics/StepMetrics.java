@@ -0,0 +1,172 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import org.datavec.api.transform.DataAction;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics for a single step of a TransformProcess: number of invocations, records in/out, total time, bytes allocated
+ * and a latency histogram (one value per invocation). All counters are lock-free and safe for concurrent updates.
+ */
+public class StepMetrics implements Serializable {
+
+    private final int step;
+    private final String name;
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong recordsIn = new AtomicLong();
+    private final AtomicLong recordsOut = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private final AtomicLong allocationInvocations = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public StepMetrics(int step, String name) {
+        this.step = step;
+        this.name = name;
+    }
+
+    /**
+     * Record a single invocation of this step
+     *
+     * @param in             Number of records input
+     * @param out            Number of records output
+     * @param nanos          Duration, in nanoseconds
+     * @param allocated      Number of bytes allocated, or -1 if not measured
+     */
+    public void record(long in, long out, long nanos, long allocated) {
+        invocations.incrementAndGet();
+        recordsIn.addAndGet(in);
+        recordsOut.addAndGet(out);
+        totalNanos.addAndGet(nanos);
+        if (allocated >= 0) {
+            allocatedBytes.addAndGet(allocated);
+            allocationInvocations.incrementAndGet();
+        }
+        latency.record(nanos);
+    }
+
+    /**
+     * Add the values from the other StepMetrics object to this one
+     */
+    public void merge(StepMetrics other) {
+        invocations.addAndGet(other.invocations.get());
+        recordsIn.addAndGet(other.recordsIn.get());
+        recordsOut.addAndGet(other.recordsOut.get());
+        totalNanos.addAndGet(other.totalNanos.get());
+        allocatedBytes.addAndGet(other.allocatedBytes.get());
+        allocationInvocations.addAndGet(other.allocationInvocations.get());
+        latency.merge(other.latency);
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getInvocations() {
+        return invocations.get();
+    }
+
+    public long getRecordsIn() {
+        return recordsIn.get();
+    }
+
+    public long getRecordsOut() {
+        return recordsOut.get();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.get();
+    }
+
+    /**
+     * @return Total bytes allocated by this step, or -1 if allocations were not measured
+     */
+    public long getAllocatedBytes() {
+        return (allocationInvocations.get() == 0 ? -1 : allocatedBytes.get());
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latency;
+    }
+
+    /**
+     * @return Fraction of input records that were not output by this step (i.e., removed by a filter); 0 if no
+     * records have been input
+     */
+    public double getFilterRatio() {
+        long in = recordsIn.get();
+        if (in == 0) return 0.0;
+        return 1.0 - recordsOut.get() / (double) in;
+    }
+
+    /**
+     * @return Mean duration per invocation, in nanoseconds
+     */
+    public double getMeanNanos() {
+        long n = invocations.get();
+        return (n == 0 ? 0.0 : totalNanos.get() / (double) n);
+    }
+
+    /**
+     * @return Number of input records processed per second of step time
+     */
+    public double getRecordsPerSecond() {
+        long t = totalNanos.get();
+        return (t == 0 ? 0.0 : recordsIn.get() * 1e9 / t);
+    }
+
+    public void reset() {
+        invocations.set(0);
+        recordsIn.set(0);
+        recordsOut.set(0);
+        totalNanos.set(0);
+        allocatedBytes.set(0);
+        allocationInvocations.set(0);
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "StepMetrics(step=" + step + ",name=" + name + ",invocations=" + getInvocations() + ",recordsIn="
+                + getRecordsIn() + ",recordsOut=" + getRecordsOut() + ",totalNanos=" + getTotalNanos()
+                + ",allocatedBytes=" + getAllocatedBytes() + ")";
+    }
+
+    /**
+     * Get a short name for the specified DataAction: the class name of the transform, filter, etc.
+     */
+    public static String nameOf(DataAction action) {
+        Object o;
+        if (action.getTransform() != null) o = action.getTransform();
+        else if (action.getFilter() != null) o = action.getFilter();
+        else if (action.getConvertToSequence() != null) o = action.getConvertToSequence();
+        else if (action.getConvertFromSequence() != null) o = action.getConvertFromSequence();
+        else if (action.getSequenceSplit() != null) o = action.getSequenceSplit();
+        else if (action.getReducer() != null) o = action.getReducer();
+        else if (action.getCalculateSortedRank() != null) o = action.getCalculateSortedRank();
+        else return "DataAction";
+        return o.getClass().getSimpleName();
+    }
+}
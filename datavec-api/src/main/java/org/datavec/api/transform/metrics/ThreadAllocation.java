@@ -0,0 +1,78 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Utility for measuring the number of bytes allocated by the current thread. This relies on the
+ * {@code com.sun.management.ThreadMXBean} extension, which is available on HotSpot-based JVMs; on other JVMs,
+ * {@link #isSupported()} returns false and {@link #currentThreadAllocatedBytes()} returns -1.
+ */
+public class ThreadAllocation {
+
+    private static final com.sun.management.ThreadMXBean BEAN;
+
+    static {
+        com.sun.management.ThreadMXBean bean = null;
+        try {
+            java.lang.management.ThreadMXBean b = ManagementFactory.getThreadMXBean();
+            if (b instanceof com.sun.management.ThreadMXBean) {
+                bean = (com.sun.management.ThreadMXBean) b;
+                if (!bean.isThreadAllocatedMemorySupported()) {
+                    bean = null;
+                } else if (!bean.isThreadAllocatedMemoryEnabled()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                }
+            }
+        } catch (Throwable t) {
+            bean = null;
+        }
+        BEAN = bean;
+    }
+
+    private ThreadAllocation() {
+    }
+
+    /**
+     * @return True if per-thread allocation measurement is supported by this JVM
+     */
+    public static boolean isSupported() {
+        return BEAN != null;
+    }
+
+    /**
+     * @return Total number of bytes allocated by the current thread so far, or -1 if not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (BEAN == null) return -1;
+        return BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Number of bytes allocated by the current thread since the specified value of
+     * {@link #currentThreadAllocatedBytes()} was obtained
+     *
+     * @param start Previous value of {@link #currentThreadAllocatedBytes()}
+     * @return Number of bytes allocated since then, or -1 if start is negative (i.e., not measured)
+     */
+    public static long allocatedSince(long start) {
+        if (start < 0) return -1;
+        return currentThreadAllocatedBytes() - start;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.quality.sketch;
+
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.metadata.ColumnMetaData;
+import org.datavec.api.transform.quality.columns.*;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.writable.NullWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+import java.util.regex.Pattern;
+
+/**
+ * ColumnQualitySketch: mutable, mergeable counters for calculating the {@link ColumnQuality} of a single column in one
+ * pass. Values are classified (valid, invalid, missing, etc.) in the same way as the Spark data quality analysis.
+ * The number of unique values for String columns is approximate (see {@link HyperLogLog}).
+ */
+public class ColumnQualitySketch implements Serializable {
+
+    private static final Pattern ALPHABETIC = Pattern.compile("[a-zA-Z]");
+    private static final Pattern NUMERICAL = Pattern.compile("\\d+");
+    private static final Pattern WORD = Pattern.compile("\\w+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ColumnMetaData meta;
+    private final ColumnType columnType;
+
+    private long countValid;
+    private long countInvalid;
+    private long countMissing;
+    private long countTotal;
+
+    //Integer/Long/Double: values that can't be parsed as the column type
+    private long countNonNumerical;
+    private long countNaN;
+    private long countInfinite;
+
+    //String
+    private long countEmptyString;
+    private long countAlphabetic;
+    private long countNumerical;
+    private long countWordCharacter;
+    private long countWhitespace;
+    private HyperLogLog unique;
+
+    /**
+     * @param meta                 Metadata for the column, used to determine whether values are valid
+     * @param hyperLogLogPrecision Precision for the unique value sketch (String columns only)
+     */
+    public ColumnQualitySketch(ColumnMetaData meta, int hyperLogLogPrecision) {
+        this.meta = meta;
+        this.columnType = meta.getColumnType();
+        if (columnType == ColumnType.String) {
+            unique = new HyperLogLog(hyperLogLogPrecision);
+        }
+    }
+
+    public void add(Writable writable) {
+        countTotal++;
+        if (columnType == ColumnType.String) {
+            addString(writable);
+            return;
+        }
+
+        if (meta.isValid(writable)) {
+            countValid++;
+        } else if (writable instanceof NullWritable || writable instanceof Text && writable.toString().isEmpty()) {
+            countMissing++;
+        } else {
+            countInvalid++;
+        }
+
+        String str;
+        switch (columnType) {
+            case Integer:
+                str = writable.toString();
+                try {
+                    Integer.parseInt(str);
+                } catch (NumberFormatException e) {
+                    countNonNumerical++;
+                }
+                break;
+            case Long:
+                str = writable.toString();
+                try {
+                    Long.parseLong(str);
+                } catch (NumberFormatException e) {
+                    countNonNumerical++;
+                }
+                break;
+            case Double:
+                str = writable.toString();
+                try {
+                    double d = Double.parseDouble(str);
+                    if (Double.isNaN(d)) countNaN++;
+                    if (Double.isInfinite(d)) countInfinite++;
+                } catch (NumberFormatException e) {
+                    countNonNumerical++;
+                }
+                break;
+            default:
+                //No other counters
+        }
+    }
+
+    private void addString(Writable writable) {
+        if (writable instanceof NullWritable) countMissing++;
+        else if (meta.isValid(writable)) countValid++;
+        else countInvalid++;
+
+        String str = writable.toString();
+        if (str == null || str.isEmpty()) {
+            countEmptyString++;
+        } else {
+            if (ALPHABETIC.matcher(str).matches()) countAlphabetic++;
+            if (NUMERICAL.matcher(str).matches()) countNumerical++;
+            if (WORD.matcher(str).matches()) countWordCharacter++;
+            if (WHITESPACE.matcher(str).matches()) countWhitespace++;
+        }
+        unique.offer(str);
+    }
+
+    /**
+     * Merge the counters from another sketch (for the same column) into this sketch
+     */
+    public void merge(ColumnQualitySketch other) {
+        if (other.columnType != columnType) {
+            throw new IllegalStateException("Cannot merge sketches for different column types: " + columnType + " vs. " + other.columnType);
+        }
+        countValid += other.countValid;
+        countInvalid += other.countInvalid;
+        countMissing += other.countMissing;
+        countTotal += other.countTotal;
+        countNonNumerical += other.countNonNumerical;
+        countNaN += other.countNaN;
+        countInfinite += other.countInfinite;
+        countEmptyString += other.countEmptyString;
+        countAlphabetic += other.countAlphabetic;
+        countNumerical += other.countNumerical;
+        countWordCharacter += other.countWordCharacter;
+        countWhitespace += other.countWhitespace;
+        if (unique != null) unique.merge(other.unique);
+    }
+
+    public ColumnQuality toColumnQuality() {
+        switch (columnType) {
+            case String:
+                return new StringQuality(countValid, countInvalid, countMissing, countTotal, countEmptyString,
+                        countAlphabetic, countNumerical, countWordCharacter, countWhitespace, unique.cardinality());
+            case Integer:
+                return new IntegerQuality(countValid, countInvalid, countMissing, countTotal, countNonNumerical);
+            case Long:
+                return new LongQuality(countValid, countInvalid, countMissing, countTotal, countNonNumerical);
+            case Double:
+                return new DoubleQuality(countValid, countInvalid, countMissing, countTotal, countNonNumerical, countNaN,
+                        countInfinite);
+            case Categorical:
+                return new CategoricalQuality(countValid, countInvalid, countMissing, countTotal);
+            case Time:
+                return new TimeQuality(countValid, countInvalid, countMissing, countTotal);
+            case Bytes:
+                return new BytesQuality(countValid, countInvalid, countMissing, countTotal);
+            default:
+                throw new IllegalStateException("Unknown or not implemented column type: " + columnType);
+        }
+    }
+}
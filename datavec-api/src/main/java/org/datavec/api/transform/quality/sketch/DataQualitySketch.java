@@ -0,0 +1,102 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.quality.sketch;
+
+import org.datavec.api.transform.quality.DataQualityAnalysis;
+import org.datavec.api.transform.quality.columns.ColumnQuality;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataQualitySketch: a mergeable, single-pass summary of a data set, from which a {@link DataQualityAnalysis} can be
+ * calculated. One {@link ColumnQualitySketch} is kept per column; sketches for separate parts of the data can be
+ * calculated independently (for example, on separate threads) and combined using {@link #merge(DataQualitySketch)}.
+ */
+public class DataQualitySketch implements Serializable {
+
+    private final Schema schema;
+    private final ColumnQualitySketch[] columns;
+
+    public DataQualitySketch(Schema schema) {
+        this(schema, HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param schema               Schema for the data
+     * @param hyperLogLogPrecision Precision for the unique value sketches (String columns)
+     */
+    public DataQualitySketch(Schema schema, int hyperLogLogPrecision) {
+        this.schema = schema;
+        int n = schema.numColumns();
+        this.columns = new ColumnQualitySketch[n];
+        for (int i = 0; i < n; i++) {
+            columns[i] = new ColumnQualitySketch(schema.getMetaData(i), hyperLogLogPrecision);
+        }
+    }
+
+    /**
+     * Add a single example
+     */
+    public DataQualitySketch add(List<Writable> example) {
+        if (example.size() != columns.length) {
+            throw new IllegalStateException("Writables list and number of columns does not match (" + example.size()
+                    + " vs " + columns.length + ")");
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].add(example.get(i));
+        }
+        return this;
+    }
+
+    /**
+     * Add all time steps of a single sequence
+     */
+    public DataQualitySketch addSequence(List<List<Writable>> sequence) {
+        for (List<Writable> step : sequence) {
+            add(step);
+        }
+        return this;
+    }
+
+    /**
+     * Merge the other sketch into this one
+     *
+     * @return This sketch, after merging
+     */
+    public DataQualitySketch merge(DataQualitySketch other) {
+        if (columns.length != other.columns.length) {
+            throw new IllegalStateException("Number of columns differ: " + columns.length + " vs. " + other.columns.length);
+        }
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].merge(other.columns[i]);
+        }
+        return this;
+    }
+
+    public DataQualityAnalysis toDataQualityAnalysis() {
+        List<ColumnQuality> list = new ArrayList<>(columns.length);
+        for (ColumnQualitySketch c : columns) {
+            list.add(c.toColumnQuality());
+        }
+        return new DataQualityAnalysis(schema, list);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce;
+
+import org.datavec.api.writable.Writable;
+
+import java.util.List;
+
+/**
+ * An {@link IReducer} that can be executed as an incremental (streaming) aggregation: examples for a key are added
+ * to a {@link ReduceAccumulator} one at a time, and partial accumulators can be merged. Thus, unlike
+ * {@link IReducer#reduce(List)}, the examples for a key never need to be held in memory at the same time; on Spark,
+ * this allows reductions to be executed with aggregateByKey (with map-side combining) instead of groupByKey.
+ * <p>
+ * Usage: {@code acc = createAccumulator()}, then {@code aggregate(acc, example)} for each example and
+ * {@code acc = merge(acc, other)} for partial results, and finally {@code finish(acc)} to get the reduced example.
+ */
+public interface AggregableReducer extends IReducer {
+
+    /**
+     * @return True if this reducer can be executed as an aggregation. If false, {@link #reduce(List)} must be used
+     */
+    boolean isAggregable();
+
+    /**
+     * @return A new, empty accumulator
+     */
+    ReduceAccumulator createAccumulator();
+
+    /**
+     * Add a single example to the accumulator
+     */
+    void aggregate(ReduceAccumulator accumulator, List<Writable> example);
+
+    /**
+     * Merge two accumulators. The examples in the second accumulator are assumed to come after the examples in the
+     * first, for order-dependent reductions (take first/last)
+     *
+     * @return The merged accumulator (may be one of the arguments, modified in place)
+     */
+    ReduceAccumulator merge(ReduceAccumulator first, ReduceAccumulator second);
+
+    /**
+     * @return The reduced example, from the accumulated values
+     */
+    List<Writable> finish(ReduceAccumulator accumulator);
+
+}
@@ -0,0 +1,47 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce;
+
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+
+/**
+ * A ColumnAccumulator holds the partial state of a single column reduction. Values are added one at a time, and two
+ * accumulators for the same column (for example: computed on different threads or machines) can be merged.
+ * This allows reductions to be computed without holding all values for a key in memory.
+ */
+public interface ColumnAccumulator extends Serializable {
+
+    /**
+     * Add a single value to the reduction
+     */
+    void add(Writable value);
+
+    /**
+     * Merge the state of another accumulator (of the same type and configuration) into this one. The other
+     * accumulator's values are assumed to come after this accumulator's values, for order-dependent reductions such as
+     * take first/last.
+     */
+    void merge(ColumnAccumulator other);
+
+    /**
+     * @return The reduced value
+     */
+    Writable get();
+
+}
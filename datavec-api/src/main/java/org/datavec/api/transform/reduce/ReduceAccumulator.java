@@ -0,0 +1,44 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce;
+
+import org.datavec.api.writable.Writable;
+
+import java.io.Serializable;
+
+/**
+ * The partial state of a reduction, for a single key: the key column values (from the first example), plus one
+ * {@link ColumnAccumulator} for each non-key column. Created and updated by an {@link AggregableReducer}.
+ */
+public class ReduceAccumulator implements Serializable {
+
+    final Writable[] keyValues;
+    final ColumnAccumulator[] columns;
+    long numExamples;
+
+    ReduceAccumulator(int numColumns) {
+        this.keyValues = new Writable[numColumns];
+        this.columns = new ColumnAccumulator[numColumns];
+    }
+
+    /**
+     * @return Number of examples added to this accumulator (including via merging)
+     */
+    public long getNumExamples() {
+        return numExamples;
+    }
+}
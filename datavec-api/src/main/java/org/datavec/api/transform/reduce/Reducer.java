@@ -19,7 +19,9 @@ package org.datavec.api.transform.reduce;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.EqualsAndHashCode;
+import org.datavec.api.writable.DoubleArrayRecord;
 import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.LongArrayRecord;
 import org.datavec.api.writable.LongWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.transform.ColumnType;
@@ -30,9 +32,17 @@ import org.datavec.api.transform.metadata.DoubleMetaData;
 import org.datavec.api.transform.metadata.IntegerMetaData;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.metadata.LongMetaData;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.datavec.api.transform.reduce.aggregate.CountAccumulator;
+import org.datavec.api.transform.reduce.aggregate.CountUniqueAccumulator;
+import org.datavec.api.transform.reduce.aggregate.NumericalColumnAccumulator;
+import org.datavec.api.transform.reduce.aggregate.TakeFirstLastAccumulator;
+import org.datavec.api.util.HyperLogLog;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.Writable;
 
@@ -48,13 +58,17 @@ import java.util.*;
  * Uses are:
  * (1) Reducing examples by a key
  * (2) Reduction operations in time series (windowing ops, etc)
+ * <p>
+ * In addition to {@link #reduce(List)} (which requires all examples for a key), a Reducer can be executed
+ * incrementally as an {@link AggregableReducer}: all built-in ops are computed by mergeable {@link ColumnAccumulator}s.
+ * This is possible as long as any custom reductions implement {@link AggregableColumnReduction}.
  *
  * @author Alex Black
  */
 @Data
 @JsonIgnoreProperties({"schema", "keyColumnsSet"})
 @EqualsAndHashCode(exclude = {"schema", "keyColumnsSet"})
-public class Reducer implements IReducer {
+public class Reducer implements AggregableReducer {
 
     private Schema schema;
     private final List<String> keyColumns;
@@ -64,16 +78,30 @@ public class Reducer implements IReducer {
     private Map<String, ColumnReduction> customReductions;
     private Map<String, ConditionalReduction> conditionalReductions;
     private Set<String> ignoreInvalidInColumns;
+    private Set<String> approxCountUniqueColumns;
+
+    //Per-column reduction details for incremental aggregation; derived from the above when first needed
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient ColumnPlan[] columnPlans;
 
     private Reducer(Builder builder) {
         this((builder.keyColumns == null ? null : Arrays.asList(builder.keyColumns)), builder.defaultOp, builder.opMap,
-                builder.customReductions, builder.conditionalReductions, builder.ignoreInvalidInColumns);
+                builder.customReductions, builder.conditionalReductions, builder.ignoreInvalidInColumns,
+                builder.approxCountUniqueColumns);
+    }
+
+    public Reducer(List<String> keyColumns, ReduceOp defaultOp, Map<String, ReduceOp> opMap,
+                   Map<String, ColumnReduction> customReductions, Map<String, ConditionalReduction> conditionalReductions,
+                   Set<String> ignoreInvalidInColumns) {
+        this(keyColumns, defaultOp, opMap, customReductions, conditionalReductions, ignoreInvalidInColumns, null);
     }
 
     public Reducer(@JsonProperty("keyColumns") List<String> keyColumns, @JsonProperty("defaultOp") ReduceOp defaultOp,
                    @JsonProperty("opMap") Map<String, ReduceOp> opMap, @JsonProperty("customReductions") Map<String, ColumnReduction> customReductions,
                    @JsonProperty("conditionalReductions") Map<String, ConditionalReduction> conditionalReductions,
-                   @JsonProperty("ignoreInvalidInColumns") Set<String> ignoreInvalidInColumns) {
+                   @JsonProperty("ignoreInvalidInColumns") Set<String> ignoreInvalidInColumns,
+                   @JsonProperty("approxCountUniqueColumns") Set<String> approxCountUniqueColumns) {
         this.keyColumns = keyColumns;
         this.keyColumnsSet = (keyColumns == null ? null : new HashSet<>(keyColumns));
         this.defaultOp = defaultOp;
@@ -81,11 +109,13 @@ public class Reducer implements IReducer {
         this.customReductions = customReductions;
         this.conditionalReductions = conditionalReductions;
         this.ignoreInvalidInColumns = ignoreInvalidInColumns;
+        this.approxCountUniqueColumns = (approxCountUniqueColumns == null ? Collections.<String>emptySet() : approxCountUniqueColumns);
     }
 
     @Override
     public void setInputSchema(Schema schema) {
         this.schema = schema;
+        this.columnPlans = null;
         //Conditions (if any) also need the input schema:
         for (ConditionalReduction cr : conditionalReductions.values()) {
             cr.getCondition().setInputSchema(schema);
@@ -213,6 +243,8 @@ public class Reducer implements IReducer {
 
         List<Writable> out = new ArrayList<>(nCols);
         List<Writable> tempColumnValues = new ArrayList<>(examplesList.size());
+        boolean doubleArrayRecords = DoubleArrayRecord.allInstances(examplesList);
+        boolean longArrayRecords = !doubleArrayRecords && LongArrayRecord.allInstances(examplesList);
         for (int i = 0; i < nCols; i++) {
             String colName = colNames.get(i);
             if (keyColumnsSet != null && keyColumnsSet.contains(colName)) {
@@ -223,15 +255,25 @@ public class Reducer implements IReducer {
             }
 
             //First: Extract out the Writables for the column we are considering here...
-            for (List<Writable> list : examplesList) {
-                tempColumnValues.add(list.get(i));
+            //For primitive double/long records, the column is extracted as a double[]/long[] without creating any Writables
+            List<Writable> columnValues;
+            if (doubleArrayRecords) {
+                columnValues = DoubleArrayRecord.column(examplesList, i);
+            } else if (longArrayRecords) {
+                columnValues = LongArrayRecord.column(examplesList, i);
+            } else {
+                for (List<Writable> list : examplesList) {
+                    tempColumnValues.add(list.get(i));
+                }
+                columnValues = tempColumnValues;
             }
 
             //Second: is this a *custom* reduction column?
             if (customReductions != null && customReductions.containsKey(colName)) {
                 ColumnReduction reduction = customReductions.get(colName);
-                Writable reducedColumn = reduction.reduceColumn(tempColumnValues);
+                Writable reducedColumn = reduction.reduceColumn(columnValues);
                 out.add(reducedColumn);
+                tempColumnValues.clear();
                 continue;
             }
 
@@ -246,12 +288,12 @@ public class Reducer implements IReducer {
                 int j = 0;
                 for (List<Writable> example : examplesList) {
                     if (c.condition(example)) {
-                        filteredColumnValues.add(tempColumnValues.get(j));
+                        filteredColumnValues.add(columnValues.get(j));
                     }
                     j++;
                 }
 
-                tempColumnValues = filteredColumnValues;
+                columnValues = filteredColumnValues;
                 conditionalOp = true;
             }
 
@@ -263,7 +305,12 @@ public class Reducer implements IReducer {
             if (op == null) op = defaultOp;
 
             //Execute the reduction, store the result
-            out.add(reduceColumn(op, type, tempColumnValues, ignoreInvalidInColumns.contains(colName), schema.getMetaData(i)));
+            if (op == ReduceOp.CountUnique && approxCountUniqueColumns.contains(colName)) {
+                out.add(reduceWithAccumulator(newColumnAccumulator(op, type, colName), columnValues,
+                        ignoreInvalidInColumns.contains(colName), schema.getMetaData(i)));
+            } else {
+                out.add(reduceColumn(op, type, columnValues, ignoreInvalidInColumns.contains(colName), schema.getMetaData(i)));
+            }
 
             tempColumnValues.clear();
         }
@@ -271,6 +318,179 @@ public class Reducer implements IReducer {
         return out;
     }
 
+    private static Writable reduceWithAccumulator(ColumnAccumulator acc, List<Writable> values, boolean ignoreInvalid,
+                                                  ColumnMetaData metaData) {
+        for (Writable w : values) {
+            if (ignoreInvalid && !metaData.isValid(w)) continue;
+            acc.add(w);
+        }
+        return acc.get();
+    }
+
+    @Override
+    public boolean isAggregable() {
+        if (customReductions != null) {
+            for (ColumnReduction r : customReductions.values()) {
+                if (!(r instanceof AggregableColumnReduction)) return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ReduceAccumulator createAccumulator() {
+        ColumnPlan[] plans = getColumnPlans();
+        ReduceAccumulator acc = new ReduceAccumulator(plans.length);
+        for (int i = 0; i < plans.length; i++) {
+            ColumnPlan p = plans[i];
+            if (p.key) continue;
+            if (p.customReduction != null) {
+                if (!(p.customReduction instanceof AggregableColumnReduction)) {
+                    throw new IllegalStateException("Cannot aggregate column \"" + schema.getName(i) + "\": custom "
+                            + "reduction " + p.customReduction + " does not implement AggregableColumnReduction");
+                }
+                acc.columns[i] = ((AggregableColumnReduction) p.customReduction).newAccumulator();
+            } else {
+                acc.columns[i] = newColumnAccumulator(p.op, p.type, schema.getName(i));
+            }
+        }
+        return acc;
+    }
+
+    private ColumnAccumulator newColumnAccumulator(ReduceOp op, ColumnType type, String colName) {
+        switch (op) {
+            case TakeFirst:
+            case TakeLast:
+                Writable defaultValue;
+                switch (type) {
+                    case Integer:
+                    case Long:
+                    case Time:
+                        defaultValue = new LongWritable(0);
+                        break;
+                    case Double:
+                        defaultValue = new DoubleWritable(0.0);
+                        break;
+                    case String:
+                    case Categorical:
+                        defaultValue = new Text("");
+                        break;
+                    default:
+                        defaultValue = null;
+                }
+                return new TakeFirstLastAccumulator(op == ReduceOp.TakeFirst, defaultValue);
+        }
+        switch (type) {
+            case Integer:
+            case Long:
+            case Double:
+            case Time:
+                break;
+            case String:
+            case Categorical:
+                if (op == ReduceOp.Count || op == ReduceOp.CountUnique) break;
+                throw new UnsupportedOperationException("Cannot execute op \"" + op + "\" on String/Categorical column "
+                        + "(can only perform Count, CountUnique, TakeFirst and TakeLast ops on categorical columns)");
+            case Bytes:
+                throw new UnsupportedOperationException("Cannot execute op \"" + op + "\" on Bytes column "
+                        + "(can only perform TakeFirst or TakeLast ops on Bytes columns)");
+            default:
+                throw new UnsupportedOperationException("Unknown or not implemented column type: " + type);
+        }
+        switch (op) {
+            case Count:
+                return new CountAccumulator();
+            case CountUnique:
+                return new CountUniqueAccumulator(type,
+                        approxCountUniqueColumns.contains(colName) ? HyperLogLog.DEFAULT_PRECISION : 0);
+            default:
+                return new NumericalColumnAccumulator(op, type);
+        }
+    }
+
+    @Override
+    public void aggregate(ReduceAccumulator accumulator, List<Writable> example) {
+        ColumnPlan[] plans = getColumnPlans();
+        boolean firstExample = (accumulator.numExamples == 0);
+        accumulator.numExamples++;
+        for (int i = 0; i < plans.length; i++) {
+            ColumnPlan p = plans[i];
+            Writable w = example.get(i);
+            if (p.key) {
+                //All values should be identical for key columns: take the first
+                if (firstExample) accumulator.keyValues[i] = w;
+                continue;
+            }
+            if (p.condition != null && !p.condition.condition(example)) continue;
+            if (p.ignoreInvalid && !p.metaData.isValid(w)) continue;
+            accumulator.columns[i].add(w);
+        }
+    }
+
+    @Override
+    public ReduceAccumulator merge(ReduceAccumulator first, ReduceAccumulator second) {
+        if (second.numExamples == 0) return first;
+        if (first.numExamples == 0) return second;
+        for (int i = 0; i < first.columns.length; i++) {
+            if (first.columns[i] != null) {
+                first.columns[i].merge(second.columns[i]);
+            }
+        }
+        first.numExamples += second.numExamples;
+        return first;
+    }
+
+    @Override
+    public List<Writable> finish(ReduceAccumulator accumulator) {
+        List<Writable> out = new ArrayList<>(accumulator.columns.length);
+        for (int i = 0; i < accumulator.columns.length; i++) {
+            if (accumulator.columns[i] == null) {
+                out.add(accumulator.keyValues[i]);
+            } else {
+                out.add(accumulator.columns[i].get());
+            }
+        }
+        return out;
+    }
+
+    private ColumnPlan[] getColumnPlans() {
+        ColumnPlan[] plans = columnPlans;
+        if (plans != null) return plans;
+        if (schema == null) throw new IllegalStateException("Error: Schema has not been set");
+
+        List<String> colNames = schema.getColumnNames();
+        plans = new ColumnPlan[colNames.size()];
+        for (int i = 0; i < plans.length; i++) {
+            String colName = colNames.get(i);
+            ColumnPlan p = new ColumnPlan();
+            plans[i] = p;
+            p.type = schema.getType(i);
+            p.metaData = schema.getMetaData(i);
+            if (keyColumnsSet != null && keyColumnsSet.contains(colName)) {
+                p.key = true;
+                continue;
+            }
+            if (customReductions != null && customReductions.containsKey(colName)) {
+                //As per reduce(List): no conditions or invalid value filtering for custom reductions
+                p.customReduction = customReductions.get(colName);
+                continue;
+            }
+            ReduceOp op = opMap.get(colName);
+            if (conditionalReductions != null && conditionalReductions.containsKey(colName)) {
+                ConditionalReduction cr = conditionalReductions.get(colName);
+                p.condition = cr.getCondition();
+                op = cr.getReduction();
+            }
+            if (op == null) op = defaultOp;
+            p.op = op;
+            //As per reduce(List): invalid values are not filtered for TakeFirst/TakeLast, or Bytes columns
+            p.ignoreInvalid = ignoreInvalidInColumns != null && ignoreInvalidInColumns.contains(colName)
+                    && op != ReduceOp.TakeFirst && op != ReduceOp.TakeLast && p.type != ColumnType.Bytes;
+        }
+        columnPlans = plans;
+        return plans;
+    }
+
     private Writable reduceColumn(ReduceOp op, ColumnType type, List<Writable> values, boolean ignoreInvalid, ColumnMetaData metaData) {
         switch (type) {
             case Integer:
@@ -291,6 +511,10 @@ public class Reducer implements IReducer {
     }
 
     private Writable reduceLongColumn(ReduceOp op, List<Writable> values, boolean ignoreInvalid, ColumnMetaData metaData) {
+        if (!ignoreInvalid && values instanceof LongArrayRecord) {
+            Writable w = reduceLongs(op, ((LongArrayRecord) values).getValues());
+            if (w != null) return w;
+        }
         switch (op) {
             case Min:
                 long min = Long.MAX_VALUE;
@@ -370,6 +594,10 @@ public class Reducer implements IReducer {
     }
 
     private Writable reduceDoubleColumn(ReduceOp op, List<Writable> values, boolean ignoreInvalid, ColumnMetaData metaData) {
+        if (!ignoreInvalid && values instanceof DoubleArrayRecord) {
+            Writable w = reduceDoubles(op, ((DoubleArrayRecord) values).getValues());
+            if (w != null) return w;
+        }
         switch (op) {
             case Min:
                 double min = Double.MAX_VALUE;
@@ -448,6 +676,80 @@ public class Reducer implements IReducer {
         }
     }
 
+    /**
+     * Reduce a column of primitive doubles, without any per-value Writable objects. Returns null for ops not handled
+     * here
+     */
+    private static Writable reduceDoubles(ReduceOp op, double[] values) {
+        switch (op) {
+            case Min:
+                double min = Double.MAX_VALUE;
+                for (double d : values) min = Math.min(min, d);
+                return new DoubleWritable(min);
+            case Max:
+                double max = -Double.MAX_VALUE;
+                for (double d : values) max = Math.max(max, d);
+                return new DoubleWritable(max);
+            case Range:
+                double min2 = Double.MAX_VALUE;
+                double max2 = -Double.MAX_VALUE;
+                for (double d : values) {
+                    min2 = Math.min(min2, d);
+                    max2 = Math.max(max2, d);
+                }
+                return new DoubleWritable(max2 - min2);
+            case Sum:
+            case Mean:
+                double sum = 0;
+                for (double d : values) sum += d;
+                if (op == ReduceOp.Sum) return new DoubleWritable(sum);
+                else if (values.length > 0) return new DoubleWritable(sum / values.length);
+                else return new DoubleWritable(0.0);
+            case Stdev:
+                return new DoubleWritable(new StandardDeviation().evaluate(values));
+            case Count:
+                return new IntWritable(values.length);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reduce a column of primitive longs, without any per-value Writable objects. Returns null for ops not handled
+     * here
+     */
+    private static Writable reduceLongs(ReduceOp op, long[] values) {
+        switch (op) {
+            case Min:
+                long min = Long.MAX_VALUE;
+                for (long l : values) min = Math.min(min, l);
+                return new LongWritable(min);
+            case Max:
+                long max = Long.MIN_VALUE;
+                for (long l : values) max = Math.max(max, l);
+                return new LongWritable(max);
+            case Range:
+                long min2 = Long.MAX_VALUE;
+                long max2 = Long.MIN_VALUE;
+                for (long l : values) {
+                    min2 = Math.min(min2, l);
+                    max2 = Math.max(max2, l);
+                }
+                return new LongWritable(max2 - min2);
+            case Sum:
+            case Mean:
+                long sum = 0;
+                for (long l : values) sum += l;
+                if (op == ReduceOp.Sum) return new LongWritable(sum);
+                else if (values.length > 0) return new DoubleWritable(((double) sum) / values.length);
+                else return new DoubleWritable(0.0);
+            case Count:
+                return new IntWritable(values.length);
+            default:
+                return null;
+        }
+    }
+
     private Writable reduceStringOrCategoricalColumn(ReduceOp op, List<Writable> values, boolean ignoreInvalid, ColumnMetaData metaData) {
         switch (op) {
             case Count:
@@ -564,6 +866,9 @@ public class Reducer implements IReducer {
         if (ignoreInvalidInColumns != null) {
             sb.append(",ignoreInvalidInColumns=").append(ignoreInvalidInColumns);
         }
+        if (approxCountUniqueColumns != null && !approxCountUniqueColumns.isEmpty()) {
+            sb.append(",approxCountUniqueColumns=").append(approxCountUniqueColumns);
+        }
         sb.append(")");
         return sb.toString();
     }
@@ -576,6 +881,7 @@ public class Reducer implements IReducer {
         private Map<String, ColumnReduction> customReductions = new HashMap<>();
         private Map<String, ConditionalReduction> conditionalReductions = new HashMap<>();
         private Set<String> ignoreInvalidInColumns = new HashSet<>();
+        private Set<String> approxCountUniqueColumns = new HashSet<>();
         private String[] keyColumns;
 
 
@@ -666,6 +972,16 @@ public class Reducer implements IReducer {
             return add(ReduceOp.CountUnique, columns);
         }
 
+        /**
+         * Reduce the specified columns by estimating the number of unique values, using a {@link HyperLogLog} sketch
+         * (relative standard error of approximately 0.8%). Unlike {@link #countUniqueColumns(String...)}, memory use
+         * is fixed (16kB per column and key), regardless of the number of unique values.
+         */
+        public Builder approxCountUniqueColumns(String... columns) {
+            Collections.addAll(approxCountUniqueColumns, columns);
+            return add(ReduceOp.CountUnique, columns);
+        }
+
         /**
          * Reduce the specified columns by taking the first value
          */
@@ -724,6 +1040,17 @@ public class Reducer implements IReducer {
         }
     }
 
+    /** Reduction details for a single column, for incremental aggregation */
+    private static class ColumnPlan {
+        private boolean key;
+        private ColumnReduction customReduction;
+        private Condition condition;
+        private ReduceOp op;
+        private ColumnType type;
+        private ColumnMetaData metaData;
+        private boolean ignoreInvalid;
+    }
+
     @AllArgsConstructor
     @Data
     private static class ConditionalReduction implements Serializable {
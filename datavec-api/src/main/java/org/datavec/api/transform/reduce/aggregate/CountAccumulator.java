@@ -0,0 +1,44 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce.aggregate;
+
+import org.datavec.api.transform.reduce.ColumnAccumulator;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Accumulator for the Count reduction: the number of values
+ */
+public class CountAccumulator implements ColumnAccumulator {
+
+    private int count;
+
+    @Override
+    public void add(Writable value) {
+        count++;
+    }
+
+    @Override
+    public void merge(ColumnAccumulator other) {
+        count += ((CountAccumulator) other).count;
+    }
+
+    @Override
+    public Writable get() {
+        return new IntWritable(count);
+    }
+}
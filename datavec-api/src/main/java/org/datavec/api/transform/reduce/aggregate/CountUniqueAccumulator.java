@@ -0,0 +1,92 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce.aggregate;
+
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.reduce.ColumnAccumulator;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Accumulator for the CountUnique reduction. Either exact (using a set of the values: longs for Integer, Long and Time
+ * columns, doubles for Double columns, or Strings otherwise), or approximate, using a fixed-size {@link HyperLogLog}
+ * sketch. The approximate version uses a constant amount of memory, regardless of the number of unique values.
+ */
+public class CountUniqueAccumulator implements ColumnAccumulator {
+
+    private final ColumnType type;
+    private Set<Object> values;
+    private HyperLogLog sketch;
+
+    /**
+     * Create an exact CountUnique accumulator
+     *
+     * @param type Column type
+     */
+    public CountUniqueAccumulator(ColumnType type) {
+        this(type, 0);
+    }
+
+    /**
+     * @param type               Column type
+     * @param hyperLogLogPrecision If > 0: use a HyperLogLog sketch with the specified precision. Otherwise: exact
+     */
+    public CountUniqueAccumulator(ColumnType type, int hyperLogLogPrecision) {
+        this.type = type;
+        if (hyperLogLogPrecision > 0) {
+            sketch = new HyperLogLog(hyperLogLogPrecision);
+        } else {
+            values = new HashSet<>();
+        }
+    }
+
+    @Override
+    public void add(Writable value) {
+        switch (type) {
+            case Integer:
+            case Long:
+            case Time:
+                if (sketch != null) sketch.offer(value.toLong());
+                else values.add(value.toLong());
+                break;
+            case Double:
+                if (sketch != null) sketch.offer(value.toDouble());
+                else values.add(value.toDouble());
+                break;
+            default:
+                if (sketch != null) sketch.offer(value.toString());
+                else values.add(value.toString());
+        }
+    }
+
+    @Override
+    public void merge(ColumnAccumulator other) {
+        CountUniqueAccumulator o = (CountUniqueAccumulator) other;
+        if (sketch != null) sketch.merge(o.sketch);
+        else values.addAll(o.values);
+    }
+
+    @Override
+    public Writable get() {
+        long count = (sketch != null ? sketch.cardinality() : values.size());
+        return new IntWritable((int) Math.min(Integer.MAX_VALUE, count));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce.aggregate;
+
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.reduce.ColumnAccumulator;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Accumulator for the numerical reductions (Min, Max, Range, Sum, Mean, Stdev) on Integer, Long, Double and Time
+ * columns. The standard deviation (sample, i.e., bias corrected) is calculated in a single pass using Welford's
+ * algorithm, and partial results are merged using the parallel variant of Chan et al.
+ */
+public class NumericalColumnAccumulator implements ColumnAccumulator {
+
+    private final ReduceOp op;
+    private final boolean isDouble;
+    private final boolean isTime;
+
+    private long count;
+    private long longMin = Long.MAX_VALUE;
+    private long longMax = Long.MIN_VALUE;
+    private long longSum;
+    private double doubleMin = Double.MAX_VALUE;
+    private double doubleMax = -Double.MAX_VALUE;
+    private double doubleSum;
+    //Welford: running mean and sum of squared differences from the mean
+    private double mean;
+    private double m2;
+
+    /**
+     * @param op   Reduction op. One of Min, Max, Range, Sum, Mean or Stdev (Min, Max or Mean for time columns)
+     * @param type Column type: Integer, Long, Double or Time
+     */
+    public NumericalColumnAccumulator(ReduceOp op, ColumnType type) {
+        switch (type) {
+            case Integer:
+            case Long:
+            case Double:
+            case Time:
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid column type for numerical accumulator: " + type);
+        }
+        switch (op) {
+            case Min:
+            case Max:
+            case Mean:
+                break;
+            case Range:
+            case Sum:
+            case Stdev:
+                if (type == ColumnType.Time) {
+                    throw new UnsupportedOperationException("Reduction op \"" + op + "\" not supported on time columns");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid op for numerical accumulator: " + op);
+        }
+        this.op = op;
+        this.isDouble = (type == ColumnType.Double);
+        this.isTime = (type == ColumnType.Time);
+    }
+
+    @Override
+    public void add(Writable value) {
+        count++;
+        double d;
+        if (isDouble) {
+            d = value.toDouble();
+            doubleMin = Math.min(doubleMin, d);
+            doubleMax = Math.max(doubleMax, d);
+            doubleSum += d;
+        } else {
+            long l = value.toLong();
+            longMin = Math.min(longMin, l);
+            longMax = Math.max(longMax, l);
+            longSum += l;
+            d = l;
+        }
+        if (op == ReduceOp.Stdev) {
+            double delta = d - mean;
+            mean += delta / count;
+            m2 += delta * (d - mean);
+        }
+    }
+
+    @Override
+    public void merge(ColumnAccumulator other) {
+        NumericalColumnAccumulator o = (NumericalColumnAccumulator) other;
+        if (o.count == 0) return;
+        if (op == ReduceOp.Stdev) {
+            long n = count + o.count;
+            double delta = o.mean - mean;
+            m2 = m2 + o.m2 + delta * delta * ((double) count * o.count / n);
+            mean = mean + delta * ((double) o.count / n);
+        }
+        count += o.count;
+        longMin = Math.min(longMin, o.longMin);
+        longMax = Math.max(longMax, o.longMax);
+        longSum += o.longSum;
+        doubleMin = Math.min(doubleMin, o.doubleMin);
+        doubleMax = Math.max(doubleMax, o.doubleMax);
+        doubleSum += o.doubleSum;
+    }
+
+    @Override
+    public Writable get() {
+        switch (op) {
+            case Min:
+                return isDouble ? new DoubleWritable(doubleMin) : new LongWritable(longMin);
+            case Max:
+                return isDouble ? new DoubleWritable(doubleMax) : new LongWritable(longMax);
+            case Range:
+                return isDouble ? new DoubleWritable(doubleMax - doubleMin) : new LongWritable(longMax - longMin);
+            case Sum:
+                return isDouble ? new DoubleWritable(doubleSum) : new LongWritable(longSum);
+            case Mean:
+                if (isTime) return new LongWritable(count > 0 ? longSum / count : 0);
+                if (count == 0) return new DoubleWritable(0.0);
+                return new DoubleWritable((isDouble ? doubleSum : (double) longSum) / count);
+            case Stdev:
+                if (count == 0) return new DoubleWritable(Double.NaN);
+                if (count == 1) return new DoubleWritable(0.0);
+                return new DoubleWritable(Math.sqrt(m2 / (count - 1)));
+            default:
+                throw new IllegalStateException("Unknown op: " + op);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce.aggregate;
+
+import org.datavec.api.transform.reduce.ColumnAccumulator;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Accumulator for the TakeFirst and TakeLast reductions. When merging, the other accumulator's values are treated as
+ * coming after this accumulator's values.
+ */
+public class TakeFirstLastAccumulator implements ColumnAccumulator {
+
+    private final boolean first;
+    private final Writable defaultValue;
+    private Writable value;
+
+    /**
+     * @param first        If true: take the first value. Otherwise: take the last value
+     * @param defaultValue Value to return if no values were added. If null: {@link #get()} throws an exception if no
+     *                     values were added
+     */
+    public TakeFirstLastAccumulator(boolean first, Writable defaultValue) {
+        this.first = first;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public void add(Writable value) {
+        if (!first || this.value == null) {
+            this.value = value;
+        }
+    }
+
+    @Override
+    public void merge(ColumnAccumulator other) {
+        Writable otherValue = ((TakeFirstLastAccumulator) other).value;
+        if (otherValue != null && (!first || value == null)) {
+            value = otherValue;
+        }
+    }
+
+    @Override
+    public Writable get() {
+        if (value != null) return value;
+        if (defaultValue == null) {
+            throw new IllegalStateException("Cannot take " + (first ? "first" : "last") + " value: no values");
+        }
+        return defaultValue;
+    }
+}
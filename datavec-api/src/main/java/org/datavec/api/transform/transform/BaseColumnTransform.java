@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.RecordBatch;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Writable;
@@ -93,6 +95,29 @@ public abstract class BaseColumnTransform extends BaseTransform {
     }
 
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        if (batch.numColumns() != inputSchema.numColumns()) {
+            throw new IllegalStateException("Cannot execute transform: input batch number of columns (" + batch.numColumns()
+                    + ") does not match expected number of columns (schema: " + inputSchema.numColumns() + "). Transform = " + toString());
+        }
+        List<BatchColumn> out = new ArrayList<>(batch.getColumns());
+        out.set(columnNumber, mapColumn(batch.getColumn(columnNumber)));
+        return new RecordBatch(batch.numRows(), out);
+    }
+
+    /**
+     * Map all values in the column. By default this calls {@link #map(Writable)} for each value; subclasses may
+     * override this to operate directly on primitive values
+     */
+    public BatchColumn mapColumn(BatchColumn column) {
+        int n = column.size();
+        List<Writable> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(map(column.get(i)));
+        }
+        return BatchColumn.fromWritables(out);
+    }
 
     public abstract Writable map(Writable columnWritable);
 
@@ -18,6 +18,10 @@ package org.datavec.api.transform.transform;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import org.datavec.api.writable.Writable;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.RecordBatch;
+import org.datavec.api.records.batch.WritableColumn;
+import org.datavec.api.transform.BatchTransform;
 import org.datavec.api.transform.Transform;
 import org.datavec.api.transform.schema.Schema;
 
@@ -29,7 +33,7 @@ import java.util.List;
  * @author Alex Black
  */
 @JsonIgnoreProperties({"inputSchema"})
-public abstract class BaseTransform implements Transform {
+public abstract class BaseTransform implements BatchTransform {
 
     protected Schema inputSchema;
 
@@ -53,6 +57,32 @@ public abstract class BaseTransform implements Transform {
         return out;
     }
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        return mapBatchRowWise(this, batch);
+    }
+
+    /**
+     * Execute the transform on a batch one example at a time, using {@link Transform#map(List)}
+     */
+    public static RecordBatch mapBatchRowWise(Transform transform, RecordBatch batch) {
+        int n = batch.numRows();
+        if (n == 0 && transform.getInputSchema() != null) {
+            //Keep the correct number of (empty) columns
+            int numOutputColumns = transform.transform(transform.getInputSchema()).numColumns();
+            List<BatchColumn> columns = new ArrayList<>(numOutputColumns);
+            for (int i = 0; i < numOutputColumns; i++) {
+                columns.add(new WritableColumn(new ArrayList<Writable>()));
+            }
+            return new RecordBatch(0, columns);
+        }
+        List<List<Writable>> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            out.add(transform.map(batch.getRecord(i)));
+        }
+        return RecordBatch.fromRecords(out);
+    }
+
     @Override
     public abstract String toString();
 }
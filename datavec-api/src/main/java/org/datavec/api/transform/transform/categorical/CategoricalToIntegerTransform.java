@@ -33,13 +33,13 @@ import java.util.*;
  * Created by Alex on 4/03/2016.
  */
 @Data
-@JsonIgnoreProperties({"inputSchema", "columnIdx", "stateNames", "statesMap"})
+@JsonIgnoreProperties({"inputSchema", "columnIdx", "stateNames", "categoricalMetaData"})
 public class CategoricalToIntegerTransform extends BaseTransform {
 
     private String columnName;
     private int columnIdx = -1;
     private List<String> stateNames;
-    private Map<String, Integer> statesMap;
+    private CategoricalMetaData categoricalMetaData;
 
     public CategoricalToIntegerTransform(@JsonProperty("columnName") String columnName) {
         this.columnName = columnName;
@@ -53,12 +53,8 @@ public class CategoricalToIntegerTransform extends BaseTransform {
         ColumnMetaData meta = inputSchema.getMetaData(columnName);
         if (!(meta instanceof CategoricalMetaData)) throw new IllegalStateException("Cannot convert column \"" +
                 columnName + "\" from categorical to one-hot: column is not categorical (is: " + meta.getColumnType() + ")");
-        this.stateNames = ((CategoricalMetaData) meta).getStateNames();
-
-        this.statesMap = new HashMap<>(stateNames.size());
-        for (int i = 0; i < stateNames.size(); i++) {
-            this.statesMap.put(stateNames.get(i), i);
-        }
+        this.categoricalMetaData = (CategoricalMetaData) meta;
+        this.stateNames = categoricalMetaData.getStateNames();
     }
 
     @Override
@@ -105,9 +101,8 @@ public class CategoricalToIntegerTransform extends BaseTransform {
 
             if (i++ == idx) {
                 //Do conversion
-                String str = w.toString();
-                Integer classIdx = statesMap.get(str);
-                if (classIdx == null) throw new RuntimeException("Unknown state (index not found): " + str);
+                int classIdx = categoricalMetaData.getStateIndex(w);
+                if (classIdx < 0) throw new RuntimeException("Unknown state (index not found): " + w);
                 out.add(new IntWritable(classIdx));
             } else {
                 //No change to this column
@@ -19,12 +19,13 @@ package org.datavec.api.transform.transform.categorical;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
-import org.datavec.api.writable.IntWritable;
 import org.datavec.api.transform.metadata.CategoricalMetaData;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.IntegerMetaData;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.transform.BaseTransform;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.OneHotRecord;
 import org.datavec.api.writable.Writable;
 
 import java.util.*;
@@ -33,17 +34,30 @@ import java.util.*;
  * Created by Alex on 4/03/2016.
  */
 @Data
-@JsonIgnoreProperties({"inputSchema", "columnIdx", "stateNames", "statesMap"})
+@JsonIgnoreProperties({"inputSchema", "columnIdx", "stateNames", "categoricalMetaData"})
 public class CategoricalToOneHotTransform extends BaseTransform {
 
     private String columnName;
+    private boolean sparse;
     private int columnIdx = -1;
 
     private List<String> stateNames;
-    private Map<String, Integer> statesMap;
+    private CategoricalMetaData categoricalMetaData;
 
-    public CategoricalToOneHotTransform(@JsonProperty("columnName") String columnName) {
+    public CategoricalToOneHotTransform(String columnName) {
+        this(columnName, false);
+    }
+
+    /**
+     * @param columnName Name of the categorical column to convert
+     * @param sparse     If true: return each output record as a {@link OneHotRecord}, which stores only the index of
+     *                   the hot state rather than one IntWritable per state. Cheaper for columns with many states, but
+     *                   not supported by serializers that require a no-arg constructor (such as Kryo)
+     */
+    public CategoricalToOneHotTransform(@JsonProperty("columnName") String columnName,
+                                        @JsonProperty("sparse") boolean sparse) {
         this.columnName = columnName;
+        this.sparse = sparse;
     }
 
     @Override
@@ -54,12 +68,8 @@ public class CategoricalToOneHotTransform extends BaseTransform {
         ColumnMetaData meta = inputSchema.getMetaData(columnName);
         if (!(meta instanceof CategoricalMetaData)) throw new IllegalStateException("Cannot convert column \"" +
                 columnName + "\" from categorical to one-hot: column is not categorical (is: " + meta.getColumnType() + ")");
-        this.stateNames = ((CategoricalMetaData) meta).getStateNames();
-
-        this.statesMap = new HashMap<>(stateNames.size());
-        for (int i = 0; i < stateNames.size(); i++) {
-            this.statesMap.put(stateNames.get(i), i);
-        }
+        this.categoricalMetaData = (CategoricalMetaData) meta;
+        this.stateNames = categoricalMetaData.getStateNames();
     }
 
     @Override
@@ -69,17 +79,17 @@ public class CategoricalToOneHotTransform extends BaseTransform {
 
         CategoricalToOneHotTransform o2 = (CategoricalToOneHotTransform) o;
 
-        return columnName.equals(o2.columnName);
+        return columnName.equals(o2.columnName) && sparse == o2.sparse;
     }
 
     @Override
     public int hashCode() {
-        return columnName.hashCode();
+        return 31 * columnName.hashCode() + (sparse ? 1 : 0);
     }
 
     @Override
     public String toString() {
-        return "CategoricalToOneHotTransform(columnName=\"" + columnName + "\")";
+        return "CategoricalToOneHotTransform(columnName=\"" + columnName + "\"" + (sparse ? ",sparse=true" : "") + ")";
 
     }
 
@@ -121,24 +131,23 @@ public class CategoricalToOneHotTransform extends BaseTransform {
         }
         int idx = getColumnIdx();
 
+        Writable w = writables.get(idx);
+        int classIdx = categoricalMetaData.getStateIndex(w);
+        if (classIdx < 0) throw new RuntimeException("Unknown state (index not found): " + w);
         int n = stateNames.size();
-        List<Writable> out = new ArrayList<>(writables.size() + n);
-
-        int i = 0;
-        for (Writable w : writables) {
+        if (sparse) {
+            //Only the index of the hot state is stored, rather than one IntWritable per state
+            return new OneHotRecord(writables, idx, n, classIdx);
+        }
 
-            if (i++ == idx) {
-                //Do conversion
-                String str = w.toString();
-                Integer classIdx = statesMap.get(str);
-                if (classIdx == null) throw new RuntimeException("Unknown state (index not found): " + str);
+        List<Writable> out = new ArrayList<>(writables.size() - 1 + n);
+        for (int i = 0; i < writables.size(); i++) {
+            if (i == idx) {
                 for (int j = 0; j < n; j++) {
-                    if (j == classIdx) out.add(new IntWritable(1));
-                    else out.add(new IntWritable(0));
+                    out.add(new IntWritable(j == classIdx ? 1 : 0));
                 }
             } else {
-                //No change to this column
-                out.add(w);
+                out.add(writables.get(i));
             }
         }
         return out;
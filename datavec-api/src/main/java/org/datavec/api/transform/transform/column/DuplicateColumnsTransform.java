@@ -18,7 +18,9 @@ package org.datavec.api.transform.transform.column;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import org.datavec.api.transform.Transform;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.RecordBatch;
+import org.datavec.api.transform.BatchTransform;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.transform.schema.Schema;
@@ -35,7 +37,7 @@ import java.util.Set;
  * @author Alex Black
  */
 @JsonIgnoreProperties({"columnsToDuplicateSet", "columnIndexesToDuplicateSet", "inputSchema"})
-public class DuplicateColumnsTransform implements Transform {
+public class DuplicateColumnsTransform implements BatchTransform {
 
     private final List<String> columnsToDuplicate;
     private final List<String> newColumnNames;
@@ -119,6 +121,21 @@ public class DuplicateColumnsTransform implements Transform {
         return out;
     }
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        if (batch.numColumns() != inputSchema.numColumns()) {
+            throw new IllegalStateException("Cannot execute transform: input batch number of columns (" + batch.numColumns()
+                    + ") does not match expected number of columns (schema: " + inputSchema.numColumns() + "). Transform = " + toString());
+        }
+        //Columns are immutable: duplicated columns can be shared
+        List<BatchColumn> out = new ArrayList<>(batch.numColumns() + columnsToDuplicate.size());
+        for (int i = 0; i < batch.numColumns(); i++) {
+            out.add(batch.getColumn(i));
+            if (columnIndexesToDuplicateSet.contains(i)) out.add(batch.getColumn(i));
+        }
+        return new RecordBatch(batch.numRows(), out);
+    }
+
     @Override
     public List<List<Writable>> mapSequence(List<List<Writable>> sequence) {
         List<List<Writable>> out = new ArrayList<>(sequence.size());
@@ -18,6 +18,8 @@ package org.datavec.api.transform.transform.column;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.RecordBatch;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.transform.BaseTransform;
 import org.datavec.api.transform.metadata.ColumnMetaData;
@@ -100,6 +102,20 @@ public class RemoveColumnsTransform extends BaseTransform {
         return outList;
     }
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        if (batch.numColumns() != inputSchema.numColumns()) {
+            throw new IllegalStateException("Cannot execute transform: input batch number of columns (" + batch.numColumns()
+                    + ") does not match expected number of columns (schema: " + inputSchema.numColumns() + "). Transform = " + toString());
+        }
+        List<BatchColumn> out = new ArrayList<>(batch.numColumns() - columnsToRemove.length);
+        for (int i = 0; i < batch.numColumns(); i++) {
+            if (indicesToRemove.contains(i)) continue;
+            out.add(batch.getColumn(i));
+        }
+        return new RecordBatch(batch.numRows(), out);
+    }
+
     @Override
     public String toString() {
         return "RemoveColumnsTransform(" + Arrays.toString(columnsToRemove) + ")";
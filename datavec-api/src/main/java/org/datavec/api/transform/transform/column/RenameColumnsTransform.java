@@ -18,9 +18,10 @@ package org.datavec.api.transform.transform.column;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.RecordBatch;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.schema.Schema;
-import org.datavec.api.transform.Transform;
+import org.datavec.api.transform.BatchTransform;
 import org.datavec.api.writable.Writable;
 
 import java.util.ArrayList;
@@ -33,7 +34,7 @@ import java.util.List;
  * @author Alex Black
  */
 @JsonIgnoreProperties({"inputSchema"})
-public class RenameColumnsTransform implements Transform {
+public class RenameColumnsTransform implements BatchTransform {
 
     private final List<String> oldNames;
     private final List<String> newNames;
@@ -105,6 +106,12 @@ public class RenameColumnsTransform implements Transform {
         return writables;
     }
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        //No op
+        return batch;
+    }
+
     @Override
     public List<List<Writable>> mapSequence(List<List<Writable>> sequence) {
         //No op
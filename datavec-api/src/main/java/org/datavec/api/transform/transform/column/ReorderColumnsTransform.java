@@ -18,9 +18,11 @@ package org.datavec.api.transform.transform.column;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.RecordBatch;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.writable.Writable;
-import org.datavec.api.transform.Transform;
+import org.datavec.api.transform.BatchTransform;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 
 import java.util.ArrayList;
@@ -35,7 +37,7 @@ import java.util.List;
  * @author Alex Black
  */
 @JsonIgnoreProperties({"inputSchema", "outputOrder"})
-public class ReorderColumnsTransform implements Transform {
+public class ReorderColumnsTransform implements BatchTransform {
 
     private final List<String> newOrder;
     private Schema inputSchema;
@@ -127,6 +129,20 @@ public class ReorderColumnsTransform implements Transform {
         return out;
     }
 
+    @Override
+    public RecordBatch mapBatch(RecordBatch batch) {
+        //outputOrder has one entry per input column
+        if (batch.numColumns() != outputOrder.length) {
+            throw new IllegalStateException("Cannot execute transform: input batch number of columns (" + batch.numColumns()
+                    + ") does not match expected number of columns (schema: " + outputOrder.length + "). Transform = " + toString());
+        }
+        List<BatchColumn> out = new ArrayList<>(outputOrder.length);
+        for (int i : outputOrder) {
+            out.add(batch.getColumn(i));
+        }
+        return new RecordBatch(batch.numRows(), out);
+    }
+
     @Override
     public List<List<Writable>> mapSequence(List<List<Writable>> sequence) {
         List<List<Writable>> out = new ArrayList<>();
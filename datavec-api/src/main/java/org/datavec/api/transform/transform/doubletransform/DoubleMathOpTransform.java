@@ -20,6 +20,8 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.DoubleColumn;
 import org.datavec.api.transform.MathOp;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.transform.transform.BaseColumnTransform;
@@ -92,6 +94,45 @@ public class DoubleMathOpTransform extends BaseColumnTransform {
         return new DoubleWritable(doOp(columnWritable.toDouble()));
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        double[] in = column.asDoubles();
+        int n = in.length;
+        double[] out = new double[n];
+        switch (mathOp) {
+            case Add:
+                for (int i = 0; i < n; i++) out[i] = in[i] + scalar;
+                break;
+            case Subtract:
+                for (int i = 0; i < n; i++) out[i] = in[i] - scalar;
+                break;
+            case Multiply:
+                for (int i = 0; i < n; i++) out[i] = in[i] * scalar;
+                break;
+            case Divide:
+                for (int i = 0; i < n; i++) out[i] = in[i] / scalar;
+                break;
+            case Modulus:
+                for (int i = 0; i < n; i++) out[i] = in[i] % scalar;
+                break;
+            case ReverseSubtract:
+                for (int i = 0; i < n; i++) out[i] = scalar - in[i];
+                break;
+            case ReverseDivide:
+                for (int i = 0; i < n; i++) out[i] = scalar / in[i];
+                break;
+            case ScalarMin:
+                for (int i = 0; i < n; i++) out[i] = Math.min(in[i], scalar);
+                break;
+            case ScalarMax:
+                for (int i = 0; i < n; i++) out[i] = Math.max(in[i], scalar);
+                break;
+            default:
+                throw new IllegalStateException("Unknown or not implemented math op: " + mathOp);
+        }
+        return new DoubleColumn(out);
+    }
+
     @Override
     public String toString() {
         return "DoubleMathOpTransform(mathOp=" + mathOp + ",scalar=" + scalar + ")";
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.DoubleColumn;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
@@ -65,6 +67,18 @@ public class Log2Normalizer extends BaseDoubleTransform {
         return new DoubleMetaData(newColumnName, 0.0, null);
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        double[] in = column.asDoubles();
+        int n = in.length;
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            double val = in[i];
+            out[i] = Double.isNaN(val) ? 0 : normMean(val);
+        }
+        return new DoubleColumn(out);
+    }
+
     @Override
     public String toString() {
         return "Log2Normalizer(columnMean=" + columnMean + ",columnMin=" + columnMin + ",scalingFactor=" + scalingFactor + ")";
@@ -20,6 +20,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.DoubleMetaData;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.DoubleColumn;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.Writable;
 
@@ -65,6 +67,18 @@ public class MinMaxNormalizer extends BaseDoubleTransform {
         return new DoubleMetaData(newColumnName, newMin, newMax);
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        double[] in = column.asDoubles();
+        int n = in.length;
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            double val = in[i];
+            out[i] = Double.isNaN(val) ? 0 : ratio * (val - min) + newMin;
+        }
+        return new DoubleColumn(out);
+    }
+
     @Override
     public String toString() {
         return "MinMaxNormalizer(min=" + min + ",max=" + max + ",newMin=" + newMin + ",newMax=" + newMax + ")";
@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.doubletransform;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.DoubleColumn;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.Writable;
 
@@ -44,6 +46,17 @@ public class StandardizeNormalizer extends BaseDoubleTransform {
         return new DoubleWritable((val - mean) / stdev);
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        double[] in = column.asDoubles();
+        int n = in.length;
+        double[] out = new double[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = (in[i] - mean) / stdev;
+        }
+        return new DoubleColumn(out);
+    }
+
     @Override
     public String toString() {
         return "StandardizeNormalizer(mean=" + mean + ",stdev=" + stdev + ")";
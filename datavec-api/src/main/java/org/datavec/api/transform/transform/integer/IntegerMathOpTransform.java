@@ -17,6 +17,8 @@
 package org.datavec.api.transform.transform.integer;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.IntColumn;
 import org.datavec.api.transform.MathOp;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.IntegerMetaData;
@@ -92,6 +94,45 @@ public class IntegerMathOpTransform extends BaseColumnTransform {
         return new IntWritable(doOp(columnWritable.toInt()));
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        int[] in = column.asInts();
+        int n = in.length;
+        int[] out = new int[n];
+        switch (mathOp) {
+            case Add:
+                for (int i = 0; i < n; i++) out[i] = in[i] + scalar;
+                break;
+            case Subtract:
+                for (int i = 0; i < n; i++) out[i] = in[i] - scalar;
+                break;
+            case Multiply:
+                for (int i = 0; i < n; i++) out[i] = in[i] * scalar;
+                break;
+            case Divide:
+                for (int i = 0; i < n; i++) out[i] = in[i] / scalar;
+                break;
+            case Modulus:
+                for (int i = 0; i < n; i++) out[i] = in[i] % scalar;
+                break;
+            case ReverseSubtract:
+                for (int i = 0; i < n; i++) out[i] = scalar - in[i];
+                break;
+            case ReverseDivide:
+                for (int i = 0; i < n; i++) out[i] = scalar / in[i];
+                break;
+            case ScalarMin:
+                for (int i = 0; i < n; i++) out[i] = Math.min(in[i], scalar);
+                break;
+            case ScalarMax:
+                for (int i = 0; i < n; i++) out[i] = Math.max(in[i], scalar);
+                break;
+            default:
+                throw new IllegalStateException("Unknown or not implemented math op: " + mathOp);
+        }
+        return new IntColumn(out);
+    }
+
     @Override
     public String toString() {
         return "IntegerMathOpTransform(mathOp=" + mathOp + ",scalar=" + scalar + ")";
@@ -18,6 +18,8 @@ package org.datavec.api.transform.transform.longtransform;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.datavec.api.writable.LongWritable;
+import org.datavec.api.records.batch.BatchColumn;
+import org.datavec.api.records.batch.LongColumn;
 import org.datavec.api.transform.MathOp;
 import org.datavec.api.transform.metadata.ColumnMetaData;
 import org.datavec.api.transform.metadata.LongMetaData;
@@ -92,6 +94,45 @@ public class LongMathOpTransform extends BaseColumnTransform {
         return new LongWritable(doOp(columnWritable.toLong()));
     }
 
+    @Override
+    public BatchColumn mapColumn(BatchColumn column) {
+        long[] in = column.asLongs();
+        int n = in.length;
+        long[] out = new long[n];
+        switch (mathOp) {
+            case Add:
+                for (int i = 0; i < n; i++) out[i] = in[i] + scalar;
+                break;
+            case Subtract:
+                for (int i = 0; i < n; i++) out[i] = in[i] - scalar;
+                break;
+            case Multiply:
+                for (int i = 0; i < n; i++) out[i] = in[i] * scalar;
+                break;
+            case Divide:
+                for (int i = 0; i < n; i++) out[i] = in[i] / scalar;
+                break;
+            case Modulus:
+                for (int i = 0; i < n; i++) out[i] = in[i] % scalar;
+                break;
+            case ReverseSubtract:
+                for (int i = 0; i < n; i++) out[i] = scalar - in[i];
+                break;
+            case ReverseDivide:
+                for (int i = 0; i < n; i++) out[i] = scalar / in[i];
+                break;
+            case ScalarMin:
+                for (int i = 0; i < n; i++) out[i] = Math.min(in[i], scalar);
+                break;
+            case ScalarMax:
+                for (int i = 0; i < n; i++) out[i] = Math.max(in[i], scalar);
+                break;
+            default:
+                throw new IllegalStateException("Unknown or not implemented math op: " + mathOp);
+        }
+        return new LongColumn(out);
+    }
+
     @Override
     public String toString() {
         return "LongMathOpTransform(mathOp=" + mathOp + ",scalar=" + scalar + ")";
@@ -0,0 +1,77 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.transform.sparse;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.datavec.api.transform.metadata.ColumnMetaData;
+import org.datavec.api.transform.transform.BaseColumnTransform;
+import org.datavec.api.writable.SparseVectorWritable;
+import org.datavec.api.writable.Writable;
+
+/**
+ * Normalize each {@link SparseVectorWritable} in a column to unit norm (L1 or L2), as is common for text (bag of
+ * words, TF-IDF) features.<br>
+ * Only the non-zero entries of each vector are touched, and zeros remain zeros: the vectors stay sparse. (Column-wise
+ * normalizers such as {@link org.datavec.api.transform.transform.doubletransform.MinMaxNormalizer} or
+ * {@link org.datavec.api.transform.transform.doubletransform.StandardizeNormalizer} would map zeros to non-zero values,
+ * and hence make the vectors dense.) All-zero vectors are left unchanged.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Data
+@JsonIgnoreProperties({"inputSchema", "columnNumber"})
+public class SparseVectorNormalizer extends BaseColumnTransform {
+
+    public enum Norm {L1, L2}
+
+    private final Norm norm;
+
+    /**
+     * @param columnName Name of the column containing the sparse vectors
+     * @param norm       Norm to normalize each vector by
+     */
+    public SparseVectorNormalizer(@JsonProperty("columnName") String columnName, @JsonProperty("norm") Norm norm) {
+        super(columnName);
+        this.norm = norm;
+    }
+
+    @Override
+    public ColumnMetaData getNewColumnMetaData(String newColumnName, ColumnMetaData oldColumnMeta) {
+        ColumnMetaData meta = oldColumnMeta.clone();
+        meta.setName(newColumnName);
+        return meta;
+    }
+
+    @Override
+    public Writable map(Writable writable) {
+        if (!(writable instanceof SparseVectorWritable)) {
+            throw new IllegalStateException("Cannot normalize column \"" + columnName + "\": expected SparseVectorWritable, got "
+                    + (writable == null ? null : writable.getClass().getSimpleName()));
+        }
+        SparseVectorWritable in = (SparseVectorWritable) writable;
+        //Copy, as the SparseVectorWritable operations are in place
+        SparseVectorWritable out = new SparseVectorWritable(in.size(), in.getIndices().clone(), in.getValues().clone());
+        return (norm == Norm.L1 ? out.normalizeL1() : out.normalizeL2());
+    }
+
+    @Override
+    public String toString() {
+        return "SparseVectorNormalizer(columnName=" + columnName + ",norm=" + norm + ")";
+    }
+}
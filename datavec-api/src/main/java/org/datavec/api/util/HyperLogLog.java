@@ -0,0 +1,149 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.util;
+
+import java.io.Serializable;
+
+/**
+ * HyperLogLog: a fixed-size, mergeable sketch for estimating the number of distinct values in a stream.<br>
+ * With precision p, the sketch uses 2^p one-byte registers, and has a relative standard error of approximately
+ * 1.04 / sqrt(2^p) (about 0.8% for the default precision of 14, using 16kB). Two sketches with the same precision can
+ * be merged, giving the same result as if all values had been offered to a single sketch; this makes it suitable
+ * for distributed and streaming aggregations.<br>
+ * Based on Flajolet et al. (2007), "HyperLogLog: the analysis of a near-optimal cardinality estimation algorithm",
+ * using 64-bit hashes (hence no large range correction) and linear counting for small cardinalities.
+ */
+public class HyperLogLog implements Serializable {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Create a HyperLogLog sketch with the default precision ({@link #DEFAULT_PRECISION})
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision Number of bits used to select a register; 2^precision registers are used. Must be in range
+     *                  [{@link #MIN_PRECISION}, {@link #MAX_PRECISION}]
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid precision: " + precision + ". Must be in range " + MIN_PRECISION
+                    + " to " + MAX_PRECISION + " inclusive");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Offer a (well mixed) 64-bit hash of a value
+     */
+    public void offerHash(long hash) {
+        int idx = (int) (hash >>> (64 - precision));
+        long w = hash << precision;
+        int rho = (w == 0 ? 64 - precision + 1 : Long.numberOfLeadingZeros(w) + 1);
+        if (rho > registers[idx]) {
+            registers[idx] = (byte) rho;
+        }
+    }
+
+    public void offer(long value) {
+        offerHash(mix64(value));
+    }
+
+    public void offer(double value) {
+        offerHash(mix64(Double.doubleToLongBits(value)));
+    }
+
+    public void offer(String value) {
+        //64-bit FNV-1a over the characters, followed by a final mix for better distribution of the high bits
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        offerHash(mix64(h));
+    }
+
+    /**
+     * Merge the other sketch into this one. Both sketches must have the same precision.
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches with different precision: "
+                    + precision + " vs. " + other.precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * @return Estimated number of distinct values offered to this sketch (and any sketches merged into it)
+     */
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0.0;
+        int zeros = 0;
+        for (byte b : registers) {
+            sum += 1.0 / (1L << b);
+            if (b == 0) zeros++;
+        }
+        double estimate = alpha(m) * m * (double) m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            //Small range correction: linear counting
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1.0 + 1.079 / m);
+        }
+    }
+
+    /** MurmurHash3 64-bit finalizer */
+    private static long mix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * StreamingHistogram: a mergeable histogram with adaptive bins, for a stream of values whose range is not known in
+ * advance.<br>
+ * The histogram is a list of at most maxBins (position, count) pairs; when a new value would exceed the bin limit,
+ * the two closest adjacent bins are merged. While the number of distinct values is at most maxBins, the histogram is
+ * exact. Once the stream is complete, the histogram can be converted to a conventional equal-width histogram over the
+ * observed [min, max] range using {@link #equalWidthCounts(int)}.<br>
+ * Based on Ben-Haim and Tom-Tov (2010), "A Streaming Parallel Decision Tree Algorithm". Values are buffered and
+ * added in sorted batches, so the amortized cost per value is O(log(maxBins)).
+ */
+public class StreamingHistogram implements Serializable {
+
+    public static final int DEFAULT_MAX_BINS = 100;
+
+    private final int maxBins;
+    private double[] positions = new double[0];
+    private long[] counts = new long[0];
+    private int numBins;
+    private boolean exact = true;
+
+    private double[] buffer;
+    private int bufferSize;
+
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Create a StreamingHistogram with the default maximum number of bins ({@link #DEFAULT_MAX_BINS})
+     */
+    public StreamingHistogram() {
+        this(DEFAULT_MAX_BINS);
+    }
+
+    /**
+     * @param maxBins Maximum number of (adaptive) bins to keep
+     */
+    public StreamingHistogram(int maxBins) {
+        if (maxBins < 2) throw new IllegalArgumentException("Invalid maxBins: " + maxBins + ". Must be >= 2");
+        this.maxBins = maxBins;
+    }
+
+    /**
+     * Add a value to the histogram. NaN values are ignored.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) return;
+        if (buffer == null) buffer = new double[4 * maxBins];
+        buffer[bufferSize++] = value;
+        count++;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        if (bufferSize == buffer.length) flush();
+    }
+
+    /**
+     * Merge the other histogram into this one. The other histogram is not modified (other than being flushed).
+     */
+    public void merge(StreamingHistogram other) {
+        if (other.count == 0) return;
+        flush();
+        other.flush();
+        setBins(mergeSorted(positions, counts, numBins, other.positions, other.counts, other.numBins));
+        exact &= other.exact;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    private void flush() {
+        if (bufferSize == 0) return;
+        Arrays.sort(buffer, 0, bufferSize);
+        double[] p = new double[bufferSize];
+        long[] c = new long[bufferSize];
+        int n = 0;
+        for (int i = 0; i < bufferSize; i++) {
+            if (n > 0 && p[n - 1] == buffer[i]) {
+                c[n - 1]++;
+            } else {
+                p[n] = buffer[i];
+                c[n++] = 1;
+            }
+        }
+        bufferSize = 0;
+        setBins(mergeSorted(positions, counts, numBins, p, c, n));
+    }
+
+    private static Bins mergeSorted(double[] p1, long[] c1, int n1, double[] p2, long[] c2, int n2) {
+        Bins out = new Bins(n1 + n2);
+        int i = 0, j = 0;
+        while (i < n1 || j < n2) {
+            double p;
+            long c;
+            if (j >= n2 || (i < n1 && p1[i] <= p2[j])) {
+                p = p1[i];
+                c = c1[i++];
+            } else {
+                p = p2[j];
+                c = c2[j++];
+            }
+            if (out.n > 0 && out.positions[out.n - 1] == p) {
+                out.counts[out.n - 1] += c;
+            } else {
+                out.positions[out.n] = p;
+                out.counts[out.n++] = c;
+            }
+        }
+        return out;
+    }
+
+    private void setBins(Bins bins) {
+        if (bins.n > maxBins) {
+            reduce(bins);
+            exact = false;
+        }
+        positions = Arrays.copyOf(bins.positions, bins.n);
+        counts = Arrays.copyOf(bins.counts, bins.n);
+        numBins = bins.n;
+    }
+
+    /**
+     * Repeatedly merge the closest pair of adjacent bins, until at most maxBins bins remain. Uses a priority queue of
+     * gaps between adjacent bins (with lazy removal of stale gaps), for O(n log n) total cost.
+     */
+    private void reduce(Bins bins) {
+        int n = bins.n;
+        double[] p = bins.positions;
+        long[] c = bins.counts;
+        int[] next = new int[n];
+        int[] prev = new int[n];
+        int[] version = new int[n];
+        boolean[] removed = new boolean[n];
+        PriorityQueue<Gap> queue = new PriorityQueue<>(n);
+        for (int i = 0; i < n; i++) {
+            next[i] = (i < n - 1 ? i + 1 : -1);
+            prev[i] = i - 1;
+            if (i < n - 1) queue.add(new Gap(p[i + 1] - p[i], i, i + 1, 0, 0));
+        }
+
+        int remaining = n;
+        while (remaining > maxBins) {
+            Gap g = queue.poll();
+            if (removed[g.left] || removed[g.right] || next[g.left] != g.right || version[g.left] != g.leftVersion
+                    || version[g.right] != g.rightVersion) {
+                continue;   //Stale
+            }
+            int l = g.left;
+            int r = g.right;
+            long sum = c[l] + c[r];
+            p[l] = (p[l] * c[l] + p[r] * c[r]) / sum;
+            c[l] = sum;
+            version[l]++;
+            removed[r] = true;
+            next[l] = next[r];
+            if (next[r] >= 0) prev[next[r]] = l;
+            remaining--;
+
+            if (prev[l] >= 0) queue.add(new Gap(p[l] - p[prev[l]], prev[l], l, version[prev[l]], version[l]));
+            if (next[l] >= 0) queue.add(new Gap(p[next[l]] - p[l], l, next[l], version[l], version[next[l]]));
+        }
+
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (removed[i]) continue;
+            p[k] = p[i];
+            c[k++] = c[i];
+        }
+        bins.n = k;
+    }
+
+    /**
+     * @return Total number of (non-NaN) values added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return True if no bins have been merged: i.e., the histogram holds the exact count of every distinct value
+     */
+    public boolean isExact() {
+        flush();
+        return exact;
+    }
+
+    /**
+     * @return Positions of the adaptive bins (sorted)
+     */
+    public double[] getPositions() {
+        flush();
+        return Arrays.copyOf(positions, numBins);
+    }
+
+    /**
+     * @return Counts for the adaptive bins
+     */
+    public long[] getCounts() {
+        flush();
+        return Arrays.copyOf(counts, numBins);
+    }
+
+    /**
+     * Edges for an equal-width histogram over the range of values seen: nBins+1 values, from min to max (or
+     * [min, max] for a single bin if all values are equal). Empty if no values have been added.
+     */
+    public double[] equalWidthEdges(int nBins) {
+        if (count == 0) return new double[0];
+        if (min == max) return new double[]{min, max};
+        double[] edges = new double[nBins + 1];
+        double step = (max - min) / nBins;
+        for (int i = 0; i < nBins; i++) {
+            edges[i] = min + i * step;
+        }
+        edges[nBins] = max;
+        return edges;
+    }
+
+    /**
+     * Counts for an equal-width histogram over the range of values seen, with edges as per
+     * {@link #equalWidthEdges(int)}. Bin i covers [edges[i], edges[i+1]); the last bin also includes the maximum.
+     * Counts are exact if {@link #isExact()} is true; otherwise they are interpolated from the adaptive bins, and sum
+     * to the total count.
+     */
+    public long[] equalWidthCounts(int nBins) {
+        flush();
+        double[] edges = equalWidthEdges(nBins);
+        if (edges.length == 0) return new long[0];
+        int n = edges.length - 1;
+        long[] out = new long[n];
+        if (n == 1) {
+            out[0] = count;
+            return out;
+        }
+
+        if (exact) {
+            double step = (max - min) / n;
+            for (int i = 0; i < numBins; i++) {
+                int idx = (int) ((positions[i] - min) / step);
+                if (idx >= n) idx = n - 1;
+                if (idx < 0) idx = 0;
+                out[idx] += counts[i];
+            }
+            return out;
+        }
+
+        //Approximate: estimated number of values <= each edge (the "sum" procedure of Ben-Haim and Tom-Tov), with
+        // zero-count bins at the minimum and maximum
+        long prevRounded = 0;
+        for (int i = 1; i < n; i++) {
+            long rounded = Math.round(cumulative(edges[i]));
+            out[i - 1] = rounded - prevRounded;
+            prevRounded = rounded;
+        }
+        out[n - 1] = count - prevRounded;
+        return out;
+    }
+
+    private double cumulative(double b) {
+        double sumBefore = 0;
+        double leftP = min;
+        double leftC = 0;
+        for (int i = 0; i <= numBins; i++) {
+            double rightP = (i < numBins ? positions[i] : max);
+            double rightC = (i < numBins ? counts[i] : 0);
+            if (b < rightP) {
+                if (rightP == leftP) return sumBefore;
+                double frac = (b - leftP) / (rightP - leftP);
+                double mb = leftC + (rightC - leftC) * frac;
+                return sumBefore + leftC / 2 + (leftC + mb) / 2 * frac;
+            }
+            sumBefore += leftC;
+            leftP = rightP;
+            leftC = rightC;
+        }
+        return count;
+    }
+
+    private static class Bins {
+        private final double[] positions;
+        private final long[] counts;
+        private int n;
+
+        private Bins(int capacity) {
+            positions = new double[capacity];
+            counts = new long[capacity];
+        }
+    }
+
+    private static class Gap implements Comparable<Gap> {
+        private final double gap;
+        private final int left;
+        private final int right;
+        private final int leftVersion;
+        private final int rightVersion;
+
+        private Gap(double gap, int left, int right, int leftVersion, int rightVersion) {
+            this.gap = gap;
+            this.left = left;
+            this.right = right;
+            this.leftVersion = leftVersion;
+            this.rightVersion = rightVersion;
+        }
+
+        @Override
+        public int compareTo(Gap o) {
+            int c = Double.compare(gap, o.gap);
+            return (c != 0 ? c : Integer.compare(left, o.left));
+        }
+    }
+}
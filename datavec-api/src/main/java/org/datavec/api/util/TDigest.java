@@ -0,0 +1,263 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * TDigest: a compact, mergeable sketch for estimating quantiles of a stream of values.<br>
+ * Values are summarized as a sorted list of weighted centroids; centroids near the tails (quantiles close to 0 or 1)
+ * are kept small, so extreme quantiles are estimated accurately. The number of centroids is bounded by approximately
+ * the compression parameter, regardless of the number of values. Two digests can be merged, which makes this
+ * suitable for distributed and streaming aggregations.<br>
+ * Based on Dunning and Ertl (2019), "Computing Extremely Accurate Quantiles Using t-Digests", using the merging
+ * implementation with the logarithmic (k2) scale function.
+ */
+public class TDigest implements Serializable {
+
+    public static final double DEFAULT_COMPRESSION = 200;
+
+    private final double compression;
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int numCentroids;
+
+    private double[] bufferValues;
+    private double[] bufferWeights;
+    private boolean bufferUnitWeights = true;
+    private int bufferSize;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Create a TDigest with the default compression ({@link #DEFAULT_COMPRESSION})
+     */
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression Compression parameter: larger values give more accurate quantiles, but use more memory.
+     *                    The number of centroids is approximately bounded by this value.
+     */
+    public TDigest(double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Invalid compression: " + compression + ". Must be >= 10");
+        }
+        this.compression = compression;
+    }
+
+    public double getCompression() {
+        return compression;
+    }
+
+    /**
+     * @return Total number (weight) of values added, including those merged from other digests
+     */
+    public long size() {
+        return (long) totalWeight;
+    }
+
+    /**
+     * @return Minimum value added, or +infinity if no values have been added
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return Maximum value added, or -infinity if no values have been added
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Add a value to the digest. NaN values are ignored.
+     */
+    public void add(double value) {
+        add(value, 1.0);
+    }
+
+    private void add(double value, double weight) {
+        if (Double.isNaN(value)) return;
+        if (bufferValues == null) {
+            int bufferCapacity = (int) (5 * compression);
+            bufferValues = new double[bufferCapacity];
+            bufferWeights = new double[bufferCapacity];
+        }
+        bufferValues[bufferSize] = value;
+        bufferWeights[bufferSize] = weight;
+        if (weight != 1.0) bufferUnitWeights = false;
+        bufferSize++;
+        totalWeight += weight;
+        if (value < min) min = value;
+        if (value > max) max = value;
+        if (bufferSize == bufferValues.length) {
+            compress();
+        }
+    }
+
+    /**
+     * Merge the other digest into this one. The other digest is not modified (other than being compressed).
+     */
+    public void merge(TDigest other) {
+        if (other.totalWeight == 0) return;
+        other.compress();
+        for (int i = 0; i < other.numCentroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * Merge all buffered values into the centroids
+     */
+    public void compress() {
+        if (bufferSize == 0) return;
+
+        sortBuffer();
+
+        //Merge the (sorted) centroids and buffer
+        int n = numCentroids + bufferSize;
+        double[] m = new double[n];
+        double[] w = new double[n];
+        int i = 0, j = 0, k = 0;
+        while (i < numCentroids || j < bufferSize) {
+            if (j >= bufferSize || (i < numCentroids && means[i] <= bufferValues[j])) {
+                m[k] = means[i];
+                w[k++] = weights[i++];
+            } else {
+                m[k] = bufferValues[j];
+                w[k++] = bufferWeights[j++];
+            }
+        }
+        bufferSize = 0;
+        bufferUnitWeights = true;
+
+        //Single pass: merge adjacent centroids, as long as the merged centroid spans at most 1 unit of the scale function
+        double[] outMeans = new double[n];
+        double[] outWeights = new double[n];
+        int count = 0;
+        double weightSoFar = 0;
+        double weightLimit = totalWeight * qLimit(0);
+        double currMean = m[0];
+        double currWeight = w[0];
+        for (int x = 1; x < n; x++) {
+            double proposed = currWeight + w[x];
+            if (weightSoFar + proposed <= weightLimit) {
+                currWeight = proposed;
+                currMean += (m[x] - currMean) * w[x] / proposed;
+            } else {
+                outMeans[count] = currMean;
+                outWeights[count++] = currWeight;
+                weightSoFar += currWeight;
+                weightLimit = totalWeight * qLimit(weightSoFar / totalWeight);
+                currMean = m[x];
+                currWeight = w[x];
+            }
+        }
+        outMeans[count] = currMean;
+        outWeights[count++] = currWeight;
+
+        means = Arrays.copyOf(outMeans, count);
+        weights = Arrays.copyOf(outWeights, count);
+        numCentroids = count;
+    }
+
+    /**
+     * Largest quantile that a centroid starting at quantile q may extend to: q(k(q) + 1), for the k2 scale function
+     * k(q) = compression / normalizer * log(q / (1-q)). Centroids at the extremes are always singletons.
+     */
+    private double qLimit(double q) {
+        if (q <= 0) return 0.0;
+        if (q >= 1) return 1.0;
+        double normalizer = compression / (4 * Math.log(Math.max(1.0, totalWeight / compression)) + 24);
+        double k = Math.log(q / (1 - q)) * normalizer + 1;
+        return 1.0 / (1.0 + Math.exp(-k / normalizer));
+    }
+
+    private void sortBuffer() {
+        if (bufferUnitWeights) {
+            Arrays.sort(bufferValues, 0, bufferSize);
+            return;
+        }
+        //Non-unit weights (values merged from another digest): sort values and weights together
+        double[] v = Arrays.copyOf(bufferValues, bufferSize);
+        double[] w = Arrays.copyOf(bufferWeights, bufferSize);
+        Integer[] order = new Integer[bufferSize];
+        for (int i = 0; i < bufferSize; i++) order[i] = i;
+        final double[] values = v;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(values[o1], values[o2]);
+            }
+        });
+        for (int i = 0; i < bufferSize; i++) {
+            bufferValues[i] = v[order[i]];
+            bufferWeights[i] = w[order[i]];
+        }
+    }
+
+    /**
+     * Estimate the value at the specified quantile
+     *
+     * @param q Quantile, in range 0 to 1 inclusive
+     * @return Estimated value, or NaN if no values have been added
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Invalid quantile: " + q + ". Must be in range 0 to 1");
+        compress();
+        if (numCentroids == 0) return Double.NaN;
+        if (q == 0) return min;
+        if (q == 1) return max;
+
+        double index = q * totalWeight;
+        if (index < weights[0] / 2) {
+            //Between the minimum and the center of the first centroid
+            return min + (means[0] - min) * index / (weights[0] / 2);
+        }
+
+        double weightSoFar = weights[0] / 2;
+        for (int i = 0; i < numCentroids - 1; i++) {
+            double dw = (weights[i] + weights[i + 1]) / 2;
+            if (weightSoFar + dw > index) {
+                return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / dw;
+            }
+            weightSoFar += dw;
+        }
+
+        //Between the center of the last centroid and the maximum
+        int last = numCentroids - 1;
+        double fraction = Math.min(1.0, (index - weightSoFar) / (weights[last] / 2));
+        return means[last] + (max - means[last]) * fraction;
+    }
+
+    /**
+     * @return The number of centroids, after merging any buffered values
+     */
+    public int numCentroids() {
+        compress();
+        return numCentroids;
+    }
+}
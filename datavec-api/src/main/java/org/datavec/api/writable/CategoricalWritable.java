@@ -0,0 +1,123 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.writable;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.datavec.api.io.WritableComparable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A dictionary-encoded categorical value: the integer index (code) of the state in the
+ * {@link org.datavec.api.transform.metadata.CategoricalMetaData} state names list, along with the state name itself.
+ * {@link #toString()} returns the state name (so a CategoricalWritable can be used anywhere a categorical Text value
+ * is expected), whereas the numerical methods ({@link #toInt()} etc) return the code. Transforms on categorical
+ * columns use the code directly instead of looking up the state name.
+ */
+public class CategoricalWritable implements WritableComparable {
+
+    private int code;
+    private String state = "";
+
+    public CategoricalWritable() {
+    }
+
+    /**
+     * @param code  Index of the state in the column's list of state names
+     * @param state State name. Must not be null
+     */
+    public CategoricalWritable(@JsonProperty("code") int code, @JsonProperty("state") String state) {
+        set(code, state);
+    }
+
+    public void set(int code, String state) {
+        if (state == null) throw new IllegalArgumentException("State name must not be null");
+        this.code = code;
+        this.state = state;
+    }
+
+    /** Return the index of the state */
+    public int getCode() {
+        return code;
+    }
+
+    /** Return the state name */
+    public String getState() {
+        return state;
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(code);
+        out.writeUTF(state);
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        code = in.readInt();
+        state = in.readUTF();
+    }
+
+    /** Returns true iff <code>o</code> is a CategoricalWritable with the same code and state */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof CategoricalWritable)) return false;
+        CategoricalWritable other = (CategoricalWritable) o;
+        return code == other.code && state.equals(other.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * code + state.hashCode();
+    }
+
+    /** Compares by code, then by state name (consistent with {@link #equals(Object)}) */
+    @Override
+    public int compareTo(Object o) {
+        CategoricalWritable other = (CategoricalWritable) o;
+        if (code != other.code) return (code < other.code ? -1 : 1);
+        return state.compareTo(other.state);
+    }
+
+    @Override
+    public String toString() {
+        return state;
+    }
+
+    @Override
+    public double toDouble() {
+        return code;
+    }
+
+    @Override
+    public float toFloat() {
+        return code;
+    }
+
+    @Override
+    public int toInt() {
+        return code;
+    }
+
+    @Override
+    public long toLong() {
+        return code;
+    }
+}
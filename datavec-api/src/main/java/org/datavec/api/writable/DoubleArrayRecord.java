@@ -0,0 +1,133 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.writable;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A record of double values, backed by a single primitive double[] array rather than one {@link DoubleWritable} object per value.<br>
+ * This class implements {@code List<Writable>}, so it can be used anywhere a record is expected. Note however that
+ * {@link #get(int)} returns a new {@link DoubleWritable} (a copy of the value; modifying it does not modify the record), so
+ * performance-sensitive code should check for this class and use {@link #getDouble(int)} or {@link #getValues()}
+ * instead. {@link #set(int, Writable)} stores {@code writable.toDouble()}.<br>
+ * Serialization: with Java serialization, the record is written as an {@link ArrayList} of {@link DoubleWritable}s. Serializers
+ * that rebuild lists via a no-arg constructor and {@code add} (such as Kryo's default collection serializer) do not
+ * support this class, so convert to an ArrayList first if records are to be serialized this way.
+ */
+public class DoubleArrayRecord extends AbstractList<Writable> implements RandomAccess, Serializable {
+
+    private final double[] values;
+
+    /**
+     * Create a record with the specified number of values, all 0
+     */
+    public DoubleArrayRecord(int size) {
+        this(new double[size]);
+    }
+
+    /**
+     * Create a record backed by the specified array (not copied)
+     */
+    public DoubleArrayRecord(double... values) {
+        this.values = values;
+    }
+
+    /**
+     * Convert the specified record to a DoubleArrayRecord, using {@link Writable#toDouble()} for each value
+     */
+    public static DoubleArrayRecord fromRecord(List<Writable> record) {
+        if (record instanceof DoubleArrayRecord) return (DoubleArrayRecord) record;
+        double[] values = new double[record.size()];
+        int i = 0;
+        for (Writable w : record) {
+            values[i++] = w.toDouble();
+        }
+        return new DoubleArrayRecord(values);
+    }
+
+    /**
+     * Extract the values of a single column from a set of DoubleArrayRecords, as a DoubleArrayRecord
+     */
+    public static DoubleArrayRecord column(List<? extends List<Writable>> records, int column) {
+        double[] values = new double[records.size()];
+        int i = 0;
+        for (List<Writable> r : records) {
+            values[i++] = ((DoubleArrayRecord) r).values[column];
+        }
+        return new DoubleArrayRecord(values);
+    }
+
+    /**
+     * @return True if all records are DoubleArrayRecords
+     */
+    public static boolean allInstances(List<? extends List<Writable>> records) {
+        for (List<Writable> r : records) {
+            if (!(r instanceof DoubleArrayRecord)) return false;
+        }
+        return true;
+    }
+
+    public double getDouble(int index) {
+        return values[index];
+    }
+
+    public void setDouble(int index, double value) {
+        values[index] = value;
+    }
+
+    /**
+     * @return The backing array (not a copy)
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return A copy of the values
+     */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(values, values.length);
+    }
+
+    @Override
+    public Writable get(int index) {
+        return new DoubleWritable(values[index]);
+    }
+
+    @Override
+    public Writable set(int index, Writable element) {
+        double prev = values[index];
+        values[index] = element.toDouble();
+        return new DoubleWritable(prev);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    /** Java serialization: replace with a standard list, which can be deserialized without this class's constructor */
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.writable;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A record in which one column has been expanded to a one-hot representation, stored sparsely: only the original
+ * record, the position of the one-hot columns, the number of states and the index of the hot state are stored, rather
+ * than one {@link IntWritable} per state. This keeps one-hot encoding of wide categorical columns (thousands of
+ * states) cheap.<br>
+ * The one-hot values are returned by {@link #get(int)} as {@link IntWritable} instances with value 0 or 1, created on
+ * access. Performance-sensitive code can use {@link #getOneHotStart()}, {@link #getNumStates()} and
+ * {@link #getHotIndex()} instead. Calling {@link #set(int, Writable)} converts the record to a dense representation
+ * internally.<br>
+ * Serialization: with Java serialization, a OneHotRecord is written as a (dense) {@link ArrayList}. Serializers that
+ * rebuild lists via a no-arg constructor and {@code add} (such as Kryo's default collection serializer) do not support
+ * this class; this is why sparse one-hot output is opt-in (see
+ * {@link org.datavec.api.transform.transform.categorical.CategoricalToOneHotTransform}).
+ */
+public class OneHotRecord extends AbstractList<Writable> implements RandomAccess, Serializable {
+
+    private List<Writable> original;
+    private final int oneHotStart;
+    private final int numStates;
+    private final int hotIndex;
+    private List<Writable> dense;
+
+    /**
+     * @param original    Original record, including the (categorical) column to be replaced by the one-hot columns.
+     *                    The list is copied, so later changes to it do not affect this record
+     * @param column      Index of the column (in the original record) to replace
+     * @param numStates   Number of states (i.e., number of one-hot columns)
+     * @param hotIndex    Index of the state that is 1 (0 to numStates-1)
+     */
+    public OneHotRecord(List<Writable> original, int column, int numStates, int hotIndex) {
+        if (hotIndex < 0 || hotIndex >= numStates)
+            throw new IllegalArgumentException("Invalid hot index: " + hotIndex + " (numStates=" + numStates + ")");
+        this.original = new ArrayList<>(original);
+        this.oneHotStart = column;
+        this.numStates = numStates;
+        this.hotIndex = hotIndex;
+    }
+
+    /** Index of the first one-hot column in this record */
+    public int getOneHotStart() {
+        return oneHotStart;
+    }
+
+    /** Number of one-hot columns */
+    public int getNumStates() {
+        return numStates;
+    }
+
+    /** Index (0 to numStates-1) of the one-hot column that is 1 */
+    public int getHotIndex() {
+        return hotIndex;
+    }
+
+    @Override
+    public Writable get(int index) {
+        if (dense != null) return dense.get(index);
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size());
+        if (index < oneHotStart) return original.get(index);
+        if (index < oneHotStart + numStates) return new IntWritable(index - oneHotStart == hotIndex ? 1 : 0);
+        return original.get(index - numStates + 1);
+    }
+
+    @Override
+    public Writable set(int index, Writable element) {
+        if (dense == null) {
+            dense = new ArrayList<>(this);
+            original = null;
+        }
+        return dense.set(index, element);
+    }
+
+    @Override
+    public int size() {
+        if (dense != null) return dense.size();
+        return original.size() - 1 + numStates;
+    }
+
+    /** Java serialization: replace with a dense copy, which can be deserialized without this class's constructor */
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.writable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A sparse vector of doubles: sorted (strictly increasing) integer indices, with a value for each index. All other
+ * entries of the vector are 0.0.<br>
+ * Used by the LibSVM and SVMLight record readers (when configured for sparse output, and always by the Hadoop
+ * SVMLight reader), so that high dimensional data (text, click data etc) need not be converted to one
+ * {@link DoubleWritable} per feature.<br>
+ * The math operations here (scaling, normalization, accumulation) only touch the non-zero entries. To normalize
+ * vectors as part of a TransformProcess, see
+ * {@link org.datavec.api.transform.transform.sparse.SparseVectorNormalizer}.
+ */
+public class SparseVectorWritable extends ArrayWritable {
+
+    private static final int[] EMPTY_INDICES = new int[0];
+    private static final double[] EMPTY_VALUES = new double[0];
+
+    private int size;
+    private int[] indices;
+    private double[] values;
+
+    public SparseVectorWritable() {
+        this(0, EMPTY_INDICES, EMPTY_VALUES);
+    }
+
+    /**
+     * @param size    Length of the vector
+     * @param indices Indices of the non-zero entries. Must be strictly increasing, and in the range [0, size)
+     * @param values  Values for each index
+     */
+    public SparseVectorWritable(int size, int[] indices, double[] values) {
+        set(size, indices, values);
+    }
+
+    /**
+     * Set the contents of this vector. The arrays are used directly (not copied).
+     *
+     * @param size    Length of the vector
+     * @param indices Indices of the non-zero entries. Must be strictly increasing, and in the range [0, size)
+     * @param values  Values for each index
+     */
+    public void set(int size, int[] indices, double[] values) {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Indices and values lengths differ: " + indices.length + " vs. "
+                    + values.length);
+        }
+        int last = -1;
+        for (int idx : indices) {
+            if (idx <= last) {
+                throw new IllegalArgumentException("Indices must be strictly increasing: got " + idx + " after " + last);
+            }
+            last = idx;
+        }
+        if (last >= size) {
+            throw new IllegalArgumentException("Index " + last + " is out of range for vector of size " + size);
+        }
+        this.size = size;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Create a sparse vector from a dense array, keeping only the non-zero entries
+     */
+    public static SparseVectorWritable fromDense(double[] dense) {
+        int nnz = 0;
+        for (double d : dense) {
+            if (d != 0.0) nnz++;
+        }
+        int[] indices = new int[nnz];
+        double[] values = new double[nnz];
+        int j = 0;
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != 0.0) {
+                indices[j] = i;
+                values[j++] = dense[i];
+            }
+        }
+        return new SparseVectorWritable(dense.length, indices, values);
+    }
+
+    /** Length of the vector (including zeros) */
+    public int size() {
+        return size;
+    }
+
+    /** Number of explicitly stored (non-zero) entries */
+    public int numNonZero() {
+        return indices.length;
+    }
+
+    /** Indices of the stored entries; not a copy */
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /** Values of the stored entries; not a copy */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Get the value at the specified index (0.0 if not stored). O(log(numNonZero))
+     */
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of range for vector of size " + size);
+        }
+        int pos = Arrays.binarySearch(indices, index);
+        return pos >= 0 ? values[pos] : 0.0;
+    }
+
+    /** Return a new dense array with the contents of this vector */
+    public double[] toDense() {
+        double[] out = new double[size];
+        for (int i = 0; i < indices.length; i++) {
+            out[indices[i]] = values[i];
+        }
+        return out;
+    }
+
+    /** Multiply all values by the specified scalar, in place */
+    public SparseVectorWritable scale(double scalar) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= scalar;
+        }
+        return this;
+    }
+
+    /**
+     * Multiply each value by the corresponding per-feature factor, in place. Only the non-zero entries are touched.
+     *
+     * @param factors Per-feature factors; length must be at least {@link #size()}
+     */
+    public SparseVectorWritable multiply(double[] factors) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] *= factors[indices[i]];
+        }
+        return this;
+    }
+
+    /**
+     * Divide each value by the corresponding per-feature divisor, in place (for example: max absolute value, or
+     * standard deviation, when scaling without centering). Entries with a divisor of 0 are left unchanged.
+     *
+     * @param divisors Per-feature divisors; length must be at least {@link #size()}
+     */
+    public SparseVectorWritable divide(double[] divisors) {
+        for (int i = 0; i < values.length; i++) {
+            double d = divisors[indices[i]];
+            if (d != 0.0) {
+                values[i] /= d;
+            }
+        }
+        return this;
+    }
+
+    /** Sum of absolute values */
+    public double norm1() {
+        double sum = 0.0;
+        for (double v : values) {
+            sum += Math.abs(v);
+        }
+        return sum;
+    }
+
+    /** Euclidean (L2) norm */
+    public double norm2() {
+        double sum = 0.0;
+        for (double v : values) {
+            sum += v * v;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /** Scale this vector in place to have unit L1 norm. No-op for an all-zero vector */
+    public SparseVectorWritable normalizeL1() {
+        double n = norm1();
+        return n == 0.0 ? this : scale(1.0 / n);
+    }
+
+    /** Scale this vector in place to have unit L2 norm. No-op for an all-zero vector */
+    public SparseVectorWritable normalizeL2() {
+        double n = norm2();
+        return n == 0.0 ? this : scale(1.0 / n);
+    }
+
+    /** Dot product with the specified dense vector */
+    public double dot(double[] dense) {
+        double sum = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i] * dense[indices[i]];
+        }
+        return sum;
+    }
+
+    /**
+     * Add the values of this vector to the specified (dense) per-feature accumulators: i.e., sum[j] += x[j].
+     * If sumSquares is non-null, also accumulate sumSquares[j] += x[j]^2 (for calculating variance).
+     */
+    public void addTo(double[] sum, double[] sumSquares) {
+        for (int i = 0; i < values.length; i++) {
+            int j = indices[i];
+            double v = values[i];
+            sum[j] += v;
+            if (sumSquares != null) {
+                sumSquares[j] += v * v;
+            }
+        }
+    }
+
+    /**
+     * Update the per-feature maximum absolute values: maxAbs[j] = max(maxAbs[j], |x[j]|). Suitable for max-abs
+     * scaling (via {@link #divide(double[])}), which, unlike min-max or standardization, keeps zeros as zeros.
+     */
+    public void updateMaxAbs(double[] maxAbs) {
+        for (int i = 0; i < values.length; i++) {
+            int j = indices[i];
+            double a = Math.abs(values[i]);
+            if (a > maxAbs[j]) {
+                maxAbs[j] = a;
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return size;
+    }
+
+    @Override
+    public double getDouble(long i) {
+        return get((int) i);
+    }
+
+    @Override
+    public float getFloat(long i) {
+        return (float) get((int) i);
+    }
+
+    @Override
+    public int getInt(long i) {
+        return (int) get((int) i);
+    }
+
+    @Override
+    public long getLong(long i) {
+        return (long) get((int) i);
+    }
+
+    @Override
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(indices.length);
+        for (int idx : indices) {
+            out.writeInt(idx);
+        }
+        for (double v : values) {
+            out.writeDouble(v);
+        }
+    }
+
+    @Override
+    public void readFields(DataInput in) throws IOException {
+        size = in.readInt();
+        int nnz = in.readInt();
+        indices = new int[nnz];
+        values = new double[nnz];
+        for (int i = 0; i < nnz; i++) {
+            indices[i] = in.readInt();
+        }
+        for (int i = 0; i < nnz; i++) {
+            values[i] = in.readDouble();
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SparseVectorWritable)) return false;
+        SparseVectorWritable other = (SparseVectorWritable) o;
+        return size == other.size && Arrays.equals(indices, other.indices) && Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        result = 31 * result + Arrays.hashCode(indices);
+        result = 31 * result + Arrays.hashCode(values);
+        return result;
+    }
+
+    /** Returns the vector in LibSVM-style index:value format, i.e., "{0:1.5, 7:2.0} (size=10)" */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < indices.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(indices[i]).append(':').append(values[i]);
+        }
+        return sb.append("} (size=").append(size).append(')').toString();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.writable;
+
+/**
+ * The built-in Writable types. Used when writing Writables in a self-describing binary format (i.e., where the type
+ * of each value has to be recorded alongside the value itself), such as by
+ * {@link org.datavec.api.io.WritableUtils#writeWritable(Writable, java.io.DataOutput)}.<br>
+ * Any Writable class not listed here is encoded as {@link #Other}, which records the class name in addition to the value.<br>
+ * New types are added at the end, so that the type indices of existing types do not change.
+ */
+public enum WritableType {
+    Boolean, Byte, Double, Float, Int, Long, Null, Text, Other, Categorical, SparseVector;
+
+    /**
+     * @return The type index for this writable type; used in binary encodings. Fits in a single byte.
+     */
+    public byte typeIdx() {
+        return (byte) ordinal();
+    }
+
+    /**
+     * @param typeIdx Type index, as returned by {@link #typeIdx()}
+     * @return The WritableType for that index
+     */
+    public static WritableType fromTypeIdx(byte typeIdx) {
+        WritableType[] values = values();
+        if (typeIdx < 0 || typeIdx >= values.length) {
+            throw new IllegalArgumentException("Invalid writable type index: " + typeIdx);
+        }
+        return values[typeIdx];
+    }
+
+    /**
+     * Get the WritableType for the given Writable instance
+     */
+    public static WritableType typeOf(Writable w) {
+        Class<?> c = w.getClass();
+        if (c == IntWritable.class) return Int;
+        if (c == DoubleWritable.class) return Double;
+        if (c == Text.class) return Text;
+        if (c == LongWritable.class) return Long;
+        if (c == FloatWritable.class) return Float;
+        if (c == NullWritable.class) return Null;
+        if (c == BooleanWritable.class) return Boolean;
+        if (c == ByteWritable.class) return Byte;
+        if (c == CategoricalWritable.class) return Categorical;
+        if (c == SparseVectorWritable.class) return SparseVector;
+        return Other;
+    }
+
+    /**
+     * Create a new (empty) Writable of this type, suitable for {@link Writable#readFields(java.io.DataInput)}.
+     * Not supported for {@link #Other}. For {@link #Null}, the (stateless) NullWritable instance is returned.
+     */
+    public Writable newWritable() {
+        switch (this) {
+            case Boolean:
+                return new BooleanWritable();
+            case Byte:
+                return new ByteWritable();
+            case Double:
+                return new DoubleWritable();
+            case Float:
+                return new FloatWritable();
+            case Int:
+                return new IntWritable();
+            case Long:
+                return new LongWritable();
+            case Null:
+                return NullWritable.INSTANCE;
+            case Text:
+                return new Text();
+            case Categorical:
+                return new CategoricalWritable();
+            case SparseVector:
+                return new SparseVectorWritable();
+            default:
+                throw new UnsupportedOperationException("Cannot create new Writable for type " + this);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.batch;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.condition.column.IntegerColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.transform.doubletransform.MinMaxNormalizer;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestRecordBatch {
+
+    private static List<List<Writable>> getData(int n) {
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            data.add(Arrays.<Writable>asList(new Text("cat" + (i % 3)), new IntWritable(i), new LongWritable(10L * i),
+                    new DoubleWritable(i / 2.0)));
+        }
+        return data;
+    }
+
+    private static Schema getSchema() {
+        return new Schema.Builder()
+                .addColumnCategorical("cat", Arrays.asList("cat0", "cat1", "cat2"))
+                .addColumnInteger("int")
+                .addColumnLong("long")
+                .addColumnDouble("double")
+                .build();
+    }
+
+    @Test
+    public void testFromRecordsRoundTrip() {
+        List<List<Writable>> data = getData(10);
+        RecordBatch batch = RecordBatch.fromRecords(data);
+
+        assertEquals(10, batch.numRows());
+        assertEquals(4, batch.numColumns());
+        assertTrue(batch.getColumn(0) instanceof DictionaryColumn);
+        assertEquals(3, ((DictionaryColumn) batch.getColumn(0)).getDictionary().size());
+        assertTrue(batch.getColumn(1) instanceof IntColumn);
+        assertTrue(batch.getColumn(2) instanceof LongColumn);
+        assertTrue(batch.getColumn(3) instanceof DoubleColumn);
+        assertEquals(data, batch.toRecords());
+
+        //Mixed types: values are kept as-is
+        List<List<Writable>> mixed = new ArrayList<>();
+        mixed.add(Arrays.<Writable>asList(new IntWritable(0)));
+        mixed.add(Arrays.<Writable>asList(NullWritable.INSTANCE));
+        RecordBatch mixedBatch = RecordBatch.fromRecords(mixed);
+        assertTrue(mixedBatch.getColumn(0) instanceof WritableColumn);
+        assertEquals(mixed, mixedBatch.toRecords());
+    }
+
+    @Test
+    public void testReaderNextBatch() {
+        CollectionRecordReader rr = new CollectionRecordReader(getData(10));
+        RecordBatch first = rr.next(4);
+        RecordBatch second = rr.next(100);
+        assertEquals(4, first.numRows());
+        assertEquals(6, second.numRows());
+        assertFalse(rr.hasNext());
+
+        List<List<Writable>> all = new ArrayList<>(first.toRecords());
+        all.addAll(second.toRecords());
+        assertEquals(getData(10), all);
+    }
+
+    @Test
+    public void testExecuteBatchSameAsRowWise() {
+        Schema schema = getSchema();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .doubleMathOp("double", MathOp.Multiply, 3.0)
+                .integerMathOp("int", MathOp.ReverseSubtract, 100)
+                //Not a BatchTransform: executed one example at a time
+                .conditionalReplaceValueTransform("int", new IntWritable(0),
+                        new IntegerColumnCondition("int", ConditionOp.GreaterThan, 95))
+                .longMathOp("long", MathOp.Modulus, 7L)
+                .transform(new MinMaxNormalizer("double", 0, 15))
+                .filter(new ConditionFilter(new DoubleColumnCondition("double", ConditionOp.LessThan, 0.5)))
+                .duplicateColumns(Arrays.asList("cat"), Arrays.asList("cat2"))
+                .removeColumns("long")
+                .reorderColumns("double", "int")
+                .renameColumn("int", "intRenamed")
+                .categoricalToInteger("cat")
+                .build();
+
+        List<List<Writable>> data = getData(10);
+        List<List<Writable>> expected = new ArrayList<>();
+        for (List<Writable> l : data) {
+            List<Writable> out = tp.execute(l);
+            if (out != null) expected.add(out);
+        }
+
+        RecordBatch out = tp.executeBatch(RecordBatch.fromRecords(data));
+        assertEquals(expected, out.toRecords());
+        assertEquals(5, out.numRows());
+        assertTrue(out.getColumn(0) instanceof DoubleColumn);
+        assertTrue(out.getColumn(1) instanceof IntColumn);
+    }
+
+    @Test
+    public void testFastCSVNextBatch() throws Exception {
+        String data = "a,1,10,0.5\nb,2,20,1.5\na,x,30,2.5\nc,4,40,3.5\nb,5,50,4.5\n";
+        Schema schema = new Schema.Builder()
+                .addColumnString("str")
+                .addColumnInteger("int")
+                .addColumnLong("long")
+                .addColumnDouble("double")
+                .build();
+
+        FastCSVRecordReader rowWise = new FastCSVRecordReader(0, ',', '"', schema);
+        rowWise.initialize(new StringSplit(data));
+        List<List<Writable>> expected = new ArrayList<>();
+        while (rowWise.hasNext()) expected.add(rowWise.next());
+
+        FastCSVRecordReader rr = new FastCSVRecordReader(0, ',', '"', schema);
+        rr.initialize(new StringSplit(data));
+        RecordBatch first = rr.next(3);
+        RecordBatch second = rr.next(3);
+        assertFalse(rr.hasNext());
+
+        assertTrue(first.getColumn(0) instanceof DictionaryColumn);
+        //Invalid value "x" in the integer column: kept as Text
+        assertTrue(first.getColumn(1) instanceof WritableColumn);
+        assertTrue(second.getColumn(1) instanceof IntColumn);
+        assertTrue(first.getColumn(2) instanceof LongColumn);
+        assertTrue(first.getColumn(3) instanceof DoubleColumn);
+
+        List<List<Writable>> actual = new ArrayList<>(first.toRecords());
+        actual.addAll(second.toRecords());
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.records.listener;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.listener.impl.LogRecordListener;
+import org.datavec.api.records.listener.impl.ReaderStats;
+import org.datavec.api.records.listener.impl.ThroughputRecordListener;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.impl.AsyncRecordReader;
+import org.datavec.api.records.reader.impl.LineRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.util.ClassPathResource;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+public class ThroughputRecordListenerTest {
+
+    @Test
+    public void testCountsAndTiming() throws Exception {
+        File f = new ClassPathResource("iris.dat").getFile();
+        long fileBytes = FileUtils.readFileToString(f).replace("\r", "").length();
+
+        //Time every record
+        ThroughputRecordListener listener = new ThroughputRecordListener(1, 0);
+        LogRecordListener other = new LogRecordListener();
+        RecordReader rr = new CSVRecordReader();
+        rr.setListeners(listener, other);
+        rr.initialize(new FileSplit(f));
+        int count = 0;
+        while (rr.hasNext()) {
+            rr.next();
+            count++;
+        }
+
+        ReaderStats stats = listener.getStats(rr);
+        assertNotNull(stats);
+        assertTrue(listener.invoked());
+        assertTrue(other.invoked());
+        assertEquals(150, count);
+        assertEquals(count, stats.getRecords());
+        assertEquals(count, stats.getTimedRecords());
+        assertEquals(fileBytes, stats.getBytes());
+        assertTrue(stats.getMeanDecodeNanos() > 0);
+        assertTrue(stats.getRecordsPerSecond() > 0);
+
+        //Sampled: 150 records, time 1 in 16
+        listener = new ThroughputRecordListener(16, 0);
+        rr = new FastCSVRecordReader();
+        rr.setListeners(listener);
+        rr.initialize(new FileSplit(f));
+        while (rr.hasNext()) rr.next();
+        stats = listener.getStats(rr);
+        assertEquals(150, stats.getRecords());
+        assertEquals(10, stats.getTimedRecords());
+        assertEquals(fileBytes, stats.getBytes());
+        assertEquals(1, listener.getAllStats().size());
+    }
+
+    @Test
+    public void testQueueWait() throws Exception {
+        File f = new ClassPathResource("iris.dat").getFile();
+        ThroughputRecordListener listener = new ThroughputRecordListener(1, 0);
+        CSVRecordReader csv = new CSVRecordReader();
+        AsyncRecordReader rr = new AsyncRecordReader(csv, 4);
+        rr.setListeners(listener);
+        rr.initialize(new FileSplit(f));
+        while (rr.hasNext()) rr.next();
+        rr.close();
+
+        ReaderStats stats = listener.getStats(rr);
+        assertEquals(150, stats.getRecords());
+        assertTrue(stats.getMeanQueueWaitNanos() > 0);
+    }
+
+    @Test
+    public void testBytesAndMultipleReaders() throws Exception {
+        ThroughputRecordListener listener = new ThroughputRecordListener(1, 0);
+        RecordReader r1 = new LineRecordReader();
+        RecordReader r2 = new LineRecordReader();
+        r1.setListeners(listener);
+        r2.setListeners(listener);
+        //Bytes are counted as UTF-8, not as chars: 1 + 2 + 3 + 4 bytes, plus one for the line terminator
+        r1.initialize(new StringSplit("a\u00e9\u20ac\ud83d\ude00"));
+        r2.initialize(new StringSplit("xy"));
+        r1.next();
+        r2.next();
+        r1.initialize(new StringSplit("b"));
+        r1.next();
+
+        assertEquals(2, listener.getStats(r1).getRecords());
+        assertEquals(11 + 2, listener.getStats(r1).getBytes());
+        assertEquals(1, listener.getStats(r2).getRecords());
+        assertEquals(3, listener.getStats(r2).getBytes());
+        assertEquals(2, listener.getAllStats().size());
+        assertNull(listener.getStats(new LineRecordReader()));
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.reader.SequenceRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVSequenceRecordReader;
+import org.datavec.api.split.CollectionInputSplit;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.util.ClassPathResource;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class AsyncRecordReaderTest {
+
+    @Test
+    public void testSingleReaderSameAsSync() throws Exception {
+        CSVRecordReader sync = new CSVRecordReader(0, ",");
+        sync.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+        List<List<Writable>> expected = new ArrayList<>();
+        while (sync.hasNext()) expected.add(sync.next());
+
+        AsyncRecordReader async = new AsyncRecordReader(new CSVRecordReader(0, ","), 5);
+        async.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+        for (int epoch = 0; epoch < 3; epoch++) {
+            List<List<Writable>> actual = new ArrayList<>();
+            //Reset part way through the data on the second epoch
+            int max = (epoch == 1 ? 20 : Integer.MAX_VALUE);
+            while (async.hasNext() && actual.size() < max) actual.add(async.next());
+            if (epoch != 1) assertEquals(expected, actual);
+            else assertEquals(expected.subList(0, 20), actual);
+            async.reset();
+        }
+        async.close();
+    }
+
+    private static InputSplit writeFiles(File dir, int n) throws Exception {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            File f = new File(dir, "file_" + i + ".txt");
+            FileUtils.writeStringToFile(f, i + ",0\n" + i + ",1\n");
+            uris.add(f.toURI());
+        }
+        return new CollectionInputSplit(uris);
+    }
+
+    @Test
+    public void testMultipleReaders() throws Exception {
+        File dir = Files.createTempDirectory("AsyncRecordReaderTest").toFile();
+        dir.deleteOnExit();
+        int n = 50;
+        InputSplit split = writeFiles(dir, n);
+
+        FileRecordReader sync = new FileRecordReader();
+        sync.initialize(split);
+        List<List<Writable>> expected = new ArrayList<>();
+        while (sync.hasNext()) expected.add(sync.next());
+        assertEquals(n, expected.size());
+
+        for (boolean ordered : new boolean[]{true, false}) {
+            List<FileRecordReader> readers = new ArrayList<>();
+            for (int i = 0; i < 4; i++) readers.add(new FileRecordReader());
+            AsyncRecordReader async = new AsyncRecordReader(readers, 3, ordered);
+            async.initialize(split);
+
+            for (int epoch = 0; epoch < 2; epoch++) {
+                List<List<Writable>> actual = new ArrayList<>();
+                while (async.hasNext()) actual.add(async.next());
+                if (ordered) {
+                    assertEquals(expected, actual);
+                } else {
+                    assertEquals(n, actual.size());
+                    assertEquals(new HashSet<>(expected), new HashSet<>(actual));
+                }
+                async.reset();
+            }
+            async.close();
+        }
+
+        //Sequences
+        SequenceRecordReader seqSync = new CSVSequenceRecordReader(0, ",");
+        seqSync.initialize(split);
+        List<List<List<Writable>>> expSeq = new ArrayList<>();
+        while (seqSync.hasNext()) expSeq.add(seqSync.sequenceRecord());
+
+        List<CSVSequenceRecordReader> seqReaders = Arrays.asList(new CSVSequenceRecordReader(0, ","),
+                new CSVSequenceRecordReader(0, ","));
+        AsyncSequenceRecordReader asyncSeq = new AsyncSequenceRecordReader(seqReaders, 4, true);
+        asyncSeq.initialize(split);
+        List<List<List<Writable>>> actSeq = new ArrayList<>();
+        while (asyncSeq.hasNext()) actSeq.add(asyncSeq.sequenceRecord());
+        assertEquals(expSeq, actSeq);
+
+        AsyncSequenceRecordReader asyncSeqSingle = new AsyncSequenceRecordReader(new CSVSequenceRecordReader(0, ","));
+        asyncSeqSingle.initialize(split);
+        actSeq.clear();
+        while (asyncSeqSingle.hasNext()) actSeq.add(asyncSeqSingle.sequenceRecord());
+        assertEquals(expSeq, actSeq);
+
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testStopDoesNotInterruptWorkers() throws Exception {
+        File dir = Files.createTempDirectory("AsyncRecordReaderTest").toFile();
+        dir.deleteOnExit();
+        InputSplit split = writeFiles(dir, 20);
+
+        final AtomicBoolean interrupted = new AtomicBoolean(false);
+        List<FileRecordReader> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(new FileRecordReader() {
+                @Override
+                public List<Writable> record(URI uri, DataInputStream dataInputStream) throws IOException {
+                    //Simulate slow, interruptible I/O
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                        interrupted.set(true);
+                    }
+                    return super.record(uri, dataInputStream);
+                }
+            });
+        }
+        AsyncRecordReader async = new AsyncRecordReader(readers, 2, true);
+        async.initialize(split);
+        assertTrue(async.hasNext());
+        async.next();
+        //Stop while workers are blocked on the queue, or part way through reading a record
+        async.reset();
+        int count = 0;
+        while (async.hasNext()) {
+            async.next();
+            count++;
+        }
+        async.close();
+
+        assertEquals(20, count);
+        assertFalse(interrupted.get());
+        FileUtils.deleteDirectory(dir);
+    }
+}
@@ -18,6 +18,11 @@ package org.datavec.api.records.reader.impl;
 
 import org.apache.commons.io.FileUtils;
 import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.NullWritable;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.records.writer.impl.csv.CSVRecordWriter;
@@ -31,6 +36,7 @@ import org.junit.Test;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -158,4 +164,38 @@ public class CSVRecordReaderTest {
             assertEquals("Entry count", 5, vals.size());
         }
     }
+
+    @Test
+    public void testWithSchema() throws Exception {
+        Schema schema = new Schema.Builder()
+                .addColumnInteger("int")
+                .addColumnLong("long")
+                .addColumnDouble("double")
+                .addColumnString("string")
+                .build();
+        String first = "1,10000000000,0.5,a";
+        String second = "2,x,1.5,b";
+
+        List<Writable> expFirst = Arrays.<Writable>asList(new IntWritable(1), new LongWritable(10000000000L), new DoubleWritable(0.5), new Text("a"));
+
+        CSVRecordReader rr = new CSVRecordReader(0, ",", schema);
+        rr.initialize(new StringSplit(first));
+        assertEquals(expFirst, rr.next());
+        rr.initialize(new StringSplit(second));
+        assertEquals(Arrays.<Writable>asList(new IntWritable(2), new Text("x"), new DoubleWritable(1.5), new Text("b")), rr.next());
+
+        FastCSVRecordReader fast = new FastCSVRecordReader(0, ',', '"', schema, SchemaWritableParser.InvalidValueMode.NullWritable);
+        fast.initialize(new StringSplit(first + "\n" + second));
+        assertEquals(expFirst, fast.next());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(2), NullWritable.INSTANCE, new DoubleWritable(1.5), new Text("b")), fast.next());
+
+        CSVRecordReader strict = new CSVRecordReader(0, ",", schema, SchemaWritableParser.InvalidValueMode.Exception);
+        strict.initialize(new StringSplit(second));
+        try {
+            strict.next();
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            //Expected
+        }
+    }
 }
@@ -18,14 +18,20 @@ package org.datavec.api.records.reader.impl;
 
 import org.datavec.api.records.reader.impl.csv.CSVSequenceRecordReader;
 import org.datavec.api.split.InputSplit;
+import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.util.ClassPathResource;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
 import org.datavec.api.writable.Writable;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -90,6 +96,19 @@ public class CSVSequenceRecordReaderTest {
         }
     }
 
+    @Test
+    public void testSchemaKeepsTrailingEmptyValues() throws Exception {
+        Schema schema = new Schema.Builder().addColumnInteger("a").addColumnString("b").addColumnString("c").build();
+        CSVSequenceRecordReader seqReader = new CSVSequenceRecordReader(0, "|", schema);
+        String data = "1|x|y\n2||\n3|z|\n";
+        List<List<Writable>> sequence = seqReader.sequenceRecord(new URI("file:///test.csv"),
+                new DataInputStream(new ByteArrayInputStream(data.getBytes("UTF-8"))));
+        assertEquals(3, sequence.size());
+        for (List<Writable> step : sequence) assertEquals(3, step.size());
+        assertEquals(Arrays.<Writable>asList(new IntWritable(2), new Text(""), new Text("")), sequence.get(1));
+        assertEquals(Arrays.<Writable>asList(new IntWritable(3), new Text("z"), new Text("")), sequence.get(2));
+    }
+
     private static class TestInputSplit implements InputSplit {
 
         @Override
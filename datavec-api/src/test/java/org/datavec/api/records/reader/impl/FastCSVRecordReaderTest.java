@@ -0,0 +1,123 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.datavec.api.records.reader.impl.csv.CSVByteParser;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.util.ClassPathResource;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class FastCSVRecordReaderTest {
+
+    @Test
+    public void testSameAsCSVRecordReader() throws Exception {
+        CSVRecordReader csv = new CSVRecordReader(0, ",");
+        csv.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+        FastCSVRecordReader fast = new FastCSVRecordReader(0, ',');
+        fast.initialize(new FileSplit(new ClassPathResource("iris.dat").getFile()));
+
+        for (int reset = 0; reset < 2; reset++) {
+            int count = 0;
+            while (csv.hasNext()) {
+                assertTrue(fast.hasNext());
+                assertEquals(csv.next(), fast.next());
+                count++;
+            }
+            assertFalse(fast.hasNext());
+            assertEquals(150, count);
+            csv.reset();
+            fast.reset();
+        }
+    }
+
+    @Test
+    public void testQuotesAndEmptyEntries() throws Exception {
+        FastCSVRecordReader reader = new FastCSVRecordReader(1);
+        reader.initialize(new StringSplit("header\r\n1,0,3,\"Braund, Mr. \"\"Owen\"\"\nHarris\",,male,\r\n\"\",x"));
+
+        assertTrue(reader.hasNext());
+        List<Writable> first = reader.next();
+        assertEquals(Arrays.<Writable>asList(new Text("1"), new Text("0"), new Text("3"),
+                new Text("Braund, Mr. \"Owen\"\nHarris"), new Text(""), new Text("male"), new Text("")), first);
+
+        assertTrue(reader.hasNext());
+        assertEquals(Arrays.<Writable>asList(new Text(""), new Text("x")), reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void testParserSmallBuffer() throws Exception {
+        //Small buffer: records and quoted fields span multiple buffer refills
+        String data = "\"a,\"\"b\"\"\",12345,-3.25,1e3\n\"x\"\"\",-7,0.1,\n";
+        CSVByteParser parser = new CSVByteParser(',', '"', 3);
+        parser.reset(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+        assertTrue(parser.next());
+        assertEquals(4, parser.numFields());
+        assertEquals("a,\"b\"", parser.getString(0));
+        assertEquals(12345, parser.parseInt(1));
+        assertEquals(-3.25, parser.parseDouble(2), 0.0);
+        assertEquals(1000.0, parser.parseDouble(3), 0.0);
+
+        assertTrue(parser.next());
+        assertEquals(4, parser.numFields());
+        assertEquals("x\"", parser.getString(0));
+        assertEquals(-7L, parser.parseLong(1));
+        assertEquals(Double.parseDouble("0.1"), parser.parseDouble(2), 0.0);
+        assertTrue(parser.isEmpty(3));
+
+        assertFalse(parser.next());
+    }
+
+    @Test
+    public void testParseDoubleMatchesJdk() throws Exception {
+        String[] values = {"0", "-0.0", "1.5", "123456789.123456", "0.000001", "3.141592653589793", "99999999999999999",
+                "12345678901234.5", "-0.30000000000000004", "7.", ".5"};
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append(values[i]);
+        }
+        CSVByteParser parser = new CSVByteParser();
+        parser.reset(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        assertTrue(parser.next());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], Double.doubleToLongBits(Double.parseDouble(values[i])),
+                    Double.doubleToLongBits(parser.parseDouble(i)));
+        }
+
+        try {
+            parser.parseInt(0);
+            parser.parseInt(1);
+            fail("Expected NumberFormatException");
+        } catch (NumberFormatException e) {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.split.FileRangeSplit;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.util.ClassPathResource;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class MemoryMappedLineRecordReaderTest {
+
+    private static List<List<Writable>> readAll(org.datavec.api.records.reader.RecordReader rr, InputSplit split)
+            throws Exception {
+        rr.initialize(split);
+        List<List<Writable>> out = new ArrayList<>();
+        while (rr.hasNext()) out.add(rr.next());
+        return out;
+    }
+
+    @Test
+    public void testSameAsLineRecordReader() throws Exception {
+        File f = new ClassPathResource("iris.dat").getFile();
+        List<List<Writable>> expected = readAll(new LineRecordReader(), new FileSplit(f));
+        MemoryMappedLineRecordReader rr = new MemoryMappedLineRecordReader();
+        assertEquals(expected, readAll(rr, new FileSplit(f)));
+        rr.reset();
+        int count = 0;
+        while (rr.hasNext()) {
+            assertEquals(expected.get(count++), rr.next());
+        }
+        assertEquals(expected.size(), count);
+        rr.close();
+    }
+
+    @Test
+    public void testRangeSplits() throws Exception {
+        File dir = Files.createTempDirectory("MemoryMappedLineRecordReaderTest").toFile();
+        Random r = new Random(12345);
+        URI[] files = new URI[3];
+        for (int i = 0; i < files.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 200; j++) {
+                int len = r.nextInt(40);
+                for (int k = 0; k < len; k++) sb.append((char) ('a' + r.nextInt(26)));
+                //Mix of line endings; last file has no trailing new line. A lone '\r' is always followed by
+                //"\r\n", so that an empty line can't merge the two
+                if (j < 199 || i < files.length - 1) sb.append(j % 3 == 0 ? "\r\n" : (j % 3 == 1 ? "\n" : "\r"));
+            }
+            File f = new File(dir, "file_" + i + ".txt");
+            FileUtils.writeStringToFile(f, sb.toString());
+            files[i] = f.toURI();
+        }
+
+        List<List<Writable>> expected = new ArrayList<>();
+        for (URI u : files) expected.addAll(readAll(new LineRecordReader(), new FileSplit(new File(u))));
+        assertEquals(600, expected.size());
+
+        for (int numSplits : new int[]{1, 2, 7, 50, 1000}) {
+            List<FileRangeSplit> splits = FileRangeSplit.split(files, numSplits);
+            assertEquals(numSplits, splits.size());
+            List<List<Writable>> actual = new ArrayList<>();
+            //Small window size: exercise re-mapping of lines that cross the window boundary
+            MemoryMappedLineRecordReader rr = new MemoryMappedLineRecordReader(64);
+            for (FileRangeSplit s : splits) {
+                //Check serialization of the split
+                ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                s.write(new DataOutputStream(baos));
+                FileRangeSplit s2 = new FileRangeSplit();
+                s2.readFields(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+                assertEquals(s, s2);
+
+                actual.addAll(readAll(rr, s2));
+            }
+            rr.close();
+            assertEquals("numSplits=" + numSplits, expected, actual);
+        }
+
+        //Lines longer than the maximum window size
+        MemoryMappedLineRecordReader rr = new MemoryMappedLineRecordReader(8);
+        rr.initialize(new FileSplit(new File(files[0])));
+        try {
+            while (rr.hasNext()) rr.next();
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            //OK
+        }
+        rr.close();
+
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testCarriageReturn() throws Exception {
+        File dir = Files.createTempDirectory("MemoryMappedLineRecordReaderTest").toFile();
+        //Lone '\r' line endings, including at the end of the file, and "\r\n" crossing the end of the window
+        String[] contents = {"a\rbb\r\rccc\r", "abc\r\ndef\r\n\r\r\ng", "\r", "abcdefg\r\nabcdefg\rabcdefg\n"};
+        for (int i = 0; i < contents.length; i++) {
+            File f = new File(dir, "file_" + i + ".txt");
+            FileUtils.writeStringToFile(f, contents[i]);
+            List<List<Writable>> expected = readAll(new LineRecordReader(), new FileSplit(f));
+            for (int maxMappedBytes : new int[]{8, 9, 1024}) {
+                assertEquals(contents[i], expected, readAll(new MemoryMappedLineRecordReader(maxMappedBytes),
+                        new FileSplit(f)));
+            }
+            for (int numSplits : new int[]{2, 3, 5}) {
+                List<List<Writable>> actual = new ArrayList<>();
+                for (FileRangeSplit s : FileRangeSplit.split(new URI[]{f.toURI()}, numSplits)) {
+                    actual.addAll(readAll(new MemoryMappedLineRecordReader(), s));
+                }
+                assertEquals(contents[i] + ", numSplits=" + numSplits, expected, actual);
+            }
+        }
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testRangeSplitsNoFiles() throws Exception {
+        for (int numSplits : new int[]{1, 2, 7}) {
+            assertTrue(FileRangeSplit.split(new URI[0], numSplits).isEmpty());
+        }
+    }
+}
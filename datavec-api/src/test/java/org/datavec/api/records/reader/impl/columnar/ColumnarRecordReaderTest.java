@@ -0,0 +1,162 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.columnar;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.writer.impl.columnar.ColumnarRecordWriter;
+import org.datavec.api.split.CollectionInputSplit;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ColumnarRecordReaderTest {
+
+    private static List<List<Writable>> data(int n, int offset) {
+        List<List<Writable>> out = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int v = i + offset;
+            out.add(Arrays.<Writable>asList(new IntWritable(v), new DoubleWritable(v / 2.0), new Text("text_" + v),
+                    new LongWritable(-v), (v % 3 == 0 ? new Text(String.valueOf(v)) : new IntWritable(v)),
+                    NullWritable.INSTANCE));
+        }
+        return out;
+    }
+
+    @Test
+    public void testWriteRead() throws Exception {
+        File dir = Files.createTempDirectory("ColumnarRecordReaderTest").toFile();
+        for (boolean compress : new boolean[]{false, true}) {
+            List<List<Writable>> expected = new ArrayList<>();
+            List<URI> uris = new ArrayList<>();
+            int[] sizes = {20, 0, 7, 13};
+            for (int i = 0; i < sizes.length; i++) {
+                File f = new File(dir, "data_" + compress + "_" + i + ".bin");
+                List<List<Writable>> d = data(sizes[i], expected.size());
+                ColumnarRecordWriter writer = new ColumnarRecordWriter(f, 7, compress);
+                for (List<Writable> l : d) writer.write(l);
+                writer.close();
+                expected.addAll(d);
+                uris.add(f.toURI());
+            }
+
+            ColumnarRecordReader rr = new ColumnarRecordReader();
+            rr.initialize(new CollectionInputSplit(uris));
+            assertEquals(expected.size(), rr.numRecords());
+            for (int epoch = 0; epoch < 2; epoch++) {
+                List<List<Writable>> actual = new ArrayList<>();
+                while (rr.hasNext()) actual.add(rr.next());
+                assertEquals(expected, actual);
+                rr.reset();
+            }
+
+            //Random access
+            Random r = new Random(12345);
+            for (int i = 0; i < 100; i++) {
+                int idx = r.nextInt(expected.size());
+                assertEquals(expected.get(idx), rr.getRecord(idx));
+            }
+
+            //Statistics: row groups of 7 records, starting from record 0, 20 and 27
+            List<ColumnChunkMetadata> chunks = rr.getColumnChunkMetadata(0);
+            assertEquals(3 + 1 + 2, chunks.size());
+            assertEquals(0, chunks.get(0).getMin(), 0.0);
+            assertEquals(6, chunks.get(0).getMax(), 0.0);
+            assertEquals(14, chunks.get(2).getMin(), 0.0);
+            assertEquals(19, chunks.get(2).getMax(), 0.0);
+            assertEquals(compress, chunks.get(0).isCompressed());
+            assertTrue(chunks.get(0).isSingleType());
+            assertFalse(rr.getColumnChunkMetadata(4).get(0).isSingleType());
+            assertTrue(Double.isNaN(rr.getColumnChunkMetadata(2).get(0).getMin()));
+            assertEquals(-6, rr.getColumnChunkMetadata(3).get(0).getMin(), 0.0);
+            rr.close();
+        }
+
+        //Incomplete (unclosed) files should be rejected
+        File f = new File(dir, "incomplete.bin");
+        ColumnarRecordWriter writer = new ColumnarRecordWriter(f, 7, false);
+        for (List<Writable> l : data(20, 0)) writer.write(l);
+        try {
+            new ColumnarRecordReader().initialize(new FileSplit(f));
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            //OK
+        }
+        writer.close();
+
+        FileUtils.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testColumnFilterAndStream() throws Exception {
+        File dir = Files.createTempDirectory("ColumnarRecordReaderTest").toFile();
+        List<List<Writable>> data = data(40, 0);
+        File f = new File(dir, "data.bin");
+        ColumnarRecordWriter writer = new ColumnarRecordWriter(f, 7, true);
+        for (List<Writable> l : data) writer.write(l);
+        writer.close();
+
+        ColumnarRecordReader rr = new ColumnarRecordReader();
+        rr.initialize(new FileSplit(f));
+        rr.setColumnFilter(0, 10, 16);
+        List<List<Writable>> actual = new ArrayList<>();
+        while (rr.hasNext()) actual.add(rr.next());
+        assertEquals(data.subList(10, 17), actual);
+
+        //Mixed types: Text values never match
+        rr.setColumnFilter(4, 0, 100);
+        rr.reset();
+        actual.clear();
+        while (rr.hasNext()) actual.add(rr.next());
+        List<List<Writable>> expected = new ArrayList<>();
+        for (List<Writable> l : data) {
+            if (l.get(0).toInt() % 3 != 0) expected.add(l);
+        }
+        assertEquals(expected, actual);
+
+        //No numerical values: all row groups are skipped
+        rr.setColumnFilter(2, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        rr.reset();
+        assertFalse(rr.hasNext());
+
+        rr.clearColumnFilter();
+        rr.reset();
+        int count = 0;
+        while (rr.hasNext()) {
+            rr.next();
+            count++;
+        }
+        assertEquals(40, count);
+        assertEquals(data.get(25), rr.getRecord(25));
+        rr.close();
+
+        //Single record from a stream
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(f))) {
+            assertEquals(data.get(0), rr.record(f.toURI(), dis));
+        }
+
+        FileUtils.deleteDirectory(dir);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.records.reader.impl.sharded;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.writer.impl.sharded.ShardedRecordWriter;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ShuffledRecordReaderTest {
+
+    @Test
+    public void testShardedStoreAndShuffle() throws Exception {
+        File dir = Files.createTempDirectory("ShuffledRecordReaderTest").toFile();
+        int n = 103;
+        List<List<Writable>> expected = new ArrayList<>();
+        ShardedRecordWriter writer = new ShardedRecordWriter(dir, 10);
+        for (int i = 0; i < n; i++) {
+            List<Writable> l = Arrays.<Writable>asList(new IntWritable(i), new DoubleWritable(i * 0.5),
+                    new Text("value_" + i));
+            writer.write(l);
+            expected.add(l);
+        }
+        writer.close();
+        //Other files in the directory should be ignored
+        FileUtils.writeStringToFile(new File(dir, "README.txt"), "Not a shard");
+
+        //Random access
+        ShardedRecordStore store = new ShardedRecordStore(dir);
+        assertEquals(11, store.numShards());
+        assertEquals(n, store.numRecords());
+        assertEquals(3, store.numRecords(10));
+        Random r = new Random(12345);
+        for (int i = 0; i < 200; i++) {
+            int idx = r.nextInt(n);
+            assertEquals(expected.get(idx), store.getRecord(idx));
+        }
+        assertEquals(expected.subList(50, 60), store.readShard(5));
+        store.close();
+
+        //Shuffled iteration: every epoch contains every record exactly once, in a different order
+        ShuffledRecordReader rr = new ShuffledRecordReader(12345, 3);
+        rr.initialize(new FileSplit(dir));
+        List<List<List<Writable>>> epochs = new ArrayList<>();
+        for (int epoch = 0; epoch < 3; epoch++) {
+            assertEquals(epoch, rr.getEpoch());
+            List<List<Writable>> out = new ArrayList<>();
+            while (rr.hasNext()) out.add(rr.next());
+            assertEquals(n, out.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(out));
+            assertNotEquals(expected, out);
+            epochs.add(out);
+            rr.reset();
+        }
+        assertNotEquals(epochs.get(0), epochs.get(1));
+
+        //Deterministic for a given seed and epoch
+        ShuffledRecordReader rr2 = new ShuffledRecordReader(12345, 3);
+        rr2.initialize(new FileSplit(dir));
+        rr2.setEpoch(1);
+        List<List<Writable>> out = new ArrayList<>();
+        while (rr2.hasNext()) out.add(rr2.next());
+        assertEquals(epochs.get(1), out);
+
+        rr.close();
+        rr2.close();
+        FileUtils.deleteDirectory(dir);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.condition.column.IntegerColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.SequenceSchema;
+import org.datavec.api.transform.sequence.window.TimeWindowFunction;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.LongWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TestCompiledTransformProcess {
+
+    @Test
+    public void testSameAsTransformProcess() {
+        Schema schema = new Schema.Builder()
+                .addColumnCategorical("cat", Arrays.asList("a", "b", "c"))
+                .addColumnInteger("int")
+                .addColumnDouble("d0")
+                .addColumnDouble("d1")
+                .build();
+
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .duplicateColumns(Arrays.asList("int", "d0"), Arrays.asList("intdup", "d0dup"))
+                .doubleMathOp("d0dup", MathOp.Multiply, 10.0)
+                .integerMathOp("int", MathOp.Add, 5)
+                .filter(new ConditionFilter(new IntegerColumnCondition("intdup", ConditionOp.Equal, 3)))
+                .removeColumns("d1")
+                .reorderColumns("d0dup", "intdup", "cat")
+                .renameColumn("d0", "renamed")
+                .doubleMathOp("renamed", MathOp.Subtract, 1.0)
+                .categoricalToOneHot("cat")
+                .doubleMathOp("d0dup", MathOp.Add, 0.5)
+                .filter(new ConditionFilter(new DoubleColumnCondition("d0dup", ConditionOp.GreaterThan, 60.0)))
+                .removeColumns("cat[b]")
+                .build();
+
+        CompiledTransformProcess compiled = tp.compile();
+        assertEquals(tp.getFinalSchema(), compiled.getFinalSchema());
+
+        //Check that Java serialization works, for use in Spark etc
+        CompiledTransformProcess deserialized = SerializationUtils.clone(compiled);
+
+        String[] cats = {"a", "b", "c"};
+        int countFiltered = 0;
+        for (int i = 0; i < 10; i++) {
+            List<Writable> in = Arrays.<Writable>asList(new Text(cats[i % 3]), new IntWritable(i),
+                    new DoubleWritable(i), new DoubleWritable(-i));
+            List<Writable> inCopy = new ArrayList<>(in);
+            List<Writable> expected = tp.execute(in);
+            assertEquals(expected, compiled.execute(in));
+            assertEquals(expected, deserialized.execute(in));
+            assertEquals(inCopy, in);
+            if (expected == null) countFiltered++;
+        }
+        //Filtered: i == 3, and i >= 6
+        assertEquals(5, countFiltered);
+
+        List<Writable> filtered = Arrays.<Writable>asList(new Text("a"), new IntWritable(3), new DoubleWritable(3),
+                new DoubleWritable(-3));
+        assertNull(compiled.execute(filtered));
+    }
+
+    @Test
+    public void testSequence() {
+        Schema schema = new Schema.Builder()
+                .addColumnInteger("int")
+                .addColumnDouble("d")
+                .build();
+
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .doubleMathOp("d", MathOp.Multiply, 2.0)
+                .reorderColumns("d", "int")
+                .build();
+
+        List<List<Writable>> seq = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            seq.add(Arrays.<Writable>asList(new IntWritable(i), new DoubleWritable(i)));
+        }
+
+        assertEquals(tp.executeSequenceToSequence(seq), tp.compile().executeSequenceToSequence(seq));
+        assertEquals(Collections.emptyList(), tp.compile().executeSequenceToSequence(new ArrayList<List<Writable>>()));
+    }
+
+    @Test
+    public void testSequenceWindowReductionAndFilter() {
+        Schema schema = new SequenceSchema.Builder()
+                .addColumnTime("time", DateTimeZone.UTC)
+                .addColumnInteger("int")
+                .build();
+
+        //Window reduction changes the sequence length, and can't be executed per step
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .integerMathOp("int", MathOp.Add, 1)
+                .reduceSequenceByWindow(new Reducer.Builder(ReduceOp.Sum).takeFirstColumns("time").build(),
+                        new TimeWindowFunction("time", 1, TimeUnit.SECONDS))
+                .reorderColumns("sum(int)")
+                .filter(new ConditionFilter(new IntegerColumnCondition("sum(int)", ConditionOp.GreaterThan, 10)))
+                .build();
+        CompiledTransformProcess compiled = tp.compile();
+        assertEquals(tp.getFinalSchema(), compiled.getFinalSchema());
+
+        long start = 1451606400000L;
+        List<List<Writable>> seq = new ArrayList<>();
+        seq.add(Arrays.<Writable>asList(new LongWritable(start), new IntWritable(0)));
+        seq.add(Arrays.<Writable>asList(new LongWritable(start + 100L), new IntWritable(1)));
+        seq.add(Arrays.<Writable>asList(new LongWritable(start + 1000L), new IntWritable(2)));
+        seq.add(Arrays.<Writable>asList(new LongWritable(start + 3000L), new IntWritable(3)));
+
+        List<List<Writable>> expected = new ArrayList<>();
+        expected.add(Arrays.<Writable>asList(new LongWritable(1 + 2), new LongWritable(start)));
+        expected.add(Arrays.<Writable>asList(new LongWritable(3), new LongWritable(start + 1000L)));
+        expected.add(Arrays.<Writable>asList(new LongWritable(0), new LongWritable(0)));
+        expected.add(Arrays.<Writable>asList(new LongWritable(4), new LongWritable(start + 3000L)));
+
+        List<List<Writable>> seqCopy = new ArrayList<>(seq);
+        assertEquals(expected, compiled.executeSequenceToSequence(seq));
+        assertEquals(expected, SerializationUtils.clone(compiled).executeSequenceToSequence(seq));
+        assertEquals(seqCopy, seq);
+
+        //Sum of the second window is 5 + 6 > 10: sequence is removed
+        seq.add(Arrays.<Writable>asList(new LongWritable(start + 4000L), new IntWritable(5)));
+        seq.add(Arrays.<Writable>asList(new LongWritable(start + 4100L), new IntWritable(6)));
+        assertNull(compiled.executeSequenceToSequence(seq));
+    }
+}
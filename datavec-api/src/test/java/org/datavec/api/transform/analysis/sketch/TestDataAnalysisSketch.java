@@ -0,0 +1,187 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.analysis.sketch;
+
+import org.datavec.api.transform.analysis.DataAnalysis;
+import org.datavec.api.transform.analysis.SequenceDataAnalysis;
+import org.datavec.api.transform.analysis.columns.*;
+import org.datavec.api.transform.analysis.sequence.SequenceLengthAnalysis;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.StreamingHistogram;
+import org.datavec.api.util.TDigest;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for single-pass, mergeable data analysis sketches
+ */
+public class TestDataAnalysisSketch {
+
+    @Test
+    public void testTDigestQuantiles() {
+        Random r = new Random(12345);
+        int n = 100000;
+        double[] values = new double[n];
+        TDigest d1 = new TDigest();
+        TDigest d2 = new TDigest();
+        for (int i = 0; i < n; i++) {
+            values[i] = r.nextGaussian();
+            if (i % 2 == 0) d1.add(values[i]);
+            else d2.add(values[i]);
+        }
+        d1.merge(d2);
+        Arrays.sort(values);
+
+        assertEquals(n, d1.size());
+        assertTrue(d1.numCentroids() <= 2 * TDigest.DEFAULT_COMPRESSION);
+        assertEquals(values[0], d1.quantile(0.0), 0.0);
+        assertEquals(values[n - 1], d1.quantile(1.0), 0.0);
+        for (double q : new double[]{0.001, 0.01, 0.1, 0.5, 0.9, 0.99, 0.999}) {
+            //Check the rank of the estimate: more accurate in the tails
+            int idx = Arrays.binarySearch(values, d1.quantile(q));
+            double rank = (idx < 0 ? -idx - 1 : idx) / (double) n;
+            double tolerance = (q <= 0.01 || q >= 0.99 ? 0.0005 : 0.005);
+            assertEquals("q=" + q, q, rank, tolerance);
+        }
+    }
+
+    @Test
+    public void testStreamingHistogram() {
+        //Exact: few unique values
+        StreamingHistogram h = new StreamingHistogram(10);
+        for (int i = 0; i < 1000; i++) h.add(i % 5);
+        assertTrue(h.isExact());
+        assertArrayEquals(new long[]{200, 0, 200, 0, 200, 0, 200, 200}, h.equalWidthCounts(8));
+
+        //Approximate: uniform values, compared to exact equal-width counts
+        Random r = new Random(12345);
+        StreamingHistogram h1 = new StreamingHistogram(50);
+        StreamingHistogram h2 = new StreamingHistogram(50);
+        int n = 100000;
+        for (int i = 0; i < n; i++) {
+            double d = 10 * r.nextDouble();
+            if (i % 2 == 0) h1.add(d);
+            else h2.add(d);
+        }
+        h1.merge(h2);
+        assertFalse(h1.isExact());
+        assertTrue(h1.getPositions().length <= 50);
+
+        long[] counts = h1.equalWidthCounts(10);
+        long sum = 0;
+        for (long c : counts) {
+            assertEquals(n / 10, c, n / 100);
+            sum += c;
+        }
+        assertEquals(n, sum);
+    }
+
+    @Test
+    public void testDataAnalysisSketchMerge() {
+        Schema schema = new Schema.Builder()
+                .addColumnInteger("int")
+                .addColumnDouble("double")
+                .addColumnString("str")
+                .addColumnCategorical("cat", "a", "b", "c")
+                .build();
+
+        Random r = new Random(12345);
+        int n = 20000;
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            data.add(Arrays.<Writable>asList(new IntWritable(r.nextInt(1000) - 500), new DoubleWritable(r.nextDouble()),
+                    new Text("s" + (i % 3000)), new Text(i % 4 == 0 ? "a" : "b")));
+        }
+
+        DataAnalysisSketch all = new DataAnalysisSketch(schema);
+        DataAnalysisSketch[] parts = new DataAnalysisSketch[4];
+        for (int i = 0; i < parts.length; i++) parts[i] = new DataAnalysisSketch(schema);
+        for (int i = 0; i < n; i++) {
+            all.add(data.get(i));
+            parts[(i * 7) % 4].add(data.get(i));
+        }
+        DataAnalysisSketch merged = new DataAnalysisSketch(schema);
+        for (DataAnalysisSketch p : parts) merged.merge(p);
+
+        DataAnalysis daAll = all.toDataAnalysis(20);
+        DataAnalysis daMerged = merged.toDataAnalysis(20);
+
+        double sum = 0;
+        int min = Integer.MAX_VALUE;
+        for (List<Writable> l : data) {
+            sum += l.get(0).toInt();
+            min = Math.min(min, l.get(0).toInt());
+        }
+        for (DataAnalysis da : new DataAnalysis[]{daAll, daMerged}) {
+            IntegerAnalysis ia = (IntegerAnalysis) da.getColumnAnalysis("int");
+            assertEquals(n, ia.getCountTotal());
+            assertEquals(min, ia.getMin());
+            assertEquals(sum / n, ia.getMean(), 1e-9);
+            assertEquals(1000, ia.getCountUnique(), 20);
+            assertEquals(0.0, ia.getQuantile(0.5), 20.0);
+            assertEquals(20, ia.getHistogramBucketCounts().length);
+            assertEquals(21, ia.getHistogramBuckets().length);
+
+            StringAnalysis sa = (StringAnalysis) da.getColumnAnalysis("str");
+            assertEquals(3000, sa.getCountUnique(), 60);
+            assertEquals(2, sa.getMinLength());
+            assertEquals(5, sa.getMaxLength());
+
+            CategoricalAnalysis ca = (CategoricalAnalysis) da.getColumnAnalysis("cat");
+            assertEquals(n / 4, (long) ca.getMapOfCounts().get("a"));
+            assertEquals(3 * n / 4, (long) ca.getMapOfCounts().get("b"));
+        }
+
+        IntegerAnalysis i1 = (IntegerAnalysis) daAll.getColumnAnalysis("int");
+        IntegerAnalysis i2 = (IntegerAnalysis) daMerged.getColumnAnalysis("int");
+        assertEquals(i1.getSampleVariance(), i2.getSampleVariance(), 1e-6 * i1.getSampleVariance());
+        assertEquals(i1.getCountMinValue(), i2.getCountMinValue());
+        assertEquals(i1.getCountUnique(), i2.getCountUnique());
+        DoubleAnalysis d1 = (DoubleAnalysis) daAll.getColumnAnalysis("double");
+        DoubleAnalysis d2 = (DoubleAnalysis) daMerged.getColumnAnalysis("double");
+        assertEquals(d1.getMax(), d2.getMax(), 0.0);
+        assertEquals(d1.getMean(), d2.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testSequenceAnalysis() {
+        Schema schema = new Schema.Builder().addColumnDouble("d").build();
+        DataAnalysisSketch sketch = new DataAnalysisSketch(schema);
+        for (int length = 0; length < 5; length++) {
+            List<List<Writable>> seq = new ArrayList<>();
+            for (int j = 0; j < length; j++) seq.add(Collections.<Writable>singletonList(new DoubleWritable(j)));
+            sketch.addSequence(seq);
+        }
+
+        SequenceDataAnalysis sda = sketch.toSequenceDataAnalysis(30);
+        SequenceLengthAnalysis sla = sda.getSequenceLengthAnalysis();
+        assertEquals(5, sla.getTotalNumSequences());
+        assertEquals(0, sla.getMinSeqLength());
+        assertEquals(4, sla.getMaxSeqLength());
+        assertEquals(1, sla.getCountZeroLength());
+        assertEquals(1, sla.getCountOneLength());
+        assertEquals(2.0, sla.getMeanLength(), 1e-9);
+        assertArrayEquals(new long[]{1, 1, 1, 2}, sla.getHistogramBucketCounts());
+
+        DoubleAnalysis da = (DoubleAnalysis) sda.getColumnAnalysis().get(0);
+        assertEquals(10, da.getCountTotal());
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.join;
+
+import org.datavec.api.berkeley.Pair;
+import org.datavec.api.transform.local.LocalTransformExecutor;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for typed join keys, sort-merge joins and many-to-many joins
+ */
+public class TestJoinKey {
+
+    @Test
+    public void testJoinKeyTyped() {
+        assertEquals(new JoinKey(new IntWritable(5)), new JoinKey(new LongWritable(5)));
+        assertEquals(new JoinKey(new IntWritable(5)).hashCode(), new JoinKey(new LongWritable(5)).hashCode());
+        assertNotEquals(new JoinKey(new IntWritable(5)), new JoinKey(new Text("5")));
+        assertNotEquals(new JoinKey(new Text("a"), new Text("b_c")), new JoinKey(new Text("a_b"), new Text("c")));
+
+        //Numeric ordering, not String ordering
+        assertTrue(new JoinKey(new LongWritable(9)).compareTo(new JoinKey(new LongWritable(10))) < 0);
+
+        TaggedJoinKey l = new TaggedJoinKey(new JoinKey(new Text("k")), true);
+        TaggedJoinKey r = new TaggedJoinKey(new JoinKey(new Text("k")), false);
+        assertTrue(l.compareTo(r) < 0);
+        assertTrue(r.compareTo(new TaggedJoinKey(new JoinKey(new Text("l")), true)) < 0);
+
+        //The caller's array is not modified or shared
+        Writable[] values = {new IntWritable(1), new Text("a")};
+        JoinKey key = new JoinKey(values);
+        assertTrue(values[0] instanceof IntWritable);
+        values[1] = new Text("b");
+        assertEquals(new JoinKey(new LongWritable(1), new Text("a")), key);
+    }
+
+    @Test
+    public void testManyToManyJoins() {
+        Schema leftSchema = new Schema.Builder().addColumnInteger("key").addColumnInteger("left").build();
+        Schema rightSchema = new Schema.Builder().addColumnInteger("key").addColumnInteger("right").build();
+
+        List<List<Writable>> left = new ArrayList<>();
+        List<List<Writable>> right = new ArrayList<>();
+        Random rng = new Random(12345);
+        for (int i = 0; i < 200; i++) {
+            left.add(Arrays.<Writable>asList(new IntWritable(rng.nextInt(30)), new IntWritable(i)));
+            right.add(Arrays.<Writable>asList(new IntWritable(10 + rng.nextInt(30)), new IntWritable(1000 + i)));
+        }
+
+        LocalTransformExecutor exec = new LocalTransformExecutor();
+        for (Join.JoinType joinType : Join.JoinType.values()) {
+            Join join = new Join.Builder(joinType).setKeyColumns("key").setSchemas(leftSchema, rightSchema).build();
+
+            List<List<Writable>> expected = nestedLoopJoin(join, left, right);
+            List<List<Writable>> local = exec.executeJoin(join, left, right);
+            List<List<Writable>> merge = mergeJoin(join, left, right);
+
+            assertEquals(joinType.toString(), asSortedStrings(expected), asSortedStrings(local));
+            assertEquals(joinType.toString(), asSortedStrings(expected), asSortedStrings(merge));
+        }
+        exec.close();
+    }
+
+    private static List<List<Writable>> nestedLoopJoin(Join join, List<List<Writable>> left, List<List<Writable>> right) {
+        Join.JoinType t = join.getJoinType();
+        List<List<Writable>> out = new ArrayList<>();
+        Set<Integer> matchedRight = new HashSet<>();
+        for (List<Writable> l : left) {
+            boolean matched = false;
+            for (int j = 0; j < right.size(); j++) {
+                if (l.get(0).toInt() == right.get(j).get(0).toInt()) {
+                    out.add(join.joinExamples(l, right.get(j)));
+                    matched = true;
+                    matchedRight.add(j);
+                }
+            }
+            if (!matched && (t == Join.JoinType.LeftOuter || t == Join.JoinType.FullOuter)) {
+                out.add(join.joinExamples(l, null));
+            }
+        }
+        if (t == Join.JoinType.RightOuter || t == Join.JoinType.FullOuter) {
+            for (int j = 0; j < right.size(); j++) {
+                if (!matchedRight.contains(j)) out.add(join.joinExamples(null, right.get(j)));
+            }
+        }
+        return out;
+    }
+
+    private static List<List<Writable>> mergeJoin(Join join, List<List<Writable>> left, List<List<Writable>> right) {
+        List<Pair<TaggedJoinKey, List<Writable>>> tagged = new ArrayList<>();
+        int[] keyIdx = {0};
+        for (List<Writable> l : left) tagged.add(new Pair<>(new TaggedJoinKey(JoinKey.fromExample(l, keyIdx), true), l));
+        for (List<Writable> r : right) tagged.add(new Pair<>(new TaggedJoinKey(JoinKey.fromExample(r, keyIdx), false), r));
+        Collections.sort(tagged, new Comparator<Pair<TaggedJoinKey, List<Writable>>>() {
+            @Override
+            public int compare(Pair<TaggedJoinKey, List<Writable>> o1, Pair<TaggedJoinKey, List<Writable>> o2) {
+                return o1.getFirst().compareTo(o2.getFirst());
+            }
+        });
+
+        List<List<Writable>> out = new ArrayList<>();
+        MergeJoinIterator iter = new MergeJoinIterator(join, tagged.iterator());
+        while (iter.hasNext()) out.add(iter.next());
+        return out;
+    }
+
+    private static List<String> asSortedStrings(List<List<Writable>> data) {
+        List<String> out = new ArrayList<>();
+        for (List<Writable> l : data) out.add(l.toString());
+        Collections.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.records.reader.impl.collection.CollectionSequenceRecordReader;
+import org.datavec.api.transform.ColumnType;
+import org.datavec.api.transform.analysis.DataAnalysis;
+import org.datavec.api.transform.analysis.SequenceDataAnalysis;
+import org.datavec.api.transform.analysis.columns.CategoricalAnalysis;
+import org.datavec.api.transform.analysis.columns.DoubleAnalysis;
+import org.datavec.api.transform.analysis.columns.IntegerAnalysis;
+import org.datavec.api.transform.metadata.BaseColumnMetaData;
+import org.datavec.api.transform.metadata.ColumnMetaData;
+import org.datavec.api.transform.quality.DataQualityAnalysis;
+import org.datavec.api.transform.quality.columns.BytesQuality;
+import org.datavec.api.transform.quality.columns.CategoricalQuality;
+import org.datavec.api.transform.quality.columns.ColumnQuality;
+import org.datavec.api.transform.quality.columns.IntegerQuality;
+import org.datavec.api.transform.quality.sketch.ColumnQualitySketch;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for local (non-Spark) data analysis
+ */
+public class TestAnalyzeLocal {
+
+    private static Schema schema() {
+        return new Schema.Builder()
+                .addColumnInteger("int")
+                .addColumnDouble("double")
+                .addColumnCategorical("cat", "a", "b")
+                .build();
+    }
+
+    private static List<List<Writable>> data(int n) {
+        Random r = new Random(12345);
+        List<List<Writable>> data = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            data.add(Arrays.<Writable>asList(new IntWritable(i % 100), new DoubleWritable(r.nextDouble()),
+                    new Text(i % 3 == 0 ? "a" : "b")));
+        }
+        return data;
+    }
+
+    @Test
+    public void testAnalyzeLocal() {
+        Schema schema = schema();
+        int n = 30000;
+        List<List<Writable>> data = data(n);
+
+        DataAnalysis fromList = AnalyzeLocal.analyze(schema, data);
+        DataAnalysis fromReader = AnalyzeLocal.analyze(schema, new CollectionRecordReader(data), 10);
+
+        List<RecordReader> partitions = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            partitions.add(new CollectionRecordReader(data.subList(i * n / 3, (i + 1) * n / 3)));
+        }
+        DataAnalysis fromPartitions = AnalyzeLocal.analyzePartitioned(schema, partitions, 10);
+
+        for (DataAnalysis da : new DataAnalysis[]{fromList, fromReader, fromPartitions}) {
+            IntegerAnalysis ia = (IntegerAnalysis) da.getColumnAnalysis("int");
+            assertEquals(n, ia.getCountTotal());
+            assertEquals(0, ia.getMin());
+            assertEquals(99, ia.getMax());
+            assertEquals(49.5, ia.getMean(), 1e-9);
+            assertEquals(n / 100, ia.getCountZero());
+            assertEquals(100, ia.getCountUnique(), 2);
+
+            //Exact histogram: 100 unique values
+            long[] counts = ia.getHistogramBucketCounts();
+            long sum = 0;
+            for (long c : counts) sum += c;
+            assertEquals(n, sum);
+
+            DoubleAnalysis dba = (DoubleAnalysis) da.getColumnAnalysis("double");
+            assertEquals(n, dba.getCountTotal());
+            assertEquals(0.5, dba.getMean(), 0.01);
+            assertEquals(0.5, dba.getQuantile(0.5), 0.02);
+
+            CategoricalAnalysis ca = (CategoricalAnalysis) da.getColumnAnalysis("cat");
+            assertEquals(n / 3, (long) ca.getMapOfCounts().get("a"));
+        }
+
+        assertArrayEquals(((IntegerAnalysis) fromReader.getColumnAnalysis("int")).getHistogramBucketCounts(),
+                ((IntegerAnalysis) fromPartitions.getColumnAnalysis("int")).getHistogramBucketCounts());
+        assertEquals(((DoubleAnalysis) fromList.getColumnAnalysis("double")).getSampleVariance(),
+                ((DoubleAnalysis) fromReader.getColumnAnalysis("double")).getSampleVariance(), 1e-9);
+    }
+
+    @Test
+    public void testAnalyzeSequenceLocal() {
+        Schema schema = new Schema.Builder().addColumnInteger("i").build();
+        List<List<List<Writable>>> sequences = new ArrayList<>();
+        for (int s = 0; s < 10; s++) {
+            List<List<Writable>> seq = new ArrayList<>();
+            for (int t = 0; t < s; t++) seq.add(Collections.<Writable>singletonList(new IntWritable(t)));
+            sequences.add(seq);
+        }
+
+        SequenceDataAnalysis sda = AnalyzeLocal.analyzeSequence(schema, new CollectionSequenceRecordReader(sequences));
+        assertEquals(10, sda.getSequenceLengthAnalysis().getTotalNumSequences());
+        assertEquals(9, sda.getSequenceLengthAnalysis().getMaxSeqLength());
+        assertEquals(45, ((IntegerAnalysis) sda.getColumnAnalysis().get(0)).getCountTotal());
+    }
+
+    @Test
+    public void testAnalyzeQualityLocal() {
+        Schema schema = schema();
+        List<List<Writable>> data = new ArrayList<>(data(5000));
+        data.add(Arrays.<Writable>asList(new Text("notAnInt"), new DoubleWritable(1.0), new Text("c")));
+        data.add(Arrays.<Writable>asList(NullWritable.INSTANCE, new DoubleWritable(1.0), new Text("")));
+
+        DataQualityAnalysis fromList = AnalyzeLocal.analyzeQuality(schema, data);
+        DataQualityAnalysis fromReader = AnalyzeLocal.analyzeQuality(schema, new CollectionRecordReader(data));
+        assertEquals(fromList, fromReader);
+
+        IntegerQuality iq = (IntegerQuality) fromList.getColumnQualityList().get(0);
+        assertEquals(5002, iq.getCountTotal());
+        assertEquals(5000, iq.getCountValid());
+        assertEquals(1, iq.getCountInvalid());
+        assertEquals(1, iq.getCountMissing());
+        assertEquals(2, iq.getCountNonInteger());
+
+        CategoricalQuality cq = (CategoricalQuality) fromList.getColumnQualityList().get(2);
+        assertEquals(1, cq.getCountInvalid());
+        assertEquals(1, cq.getCountMissing());
+    }
+
+    @Test
+    public void testBytesColumnQuality() {
+        ColumnMetaData meta = new BaseColumnMetaData("bytes") {
+            @Override
+            public ColumnType getColumnType() {
+                return ColumnType.Bytes;
+            }
+
+            @Override
+            public boolean isValid(Writable writable) {
+                return writable instanceof ByteWritable;
+            }
+
+            @Override
+            public ColumnMetaData clone() {
+                return this;
+            }
+        };
+
+        ColumnQualitySketch sketch = new ColumnQualitySketch(meta, 10);
+        sketch.add(new ByteWritable((byte) 1));
+        sketch.add(new ByteWritable((byte) 2));
+        sketch.add(NullWritable.INSTANCE);
+        ColumnQualitySketch other = new ColumnQualitySketch(meta, 10);
+        other.add(new IntWritable(3));
+        sketch.merge(other);
+
+        ColumnQuality q = sketch.toColumnQuality();
+        assertTrue(q instanceof BytesQuality);
+        assertEquals(4, q.getCountTotal());
+        assertEquals(2, q.getCountValid());
+        assertEquals(1, q.getCountMissing());
+        assertEquals(1, q.getCountInvalid());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.sequence.comparator.NumericalColumnComparator;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.comparator.DoubleWritableComparator;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestExternalSorter {
+
+    private static final Comparator<List<Writable>> BY_FIRST = new Comparator<List<Writable>>() {
+        @Override
+        public int compare(List<Writable> o1, List<Writable> o2) {
+            return Integer.compare(o1.get(0).toInt(), o2.get(0).toInt());
+        }
+    };
+
+    private static List<List<Writable>> randomData(int n, int maxValue, long seed) {
+        Random r = new Random(seed);
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            data.add(Arrays.<Writable>asList(new IntWritable(r.nextInt(maxValue)), new Text("record" + i)));
+        }
+        return data;
+    }
+
+    @Test
+    public void testSortMatchesInMemory() throws Exception {
+        List<List<Writable>> data = randomData(1000, 50, 12345);
+        List<List<Writable>> expected = new ArrayList<>(data);
+        Collections.sort(expected, BY_FIRST); //Stable
+
+        //In memory only, one merge, and multi-level merge (small fan-in), with and without a partial final buffer
+        int[][] configs = {{5000, 64}, {100, 64}, {7, 3}, {10, 2}};
+        for (int[] c : configs) {
+            File dir = createTempDir();
+            try (ExternalSorter sorter = new ExternalSorter(BY_FIRST, c[0], c[1], dir)) {
+                sorter.addAll(data);
+                assertEquals(1000, sorter.totalCount());
+                if (c[0] < 1000) {
+                    assertTrue(sorter.spilledCount() > 0);
+                } else {
+                    assertEquals(0, sorter.numRuns());
+                }
+
+                List<List<Writable>> out = new ArrayList<>();
+                Iterator<List<Writable>> iter = sorter.sortedIterator();
+                while (iter.hasNext()) {
+                    out.add(iter.next());
+                }
+                assertEquals(Arrays.toString(c), expected, out);
+                assertTrue(sorter.numRuns() <= c[1]);
+            }
+            //All temporary files should be deleted on close
+            assertEquals(0, dir.listFiles().length);
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void testLocalExecutorExternalSort() {
+        Schema schema = new Schema.Builder().addColumnString("key").addColumnInteger("time").addColumnDouble("value").build();
+        List<List<Writable>> data = new ArrayList<>();
+        for (int j = 19; j >= 0; j--) {
+            for (int i = 0; i < 5; i++) {
+                data.add(Arrays.<Writable>asList(new Text("key" + i), new IntWritable(j), new DoubleWritable((j * 7) % 13)));
+            }
+        }
+
+        LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(2).numPartitions(2)
+                        .maxRecordsInMemoryPerPartition(6).build();
+
+        //Streamed from a RecordReader: uses the external sort path, with sorted runs of 6 records
+        TransformProcess tpSeq = new TransformProcess.Builder(schema)
+                        .convertToSequence("key", new NumericalColumnComparator("time")).build();
+        List<List<List<Writable>>> sequences = exec.executeToSequence(new CollectionRecordReader(data), tpSeq);
+        assertEquals(5, sequences.size());
+        Set<String> keys = new HashSet<>();
+        for (List<List<Writable>> seq : sequences) {
+            assertEquals(20, seq.size());
+            String key = seq.get(0).get(0).toString();
+            assertTrue(keys.add(key));
+            for (int j = 0; j < 20; j++) {
+                assertEquals(key, seq.get(j).get(0).toString());
+                assertEquals(j, seq.get(j).get(1).toInt());
+            }
+        }
+
+        TransformProcess tpRank = new TransformProcess.Builder(schema)
+                        .calculateSortedRank("rank", "value", new DoubleWritableComparator()).build();
+        List<List<Writable>> ranked = exec.execute(new CollectionRecordReader(data), tpRank);
+        exec.close();
+        assertEquals(100, ranked.size());
+        double last = -1;
+        for (int i = 0; i < ranked.size(); i++) {
+            List<Writable> l = ranked.get(i);
+            assertEquals(i, l.get(3).toLong());
+            assertTrue(l.get(2).toDouble() >= last);
+            last = l.get(2).toDouble();
+        }
+    }
+
+    private static File createTempDir() throws Exception {
+        File f = File.createTempFile("externalsortertest", "");
+        f.delete();
+        assertTrue(f.mkdir());
+        return f;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.local;
+
+import org.datavec.api.records.reader.impl.collection.CollectionRecordReader;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.metadata.ColumnMetaData;
+import org.datavec.api.transform.metadata.DoubleMetaData;
+import org.datavec.api.transform.reduce.ColumnReduction;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.sequence.comparator.NumericalColumnComparator;
+import org.datavec.api.writable.*;
+import org.datavec.api.writable.comparator.DoubleWritableComparator;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestLocalTransformExecutor {
+
+    private static Schema getSchema() {
+        return new Schema.Builder()
+                .addColumnString("key")
+                .addColumnInteger("time")
+                .addColumnDouble("value")
+                .build();
+    }
+
+    private static List<List<Writable>> getData(int nKeys, int nPerKey) {
+        List<List<Writable>> data = new ArrayList<>();
+        for (int j = nPerKey - 1; j >= 0; j--) {
+            for (int i = 0; i < nKeys; i++) {
+                data.add(Arrays.<Writable>asList(new Text("key" + i), new IntWritable(j), new DoubleWritable(i * 100 + j)));
+            }
+        }
+        return data;
+    }
+
+    @Test
+    public void testTransformAndFilter() {
+        Schema schema = getSchema();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .doubleMathOp("value", MathOp.Multiply, 2.0)
+                .filter(new ConditionFilter(new DoubleColumnCondition("value", ConditionOp.GreaterOrEqual, 1000.0)))
+                .removeColumns("time")
+                .build();
+
+        List<List<Writable>> data = getData(10, 10);
+        LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(4).minChunkSize(7).build();
+        List<List<Writable>> out = exec.execute(data, tp);
+        exec.close();
+
+        List<List<Writable>> expected = new ArrayList<>();
+        for (List<Writable> l : data) {
+            List<Writable> e = tp.execute(l);
+            if (e != null) expected.add(e);
+        }
+
+        assertEquals(expected, out);
+        assertEquals(50, out.size());
+    }
+
+    @Test
+    public void testReduceWithSpill() {
+        Schema schema = getSchema();
+        //Custom (non-aggregable) reduction: all values for each key are grouped, rather than incrementally aggregated
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .reduce(new Reducer.Builder(ReduceOp.Sum).keyColumns("key").countColumns("time")
+                        .customReduction("value", new MedianReduction()).build())
+                .build();
+
+        int nKeys = 20;
+        int nPerKey = 15;
+        List<List<Writable>> data = getData(nKeys, nPerKey);
+
+        //Force spilling to disk: data is streamed from the reader, and partitions hold at most 5 records in memory
+        LocalTransformExecutor exec = new LocalTransformExecutor.Builder()
+                .numThreads(3).numPartitions(4).maxRecordsInMemoryPerPartition(5).readBatchSize(7).build();
+        List<List<Writable>> out = exec.execute(new CollectionRecordReader(data), tp);
+        assertTrue(exec.getSpilledRecordCount() > 0);
+
+        //In-memory input is not spilled, but should give the same result
+        long spilled = exec.getSpilledRecordCount();
+        List<List<Writable>> outInMemory = exec.execute(data, tp);
+        assertEquals(spilled, exec.getSpilledRecordCount());
+        exec.close();
+
+        assertEquals(nKeys, out.size());
+        assertEquals(new HashSet<>(outInMemory), new HashSet<>(out));
+        Map<String, List<Writable>> byKey = new HashMap<>();
+        for (List<Writable> l : out) byKey.put(l.get(0).toString(), l);
+        for (int i = 0; i < nKeys; i++) {
+            List<Writable> l = byKey.get("key" + i);
+            assertEquals(nPerKey, l.get(1).toInt());
+            assertEquals(i * 100 + nPerKey / 2, l.get(2).toDouble(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testReduceCompoundKeys() {
+        Schema schema = new Schema.Builder().addColumnsString("k1", "k2").addColumnDouble("value").build();
+        List<List<Writable>> data = new ArrayList<>();
+        data.add(Arrays.<Writable>asList(new Text("a_b"), new Text("c"), new DoubleWritable(1)));
+        data.add(Arrays.<Writable>asList(new Text("a"), new Text("b_c"), new DoubleWritable(2)));
+        data.add(Arrays.<Writable>asList(new Text("a_b"), new Text("c"), new DoubleWritable(3)));
+
+        //Both the aggregated and the grouped reduce paths: keys must not be merged via their String representation
+        TransformProcess aggregated = new TransformProcess.Builder(schema)
+                .reduce(new Reducer.Builder(ReduceOp.Sum).keyColumns("k1", "k2").build())
+                .build();
+        TransformProcess grouped = new TransformProcess.Builder(schema)
+                .reduce(new Reducer.Builder(ReduceOp.Sum).keyColumns("k1", "k2")
+                        .customReduction("value", new MedianReduction()).build())
+                .build();
+
+        LocalTransformExecutor exec = new LocalTransformExecutor();
+        for (TransformProcess tp : new TransformProcess[]{aggregated, grouped}) {
+            List<List<Writable>> out = exec.execute(data, tp);
+            assertEquals(2, out.size());
+            Map<String, Double> byKey = new HashMap<>();
+            for (List<Writable> l : out) byKey.put(l.get(0) + "|" + l.get(1), l.get(2).toDouble());
+            assertEquals(2.0, byKey.get("a|b_c"), 0.0);
+            assertEquals(tp == aggregated ? 4.0 : 3.0, byKey.get("a_b|c"), 0.0);
+        }
+        exec.close();
+    }
+
+    private static class MedianReduction implements ColumnReduction {
+        @Override
+        public Writable reduceColumn(List<Writable> columnData) {
+            double[] values = new double[columnData.size()];
+            for (int i = 0; i < values.length; i++) values[i] = columnData.get(i).toDouble();
+            Arrays.sort(values);
+            return new DoubleWritable(values[values.length / 2]);
+        }
+
+        @Override
+        public String getColumnOutputName(String columnInputName) {
+            return "median(" + columnInputName + ")";
+        }
+
+        @Override
+        public ColumnMetaData getColumnOutputMetaData(String newColumnName, ColumnMetaData columnInputMeta) {
+            return new DoubleMetaData(newColumnName);
+        }
+    }
+
+    @Test
+    public void testConvertToSequenceFromReader() {
+        Schema schema = getSchema();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .doubleMathOp("value", MathOp.Add, 1.0)
+                .convertToSequence("key", new NumericalColumnComparator("time"))
+                .build();
+
+        int nKeys = 5;
+        int nPerKey = 8;
+        CollectionRecordReader rr = new CollectionRecordReader(getData(nKeys, nPerKey));
+        LocalTransformExecutor exec = new LocalTransformExecutor.Builder()
+                .readBatchSize(3).maxRecordsInMemoryPerPartition(2).build();
+        List<List<List<Writable>>> out = exec.executeToSequence(rr, tp);
+        exec.close();
+
+        assertEquals(nKeys, out.size());
+        for (List<List<Writable>> seq : out) {
+            assertEquals(nPerKey, seq.size());
+            int key = Integer.parseInt(seq.get(0).get(0).toString().substring(3));
+            for (int j = 0; j < nPerKey; j++) {
+                assertEquals(j, seq.get(j).get(1).toInt());
+                assertEquals(key * 100 + j + 1.0, seq.get(j).get(2).toDouble(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testConvertToSequenceInMemoryMatchesExternal() {
+        Schema schema = new Schema.Builder().addColumnInteger("key").addColumnInteger("time").addColumnInteger("id").build();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .convertToSequence("key", new NumericalColumnComparator("time"))
+                .build();
+
+        //Keys that differ as Strings and as numbers ("10" < "9"), and duplicate times within a key
+        Random r = new Random(12345);
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            data.add(Arrays.<Writable>asList(new IntWritable(r.nextInt(15)), new IntWritable(r.nextInt(10)), new IntWritable(i)));
+        }
+
+        List<List<List<Writable>>> inMemory;
+        List<List<List<Writable>>> external;
+        try (LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(3).numPartitions(4)
+                .maxRecordsInMemoryPerPartition(7).readBatchSize(11).build()) {
+            inMemory = exec.executeToSequence(data, tp);
+            external = exec.executeToSequence(new CollectionRecordReader(data), tp);
+        }
+
+        assertEquals(15, inMemory.size());
+        assertEquals(inMemory, external);
+        for (int k = 0; k < inMemory.size(); k++) {
+            List<List<Writable>> seq = inMemory.get(k);
+            //Sequences in key order; examples in time order, with ties in input order
+            assertEquals(k, seq.get(0).get(0).toInt());
+            for (int j = 1; j < seq.size(); j++) {
+                int c = Integer.compare(seq.get(j - 1).get(1).toInt(), seq.get(j).get(1).toInt());
+                assertTrue(c < 0 || (c == 0 && seq.get(j - 1).get(2).toInt() < seq.get(j).get(2).toInt()));
+            }
+        }
+    }
+
+    @Test
+    public void testCalculateSortedRank() {
+        Schema schema = getSchema();
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                .calculateSortedRank("rank", "value", new DoubleWritableComparator(), false)
+                .build();
+
+        List<List<Writable>> data = getData(3, 4);
+        List<List<Writable>> out;
+        try (LocalTransformExecutor exec = new LocalTransformExecutor()) {
+            out = exec.execute(data, tp);
+        }
+
+        assertEquals(data.size(), out.size());
+        double last = Double.MAX_VALUE;
+        for (int i = 0; i < out.size(); i++) {
+            List<Writable> l = out.get(i);
+            assertEquals(4, l.size());
+            assertEquals(i, l.get(3).toLong());
+            assertEquals(true, l.get(2).toDouble() <= last);
+            last = l.get(2).toDouble();
+        }
+    }
+
+    @Test
+    public void testJoin() {
+        Schema leftSchema = new Schema.Builder().addColumnString("key").addColumnInteger("left").build();
+        Schema rightSchema = new Schema.Builder().addColumnString("key").addColumnInteger("right").build();
+
+        List<List<Writable>> left = new ArrayList<>();
+        left.add(Arrays.<Writable>asList(new Text("k0"), new IntWritable(0)));
+        left.add(Arrays.<Writable>asList(new Text("k1"), new IntWritable(1)));
+
+        List<List<Writable>> right = new ArrayList<>();
+        right.add(Arrays.<Writable>asList(new Text("k1"), new IntWritable(10)));
+        right.add(Arrays.<Writable>asList(new Text("k2"), new IntWritable(20)));
+
+        LocalTransformExecutor exec = new LocalTransformExecutor();
+
+        Join inner = new Join.Builder(Join.JoinType.Inner).setKeyColumns("key").setSchemas(leftSchema, rightSchema).build();
+        List<List<Writable>> expInner = new ArrayList<>();
+        expInner.add(Arrays.<Writable>asList(new Text("k1"), new IntWritable(1), new IntWritable(10)));
+        assertEquals(expInner, exec.executeJoin(inner, left, right));
+
+        Join outer = new Join.Builder(Join.JoinType.FullOuter).setKeyColumns("key").setSchemas(leftSchema, rightSchema).build();
+        List<List<Writable>> expOuter = new ArrayList<>();
+        expOuter.add(Arrays.<Writable>asList(new Text("k0"), new IntWritable(0), NullWritable.INSTANCE));
+        expOuter.add(Arrays.<Writable>asList(new Text("k1"), new IntWritable(1), new IntWritable(10)));
+        expOuter.add(Arrays.<Writable>asList(new Text("k2"), NullWritable.INSTANCE, new IntWritable(20)));
+        assertEquals(expOuter, exec.executeJoin(outer, left, right));
+        exec.close();
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.transform.metrics;
+
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.local.LocalTransformExecutor;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestPipelineMetrics {
+
+    private static TransformProcess getTransformProcess() {
+        Schema schema = new Schema.Builder()
+                .addColumnString("key")
+                .addColumnInteger("time")
+                .addColumnDouble("value")
+                .build();
+        return new TransformProcess.Builder(schema)
+                .doubleMathOp("value", MathOp.Multiply, 2.0)
+                .filter(new ConditionFilter(new DoubleColumnCondition("value", ConditionOp.GreaterOrEqual, 1000.0)))
+                .removeColumns("time")
+                .reduce(new Reducer.Builder(ReduceOp.Sum).keyColumns("key").build())
+                .build();
+    }
+
+    private static List<List<Writable>> getData() {
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                data.add(Arrays.<Writable>asList(new Text("key" + i), new IntWritable(j), new DoubleWritable(i * 100 + j)));
+            }
+        }
+        return data;
+    }
+
+    @Test
+    public void testLocalExecutorMetrics() {
+        TransformProcess tp = getTransformProcess();
+        LocalPipelineMetrics metrics = new LocalPipelineMetrics();
+        LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(2).minChunkSize(10)
+                .metrics(metrics).build();
+        List<List<Writable>> out = exec.execute(getData(), tp);
+        exec.close();
+        assertEquals(5, out.size());
+
+        List<StepMetrics> steps = metrics.getStepMetrics();
+        assertEquals(4, steps.size());
+
+        StepMetrics math = steps.get(0);
+        assertEquals(0, math.getStep());
+        assertEquals("DoubleMathOpTransform", math.getName());
+        assertEquals(100, math.getInvocations());
+        assertEquals(100, math.getRecordsIn());
+        assertEquals(100, math.getRecordsOut());
+        assertEquals(0.0, math.getFilterRatio(), 0.0);
+        assertEquals(100, math.getLatencyHistogram().getCount());
+
+        StepMetrics filter = steps.get(1);
+        assertEquals("ConditionFilter", filter.getName());
+        assertEquals(100, filter.getRecordsIn());
+        assertEquals(50, filter.getRecordsOut());
+        assertEquals(0.5, filter.getFilterRatio(), 1e-9);
+
+        //Filtered examples don't reach the next step
+        assertEquals(50, steps.get(2).getRecordsIn());
+
+        //Reduction: reported once for the entire data set
+        StepMetrics reduce = steps.get(3);
+        assertEquals(1, reduce.getInvocations());
+        assertEquals(50, reduce.getRecordsIn());
+        assertEquals(5, reduce.getRecordsOut());
+        assertEquals(-1, reduce.getAllocatedBytes());
+
+        if (ThreadAllocation.isSupported()) {
+            assertTrue(math.getAllocatedBytes() >= 0);
+        }
+
+        assertNotNull(metrics.getBottleneck());
+        String summary = metrics.summary();
+        assertTrue(summary.contains("ConditionFilter"));
+    }
+
+    @Test
+    public void testTransformProcessExecuteAndMerge() {
+        TransformProcess tp = new TransformProcess.Builder(getTransformProcess().getInitialSchema())
+                .doubleMathOp("value", MathOp.Multiply, 2.0)
+                .filter(new ConditionFilter(new DoubleColumnCondition("value", ConditionOp.GreaterOrEqual, 1000.0)))
+                .build();
+
+        LocalPipelineMetrics m1 = new LocalPipelineMetrics(false);
+        LocalPipelineMetrics m2 = new LocalPipelineMetrics(false);
+        List<List<Writable>> data = getData();
+        for (int i = 0; i < data.size(); i++) {
+            List<Writable> out = tp.execute(data.get(i), (i % 2 == 0 ? m1 : m2));
+            assertEquals(tp.execute(data.get(i)), out);
+        }
+        assertEquals(50, m1.getStepMetrics(0).getRecordsIn());
+        assertEquals(-1, m1.getStepMetrics(0).getAllocatedBytes());
+
+        m1.merge(m2);
+        assertEquals(100, m1.getStepMetrics(0).getRecordsIn());
+        assertEquals(100, m1.getStepMetrics(1).getRecordsIn());
+        assertEquals(50, m1.getStepMetrics(1).getRecordsOut());
+        assertEquals(100, m1.getStepMetrics(1).getLatencyHistogram().getCount());
+    }
+
+    @Test
+    public void testLatencyHistogram() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            h.record(i * 1000L);
+        }
+        assertEquals(100, h.getCount());
+        assertEquals(100000, h.getMax());
+        long p50 = h.getPercentile(50);
+        assertTrue(p50 >= 50000 && p50 < 2 * 50000);
+        assertEquals(100000, h.getPercentile(100));
+    }
+
+    @Test
+    public void testJmxReporter() throws Exception {
+        LocalPipelineMetrics metrics = new LocalPipelineMetrics(false);
+        TransformProcess tp = getTransformProcess();
+        try (LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(1).metrics(metrics).build()) {
+            exec.execute(getData(), tp);
+        }
+
+        try (JmxMetricsReporter reporter = new JmxMetricsReporter(metrics, "test")) {
+            reporter.register();
+            Object names = ManagementFactory.getPlatformMBeanServer()
+                    .getAttribute(reporter.getObjectName(), "StepNames");
+            assertArrayEquals(new String[]{"DoubleMathOpTransform", "ConditionFilter", "RemoveColumnsTransform", "Reducer"},
+                    (String[]) names);
+            assertArrayEquals(new long[]{100, 100, 50, 50}, reporter.getRecordsIn());
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer()
+                .isRegistered(new JmxMetricsReporter(metrics, "test").getObjectName()));
+    }
+}
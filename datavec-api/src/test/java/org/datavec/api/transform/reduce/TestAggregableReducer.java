@@ -0,0 +1,200 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.transform.reduce;
+
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.StringColumnCondition;
+import org.datavec.api.transform.local.LocalTransformExecutor;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.util.HyperLogLog;
+import org.datavec.api.writable.*;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for incremental (streaming) aggregation with {@link AggregableReducer}: results should match
+ * {@link Reducer#reduce(List)}
+ */
+public class TestAggregableReducer {
+
+    private static Schema getSchema() {
+        return new Schema.Builder().addColumnString("key").addColumnInteger("int", 0, null).addColumnLong("long")
+                        .addColumnDouble("double").addColumnString("str").addColumnCategorical("filterCol", "a", "b")
+                        .build();
+    }
+
+    private static List<List<Writable>> getData(int n, long seed) {
+        Random r = new Random(seed);
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            //Some invalid (negative) values in the int column
+            data.add(Arrays.<Writable>asList(new Text("key"), new IntWritable(r.nextInt(20) - 2),
+                            new LongWritable(r.nextInt(1000)), new DoubleWritable(r.nextGaussian() * 10 + 3),
+                            new Text("s" + r.nextInt(7)), new Text(r.nextBoolean() ? "a" : "b")));
+        }
+        return data;
+    }
+
+    /** Aggregate in chunks of the given size, then merge the chunks in order */
+    private static List<Writable> aggregate(AggregableReducer reducer, List<List<Writable>> data, int chunkSize) {
+        ReduceAccumulator merged = null;
+        for (int i = 0; i < data.size(); i += chunkSize) {
+            ReduceAccumulator acc = reducer.createAccumulator();
+            for (List<Writable> example : data.subList(i, Math.min(data.size(), i + chunkSize))) {
+                reducer.aggregate(acc, example);
+            }
+            merged = (merged == null ? acc : reducer.merge(merged, acc));
+        }
+        return reducer.finish(merged);
+    }
+
+    private static void assertSame(List<Writable> expected, List<Writable> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Writable e = expected.get(i);
+            Writable a = actual.get(i);
+            assertEquals(e.getClass(), a.getClass());
+            if (e instanceof DoubleWritable) {
+                assertEquals("Column " + i, e.toDouble(), a.toDouble(), 1e-9 * Math.max(1.0, Math.abs(e.toDouble())));
+            } else {
+                assertEquals("Column " + i, e, a);
+            }
+        }
+    }
+
+    @Test
+    public void testMatchesBatchReduce() {
+        Schema schema = getSchema();
+        List<List<Writable>> data = getData(503, 12345);
+
+        for (ReduceOp op : ReduceOp.values()) {
+            Reducer.Builder b = new Reducer.Builder(op).keyColumns("key");
+            switch (op) {
+                case Count:
+                case CountUnique:
+                case TakeFirst:
+                case TakeLast:
+                    break;
+                default:
+                    //Not supported on String/Categorical columns
+                    b.countUniqueColumns("str").takeLastColumns("filterCol");
+            }
+            b.setIgnoreInvalid("int");
+            b.conditionalReduction("double", "cond(double)", (op == ReduceOp.CountUnique ? ReduceOp.Sum : op),
+                            new StringColumnCondition("filterCol", ConditionOp.Equal, "a"));
+            Reducer reducer = b.build();
+            reducer.setInputSchema(schema);
+            assertTrue(reducer.isAggregable());
+
+            List<Writable> expected = reducer.reduce(data);
+            for (int chunkSize : new int[]{1, 7, 100, 1000}) {
+                assertSame(expected, aggregate(reducer, data, chunkSize));
+            }
+        }
+    }
+
+    @Test
+    public void testCustomReductionNotAggregable() {
+        Reducer reducer = new Reducer.Builder(ReduceOp.Sum).keyColumns("key")
+                        .customReduction("str", new ColumnReduction() {
+                            @Override
+                            public Writable reduceColumn(List<Writable> columnData) {
+                                return new IntWritable(columnData.size());
+                            }
+
+                            @Override
+                            public String getColumnOutputName(String columnInputName) {
+                                return columnInputName;
+                            }
+
+                            @Override
+                            public org.datavec.api.transform.metadata.ColumnMetaData getColumnOutputMetaData(
+                                            String newColumnName,
+                                            org.datavec.api.transform.metadata.ColumnMetaData columnInputMeta) {
+                                return columnInputMeta;
+                            }
+                        }).build();
+        reducer.setInputSchema(getSchema());
+        assertFalse(reducer.isAggregable());
+    }
+
+    @Test
+    public void testHyperLogLog() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        HyperLogLog all = new HyperLogLog();
+        int n = 200000;
+        for (int i = 0; i < n; i++) {
+            //Overlapping ranges: 0 to 0.75n in a, 0.25n to n in b
+            if (i < 3 * n / 4) a.offer("value" + i);
+            if (i >= n / 4) b.offer("value" + i);
+            all.offer("value" + i);
+        }
+        a.merge(b);
+        assertEquals(all.cardinality(), a.cardinality());
+        assertEquals(n, a.cardinality(), 0.03 * n);
+
+        //Small cardinalities: linear counting should be close to exact
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            small.offer(i % 50);
+        }
+        assertEquals(50, small.cardinality(), 2);
+    }
+
+    @Test
+    public void testLocalExecutorApproxCountUnique() {
+        Schema schema = new Schema.Builder().addColumnString("key").addColumnLong("user").addColumnDouble("value").build();
+        List<List<Writable>> data = new ArrayList<>();
+        for (int i = 0; i < 30000; i++) {
+            int key = i % 3;
+            data.add(Arrays.<Writable>asList(new Text("key" + key), new LongWritable((i / 3) % (1000 * (key + 1))),
+                            new DoubleWritable(i)));
+        }
+
+        TransformProcess tp = new TransformProcess.Builder(schema)
+                        .reduce(new Reducer.Builder(ReduceOp.TakeFirst).keyColumns("key").approxCountUniqueColumns("user")
+                                        .stdevColumns("value").build())
+                        .build();
+        assertEquals(tp, TransformProcess.fromJson(tp.toJson()));
+
+        List<List<Writable>> out;
+        try (LocalTransformExecutor exec = new LocalTransformExecutor.Builder().numThreads(4).minChunkSize(1000).build()) {
+            out = exec.execute(data, tp);
+        }
+        assertEquals(3, out.size());
+        for (int key = 0; key < 3; key++) {
+            List<Writable> l = out.get(key);
+            //Keys are returned in order of first appearance
+            assertEquals("key" + key, l.get(0).toString());
+            assertEquals(1000 * (key + 1), l.get(1).toInt(), 0.03 * 1000 * (key + 1));
+
+            List<List<Writable>> forKey = new ArrayList<>();
+            for (List<Writable> ex : data) {
+                if (ex.get(0).toString().equals("key" + key)) forKey.add(ex);
+            }
+            Reducer r = new Reducer.Builder(ReduceOp.TakeFirst).keyColumns("key").stdevColumns("value").build();
+            r.setInputSchema(schema);
+            assertEquals(r.reduce(forKey).get(2).toDouble(), l.get(2).toDouble(), 1e-6);
+        }
+    }
+}
@@ -54,6 +54,7 @@ import org.datavec.api.transform.transform.integer.ReplaceEmptyIntegerWithValueT
 import org.datavec.api.transform.transform.integer.ReplaceInvalidWithIntegerTransform;
 import org.datavec.api.transform.transform.longtransform.LongColumnsMathOpTransform;
 import org.datavec.api.transform.transform.longtransform.LongMathOpTransform;
+import org.datavec.api.transform.transform.sparse.SparseVectorNormalizer;
 import org.datavec.api.transform.transform.string.*;
 import org.datavec.api.transform.transform.time.DeriveColumnsFromTimeTransform;
 import org.datavec.api.transform.transform.time.StringToTimeTransform;
@@ -98,6 +99,7 @@ public class TestYamlJsonSerde {
                 new MinMaxNormalizer("ColName",0,100,-1,1),
                 new StandardizeNormalizer("ColName",20,5),
                 new SubtractMeanNormalizer("ColName",10),
+                new SparseVectorNormalizer("ColName", SparseVectorNormalizer.Norm.L2),
                 new IntegerColumnsMathOpTransform("NewName", MathOp.Multiply, "A", "B"),
                 new IntegerMathOpTransform("ColName", MathOp.Add, 10),
                 new ReplaceEmptyIntegerWithValueTransform("Col",3),
@@ -36,6 +36,7 @@ import org.datavec.api.transform.transform.integer.ReplaceInvalidWithIntegerTran
 import org.datavec.api.transform.transform.longtransform.LongColumnsMathOpTransform;
 import org.datavec.api.transform.transform.longtransform.LongMathOpTransform;
 import org.datavec.api.transform.transform.doubletransform.*;
+import org.datavec.api.transform.transform.sparse.SparseVectorNormalizer;
 import org.datavec.api.transform.transform.string.*;
 import org.datavec.api.transform.transform.time.DeriveColumnsFromTimeTransform;
 import org.datavec.api.transform.transform.time.StringToTimeTransform;
@@ -53,6 +54,7 @@ import org.datavec.api.transform.transform.integer.IntegerColumnsMathOpTransform
 import org.datavec.api.transform.transform.integer.IntegerMathOpTransform;
 import junit.framework.TestCase;
 import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.writable.Writable;
 import org.joda.time.DateTimeFieldType;
@@ -67,6 +69,7 @@ import java.util.*;
 import java.util.concurrent.TimeUnit;
 
 import static junit.framework.TestCase.assertEquals;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -314,6 +317,33 @@ public class TestTransforms {
         assertEquals(0.0, transform2.map(Collections.singletonList((Writable) new DoubleWritable(50))).get(0).toDouble(), 1e-6);
     }
 
+    @Test
+    public void testSparseVectorNormalizer() {
+        Schema schema = getSchema(ColumnType.String);
+
+        Transform l1 = new SparseVectorNormalizer("column", SparseVectorNormalizer.Norm.L1);
+        Transform l2 = new SparseVectorNormalizer("column", SparseVectorNormalizer.Norm.L2);
+        l1.setInputSchema(schema);
+        l2.setInputSchema(schema);
+        assertEquals(schema, l1.transform(schema));
+
+        SparseVectorWritable in = new SparseVectorWritable(10, new int[]{2, 7}, new double[]{3.0, -4.0});
+        List<Writable> out1 = l1.map(Collections.singletonList((Writable) in));
+        List<Writable> out2 = l2.map(Collections.singletonList((Writable) in));
+        SparseVectorWritable v1 = (SparseVectorWritable) out1.get(0);
+        SparseVectorWritable v2 = (SparseVectorWritable) out2.get(0);
+        assertEquals(10, v1.size());
+        assertArrayEquals(new int[]{2, 7}, v1.getIndices());
+        assertArrayEquals(new double[]{3.0 / 7, -4.0 / 7}, v1.getValues(), 1e-9);
+        assertArrayEquals(new int[]{2, 7}, v2.getIndices());
+        assertArrayEquals(new double[]{0.6, -0.8}, v2.getValues(), 1e-9);
+        //Input is not modified
+        assertArrayEquals(new double[]{3.0, -4.0}, in.getValues(), 0.0);
+
+        SparseVectorWritable zeros = new SparseVectorWritable(5, new int[0], new double[0]);
+        assertEquals(zeros, l2.map(Collections.singletonList((Writable) zeros)).get(0));
+    }
+
     @Test
     public void testStandardizeNormalizer() {
         Schema schema = getSchema(ColumnType.Double);
@@ -0,0 +1,175 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.writable;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.metadata.CategoricalMetaData;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.transform.transform.categorical.CategoricalToOneHotTransform;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestCategoricalWritable {
+
+    private static Schema getSchema() {
+        return new Schema.Builder()
+                .addColumnInteger("id")
+                .addColumnCategorical("cat", "a", "b", "c")
+                .addColumnDouble("value")
+                .build();
+    }
+
+    @Test
+    public void testParseCategoricalCodes() throws Exception {
+        Schema schema = getSchema();
+        SchemaWritableParser parser = new SchemaWritableParser(schema, SchemaWritableParser.InvalidValueMode.Exception, true);
+        List<Writable> record = parser.parse(new String[]{"1", "c", "0.5"});
+        assertTrue(record.get(1) instanceof CategoricalWritable);
+        CategoricalWritable cw = (CategoricalWritable) record.get(1);
+        assertEquals(2, cw.getCode());
+        assertEquals("c", cw.toString());
+        assertTrue(schema.getMetaData(1).isValid(cw));
+        assertFalse(schema.getMetaData(1).isValid(new CategoricalWritable(2, "d")));
+
+        try {
+            parser.parse(new String[]{"1", "d", "0.5"});
+            fail("Expected exception");
+        } catch (IllegalStateException e) {
+            //OK
+        }
+
+        //Round trip via the self-describing binary format
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        WritableUtils.writeRecord(record, new DataOutputStream(baos));
+        List<Writable> read = WritableUtils.readRecord(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        assertEquals(record, read);
+    }
+
+    @Test
+    public void testTransformsWithCodes() {
+        Schema schema = getSchema();
+        SchemaWritableParser codes = new SchemaWritableParser(schema, SchemaWritableParser.InvalidValueMode.Exception, true);
+        SchemaWritableParser text = new SchemaWritableParser(schema);
+
+        TransformProcess toInt = new TransformProcess.Builder(schema).categoricalToInteger("cat").build();
+        TransformProcess oneHot = new TransformProcess.Builder(schema).categoricalToOneHot("cat").build();
+
+        for (String state : Arrays.asList("a", "b", "c")) {
+            String[] values = {"7", state, "1.5"};
+            assertEquals(toInt.execute(text.parse(values)), toInt.execute(codes.parse(values)));
+
+            List<Writable> out = oneHot.execute(codes.parse(values));
+            List<Writable> expected = new ArrayList<>();
+            expected.add(new IntWritable(7));
+            for (String s : Arrays.asList("a", "b", "c")) {
+                expected.add(new IntWritable(s.equals(state) ? 1 : 0));
+            }
+            expected.add(new DoubleWritable(1.5));
+            assertEquals(expected, out);
+            assertEquals(expected, oneHot.execute(text.parse(values)));
+            assertEquals(oneHot.getFinalSchema().numColumns(), out.size());
+        }
+    }
+
+    @Test
+    public void testCompareAndSerializeDefault() throws Exception {
+        CategoricalWritable a = new CategoricalWritable(1, "a");
+        CategoricalWritable b = new CategoricalWritable(1, "b");
+        assertNotEquals(a, b);
+        assertTrue(a.compareTo(b) < 0);
+        assertTrue(b.compareTo(a) > 0);
+        assertEquals(0, a.compareTo(new CategoricalWritable(1, "a")));
+        assertTrue(new CategoricalWritable(0, "z").compareTo(a) < 0);
+
+        //Default constructed instance: can be written and read
+        CategoricalWritable empty = new CategoricalWritable();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        empty.write(new DataOutputStream(baos));
+        CategoricalWritable read = new CategoricalWritable(5, "x");
+        read.readFields(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        assertEquals(empty, read);
+    }
+
+    @Test
+    public void testOneHotRecord() {
+        List<Writable> original = Arrays.<Writable>asList(new IntWritable(0), new Text("x"), new IntWritable(5));
+        OneHotRecord r = new OneHotRecord(original, 1, 10000, 1234);
+        assertEquals(10001 + 1, r.size());
+        assertEquals(new IntWritable(0), r.get(0));
+        assertEquals(new IntWritable(0), r.get(1));
+        assertEquals(new IntWritable(1), r.get(1 + 1234));
+        assertEquals(new IntWritable(5), r.get(r.size() - 1));
+        assertEquals(1234, r.getHotIndex());
+
+        r.set(0, new IntWritable(3));
+        assertEquals(new IntWritable(3), r.get(0));
+        assertEquals(new IntWritable(1), r.get(1 + 1234));
+        assertEquals(10002, r.size());
+
+        CategoricalMetaData meta = new CategoricalMetaData("cat", "a", "b");
+        assertEquals(new CategoricalWritable(1, "b"), meta.toWritable("b"));
+        assertEquals(1, meta.getStateIndex(new Text("b")));
+        assertEquals(-1, meta.getStateIndex("z"));
+    }
+
+    @Test
+    public void testOneHotSparseOptInAndSerialization() throws Exception {
+        Schema schema = getSchema();
+        List<Writable> in = new ArrayList<>(Arrays.<Writable>asList(new IntWritable(3), new Text("b"), new DoubleWritable(0.5)));
+        List<Writable> expected = Arrays.<Writable>asList(new IntWritable(3), new IntWritable(0), new IntWritable(1),
+                        new IntWritable(0), new DoubleWritable(0.5));
+
+        CategoricalToOneHotTransform dense = new CategoricalToOneHotTransform("cat");
+        dense.setInputSchema(schema);
+        List<Writable> outDense = dense.map(in);
+        assertFalse(outDense instanceof OneHotRecord);
+        assertEquals(expected, outDense);
+
+        CategoricalToOneHotTransform sparse = new CategoricalToOneHotTransform("cat", true);
+        sparse.setInputSchema(schema);
+        List<Writable> outSparse = sparse.map(in);
+        assertTrue(outSparse instanceof OneHotRecord);
+        assertEquals(expected, outSparse);
+        //Input is copied: later changes to it don't affect the output
+        in.set(0, new IntWritable(-1));
+        assertEquals(expected, outSparse);
+
+        //Java serialization writes a dense ArrayList
+        for (List<Writable> l : Arrays.<List<Writable>>asList(outSparse, new DoubleArrayRecord(1.0, 2.0),
+                        new LongArrayRecord(3L, 4L))) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+                oos.writeObject(l);
+            }
+            Object read;
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()))) {
+                read = ois.readObject();
+            }
+            assertEquals(ArrayList.class, read.getClass());
+            assertEquals(l, read);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.api.writable;
+
+import org.datavec.api.records.reader.impl.SchemaWritableParser;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.split.StringSplit;
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestPrimitiveRecords {
+
+    @Test
+    public void testDoubleArrayRecord() {
+        DoubleArrayRecord r = new DoubleArrayRecord(1.0, 2.5, -3.0);
+        List<Writable> expected = Arrays.<Writable>asList(new DoubleWritable(1.0), new DoubleWritable(2.5),
+                new DoubleWritable(-3.0));
+        assertEquals(3, r.size());
+        assertEquals(expected, r);
+        assertEquals(expected.hashCode(), r.hashCode());
+        assertEquals(r, DoubleArrayRecord.fromRecord(expected));
+
+        r.set(1, new IntWritable(7));
+        assertEquals(7.0, r.getDouble(1), 0.0);
+        r.setDouble(2, 4.0);
+        assertEquals(new DoubleWritable(4.0), r.get(2));
+
+        LongArrayRecord l = new LongArrayRecord(1L, 2L);
+        assertEquals(Arrays.<Writable>asList(new LongWritable(1), new LongWritable(2)), l);
+        assertArrayEquals(new long[]{1, 2}, l.toLongArray());
+    }
+
+    @Test
+    public void testReducerDoubleArrayRecords() {
+        Schema schema = new Schema.Builder().addColumnDouble("key").addColumnDouble("a").addColumnDouble("b")
+                .addColumnDouble("c").addColumnDouble("d").build();
+        Reducer reducer = new Reducer.Builder(ReduceOp.Sum).keyColumns("key").minColumns("a").stdevColumns("b")
+                .takeLastColumns("c").build();
+        reducer.setInputSchema(schema);
+
+        List<List<Writable>> primitive = new ArrayList<>();
+        List<List<Writable>> boxed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DoubleArrayRecord r = new DoubleArrayRecord(0, i, i * i, -i, 0.5 * i);
+            primitive.add(r);
+            boxed.add(new ArrayList<>(r));
+        }
+
+        List<Writable> out = reducer.reduce(primitive);
+        assertEquals(reducer.reduce(boxed), out);
+        assertEquals(0.0, out.get(1).toDouble(), 0.0);
+        assertEquals(22.5, out.get(4).toDouble(), 1e-9);
+    }
+
+    @Test
+    public void testReducerLongArrayRecords() {
+        Schema schema = new Schema.Builder().addColumnLong("key").addColumnLong("a").addColumnInteger("b")
+                .addColumnLong("c").addColumnLong("d").build();
+        Reducer reducer = new Reducer.Builder(ReduceOp.Sum).keyColumns("key").rangeColumns("a").meanColumns("b")
+                .stdevColumns("c").build();
+        reducer.setInputSchema(schema);
+
+        List<List<Writable>> primitive = new ArrayList<>();
+        List<List<Writable>> boxed = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            LongArrayRecord r = new LongArrayRecord(0, i, i * i, -i, 3L * i);
+            primitive.add(r);
+            boxed.add(new ArrayList<>(r));
+        }
+
+        List<Writable> out = reducer.reduce(primitive);
+        assertEquals(reducer.reduce(boxed), out);
+        assertEquals(new LongWritable(9), out.get(1));
+        assertEquals(new DoubleWritable(28.5), out.get(2));
+        assertEquals(new LongWritable(135), out.get(4));
+    }
+
+    @Test
+    public void testSchemaWritableParserPrimitiveRecords() throws Exception {
+        Schema doubles = new Schema.Builder().addColumnsDouble("a", "b").build();
+        SchemaWritableParser parser = new SchemaWritableParser(doubles, SchemaWritableParser.InvalidValueMode.KeepText,
+                false, true);
+        List<Writable> r = parser.parse(new String[]{"1.5", "-2"});
+        assertTrue(r instanceof DoubleArrayRecord);
+        assertEquals(Arrays.<Writable>asList(new DoubleWritable(1.5), new DoubleWritable(-2)), r);
+
+        //Invalid values: standard list
+        List<Writable> invalid = parser.parse(new String[]{"1.5", "x"});
+        assertFalse(invalid instanceof DoubleArrayRecord);
+        assertEquals(Arrays.<Writable>asList(new DoubleWritable(1.5), new Text("x")), invalid);
+
+        Schema longs = new Schema.Builder().addColumnLong("a").addColumnTime("t", DateTimeZone.UTC).build();
+        SchemaWritableParser longParser = new SchemaWritableParser(longs, SchemaWritableParser.InvalidValueMode.KeepText,
+                false, true);
+        FastCSVRecordReader rr = new FastCSVRecordReader(0, ',', '"', longParser);
+        rr.initialize(new StringSplit("3,1451606400000"));
+        List<Writable> l = rr.next();
+        assertTrue(l instanceof LongArrayRecord);
+        assertEquals(Arrays.<Writable>asList(new LongWritable(3), new LongWritable(1451606400000L)), l);
+
+        //Mixed column types: standard list
+        Schema mixed = new Schema.Builder().addColumnDouble("a").addColumnLong("b").build();
+        List<Writable> m = new SchemaWritableParser(mixed, SchemaWritableParser.InvalidValueMode.KeepText, false, true)
+                .parse(new String[]{"1.5", "2"});
+        assertFalse(m instanceof DoubleArrayRecord);
+        assertEquals(Arrays.<Writable>asList(new DoubleWritable(1.5), new LongWritable(2)), m);
+    }
+}
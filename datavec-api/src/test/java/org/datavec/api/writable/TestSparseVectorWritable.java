@@ -0,0 +1,168 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.api.writable;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.conf.Configuration;
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.impl.LineRecordReader;
+import org.datavec.api.records.reader.impl.misc.LibSvmRecordReader;
+import org.datavec.api.records.reader.impl.misc.SVMLightRecordReader;
+import org.datavec.api.records.writer.RecordWriter;
+import org.datavec.api.records.writer.impl.FileRecordWriter;
+import org.datavec.api.records.writer.impl.misc.LibSvmRecordWriter;
+import org.datavec.api.split.FileSplit;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestSparseVectorWritable {
+
+    @Test
+    public void testBasicOps() {
+        SparseVectorWritable v = new SparseVectorWritable(6, new int[]{1, 4}, new double[]{3.0, -4.0});
+        assertEquals(6, v.length());
+        assertEquals(2, v.numNonZero());
+        assertEquals(3.0, v.get(1), 0.0);
+        assertEquals(0.0, v.get(2), 0.0);
+        assertEquals(-4.0, v.getDouble(4), 0.0);
+        assertArrayEquals(new double[]{0, 3, 0, 0, -4, 0}, v.toDense(), 0.0);
+        assertEquals(v, SparseVectorWritable.fromDense(v.toDense()));
+
+        assertEquals(5.0, v.norm2(), 1e-12);
+        assertEquals(7.0, v.norm1(), 1e-12);
+        assertEquals(3.0 * 2 - 4.0 * 0.5, v.dot(new double[]{9, 2, 9, 9, 0.5, 9}), 1e-12);
+
+        double[] sum = new double[6];
+        double[] sumSq = new double[6];
+        double[] maxAbs = new double[6];
+        v.addTo(sum, sumSq);
+        v.updateMaxAbs(maxAbs);
+        assertArrayEquals(new double[]{0, 3, 0, 0, -4, 0}, sum, 0.0);
+        assertArrayEquals(new double[]{0, 9, 0, 0, 16, 0}, sumSq, 0.0);
+        assertArrayEquals(new double[]{0, 3, 0, 0, 4, 0}, maxAbs, 0.0);
+
+        v.divide(maxAbs);
+        assertArrayEquals(new double[]{1.0, -1.0}, v.getValues(), 1e-12);
+        v.normalizeL2();
+        assertEquals(1.0, v.norm2(), 1e-12);
+        assertArrayEquals(new int[]{1, 4}, v.getIndices());
+
+        //Zero vector: normalization is a no-op
+        SparseVectorWritable empty = new SparseVectorWritable(3, new int[0], new double[0]);
+        empty.normalizeL1();
+        assertArrayEquals(new double[3], empty.toDense(), 0.0);
+    }
+
+    @Test
+    public void testInvalid() {
+        try {
+            new SparseVectorWritable(5, new int[]{2, 1}, new double[]{1, 1});
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            //OK
+        }
+        try {
+            new SparseVectorWritable(2, new int[]{2}, new double[]{1});
+            fail("Expected exception");
+        } catch (IllegalArgumentException e) {
+            //OK
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        SparseVectorWritable v = new SparseVectorWritable(1000000, new int[]{0, 17, 999999}, new double[]{1.5, 2, -3});
+        assertEquals(WritableType.SparseVector, WritableType.typeOf(v));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        WritableUtils.writeWritable(v, new DataOutputStream(baos));
+        //Size should be proportional to the number of non-zeros, not the vector length
+        assertTrue(baos.size() < 100);
+
+        Writable read = WritableUtils.readWritable(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        assertEquals(v, read);
+        assertEquals(v.hashCode(), read.hashCode());
+    }
+
+    @Test
+    public void testSparseReaders() throws Exception {
+        File f = File.createTempFile("sparse", ".libsvm");
+        f.deleteOnExit();
+        FileUtils.writeStringToFile(f, "1 2:0.5 5:3\n0 1:1 3:-2 4:0\n");
+
+        Configuration conf = new Configuration();
+        conf.set(LineRecordReader.APPEND_LABEL, "true");
+        conf.set(LibSvmRecordReader.SPARSE, "true");
+        conf.set(LibSvmRecordReader.NUM_FEATURES, "8");
+        RecordReader rr = new LibSvmRecordReader();
+        rr.initialize(conf, new FileSplit(f));
+
+        List<List<Writable>> records = new ArrayList<>();
+        while (rr.hasNext()) {
+            records.add(rr.next());
+        }
+        assertEquals(2, records.size());
+        assertEquals(Arrays.<Writable>asList(new SparseVectorWritable(8, new int[]{1, 4}, new double[]{0.5, 3}),
+                        new DoubleWritable(1)), records.get(0));
+        //Explicit zeros are not stored
+        assertEquals(Arrays.<Writable>asList(new SparseVectorWritable(8, new int[]{0, 2}, new double[]{1, -2}),
+                        new DoubleWritable(0)), records.get(1));
+
+        //SVMLight: no number of attributes specified -> max index on each line
+        Configuration conf2 = new Configuration();
+        conf2.set(SVMLightRecordReader.SPARSE, "true");
+        RecordReader svm = new SVMLightRecordReader();
+        svm.initialize(conf2, new FileSplit(f));
+        List<Writable> first = svm.next();
+        assertEquals(new SparseVectorWritable(5, new int[]{1, 4}, new double[]{0.5, 3}), first.get(0));
+        assertEquals(1.0, first.get(1).toDouble(), 0.0);
+
+        //Dense SVMLight output is unchanged
+        RecordReader dense = new SVMLightRecordReader();
+        dense.initialize(new Configuration(), new FileSplit(f));
+        List<Writable> denseFirst = dense.next();
+        assertEquals(Arrays.<Writable>asList(new DoubleWritable(0), new DoubleWritable(0.5), new DoubleWritable(0),
+                        new DoubleWritable(0), new DoubleWritable(3), new DoubleWritable(1)), denseFirst);
+
+        //Round trip via the writer: only non-zeros written
+        File out = File.createTempFile("sparse_out", ".libsvm");
+        out.deleteOnExit();
+        conf.set(FileRecordWriter.PATH, out.getAbsolutePath());
+        conf.set(FileRecordWriter.APPEND, "false");
+        RecordWriter writer = new LibSvmRecordWriter();
+        writer.setConf(conf);
+        for (List<Writable> r : records) {
+            writer.write(r);
+        }
+        writer.close();
+        assertEquals(Arrays.asList("1 2:0.5 5:3.0", "0 1:1.0 3:-2.0"), FileUtils.readLines(out));
+
+        RecordReader rr2 = new LibSvmRecordReader();
+        rr2.initialize(conf, new FileSplit(out));
+        for (List<Writable> r : records) {
+            assertEquals(r, rr2.next());
+        }
+        assertFalse(rr2.hasNext());
+    }
+}
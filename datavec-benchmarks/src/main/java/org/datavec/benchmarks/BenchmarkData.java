@@ -0,0 +1,191 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.*;
+import org.datavec.audio.Wave;
+import org.datavec.audio.WaveHeader;
+import org.joda.time.DateTimeZone;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic data generators for the benchmarks. All data is generated from a fixed seed, so that every benchmark run
+ * (on any machine) processes exactly the same data.
+ */
+public class BenchmarkData {
+
+    public static final long SEED = 12345;
+    public static final String[] CATEGORIES = {"cat0", "cat1", "cat2", "cat3", "cat4"};
+    public static final String LOG_REGEX = "(\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\.\\d{3}) (\\w+) \\[(.*?)\\] (.*)";
+    private static final String[] LOG_LEVELS = {"DEBUG", "INFO", "WARN", "ERROR"};
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Schema for the records generated by {@link #records(int, int)}
+     */
+    public static Schema schema() {
+        return new Schema.Builder()
+                .addColumnInteger("key")
+                .addColumnsDouble("d0", "d1")
+                .addColumnLong("l0")
+                .addColumnCategorical("cat", CATEGORIES)
+                .addColumnString("str")
+                .addColumnTime("time", DateTimeZone.UTC)
+                .build();
+    }
+
+    /**
+     * Generate records with {@link #schema()}
+     *
+     * @param n       Number of records
+     * @param numKeys Number of distinct values for the "key" column
+     */
+    public static List<List<Writable>> records(int n, int numKeys) {
+        Random r = new Random(SEED);
+        List<List<Writable>> out = new ArrayList<>(n);
+        long time = 1451606400000L;     //2016-01-01
+        for (int i = 0; i < n; i++) {
+            time += r.nextInt(60000);
+            out.add(Arrays.<Writable>asList(
+                    new IntWritable(r.nextInt(numKeys)),
+                    new DoubleWritable(r.nextGaussian()),
+                    new DoubleWritable(100 * r.nextDouble()),
+                    new LongWritable(r.nextLong() % 1000000),
+                    new Text(CATEGORIES[r.nextInt(CATEGORIES.length)]),
+                    new Text(" value_" + r.nextInt(1000) + " "),
+                    new LongWritable(time)));
+        }
+        return out;
+    }
+
+    /**
+     * Write the records to a CSV file
+     */
+    public static File csvFile(List<List<Writable>> records, File dir) throws IOException {
+        File f = new File(dir, "data.csv");
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(f))) {
+            for (List<Writable> record : records) {
+                for (int i = 0; i < record.size(); i++) {
+                    if (i > 0) w.write(',');
+                    w.write(record.get(i).toString());
+                }
+                w.write('\n');
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Write a log file with n lines, in a format matching {@link #LOG_REGEX}
+     */
+    public static File logFile(int n, File dir) throws IOException {
+        Random r = new Random(SEED);
+        File f = new File(dir, "data.log");
+        try (BufferedWriter w = new BufferedWriter(new FileWriter(f))) {
+            for (int i = 0; i < n; i++) {
+                w.write(String.format("2016-01-%02d %02d:%02d:%02d.%03d %s [thread-%d] Processed request %d in %d ms\n",
+                        1 + r.nextInt(28), r.nextInt(24), r.nextInt(60), r.nextInt(60), r.nextInt(1000),
+                        LOG_LEVELS[r.nextInt(LOG_LEVELS.length)], r.nextInt(16), r.nextInt(100000), r.nextInt(500)));
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Write n JSON files (one object per file), each with fields "a" (number), "b" (string) and "c.d" (nested number)
+     *
+     * @return The directory containing the files
+     */
+    public static File jsonFiles(int n, File dir) throws IOException {
+        Random r = new Random(SEED);
+        File jsonDir = new File(dir, "json");
+        jsonDir.mkdirs();
+        for (int i = 0; i < n; i++) {
+            String json = "{\"a\":" + r.nextDouble() + ",\"b\":\"value_" + r.nextInt(1000) + "\",\"c\":{\"d\":"
+                    + r.nextInt() + ",\"e\":[1,2,3]}}";
+            FileUtils.writeStringToFile(new File(jsonDir, "record_" + i + ".json"), json);
+        }
+        return jsonDir;
+    }
+
+    /**
+     * Generate an encoded image (random noise over a gradient), in the specified format ("png", "jpg", etc)
+     */
+    public static byte[] image(int height, int width, String format) throws IOException {
+        Random r = new Random(SEED);
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int red = (255 * x / width + r.nextInt(32)) & 0xFF;
+                int green = (255 * y / height + r.nextInt(32)) & 0xFF;
+                int blue = r.nextInt(256);
+                img.setRGB(x, y, (red << 16) | (green << 8) | blue);
+            }
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(img, format, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Generate a mono, 16-bit PCM wave: a mix of sine waves plus noise
+     *
+     * @param seconds    Length, in seconds
+     * @param sampleRate Sample rate (Hz)
+     */
+    public static Wave wave(int seconds, int sampleRate) {
+        Random r = new Random(SEED);
+        int numSamples = seconds * sampleRate;
+        byte[] data = new byte[2 * numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            double t = i / (double) sampleRate;
+            double v = 0.5 * Math.sin(2 * Math.PI * 440 * t) + 0.3 * Math.sin(2 * Math.PI * 1250 * t)
+                    + 0.1 * r.nextGaussian();
+            short s = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, v * 16000));
+            data[2 * i] = (byte) (s & 0xFF);
+            data[2 * i + 1] = (byte) ((s >> 8) & 0xFF);
+        }
+
+        //Note: setSampleRate rescales the chunk sizes, so must be called before they are set
+        WaveHeader header = new WaveHeader();
+        header.setSampleRate(sampleRate);
+        header.setChunkId(WaveHeader.RIFF_HEADER);
+        header.setFormat(WaveHeader.WAVE_HEADER);
+        header.setSubChunk1Id(WaveHeader.FMT_HEADER);
+        header.setSubChunk1Size(16);
+        header.setAudioFormat(1);
+        header.setChannels(1);
+        header.setByteRate(2L * sampleRate);
+        header.setBlockAlign(2);
+        header.setBitsPerSample(16);
+        header.setSubChunk2Id(WaveHeader.DATA_HEADER);
+        header.setSubChunk2Size(data.length);
+        header.setChunkSize(36 + data.length);
+        return new Wave(header, data);
+    }
+}
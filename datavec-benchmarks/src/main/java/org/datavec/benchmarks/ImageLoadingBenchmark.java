@@ -0,0 +1,62 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.datavec.image.loader.NativeImageLoader;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image loading (decode, resize and conversion to an INDArray) using {@link NativeImageLoader}, for JPEG and PNG
+ * images of various sizes. Scores are in images per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ImageLoadingBenchmark {
+
+    @Param({"jpg", "png"})
+    public String format;
+
+    /** Size (height and width) of the encoded images */
+    @Param({"256", "1024"})
+    public int imageSize;
+
+    /** Size (height and width) of the output arrays */
+    @Param({"224"})
+    public int outputSize;
+
+    private byte[] image;
+    private NativeImageLoader loader;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        image = BenchmarkData.image(imageSize, imageSize, format);
+        loader = new NativeImageLoader(outputSize, outputSize, 3);
+    }
+
+    @Benchmark
+    public INDArray asMatrix() throws Exception {
+        return loader.asMatrix(new ByteArrayInputStream(image));
+    }
+}
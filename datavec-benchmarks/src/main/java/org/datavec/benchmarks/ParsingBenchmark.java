@@ -0,0 +1,120 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.io.FileUtils;
+import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.records.reader.impl.csv.CSVRecordReader;
+import org.datavec.api.records.reader.impl.csv.FastCSVRecordReader;
+import org.datavec.api.records.reader.impl.jackson.FieldSelection;
+import org.datavec.api.records.reader.impl.jackson.JacksonRecordReader;
+import org.datavec.api.records.reader.impl.regex.RegexLineRecordReader;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.split.NumberedFileInputSplit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record reader parsing throughput: CSV (String-based and byte-level parsers, with and without a schema), regex and
+ * JSON. Each invocation reads the entire (synthetic) data set; scores are in data sets per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ParsingBenchmark {
+
+    @Param({"10000"})
+    public int numRecords;
+
+    private File dir;
+    private File csvFile;
+    private File logFile;
+    private File jsonDir;
+    private int numJson;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("datavec-benchmarks").toFile();
+        csvFile = BenchmarkData.csvFile(BenchmarkData.records(numRecords, 100), dir);
+        logFile = BenchmarkData.logFile(numRecords, dir);
+        //JSON: one record per file, so fewer records to keep the benchmark dominated by parsing rather than file opens
+        numJson = numRecords / 10;
+        jsonDir = BenchmarkData.jsonFiles(numJson, dir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(dir);
+    }
+
+    private static int readAll(RecordReader rr, File f, Blackhole bh) throws Exception {
+        return readAll(rr, new FileSplit(f), bh);
+    }
+
+    private static int readAll(RecordReader rr, InputSplit split, Blackhole bh) throws Exception {
+        rr.initialize(split);
+        int count = 0;
+        while (rr.hasNext()) {
+            bh.consume(rr.next());
+            count++;
+        }
+        rr.close();
+        return count;
+    }
+
+    @Benchmark
+    public int csv(Blackhole bh) throws Exception {
+        return readAll(new CSVRecordReader(0, ","), csvFile, bh);
+    }
+
+    @Benchmark
+    public int csvSchema(Blackhole bh) throws Exception {
+        return readAll(new CSVRecordReader(0, ",", BenchmarkData.schema()), csvFile, bh);
+    }
+
+    @Benchmark
+    public int csvFast(Blackhole bh) throws Exception {
+        return readAll(new FastCSVRecordReader(0, ','), csvFile, bh);
+    }
+
+    @Benchmark
+    public int csvFastSchema(Blackhole bh) throws Exception {
+        return readAll(new FastCSVRecordReader(0, ',', '"', BenchmarkData.schema()), csvFile, bh);
+    }
+
+    @Benchmark
+    public int regex(Blackhole bh) throws Exception {
+        return readAll(new RegexLineRecordReader(BenchmarkData.LOG_REGEX, 0), logFile, bh);
+    }
+
+    @Benchmark
+    public int json(Blackhole bh) throws Exception {
+        FieldSelection fs = new FieldSelection.Builder().addField("a").addField("b").addField("c", "d").build();
+        InputSplit split = new NumberedFileInputSplit(new File(jsonDir, "record_%d.json").getAbsolutePath(), 0,
+                numJson - 1);
+        return readAll(new JacksonRecordReader(fs, new ObjectMapper()), split, bh);
+    }
+}
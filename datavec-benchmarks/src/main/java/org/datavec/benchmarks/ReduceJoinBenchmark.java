@@ -0,0 +1,105 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.datavec.api.transform.ReduceOp;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.reduce.Reducer;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Writable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link Reducer#reduce(List)} (reducing all groups of a data set) and
+ * {@link Join#joinExamples(List, List)} (joining every record of a data set with a matching record).
+ * Scores are in data sets per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReduceJoinBenchmark {
+
+    @Param({"10000"})
+    public int numRecords;
+
+    @Param({"10", "1000"})
+    public int numKeys;
+
+    private List<List<Writable>> records;
+    private Collection<List<List<Writable>>> groups;
+    private Reducer reducer;
+    private Join join;
+    private Map<Integer, List<Writable>> rightByKey;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Schema schema = BenchmarkData.schema();
+        records = BenchmarkData.records(numRecords, numKeys);
+
+        Map<Integer, List<List<Writable>>> byKey = new HashMap<>();
+        for (List<Writable> r : records) {
+            int key = r.get(0).toInt();
+            List<List<Writable>> l = byKey.get(key);
+            if (l == null) {
+                l = new ArrayList<>();
+                byKey.put(key, l);
+            }
+            l.add(r);
+        }
+        groups = byKey.values();
+
+        reducer = new Reducer.Builder(ReduceOp.TakeFirst)
+                .keyColumns("key")
+                .meanColumns("d0")
+                .stdevColumns("d1")
+                .sumColumns("l0")
+                .countUniqueColumns("cat")
+                .takeLastColumns("str")
+                .build();
+        reducer.setInputSchema(schema);
+
+        Schema rightSchema = new Schema.Builder().addColumnInteger("key").addColumnDouble("value").build();
+        join = new Join.Builder(Join.JoinType.Inner).setSchemas(schema, rightSchema).setKeyColumns("key").build();
+        rightByKey = new HashMap<>();
+        for (Integer key : byKey.keySet()) {
+            rightByKey.put(key, Arrays.<Writable>asList(new IntWritable(key), new DoubleWritable(key / 2.0)));
+        }
+    }
+
+    @Benchmark
+    public void reduce(Blackhole bh) {
+        for (List<List<Writable>> group : groups) {
+            bh.consume(reducer.reduce(group));
+        }
+    }
+
+    @Benchmark
+    public void join(Blackhole bh) {
+        for (List<Writable> left : records) {
+            bh.consume(join.joinExamples(left, rightByKey.get(left.get(0).toInt())));
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.datavec.audio.Wave;
+import org.datavec.audio.extension.Spectrogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spectrogram computation for a (synthetic) 10 second, 16 kHz mono wave. Scores are in spectrograms per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SpectrogramBenchmark {
+
+    @Param({"512", "2048"})
+    public int fftSampleSize;
+
+    @Param({"1", "4"})
+    public int overlapFactor;
+
+    private Wave wave;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        wave = BenchmarkData.wave(10, 16000);
+    }
+
+    @Benchmark
+    public double[][] spectrogram() {
+        return new Spectrogram(wave, fftSampleSize, overlapFactor).getNormalizedSpectrogramData();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.datavec.api.records.batch.RecordBatch;
+import org.datavec.api.transform.CompiledTransformProcess;
+import org.datavec.api.transform.MathOp;
+import org.datavec.api.transform.TransformProcess;
+import org.datavec.api.transform.condition.ConditionOp;
+import org.datavec.api.transform.condition.column.DoubleColumnCondition;
+import org.datavec.api.transform.filter.ConditionFilter;
+import org.datavec.api.transform.transform.doubletransform.MinMaxNormalizer;
+import org.datavec.api.transform.transform.doubletransform.StandardizeNormalizer;
+import org.datavec.api.transform.transform.time.DeriveColumnsFromTimeTransform;
+import org.datavec.api.writable.DoubleWritable;
+import org.datavec.api.writable.Writable;
+import org.joda.time.DateTimeFieldType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransformProcess throughput, for each category of transform. Each category is benchmarked using per-record
+ * execution ({@link TransformProcess#execute(List)}), compiled execution ({@link CompiledTransformProcess}) and
+ * columnar execution ({@link TransformProcess#executeBatch(RecordBatch)}). Scores are in data sets per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TransformBenchmark {
+
+    @Param({"10000"})
+    public int numRecords;
+
+    @Param({"math", "categorical", "string", "time", "normalize", "columns", "filter", "conditional"})
+    public String category;
+
+    private List<List<Writable>> records;
+    private RecordBatch batch;
+    private TransformProcess tp;
+    private CompiledTransformProcess compiled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        records = BenchmarkData.records(numRecords, 100);
+        batch = RecordBatch.fromRecords(records);
+        tp = transformProcess(category);
+        compiled = tp.compile();
+    }
+
+    /**
+     * @return A TransformProcess for the specified category of transforms, on {@link BenchmarkData#schema()}
+     */
+    public static TransformProcess transformProcess(String category) {
+        TransformProcess.Builder b = new TransformProcess.Builder(BenchmarkData.schema());
+        switch (category) {
+            case "math":
+                b.integerMathOp("key", MathOp.Add, 1)
+                        .doubleMathOp("d0", MathOp.Multiply, 2.0)
+                        .longMathOp("l0", MathOp.Modulus, 1000)
+                        .doubleColumnsMathOp("d0plusd1", MathOp.Add, "d0", "d1");
+                break;
+            case "categorical":
+                b.categoricalToOneHot("cat");
+                break;
+            case "string":
+                b.stringRemoveWhitespaceTransform("str")
+                        .stringMapTransform("str", Collections.singletonMap("value_0", "value_zero"));
+                break;
+            case "time":
+                b.transform(new DeriveColumnsFromTimeTransform.Builder("time")
+                        .addIntegerDerivedColumn("hourOfDay", DateTimeFieldType.hourOfDay())
+                        .addIntegerDerivedColumn("dayOfWeek", DateTimeFieldType.dayOfWeek())
+                        .build());
+                break;
+            case "normalize":
+                b.transform(new StandardizeNormalizer("d0", 0.0, 1.0))
+                        .transform(new MinMaxNormalizer("d1", 0.0, 100.0));
+                break;
+            case "columns":
+                b.duplicateColumn("d0", "d0copy")
+                        .renameColumn("l0", "long")
+                        .reorderColumns("time", "key")
+                        .removeColumns("str");
+                break;
+            case "filter":
+                b.filter(new ConditionFilter(new DoubleColumnCondition("d0", ConditionOp.LessThan, 0.0)));
+                break;
+            case "conditional":
+                b.conditionalReplaceValueTransform("d1", new DoubleWritable(0.0),
+                        new DoubleColumnCondition("d1", ConditionOp.GreaterThan, 50.0));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown transform category: " + category);
+        }
+        return b.build();
+    }
+
+    @Benchmark
+    public void execute(Blackhole bh) {
+        for (List<Writable> record : records) {
+            bh.consume(tp.execute(record));
+        }
+    }
+
+    @Benchmark
+    public void compiled(Blackhole bh) {
+        for (List<Writable> record : records) {
+            bh.consume(compiled.execute(record));
+        }
+    }
+
+    @Benchmark
+    public RecordBatch batch() {
+        return tp.executeBatch(batch);
+    }
+}
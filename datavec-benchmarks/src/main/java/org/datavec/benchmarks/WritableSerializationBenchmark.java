@@ -0,0 +1,105 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.benchmarks;
+
+import org.datavec.api.io.WritableUtils;
+import org.datavec.api.writable.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writable serialization round trips: {@link Writable#write(DataOutput)} followed by
+ * {@link Writable#readFields(DataInput)}, for individual writables and for entire records (via
+ * {@link WritableUtils#writeRecord(List, DataOutput)}). Scores are in round trips per microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class WritableSerializationBenchmark {
+
+    private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(baos);
+
+    private IntWritable intWritable = new IntWritable(123456);
+    private DoubleWritable doubleWritable = new DoubleWritable(Math.PI);
+    private LongWritable longWritable = new LongWritable(1451606400000L);
+    private Text shortText = new Text("value_123");
+    private Text longText;
+    private List<Writable> record;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) sb.append("lorem ipsum ");
+        longText = new Text(sb.toString());
+        record = BenchmarkData.records(1, 100).get(0);
+    }
+
+    private DataInputStream write(Writable w) throws IOException {
+        baos.reset();
+        w.write(out);
+        return new DataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+    }
+
+    @Benchmark
+    public Writable intWritable() throws IOException {
+        IntWritable w = new IntWritable();
+        w.readFields(write(intWritable));
+        return w;
+    }
+
+    @Benchmark
+    public Writable doubleWritable() throws IOException {
+        DoubleWritable w = new DoubleWritable();
+        w.readFields(write(doubleWritable));
+        return w;
+    }
+
+    @Benchmark
+    public Writable longWritable() throws IOException {
+        LongWritable w = new LongWritable();
+        w.readFields(write(longWritable));
+        return w;
+    }
+
+    @Benchmark
+    public Writable shortText() throws IOException {
+        Text w = new Text();
+        w.readFields(write(shortText));
+        return w;
+    }
+
+    @Benchmark
+    public Writable longText() throws IOException {
+        Text w = new Text();
+        w.readFields(write(longText));
+        return w;
+    }
+
+    @Benchmark
+    public List<Writable> record() throws IOException {
+        baos.reset();
+        WritableUtils.writeRecord(record, out);
+        return WritableUtils.readRecord(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+    }
+}
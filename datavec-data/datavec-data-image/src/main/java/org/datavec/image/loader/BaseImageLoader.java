@@ -49,11 +49,27 @@ public abstract class BaseImageLoader implements Serializable {
     protected double normalizeValue = 0.0;
     protected boolean normalizeIfNeeded = false;
     protected ImageTransform imageTransform = null;
+    protected transient ImageCache imageCache = null;
 
     public String[] getAllowedFormats() {
         return ALLOWED_FORMATS;
     }
 
+    /**
+     * Set the cache of decoded and scaled images used when loading files, or null for no caching (the default).
+     * Cached images are keyed by file location and modification time. With an image transform, the images are cached
+     * as decoded, before the transform and scaling, so the output is the same as without a cache (and random
+     * transforms differ on every load).
+     * Not all loaders support caching: see {@link NativeImageLoader}.
+     */
+    public void setImageCache(ImageCache imageCache) {
+        this.imageCache = imageCache;
+    }
+
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
     public abstract INDArray asRowVector(File f) throws IOException;
     public abstract INDArray asRowVector(InputStream inputStream) throws IOException;
     public abstract INDArray asMatrix(File f) throws IOException;
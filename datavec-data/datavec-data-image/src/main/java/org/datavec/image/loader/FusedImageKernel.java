@@ -0,0 +1,165 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.loader;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+
+/**
+ * Pure Java image kernels, for when the native (JavaCV) libraries are not available.<br>
+ * {@link #resize(byte[], int, int, int, int, int, int, int, float[], int, int, int, float)} performs the crop, the
+ * bilinear resize, the conversion from interleaved (HWC) to planar (CHW) channels and the normalization in a single
+ * pass over primitive arrays. Interpolation indices and weights are computed once per row and column, so that the
+ * inner loop is free of branches and divisions.
+ */
+public class FusedImageKernel {
+
+    private FusedImageKernel() {
+    }
+
+    /**
+     * Get the pixels of an image as interleaved bytes in BGR order (3 channels) or grayscale (1 channel), reading
+     * the raster directly when the image is already in that format
+     *
+     * @param image    Image to get the pixels of
+     * @param channels Number of channels: 1 (grayscale) or 3 (BGR)
+     * @return The pixels, row by row, of length height * width * channels. May be the array of the raster itself,
+     * so must not be modified
+     */
+    public static byte[] toBytes(BufferedImage image, int channels) {
+        if (channels != 1 && channels != 3) {
+            throw new IllegalArgumentException("Unsupported number of channels: " + channels + " (must be 1 or 3)");
+        }
+        int h = image.getHeight();
+        int w = image.getWidth();
+        int expectedType = (channels == 3 ? BufferedImage.TYPE_3BYTE_BGR : BufferedImage.TYPE_BYTE_GRAY);
+        if (image.getType() == expectedType) {
+            byte[] direct = rasterBytes(image.getRaster(), h, w, channels);
+            if (direct != null) return direct;
+        }
+
+        int[] argb = image.getRGB(0, 0, w, h, null, 0, w);
+        int n = h * w;
+        byte[] out = new byte[n * channels];
+        if (channels == 3) {
+            for (int i = 0; i < n; i++) {
+                int p = argb[i];
+                out[3 * i] = (byte) p;
+                out[3 * i + 1] = (byte) (p >> 8);
+                out[3 * i + 2] = (byte) (p >> 16);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                int p = argb[i];
+                //Same weights as OpenCV's BGR2GRAY, in fixed point
+                out[i] = (byte) (((p >> 16 & 0xFF) * 4899 + (p >> 8 & 0xFF) * 9617 + (p & 0xFF) * 1868 + 8192) >> 14);
+            }
+        }
+        return out;
+    }
+
+    /** Returns the bytes of the raster if they are stored tightly packed (no subimage, no padding), or else null */
+    private static byte[] rasterBytes(Raster raster, int h, int w, int channels) {
+        if (raster.getParent() != null || raster.getSampleModelTranslateX() != 0
+                        || raster.getSampleModelTranslateY() != 0 || !(raster.getDataBuffer() instanceof DataBufferByte)
+                        || !(raster.getSampleModel() instanceof ComponentSampleModel)) {
+            return null;
+        }
+        ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+        if (sm.getPixelStride() != channels || sm.getScanlineStride() != w * channels) return null;
+        int[] bandOffsets = sm.getBandOffsets();
+        for (int i = 0; i < channels; i++) {
+            //TYPE_3BYTE_BGR has band offsets {2,1,0}: bytes are stored B,G,R
+            if (bandOffsets[i] != channels - 1 - i) return null;
+        }
+        DataBufferByte db = (DataBufferByte) raster.getDataBuffer();
+        byte[] data = db.getData();
+        if (db.getNumBanks() != 1 || db.getOffset() != 0 || data.length != h * w * channels) return null;
+        return data;
+    }
+
+    /**
+     * Crop, resize (bilinear), convert from interleaved to planar channels and normalize an image in one pass.
+     *
+     * @param src       Source pixels, interleaved (HWC), row by row
+     * @param srcHeight Height of the source image
+     * @param srcWidth  Width of the source image
+     * @param channels  Number of channels
+     * @param cropY     First row of the source image to use
+     * @param cropX     First column of the source image to use
+     * @param cropH     Number of rows of the source image to use
+     * @param cropW     Number of columns of the source image to use
+     * @param dst       Destination array, planar (CHW)
+     * @param dstOffset Offset of the image in the destination array
+     * @param dstHeight Height of the destination image
+     * @param dstWidth  Width of the destination image
+     * @param scale     Factor each pixel value is multiplied by (1/normalizeValue, or 1 for no normalization)
+     */
+    public static void resize(byte[] src, int srcHeight, int srcWidth, int channels, int cropY, int cropX,
+                              int cropH, int cropW, float[] dst, int dstOffset, int dstHeight, int dstWidth,
+                              float scale) {
+        if (cropY < 0 || cropX < 0 || cropH <= 0 || cropW <= 0 || cropY + cropH > srcHeight
+                        || cropX + cropW > srcWidth) {
+            throw new IllegalArgumentException("Invalid crop: [" + cropY + "," + cropX + "," + cropH + "," + cropW
+                            + "] for image of size " + srcHeight + "x" + srcWidth);
+        }
+        if (src.length < srcHeight * srcWidth * channels
+                        || dst.length < dstOffset + channels * dstHeight * dstWidth) {
+            throw new IllegalArgumentException("Source or destination array is too small");
+        }
+
+        //Column indices (into a source row) and weights, with pixel centers aligned as in OpenCV's INTER_LINEAR
+        int[] x0 = new int[dstWidth];
+        int[] x1 = new int[dstWidth];
+        float[] wx = new float[dstWidth];
+        double sx = (double) cropW / dstWidth;
+        for (int j = 0; j < dstWidth; j++) {
+            double x = Math.min(Math.max((j + 0.5) * sx - 0.5, 0.0), cropW - 1);
+            int xi = (int) x;
+            x0[j] = (cropX + xi) * channels;
+            x1[j] = (cropX + Math.min(xi + 1, cropW - 1)) * channels;
+            wx[j] = (float) (x - xi);
+        }
+
+        int srcStride = srcWidth * channels;
+        int plane = dstHeight * dstWidth;
+        double sy = (double) cropH / dstHeight;
+        for (int i = 0; i < dstHeight; i++) {
+            double y = Math.min(Math.max((i + 0.5) * sy - 0.5, 0.0), cropH - 1);
+            int yi = (int) y;
+            int r0 = (cropY + yi) * srcStride;
+            int r1 = (cropY + Math.min(yi + 1, cropH - 1)) * srcStride;
+            float wy = (float) (y - yi);
+            for (int c = 0; c < channels; c++) {
+                int out = dstOffset + c * plane + i * dstWidth;
+                int a0 = r0 + c;
+                int a1 = r1 + c;
+                for (int j = 0; j < dstWidth; j++) {
+                    float p00 = src[a0 + x0[j]] & 0xFF;
+                    float p01 = src[a0 + x1[j]] & 0xFF;
+                    float p10 = src[a1 + x0[j]] & 0xFF;
+                    float p11 = src[a1 + x1[j]] & 0xFF;
+                    float top = p00 + (p01 - p00) * wx[j];
+                    float bottom = p10 + (p11 - p10) * wx[j];
+                    dst[out + j] = (top + (bottom - top) * wy) * scale;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.loader;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.bytedeco.javacpp.opencv_core.*;
+
+/**
+ * A size-bounded cache of decoded (and scaled) images, for multi-epoch training where the same files are decoded
+ * again and again. Pixels are held off-heap, in native memory, and the least recently used images are evicted when
+ * the total size of the cached images exceeds the byte budget.<br>
+ * Images are copied in and out of the cache, so that callers are free to modify the returned {@link Mat}, and
+ * images evicted concurrently are never in use. All methods are thread safe.
+ *
+ * @see BaseImageLoader#setImageCache(ImageCache)
+ */
+public class ImageCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes Maximum total size of the cached images, in bytes
+     */
+    public ImageCache(long maxBytes) {
+        if (maxBytes <= 0) throw new IllegalArgumentException("Cache size must be positive: got " + maxBytes);
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Get a copy of the cached image for the given key, marking it as recently used
+     *
+     * @return The image, or null if it is not in the cache
+     */
+    public synchronized Mat get(Key key) {
+        Entry e = map.get(key);
+        if (e == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        Mat mat = new Mat(e.rows, e.cols, e.type);
+        Pointer.memcpy(mat.data(), e.data, e.bytes);
+        return mat;
+    }
+
+    /**
+     * Put a copy of the image in the cache, evicting the least recently used images as required. Images larger
+     * than the whole cache are not cached.
+     */
+    public synchronized void put(Key key, Mat image) {
+        Mat m = image.isContinuous() ? image : image.clone();
+        long bytes = m.total() * m.elemSize();
+        if (bytes > maxBytes) return;
+
+        BytePointer data = new BytePointer(bytes);
+        Pointer.memcpy(data, m.data(), bytes);
+        Entry old = map.put(key, new Entry(m.rows(), m.cols(), m.type(), bytes, data));
+        if (old != null) {
+            currentBytes -= old.bytes;
+            old.data.deallocate();
+        }
+        currentBytes += bytes;
+
+        Iterator<Map.Entry<Key, Entry>> iter = map.entrySet().iterator();
+        while (currentBytes > maxBytes && iter.hasNext()) {
+            Entry e = iter.next().getValue();
+            iter.remove();
+            currentBytes -= e.bytes;
+            e.data.deallocate();
+            evictions++;
+        }
+    }
+
+    /**
+     * Remove all images from the cache, releasing their memory
+     */
+    public synchronized void clear() {
+        for (Entry e : map.values()) e.data.deallocate();
+        map.clear();
+        currentBytes = 0;
+    }
+
+    /** Number of images in the cache */
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** Total size of the images in the cache, in bytes */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ImageCache(size=" + map.size() + ",bytes=" + currentBytes + ",maxBytes=" + maxBytes + ",hits=" + hits
+                        + ",misses=" + misses + ",evictions=" + evictions + ")";
+    }
+
+    /**
+     * Key of a cached image: the location and modification time of the file, and the parameters the image was
+     * scaled with (height, width and channels of -1 for images cached as decoded, without conversion or scaling)
+     */
+    public static class Key {
+        private final String uri;
+        private final long lastModified;
+        private final int height;
+        private final int width;
+        private final int channels;
+        private final boolean centerCrop;
+
+        public Key(String uri, long lastModified, int height, int width, int channels, boolean centerCrop) {
+            this.uri = uri;
+            this.lastModified = lastModified;
+            this.height = height;
+            this.width = width;
+            this.channels = channels;
+            this.centerCrop = centerCrop;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return lastModified == k.lastModified && height == k.height && width == k.width && channels == k.channels && centerCrop == k.centerCrop
+                            && uri.equals(k.uri);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = uri.hashCode();
+            result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+            result = 31 * result + height;
+            result = 31 * result + width;
+            result = 31 * result + channels;
+            result = 31 * result + (centerCrop ? 1 : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Key(" + uri + "," + lastModified + "," + height + "," + width + "," + channels + "," + centerCrop + ")";
+        }
+    }
+
+    private static class Entry {
+        private final int rows;
+        private final int cols;
+        private final int type;
+        private final long bytes;
+        private final BytePointer data;
+
+        private Entry(int rows, int cols, int type, long bytes, BytePointer data) {
+            this.rows = rows;
+            this.cols = cols;
+            this.type = type;
+            this.bytes = bytes;
+            this.data = data;
+        }
+    }
+}
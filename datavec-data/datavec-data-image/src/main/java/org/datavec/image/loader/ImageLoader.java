@@ -99,6 +99,21 @@ public class ImageLoader extends BaseImageLoader {
         this.centerCropIfNeeded = centerCropIfNeeded;
     }
 
+    /**
+     * Instantiate an image with the given
+     * height and width
+     * @param height the height to load
+     * @param width  the width to load
+     * @param channels the number of channels for the image*
+     * @param centerCropIfNeeded to crop before rescaling and converting
+     * @param normalizeValue to divide the BGR values by (0 for no normalization)
+     */
+    public ImageLoader(int height, int width, int channels, boolean centerCropIfNeeded, double normalizeValue) {
+        this(height, width, channels, centerCropIfNeeded);
+        this.normalizeIfNeeded = normalizeValue > 0;
+        this.normalizeValue = normalizeValue;
+    }
+
     /**
      * Convert a file to a row vector
      *
@@ -126,13 +141,13 @@ public class ImageLoader extends BaseImageLoader {
      * representation of the image
      */
     public INDArray asRowVector(BufferedImage image) {
+        if(channels == 3) {
+            return toBgrFused(image, centerCropIfNeeded).ravel();
+        }
         if (centerCropIfNeeded) {
             image = centerCropIfNeeded(image);
         }
         image = scalingIfNeed(image, true);
-        if(channels == 3) {
-            return toINDArrayBGR(image).ravel();
-        }
         int[][] ret = toIntArrayArray(image);
         return NDArrayUtil.toNDArray(ArrayUtil.flatten(ret));
     }
@@ -171,8 +186,7 @@ public class ImageLoader extends BaseImageLoader {
      */
     public INDArray toRaveledTensor(BufferedImage image) {
         try {
-            image = scalingIfNeed(image, false);
-            return toINDArrayBGR(image).ravel();
+            return toBgrFused(image, false).ravel();
         } catch (Exception e) {
             throw new RuntimeException("Unable to load image", e);
         }
@@ -219,8 +233,44 @@ public class ImageLoader extends BaseImageLoader {
     public INDArray toBgr(BufferedImage image) {
         if(image == null)
             throw new IllegalStateException("Unable to load image");
-        image = scalingIfNeed(image, false);
-        return toINDArrayBGR(image);
+        return toBgrFused(image, false);
+    }
+
+    /**
+     * Convert an BufferedImage to a [3, height, width] array of bgr values with {@link FusedImageKernel}:
+     * cropping, bilinear scaling to the target size, conversion to planar channels and normalization
+     * are all done in a single pass over the raster, without any intermediate BufferedImage or INDArray
+     *
+     * @param image the BufferedImage to convert
+     * @param crop whether to center crop the image before scaling it
+     * @return the bgr values of the image
+     */
+    protected INDArray toBgrFused(BufferedImage image, boolean crop) {
+        int h = image.getHeight();
+        int w = image.getWidth();
+        int y = 0;
+        int x = 0;
+        int cropHeight = h;
+        int cropWidth = w;
+        if (crop) {
+            int diff = Math.abs(w - h) / 2;
+            if (w > h) {
+                x = diff;
+                cropWidth = w - diff;
+            } else if (h > w) {
+                y = diff;
+                cropHeight = h - diff;
+            }
+        }
+        boolean scale = height > 0 && width > 0;
+        int dstHeight = scale ? height : cropHeight;
+        int dstWidth = scale ? width : cropWidth;
+
+        byte[] bgr = FusedImageKernel.toBytes(image, 3);
+        float[] data = new float[3 * dstHeight * dstWidth];
+        FusedImageKernel.resize(bgr, h, w, 3, y, x, cropHeight, cropWidth, data, 0, dstHeight, dstWidth,
+                normalizeIfNeeded ? (float) (1.0 / normalizeValue) : 1.0f);
+        return Nd4j.create(data, new int[]{3, dstHeight, dstWidth});
     }
 
     /**
@@ -231,6 +281,8 @@ public class ImageLoader extends BaseImageLoader {
      * @throws IOException
      */
     public INDArray asMatrix(File f) throws IOException {
+        if(channels == 3)
+            return toBgr(f);
         return NDArrayUtil.toNDArray(fromFile(f));
     }
 
@@ -20,6 +20,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
 import org.apache.commons.io.IOUtils;
 import org.bytedeco.javacpp.DoublePointer;
 import org.bytedeco.javacpp.FloatPointer;
@@ -30,8 +32,7 @@ import org.bytedeco.javacpp.indexer.Indexer;
 import org.bytedeco.javacpp.indexer.IntIndexer;
 import org.bytedeco.javacpp.indexer.UByteIndexer;
 import org.bytedeco.javacpp.indexer.UShortIndexer;
-import org.bytedeco.javacv.OpenCVFrameConverter;
-import org.datavec.image.data.ImageWritable;
+import org.datavec.image.transform.BaseImageTransform;
 import org.datavec.image.transform.ImageTransform;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
@@ -53,8 +54,6 @@ public class NativeImageLoader extends BaseImageLoader {
             {"bmp", "gif", "jpg", "jpeg", "jp2", "pbm", "pgm", "ppm", "pnm", "png", "tif", "tiff", "exr", "webp",
              "BMP", "GIF", "JPG", "JPEG", "JP2", "PBM", "PGM", "PPM", "PNM", "PNG", "TIF", "TIFF", "EXR", "WEBP"};
 
-    OpenCVFrameConverter.ToMat converter = null;
-
     /**
      * Loads images with no scaling or conversion.
      */
@@ -111,7 +110,6 @@ public class NativeImageLoader extends BaseImageLoader {
     public NativeImageLoader(int height, int width, int channels, ImageTransform imageTransform) {
         this(height, width, channels);
         this.imageTransform = imageTransform;
-        this.converter = new OpenCVFrameConverter.ToMat();
     }
 
 
@@ -191,11 +189,22 @@ public class NativeImageLoader extends BaseImageLoader {
 
     @Override
     public INDArray asMatrix(File f) throws IOException {
-        return asMatrix(new FileInputStream(f));
+        return toMatrix(prepareMat(f));
     }
 
     @Override
     public INDArray asMatrix(InputStream is) throws IOException {
+        return asMatrix(asMat(is));
+    }
+
+    /**
+     * Decodes an image into a native {@link Mat}, without transforming, converting or scaling it.
+     *
+     * @param is the input stream of the encoded image
+     * @return the decoded image
+     * @throws IOException if the image cannot be decoded
+     */
+    public Mat asMat(InputStream is) throws IOException {
         byte[] bytes = IOUtils.toByteArray(is);
         Mat image = imdecode(new Mat(bytes), CV_LOAD_IMAGE_ANYDEPTH | CV_LOAD_IMAGE_ANYCOLOR);
         if (image == null || image.empty()) {
@@ -206,16 +215,153 @@ public class NativeImageLoader extends BaseImageLoader {
             image = convert(pix);
             pixDestroy(pix);
         }
-        return asMatrix(image);
+        return image;
     }
 
     public INDArray asMatrix(Mat image) throws IOException {
-        if (imageTransform != null && converter != null) {
-            ImageWritable writable = new ImageWritable(converter.convert(image));
-            writable = imageTransform.transform(writable);
-            image = converter.convert(writable.getFrame());
+        return toMatrix(prepareMat(image));
+    }
+
+    /**
+     * Loads an image file, and copies it into slice {@code index} of a preallocated minibatch of shape [N,C,H,W].
+     * Same as {@link #asMatrix(InputStream, INDArray, int)}, but uses the image cache, if any.
+     *
+     * @param f     the image file
+     * @param batch the minibatch to copy the image into
+     * @param index the index of the image in the minibatch
+     * @throws IOException if the image cannot be decoded or converted
+     */
+    public void asMatrix(File f, INDArray batch, int index) throws IOException {
+        asMatrix(f, batch, index, null);
+    }
+
+    /**
+     * Same as {@link #asMatrix(File, INDArray, int)}, but with the given random object for the image transform.
+     *
+     * @param f      the image file
+     * @param batch  the minibatch to copy the image into
+     * @param index  the index of the image in the minibatch
+     * @param random object for the image transform to use (or null for the one of the transform)
+     * @throws IOException if the image cannot be decoded or converted
+     */
+    public void asMatrix(File f, INDArray batch, int index, Random random) throws IOException {
+        copyToBatch(prepareMat(f, random), batch, index, normalizeIfNeeded);
+    }
+
+    protected INDArray toMatrix(Mat image) {
+        INDArray ret = Nd4j.create(1, image.channels(), image.rows(), image.cols());
+        copyToBatch(image, ret, 0, false);
+        if (normalizeIfNeeded) {
+            ret = normalizeIfNeeded(ret);
+        }
+        return ret;
+    }
+
+    /**
+     * Decodes, transforms and scales an image, and copies it into slice {@code index} of a preallocated
+     * minibatch of shape [N,C,H,W], normalizing it if needed along the way.
+     *
+     * @param is    the input stream of the encoded image
+     * @param batch the minibatch to copy the image into
+     * @param index the index of the image in the minibatch
+     * @throws IOException if the image cannot be decoded or converted
+     */
+    public void asMatrix(InputStream is, INDArray batch, int index) throws IOException {
+        asMatrix(asMat(is), batch, index);
+    }
+
+    /**
+     * Transforms and scales an image, and copies it into slice {@code index} of a preallocated
+     * minibatch of shape [N,C,H,W], normalizing it if needed along the way. Unlike
+     * {@link #asMatrix(Mat)}, no intermediate INDArray gets allocated.
+     *
+     * @param image the decoded image
+     * @param batch the minibatch to copy the image into
+     * @param index the index of the image in the minibatch
+     * @throws IOException if the image cannot be converted
+     */
+    public void asMatrix(Mat image, INDArray batch, int index) throws IOException {
+        copyToBatch(prepareMat(image), batch, index, normalizeIfNeeded);
+    }
+
+    /**
+     * Applies the image transform, the channel conversion, the center crop and the scaling to an image,
+     * all on the same native {@link Mat}.
+     *
+     * @param image the decoded image
+     * @return the image as it gets copied into an INDArray
+     * @throws IOException if the channels cannot be converted
+     */
+    public Mat prepareMat(Mat image) throws IOException {
+        if (imageTransform != null) {
+            image = BaseImageTransform.transformMat(imageTransform, image, null);
+        }
+        return scaleMat(image);
+    }
+
+    /**
+     * Decodes and prepares an image file like {@link #prepareMat(Mat)}. With an {@link ImageCache}, the image gets
+     * decoded only on the first call: without an image transform, the converted and scaled image is cached; with one,
+     * the decoded image is cached, and the transform, conversion and scaling are applied on every call, exactly as
+     * without a cache.
+     *
+     * @param f the image file
+     * @return the image as it gets copied into an INDArray
+     * @throws IOException if the image cannot be decoded or converted
+     */
+    public Mat prepareMat(File f) throws IOException {
+        return prepareMat(f, null);
+    }
+
+    /**
+     * Same as {@link #prepareMat(File)}, but with the given random object for the image transform.
+     *
+     * @param f      the image file
+     * @param random object for the image transform to use (or null for the one of the transform)
+     * @return the image as it gets copied into an INDArray
+     * @throws IOException if the image cannot be decoded or converted
+     */
+    public Mat prepareMat(File f, Random random) throws IOException {
+        ImageCache cache = imageCache;
+        if (cache == null) {
+            Mat image = asMat(f);
+            if (imageTransform != null) {
+                image = BaseImageTransform.transformMat(imageTransform, image, random);
+            }
+            return scaleMat(image);
+        }
+        //Images to be transformed are cached as decoded, so that the transform sees the same input as without a cache
+        boolean cacheScaled = (imageTransform == null);
+        ImageCache.Key key = cacheScaled
+                        ? new ImageCache.Key(f.toURI().toString(), f.lastModified(), height, width, channels, centerCropIfNeeded)
+                        : new ImageCache.Key(f.toURI().toString(), f.lastModified(), -1, -1, -1, false);
+        Mat image = cache.get(key);
+        if (image == null) {
+            image = asMat(f);
+            if (cacheScaled) {
+                image = scaleMat(image);
+            }
+            cache.put(key, image);
+        }
+        if (!cacheScaled) {
+            image = scaleMat(BaseImageTransform.transformMat(imageTransform, image, random));
         }
+        return image;
+    }
 
+    /**
+     * Decodes an image file into a native {@link Mat}, without transforming, converting or scaling it.
+     */
+    public Mat asMat(File f) throws IOException {
+        try (InputStream is = new FileInputStream(f)) {
+            return asMat(is);
+        }
+    }
+
+    /**
+     * Applies the channel conversion, the center crop and the scaling to an image.
+     */
+    protected Mat scaleMat(Mat image) throws IOException {
         if (channels > 0 && image.channels() != channels) {
             int code = -1;
             switch (image.channels()) {
@@ -249,123 +395,146 @@ public class NativeImageLoader extends BaseImageLoader {
         if (centerCropIfNeeded) {
             image = centerCropIfNeeded(image);
         }
-        image = scalingIfNeed(image);
+        return scalingIfNeed(image);
+    }
 
+    /**
+     * Copies an image into slice {@code index} of a C-ordered minibatch of shape [N,C,H,W],
+     * reading the pixels of the Mat and writing the memory of the INDArray directly.
+     */
+    protected void copyToBatch(Mat image, INDArray batch, int index, boolean normalize) {
         int rows = image.rows();
         int cols = image.cols();
         int channels = image.channels();
+        int[] shape = batch.shape();
+        if (shape.length != 4 || index < 0 || index >= shape[0]
+                || shape[1] != channels || shape[2] != rows || shape[3] != cols) {
+            throw new IllegalArgumentException("Cannot copy image of shape [" + channels + "," + rows + "," + cols
+                    + "] into example " + index + " of minibatch of shape " + Arrays.toString(shape));
+        }
+        if (batch.offset() != 0 || batch.ordering() != 'c'
+                || !Arrays.equals(batch.stride(), ArrayUtil.calcStrides(shape))) {
+            throw new IllegalArgumentException("Minibatch must be a contiguous C-ordered array, not a view");
+        }
+        double divisor = normalize ? normalizeValue : 1.0;
         Indexer idx = image.createIndexer();
-        INDArray ret = Nd4j.create(channels, rows, cols);
-        Pointer pointer = ret.data().pointer();
-        int[] stride = ret.stride();
-        boolean done = false;
+        Pointer pointer = batch.data().pointer();
+        int[] stride = batch.stride();
+        long position = (long) index * stride[0];
+        long[] sizes = {channels, rows, cols};
+        long[] strides = {stride[1], stride[2], stride[3]};
         if (pointer instanceof FloatPointer) {
-            FloatIndexer retidx = FloatIndexer.create((FloatPointer)pointer,
-                    new long[] {channels, rows, cols}, new long[] {stride[0], stride[1], stride[2]} );
-            if (idx instanceof UByteIndexer) {
-                UByteIndexer ubyteidx = (UByteIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, ubyteidx.get(i, j, k));
-                        }
+            FloatPointer fp = new FloatPointer(pointer).position(pointer.position() + position);
+            copy(idx, FloatIndexer.create(fp, sizes, strides), channels, rows, cols, (float) divisor);
+        } else if (pointer instanceof DoublePointer) {
+            DoublePointer dp = new DoublePointer(pointer).position(pointer.position() + position);
+            copy(idx, DoubleIndexer.create(dp, sizes, strides), channels, rows, cols, divisor);
+        } else {
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        batch.putScalar(new int[] {index, k, i, j}, idx.getDouble(i, j, k) / divisor);
                     }
                 }
-                done = true;
-            } else if (idx instanceof UShortIndexer) {
-                UShortIndexer ushortidx = (UShortIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, ushortidx.get(i, j, k));
-                        }
+            }
+        }
+        image.data(); // dummy call to make sure it does not get deallocated prematurely
+    }
+
+    private static void copy(Indexer idx, FloatIndexer retidx, int channels, int rows, int cols, float divisor) {
+        if (idx instanceof UByteIndexer) {
+            UByteIndexer ubyteidx = (UByteIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, ubyteidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
-            } else if (idx instanceof IntIndexer) {
-                IntIndexer intidx = (IntIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, intidx.get(i, j, k));
-                        }
+            }
+        } else if (idx instanceof UShortIndexer) {
+            UShortIndexer ushortidx = (UShortIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, ushortidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
-            } else if (idx instanceof FloatIndexer) {
-                FloatIndexer floatidx = (FloatIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, floatidx.get(i, j, k));
-                        }
+            }
+        } else if (idx instanceof IntIndexer) {
+            IntIndexer intidx = (IntIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, intidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
             }
-        } else if (pointer instanceof DoublePointer) {
-            DoubleIndexer retidx = DoubleIndexer.create((DoublePointer)pointer,
-                    new long[] {channels, rows, cols}, new long[] {stride[0], stride[1], stride[2]} );
-            if (idx instanceof UByteIndexer) {
-                UByteIndexer ubyteidx = (UByteIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, ubyteidx.get(i, j, k));
-                        }
+        } else if (idx instanceof FloatIndexer) {
+            FloatIndexer floatidx = (FloatIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, floatidx.get(i, j, k) / divisor);
+                    }
+                }
+            }
+        } else {
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, (float) (idx.getDouble(i, j, k) / divisor));
                     }
                 }
-                done = true;
-            } else if (idx instanceof UShortIndexer) {
-                UShortIndexer ushortidx = (UShortIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, ushortidx.get(i, j, k));
-                        }
+            }
+        }
+    }
+
+    private static void copy(Indexer idx, DoubleIndexer retidx, int channels, int rows, int cols, double divisor) {
+        if (idx instanceof UByteIndexer) {
+            UByteIndexer ubyteidx = (UByteIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, ubyteidx.get(i, j, k) / divisor);
+                    }
+                }
+            }
+        } else if (idx instanceof UShortIndexer) {
+            UShortIndexer ushortidx = (UShortIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, ushortidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
-            } else if (idx instanceof IntIndexer) {
-                IntIndexer intidx = (IntIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, intidx.get(i, j, k));
-                        }
+            }
+        } else if (idx instanceof IntIndexer) {
+            IntIndexer intidx = (IntIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, intidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
-            } else if (idx instanceof FloatIndexer) {
-                FloatIndexer floatidx = (FloatIndexer)idx;
-                for (int k = 0; k < channels; k++) {
-                    for (int i = 0; i < rows; i++) {
-                        for (int j = 0; j < cols; j++) {
-                            retidx.put(k, i, j, floatidx.get(i, j, k));
-                        }
+            }
+        } else if (idx instanceof FloatIndexer) {
+            FloatIndexer floatidx = (FloatIndexer)idx;
+            for (int k = 0; k < channels; k++) {
+                for (int i = 0; i < rows; i++) {
+                    for (int j = 0; j < cols; j++) {
+                        retidx.put(k, i, j, floatidx.get(i, j, k) / divisor);
                     }
                 }
-                done = true;
             }
-        }
-        if (!done) {
+        } else {
             for (int k = 0; k < channels; k++) {
                 for (int i = 0; i < rows; i++) {
                     for (int j = 0; j < cols; j++) {
-                        if (channels > 1) {
-                            ret.putScalar(k, i, j, idx.getDouble(i, j, k));
-                        } else {
-                            ret.putScalar(i, j, idx.getDouble(i, j));
-                        }
+                        retidx.put(k, i, j, idx.getDouble(i, j, k) / divisor);
                     }
                 }
             }
         }
-        image.data(); // dummy call to make sure it does not get deallocated prematurely
-        if (normalizeIfNeeded) {
-            ret = normalizeIfNeeded(ret);
-        }
-        return ret.reshape(ArrayUtil.combine(new int[]{1},ret.shape()));
     }
 
     protected INDArray normalizeIfNeeded(INDArray image){
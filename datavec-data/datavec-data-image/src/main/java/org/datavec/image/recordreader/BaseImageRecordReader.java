@@ -25,6 +25,7 @@ import org.datavec.api.split.InputSplit;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.common.RecordConverter;
+import org.datavec.image.loader.ImageCache;
 import org.datavec.image.loader.ImageLoader;
 import org.datavec.image.loader.NativeImageLoader;
 import org.datavec.image.loader.BaseImageLoader;
@@ -60,6 +61,7 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
     protected String pattern; // Pattern to split and segment file name, pass in regex
     protected int patternPosition = 0;
     protected double normalizeValue = 0;
+    protected transient ImageCache imageCache;
 
     public final static String HEIGHT = NAME_SPACE + ".height";
     public final static String WIDTH = NAME_SPACE + ".width";
@@ -97,6 +99,9 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         if (imageLoader == null) {
             imageLoader = new NativeImageLoader(height, width, channels, imageTransform, normalizeValue);
         }
+        if (imageCache != null) {
+            imageLoader.setImageCache(imageCache);
+        }
         inputSplit = split;
         Collection<File> allFiles;
         URI[] locations = split.locations();
@@ -151,7 +156,7 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         this.channels = conf.getInt(CHANNELS, channels);
         this.cropImage = conf.getBoolean(CROP_IMAGE, cropImage);
         if ("imageio".equals(conf.get(IMAGE_LOADER))) {
-            this.imageLoader = new ImageLoader(height, width, channels, cropImage);
+            this.imageLoader = new ImageLoader(height, width, channels, cropImage, normalizeValue);
         } else {
             this.imageLoader = new NativeImageLoader(height, width, channels, imageTransform, normalizeValue);
         }
@@ -195,16 +200,16 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         if (iter != null) {
             List<Writable> ret = new ArrayList<>();
             File image =  iter.next();
+            while (image.isDirectory())
+                image = iter.next();
             currentFile = image;
 
-            if (image.isDirectory())
-                return next();
             try {
                 invokeListeners(image);
                 INDArray row = imageLoader.asMatrix(image);
                 ret = RecordConverter.toRecord(row);
                 if (appendLabel)
-                    ret.add(new IntWritable(labels.indexOf(getLabel(image.getPath()))));
+                    ret.add(new IntWritable(getLabelIndex(image.getPath())));
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -267,6 +272,15 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         return (new File(path)).getParentFile().getName();
     }
 
+    /**
+     * Get the index of the label of the given path in the list of labels, or -1 if the label is unknown
+     *
+     * @param path the path to get the label index for
+     */
+    public int getLabelIndex(String path) {
+        return labels.indexOf(getLabel(path));
+    }
+
     /**
      * Accumulate the label from the path
      *
@@ -278,6 +292,14 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
             labels.add(name);
     }
 
+    /**
+     * Sets the cache of decoded images used by the image loader, so that files get decoded and scaled only once
+     * over multiple epochs. Must be called before initialization.
+     */
+    public void setImageCache(ImageCache imageCache) {
+        this.imageCache = imageCache;
+    }
+
     /**
      * Returns the file loaded last by {@link #next()}.
      */
@@ -326,7 +348,7 @@ public abstract class BaseImageRecordReader extends BaseRecordReader {
         }
         INDArray row = imageLoader.asMatrix(dataInputStream);
         List<Writable> ret = RecordConverter.toRecord(row);
-        if (appendLabel) ret.add(new IntWritable(labels.indexOf(getLabel(uri.getPath()))));
+        if (appendLabel) ret.add(new IntWritable(getLabelIndex(uri.getPath())));
         return ret;
     }
 
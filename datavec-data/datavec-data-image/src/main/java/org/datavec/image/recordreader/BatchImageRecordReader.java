@@ -0,0 +1,272 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.recordreader;
+
+import org.datavec.api.io.labels.PathLabelGenerator;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+import org.datavec.common.data.NDArrayWritable;
+import org.datavec.image.loader.NativeImageLoader;
+import org.datavec.image.transform.AugmentationExecutor;
+import org.datavec.image.transform.ImageTransform;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * An image record reader that, in addition to the one image per record of {@link ImageRecordReader}, reads whole
+ * minibatches with {@link #nextBatch(int)}: the images are decoded on a thread pool straight into slices of one
+ * preallocated [N,C,H,W] array, and normalized (normalizeValue) as part of that copy.<br>
+ * Labels are looked up in a hash map instead of with {@code labels.indexOf(...)}, and returned one-hot.
+ */
+public class BatchImageRecordReader extends BaseImageRecordReader {
+
+    protected int numThreads = Runtime.getRuntime().availableProcessors();
+    protected Map<String, Integer> labelIndex = new HashMap<>();
+    private List<String> indexedLabels;
+    private int indexedLabelsSize;
+    protected transient ExecutorService executor;
+    protected Long augmentationSeed;
+    protected int epoch = 0;
+    protected long sampleIndex = 0;
+
+    public BatchImageRecordReader() {
+        super();
+    }
+
+    public BatchImageRecordReader(int height, int width, int channels) {
+        super(height, width, channels, (PathLabelGenerator) null);
+    }
+
+    public BatchImageRecordReader(int height, int width, int channels, PathLabelGenerator labelGenerator) {
+        super(height, width, channels, labelGenerator);
+    }
+
+    public BatchImageRecordReader(int height, int width, int channels, PathLabelGenerator labelGenerator,
+                                  double normalizeValue) {
+        super(height, width, channels, labelGenerator, null, normalizeValue);
+    }
+
+    public BatchImageRecordReader(int height, int width, int channels, PathLabelGenerator labelGenerator,
+                                  ImageTransform imageTransform, double normalizeValue) {
+        super(height, width, channels, labelGenerator, imageTransform, normalizeValue);
+    }
+
+    /**
+     * @param height         height of the images in the minibatch
+     * @param width          width of the images in the minibatch
+     * @param channels       number of channels of the images in the minibatch
+     * @param labelGenerator label generator, or null for no labels
+     * @param imageTransform image transform, applied while loading each image (may be null)
+     * @param normalizeValue value to divide pixel values by (or 0 for no normalization)
+     * @param numThreads     number of threads used to decode the images of a minibatch
+     */
+    public BatchImageRecordReader(int height, int width, int channels, PathLabelGenerator labelGenerator,
+                                  ImageTransform imageTransform, double normalizeValue, int numThreads) {
+        super(height, width, channels, labelGenerator, imageTransform, normalizeValue);
+        if (numThreads <= 0) throw new IllegalArgumentException("Number of threads must be positive: got " + numThreads);
+        this.numThreads = numThreads;
+    }
+
+    @Override
+    public void initialize(InputSplit split) throws IOException {
+        super.initialize(split);
+        buildLabelIndex();
+    }
+
+    /**
+     * Make the random image transforms of {@link #nextBatch(int)} reproducible: each image gets its own random
+     * object, seeded from (seed, epoch, index of the image in the epoch) as in {@link AugmentationExecutor}, so
+     * that results do not depend on the number of threads. The epoch is incremented on each {@link #reset()}.
+     */
+    public void setAugmentationSeed(long seed) {
+        this.augmentationSeed = seed;
+    }
+
+    /**
+     * Set the epoch used for seeding the image transforms. See {@link #setAugmentationSeed(long)}
+     */
+    public void setEpoch(int epoch) {
+        this.epoch = epoch;
+    }
+
+    public int getEpoch() {
+        return epoch;
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        epoch++;
+        sampleIndex = 0;
+    }
+
+    @Override
+    public void setLabels(List<String> labels) {
+        super.setLabels(labels);
+        buildLabelIndex();
+    }
+
+    protected void buildLabelIndex() {
+        labelIndex = new HashMap<>();
+        for (int i = 0; i < labels.size(); i++) {
+            if (!labelIndex.containsKey(labels.get(i))) labelIndex.put(labels.get(i), i);
+        }
+        indexedLabels = labels;
+        indexedLabelsSize = labels.size();
+    }
+
+    /**
+     * Get the index of the label of the given path, or -1 if the label is unknown. Uses a hash map instead of
+     * {@code labels.indexOf(...)}; used by both {@link #next()} and {@link #nextBatch(int)}
+     */
+    @Override
+    public int getLabelIndex(String path) {
+        if (indexedLabels != labels || indexedLabelsSize != labels.size()) {
+            //Labels were replaced or accumulated since the index was built
+            buildLabelIndex();
+        }
+        Integer idx = labelIndex.get(getLabel(path));
+        return idx != null ? idx : -1;
+    }
+
+    /**
+     * Read the next image, as {@link ImageRecordReader} does. The image counts towards the index of the images in the
+     * epoch, so that the image transforms of any following {@link #nextBatch(int)} are seeded as if all images had been
+     * read in minibatches
+     */
+    @Override
+    public List<Writable> next() {
+        List<Writable> ret = super.next();
+        if (iter != null) sampleIndex++;
+        return ret;
+    }
+
+    /**
+     * Read the next (up to) {@code num} images as one minibatch.
+     *
+     * @param num maximum number of images in the minibatch. Fewer are returned at the end of the data
+     * @return A list containing an {@link NDArrayWritable} with the images, of shape [N,C,H,W], followed (if labels
+     * are appended) by an {@link NDArrayWritable} with the one-hot labels, of shape [N,numLabels]
+     */
+    public List<Writable> nextBatch(int num) {
+        if (num <= 0) throw new IllegalArgumentException("Batch size must be positive: got " + num);
+        if (iter == null) throw new IllegalStateException("Cannot read a minibatch without a split of image files");
+        if (height <= 0 || width <= 0 || channels <= 0) {
+            throw new IllegalStateException("Cannot read a minibatch: height, width and channels must be set (got height="
+                            + height + ", width=" + width + ", channels=" + channels + ")");
+        }
+
+        final List<File> files = new ArrayList<>(num);
+        while (files.size() < num && iter.hasNext()) {
+            File f = iter.next();
+            if (!f.isDirectory()) files.add(f);
+        }
+        if (files.isEmpty()) throw new IllegalStateException("No more elements");
+
+        int n = files.size();
+        final INDArray features = Nd4j.create(n, channels, height, width);
+        final NativeImageLoader nativeLoader =
+                        (imageLoader instanceof NativeImageLoader ? (NativeImageLoader) imageLoader : null);
+
+        List<Callable<Void>> tasks = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final File file = files.get(i);
+            final int index = i;
+            final Random random = (augmentationSeed != null
+                            ? new Random(AugmentationExecutor.sampleSeed(augmentationSeed, epoch, sampleIndex + i)) : null);
+            invokeListeners(file);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    if (nativeLoader != null) {
+                        nativeLoader.asMatrix(file, features, index, random);
+                    } else {
+                        INDArray image = imageLoader.asMatrix(file);
+                        features.slice(index).assign(image.reshape(channels, height, width));
+                    }
+                    return null;
+                }
+            });
+        }
+        invokeAll(tasks);
+        currentFile = files.get(n - 1);
+        sampleIndex += n;
+
+        if (nativeLoader == null && normalizeValue > 0) {
+            //Other loaders don't normalize: do it once for the whole minibatch
+            features.divi(normalizeValue);
+        }
+
+        List<Writable> ret = new ArrayList<>(2);
+        ret.add(new NDArrayWritable(features));
+        if (appendLabel) {
+            INDArray labelArr = Nd4j.zeros(n, labels.size());
+            for (int i = 0; i < n; i++) {
+                int idx = getLabelIndex(files.get(i).getPath());
+                if (idx < 0) throw new IllegalStateException("Unknown label for file " + files.get(i)
+                                + ": labels are " + labels);
+                labelArr.putScalar(i, idx, 1.0);
+            }
+            ret.add(new NDArrayWritable(labelArr));
+        }
+        return ret;
+    }
+
+    private void invokeAll(List<Callable<Void>> tasks) {
+        if (tasks.size() == 1 || numThreads == 1) {
+            try {
+                for (Callable<Void> c : tasks) c.call();
+            } catch (Exception e) {
+                throw new RuntimeException("Error loading image", e);
+            }
+            return;
+        }
+
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "BatchImageRecordReader");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        try {
+            for (Future<Void> f : executor.invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading images", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error loading image", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        super.close();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.transform;
+
+import org.bytedeco.javacv.OpenCVFrameConverter;
+import org.datavec.image.data.ImageWritable;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+
+import static org.bytedeco.javacpp.opencv_core.*;
+
+/**
+ * Applies an {@link ImageTransform} to many images concurrently, with reproducible randomness: each image gets its
+ * own {@link Random}, seeded from (seed, epoch, sample index) with {@link #sampleSeed(long, int, long)}. Results are
+ * thus identical for any number of threads, and independent of the order in which images get processed.<br>
+ * Images are transformed with {@link BaseImageTransform#transformMat(ImageTransform, Mat, Random)}, so the transform
+ * must be safe to call concurrently with different Random objects. This is the case of the crop, flip, resize,
+ * scale and warp transforms, and of {@link MultiImageTransform} combining them.
+ */
+public class AugmentationExecutor implements Closeable {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final ImageTransform transform;
+    private final long seed;
+    private final int numThreads;
+    private ExecutorService executor;
+
+    /**
+     * Use all available processors
+     */
+    public AugmentationExecutor(ImageTransform transform, long seed) {
+        this(transform, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param transform  Transform to apply to each image
+     * @param seed       Base seed for the per sample random number generators
+     * @param numThreads Number of threads to transform images with
+     */
+    public AugmentationExecutor(ImageTransform transform, long seed, int numThreads) {
+        if (transform == null) throw new IllegalArgumentException("Transform cannot be null");
+        if (numThreads <= 0) throw new IllegalArgumentException("Number of threads must be positive: got " + numThreads);
+        this.transform = transform;
+        this.seed = seed;
+        this.numThreads = numThreads;
+    }
+
+    /**
+     * Derive the seed of one sample from the base seed, the epoch and the index of the sample in the epoch, by
+     * mixing them with the SplitMix64 finalizer: nearby epochs and indices give unrelated seeds.
+     */
+    public static long sampleSeed(long seed, int epoch, long index) {
+        long h = mix(seed + GOLDEN_GAMMA);
+        h = mix(h + GOLDEN_GAMMA * (epoch + 1L));
+        return mix(h + GOLDEN_GAMMA * (index + 1L));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Get the random number generator for one sample, as used by this executor
+     */
+    public Random sampleRandom(int epoch, long index) {
+        return new Random(sampleSeed(seed, epoch, index));
+    }
+
+    /**
+     * Transform a single image, on the calling thread
+     *
+     * @param image Image to transform
+     * @param epoch Epoch number
+     * @param index Index of the sample in the epoch
+     */
+    public Mat transform(Mat image, int epoch, long index) {
+        return BaseImageTransform.transformMat(transform, image, sampleRandom(epoch, index));
+    }
+
+    /**
+     * Transform a list of consecutive samples concurrently
+     *
+     * @param images     Images to transform
+     * @param epoch      Epoch number
+     * @param firstIndex Index in the epoch of the first image of the list
+     * @return The transformed images, in the same order
+     */
+    public List<Mat> transform(List<Mat> images, final int epoch, final long firstIndex) {
+        final Mat[] in = images.toArray(new Mat[images.size()]);
+        final Mat[] out = new Mat[in.length];
+        run(in.length, new Chunk() {
+            @Override
+            public void apply(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    out[i] = transform(in[i], epoch, firstIndex + i);
+                }
+            }
+        });
+        return Arrays.asList(out);
+    }
+
+    /**
+     * Transform a list of consecutive samples concurrently. Same as {@link #transform(List, int, long)}, but
+     * for images wrapped in {@link ImageWritable}s.
+     */
+    public List<ImageWritable> transformWritables(List<ImageWritable> images, final int epoch, final long firstIndex) {
+        final ImageWritable[] in = images.toArray(new ImageWritable[images.size()]);
+        final ImageWritable[] out = new ImageWritable[in.length];
+        run(in.length, new Chunk() {
+            @Override
+            public void apply(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    //Converters reuse their output objects: one per image
+                    OpenCVFrameConverter.ToMat converter = new OpenCVFrameConverter.ToMat();
+                    Mat mat = transform(converter.convert(in[i].getFrame()), epoch, firstIndex + i);
+                    out[i] = new ImageWritable(converter.convert(mat));
+                }
+            }
+        });
+        return Arrays.asList(out);
+    }
+
+    private interface Chunk {
+        void apply(int from, int to);
+    }
+
+    /** One contiguous range of the images per thread */
+    private void run(int n, final Chunk chunk) {
+        int nTasks = Math.min(numThreads, n);
+        if (nTasks <= 1) {
+            chunk.apply(0, n);
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(nTasks);
+        for (int t = 0; t < nTasks; t++) {
+            final int from = (int) ((long) n * t / nTasks);
+            final int to = (int) ((long) n * (t + 1) / nTasks);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    chunk.apply(from, to);
+                    return null;
+                }
+            });
+        }
+
+        try {
+            for (Future<Void> f : getExecutor().invokeAll(tasks)) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while transforming images", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error transforming images", e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(numThreads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "AugmentationExecutor");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return executor;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
@@ -17,8 +17,11 @@ package org.datavec.image.transform;
 
 import java.util.Random;
 import org.bytedeco.javacv.FrameConverter;
+import org.bytedeco.javacv.OpenCVFrameConverter;
 import org.datavec.image.data.ImageWritable;
 
+import static org.bytedeco.javacpp.opencv_core.*;
+
 /**
  *
  * Implements the ImageTransform interface by providing its subclasses
@@ -39,4 +42,44 @@ public abstract class BaseImageTransform<F> implements ImageTransform {
     public ImageWritable transform(ImageWritable image) {
         return transform(image, random);
     }
+
+    /** Calls {@code transformMat(image, random)} with the random object of this transform. */
+    public Mat transformMat(Mat image) {
+        return transformMat(image, random);
+    }
+
+    /**
+     * Takes a native image and returns a transformed one, without wrapping it in a {@link ImageWritable}.
+     * Subclasses operating on a {@link Mat} override this to avoid the Mat -> Frame -> Mat round trip,
+     * while the default implementation goes through {@link #transform(ImageWritable, Random)}.
+     *
+     * @param image  to transform, null == end of stream
+     * @param random object to use (or null for deterministic)
+     * @return       transformed image
+     */
+    public Mat transformMat(Mat image, Random random) {
+        OpenCVFrameConverter.ToMat matConverter = new OpenCVFrameConverter.ToMat();
+        ImageWritable writable = transform(image != null ? new ImageWritable(matConverter.convert(image)) : null, random);
+        return writable != null ? matConverter.convert(writable.getFrame()) : null;
+    }
+
+    /**
+     * Applies any {@link ImageTransform} to a native image, calling {@link #transformMat(Mat, Random)}
+     * when available, and converting to and from a {@link ImageWritable} otherwise.
+     *
+     * @param transform to apply
+     * @param image     to transform, null == end of stream
+     * @param random    object to use (or null for the one of the transform)
+     * @return          transformed image
+     */
+    public static Mat transformMat(ImageTransform transform, Mat image, Random random) {
+        if (transform instanceof BaseImageTransform) {
+            BaseImageTransform t = (BaseImageTransform) transform;
+            return t.transformMat(image, random != null ? random : t.random);
+        }
+        OpenCVFrameConverter.ToMat matConverter = new OpenCVFrameConverter.ToMat();
+        ImageWritable writable = image != null ? new ImageWritable(matConverter.convert(image)) : null;
+        writable = random != null ? transform.transform(writable, random) : transform.transform(writable);
+        return writable != null ? matConverter.convert(writable.getFrame()) : null;
+    }
 }
@@ -70,6 +70,14 @@ public class CropImageTransform extends BaseImageTransform<Mat> {
             return null;
         }
         Mat mat = converter.convert(image.getFrame());
+        return new ImageWritable(converter.convert(transformMat(mat, random)));
+    }
+
+    @Override
+    public Mat transformMat(Mat mat, Random random) {
+        if (mat == null) {
+            return null;
+        }
 
         int top = random != null ? random.nextInt(cropTop + 1) : cropTop;
         int left = random != null ? random.nextInt(cropLeft + 1) : cropLeft;
@@ -82,6 +90,6 @@ public class CropImageTransform extends BaseImageTransform<Mat> {
         int w = Math.max(1, mat.cols() - right - x);
         Mat result = mat.apply(new Rect(x, y, w, h));
 
-        return new ImageWritable(converter.convert(result));
+        return result;
     }
 }
@@ -65,6 +65,14 @@ public class FlipImageTransform extends BaseImageTransform<Mat> {
             return null;
         }
         Mat mat = converter.convert(image.getFrame());
+        return new ImageWritable(converter.convert(transformMat(mat, random)));
+    }
+
+    @Override
+    public Mat transformMat(Mat mat, Random random) {
+        if (mat == null) {
+            return null;
+        }
 
         int mode = random != null ? random.nextInt(4) - 2 : flipMode;
 
@@ -76,6 +84,6 @@ public class FlipImageTransform extends BaseImageTransform<Mat> {
             flip(mat, result, mode);
         }
 
-        return new ImageWritable(converter.convert(result));
+        return result;
     }
 }
@@ -22,6 +22,7 @@ import static org.bytedeco.javacpp.opencv_core.*;
 
 /**
  * Transforms images deterministically or randomly with the help of an array of ImageTransform.
+ * To transform images concurrently and reproducibly, see {@link AugmentationExecutor}.
  *
  * @author saudet
  */
@@ -56,4 +57,16 @@ public class MultiImageTransform extends BaseImageTransform<Mat> {
         }
         return image;
     }
+
+    /**
+     * Chains the transforms on the same {@link Mat}, converting to and from a
+     * {@link ImageWritable} only for transforms that do not operate on it natively.
+     */
+    @Override
+    public Mat transformMat(Mat image, Random random) {
+        for (int i = 0; i < imageTransforms.length; i++) {
+            image = transformMat(imageTransforms[i], image, random);
+        }
+        return image;
+    }
 }
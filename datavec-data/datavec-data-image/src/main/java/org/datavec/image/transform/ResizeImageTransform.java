@@ -57,10 +57,18 @@ public class ResizeImageTransform extends BaseImageTransform<opencv_core.Mat>  {
             return null;
         }
         opencv_core.Mat mat = converter.convert(image.getFrame());
+        return new ImageWritable(converter.convert(transformMat(mat, random)));
+    }
+
+    @Override
+    public opencv_core.Mat transformMat(opencv_core.Mat mat, Random random) {
+        if (mat == null) {
+            return null;
+        }
 
         opencv_core.Mat result = new opencv_core.Mat();
         resize(mat, result, new opencv_core.Size(newWidth, newHeight));
 
-        return new ImageWritable(converter.convert(result));
+        return result;
     }
 }
@@ -67,6 +67,14 @@ public class ScaleImageTransform extends BaseImageTransform<Mat> {
             return null;
         }
         Mat mat = converter.convert(image.getFrame());
+        return new ImageWritable(converter.convert(transformMat(mat, random)));
+    }
+
+    @Override
+    public Mat transformMat(Mat mat, Random random) {
+        if (mat == null) {
+            return null;
+        }
 
         int h = Math.round(mat.rows() + dy * (random != null ? 2 * random.nextFloat() - 1 : 1));
         int w = Math.round(mat.cols() + dx * (random != null ? 2 * random.nextFloat() - 1 : 1));
@@ -74,6 +82,6 @@ public class ScaleImageTransform extends BaseImageTransform<Mat> {
         Mat result = new Mat();
         resize(mat, result, new Size(w, h));
 
-        return new ImageWritable(converter.convert(result));
+        return result;
     }
 }
@@ -78,6 +78,14 @@ public class WarpImageTransform extends BaseImageTransform<Mat> {
             return null;
         }
         Mat mat = converter.convert(image.getFrame());
+        return new ImageWritable(converter.convert(transformMat(mat, random)));
+    }
+
+    @Override
+    public Mat transformMat(Mat mat, Random random) {
+        if (mat == null) {
+            return null;
+        }
 
         Point2f src = new Point2f(4);
         Point2f dst = new Point2f(4);
@@ -93,6 +101,6 @@ public class WarpImageTransform extends BaseImageTransform<Mat> {
         Mat M = getPerspectiveTransform(src, dst);
         warpPerspective(mat, result, M, mat.size());
 
-        return new ImageWritable(converter.convert(result));
+        return result;
     }
 }
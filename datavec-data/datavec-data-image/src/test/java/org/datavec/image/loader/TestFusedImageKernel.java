@@ -0,0 +1,103 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.loader;
+
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TestFusedImageKernel {
+
+    @Test
+    public void testToBytes() {
+        Random r = new Random(12345);
+        BufferedImage bgr = new BufferedImage(7, 5, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage rgb = new BufferedImage(7, 5, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                int p = r.nextInt();
+                bgr.setRGB(x, y, p);
+                rgb.setRGB(x, y, p);
+            }
+        }
+
+        //Direct raster access and conversion through getRGB should give the same bytes
+        byte[] direct = FusedImageKernel.toBytes(bgr, 3);
+        assertArrayEquals(direct, FusedImageKernel.toBytes(rgb, 3));
+        assertEquals(3 * 3 * 3, FusedImageKernel.toBytes(bgr.getSubimage(1, 1, 3, 3), 3).length);
+        assertEquals(7 * 5, FusedImageKernel.toBytes(rgb, 1).length);
+
+        //Same size: plain conversion from interleaved BGR to planar channels
+        float[] out = new float[3 * 5 * 7];
+        FusedImageKernel.resize(direct, 5, 7, 3, 0, 0, 5, 7, out, 0, 5, 7, 1.0f);
+        for (int c = 0; c < 3; c++) {
+            for (int y = 0; y < 5; y++) {
+                for (int x = 0; x < 7; x++) {
+                    assertEquals((bgr.getRGB(x, y) >> (8 * c)) & 0xFF, out[(c * 5 + y) * 7 + x], 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testResizeCropNormalize() {
+        byte[] src = {10, 20, 30, 40};
+
+        //2x2 -> 1x1 samples the center: mean of the 4 pixels, then normalized
+        float[] out = new float[1];
+        FusedImageKernel.resize(src, 2, 2, 1, 0, 0, 2, 2, out, 0, 1, 1, 0.5f);
+        assertEquals(12.5f, out[0], 1e-6f);
+
+        //Crop the right column
+        out = new float[3];
+        FusedImageKernel.resize(src, 2, 2, 1, 0, 1, 2, 1, out, 1, 2, 1, 1.0f);
+        assertArrayEquals(new float[] {0.0f, 20.0f, 40.0f}, out, 0.0f);
+
+        try {
+            FusedImageKernel.resize(src, 2, 2, 1, 0, 1, 2, 2, out, 0, 1, 1, 1.0f);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testImageLoaderBgr() {
+        Random r = new Random(12345);
+        BufferedImage img = new BufferedImage(20, 30, BufferedImage.TYPE_3BYTE_BGR);
+        for (int y = 0; y < 30; y++) {
+            for (int x = 0; x < 20; x++) {
+                img.setRGB(x, y, r.nextInt());
+            }
+        }
+
+        //No scaling: same values as the per pixel conversion
+        ImageLoader loader = new ImageLoader(0, 0, 3);
+        assertEquals(loader.toINDArrayBGR(img), loader.toBgr(img));
+
+        ImageLoader scaling = new ImageLoader(12, 8, 3, false, 255.0);
+        INDArray arr = scaling.toBgr(img);
+        assertArrayEquals(new int[] {3, 12, 8}, arr.shape());
+        assertTrue(arr.maxNumber().doubleValue() <= 1.0);
+        assertTrue(arr.minNumber().doubleValue() >= 0.0);
+        assertEquals(3 * 12 * 8, scaling.toRaveledTensor(img).length());
+    }
+}
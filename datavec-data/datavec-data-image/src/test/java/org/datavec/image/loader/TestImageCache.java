@@ -0,0 +1,133 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.loader;
+
+import org.bytedeco.javacpp.indexer.UByteIndexer;
+import org.datavec.image.transform.FlipImageTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.bytedeco.javacpp.opencv_core.*;
+import static org.bytedeco.javacpp.opencv_imgcodecs.imwrite;
+import static org.junit.Assert.*;
+
+public class TestImageCache {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void testLruEviction() {
+        Random r = new Random(12345);
+        Mat img = makeRandomImage(10, 10, 3, r);
+        long bytes = 10 * 10 * 3;
+        ImageCache cache = new ImageCache(2 * bytes);
+
+        ImageCache.Key k0 = new ImageCache.Key("file:/0.png", 0, 10, 10, 3, false);
+        ImageCache.Key k1 = new ImageCache.Key("file:/1.png", 0, 10, 10, 3, false);
+        ImageCache.Key k2 = new ImageCache.Key("file:/2.png", 0, 10, 10, 3, false);
+
+        cache.put(k0, img);
+        cache.put(k1, img);
+        assertEquals(2, cache.size());
+        assertEquals(2 * bytes, cache.getCurrentBytes());
+
+        assertNotNull(cache.get(k0)); //k1 is now the least recently used
+        cache.put(k2, img);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(k1));
+        assertNotNull(cache.get(k0));
+        assertNotNull(cache.get(k2));
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        //Cached copies are independent of the original image
+        Mat copy = cache.get(k0);
+        UByteIndexer expIdx = img.createIndexer();
+        UByteIndexer actIdx = copy.createIndexer();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                for (int k = 0; k < 3; k++) {
+                    assertEquals(expIdx.get(i, j, k), actIdx.get(i, j, k));
+                }
+            }
+        }
+
+        //Images larger than the cache are not cached
+        cache.put(new ImageCache.Key("file:/big.png", 0, 20, 20, 3, false), makeRandomImage(20, 20, 3, r));
+        assertEquals(2, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCurrentBytes());
+    }
+
+    @Test
+    public void testNativeImageLoaderCache() throws Exception {
+        Random r = new Random(12345);
+        File f = testDir.newFile("img.png");
+        imwrite(f.getAbsolutePath(), makeRandomImage(40, 30, 3, r));
+
+        NativeImageLoader uncached = new NativeImageLoader(16, 12, 3);
+        NativeImageLoader loader = new NativeImageLoader(16, 12, 3);
+        ImageCache cache = new ImageCache(1024 * 1024);
+        loader.setImageCache(cache);
+
+        INDArray expected = uncached.asMatrix(f);
+        assertEquals(expected, loader.asMatrix(f));
+        assertEquals(expected, loader.asMatrix(f));
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        //With a transform, the decoded image is cached: same output as without a cache
+        INDArray expectedFlipped = new NativeImageLoader(16, 12, 3, new FlipImageTransform(1)).asMatrix(f);
+        NativeImageLoader transformLoader = new NativeImageLoader(16, 12, 3, new FlipImageTransform(1));
+        transformLoader.setImageCache(cache);
+        assertEquals(expectedFlipped, transformLoader.asMatrix(f));
+        assertEquals(expectedFlipped, transformLoader.asMatrix(f));
+        assertArrayEquals(new int[] {1, 3, 16, 12}, expectedFlipped.shape());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.getHits());
+
+        //Modified files are decoded again
+        imwrite(f.getAbsolutePath(), makeRandomImage(40, 30, 3, r));
+        assertTrue(f.setLastModified(f.lastModified() + 10000));
+        INDArray modified = uncached.asMatrix(f);
+        assertNotEquals(expected, modified);
+        assertEquals(modified, loader.asMatrix(f));
+        assertEquals(3, cache.getMisses());
+    }
+
+    private static Mat makeRandomImage(int height, int width, int channels, Random r) {
+        Mat img = new Mat(height, width, CV_8UC(channels));
+        UByteIndexer idx = img.createIndexer();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                for (int k = 0; k < channels; k++) {
+                    idx.put(i, j, k, r.nextInt(256));
+                }
+            }
+        }
+        return img;
+    }
+}
@@ -21,8 +21,10 @@ import org.bytedeco.javacpp.indexer.UByteIndexer;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 import static org.bytedeco.javacpp.opencv_core.*;
 
 /**
@@ -105,6 +107,31 @@ public class TestNativeImageLoader {
         assertEquals(w2, array4.size(3));
     }
 
+    @Test
+    public void testAsMatrixBatch() throws Exception {
+        Mat img1 = makeRandomImage(0, 0, 3);
+        Mat img2 = makeRandomImage(0, 0, 1);
+
+        int w = 31, h = 47, ch = 3, normVal = 255;
+        NativeImageLoader loader = new NativeImageLoader(h, w, ch, null, normVal);
+
+        INDArray batch = Nd4j.create(2, ch, h, w);
+        loader.asMatrix(img1, batch, 0);
+        loader.asMatrix(img2, batch, 1);
+
+        assertEquals(loader.asMatrix(img1), batch.get(NDArrayIndex.interval(0, 1), NDArrayIndex.all(),
+                        NDArrayIndex.all(), NDArrayIndex.all()));
+        assertEquals(loader.asMatrix(img2), batch.get(NDArrayIndex.interval(1, 2), NDArrayIndex.all(),
+                        NDArrayIndex.all(), NDArrayIndex.all()));
+
+        try {
+            new NativeImageLoader(h + 1, w, ch).asMatrix(img1, batch, 0);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testScalingIfNeed() throws Exception {
         Mat img1 = makeRandomImage(0, 0, 1);
@@ -0,0 +1,147 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.recordreader;
+
+import org.bytedeco.javacpp.indexer.UByteIndexer;
+import org.datavec.api.io.labels.ParentPathLabelGenerator;
+import org.datavec.api.split.FileSplit;
+import org.datavec.api.split.InputSplit;
+import org.datavec.api.writable.Writable;
+import org.datavec.common.data.NDArrayWritable;
+import org.datavec.image.transform.FlipImageTransform;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+
+import static org.bytedeco.javacpp.opencv_core.*;
+import static org.bytedeco.javacpp.opencv_imgcodecs.imwrite;
+import static org.junit.Assert.*;
+
+public class TestBatchImageRecordReader {
+
+    @Rule
+    public TemporaryFolder testDir = new TemporaryFolder();
+
+    @Test
+    public void testNextBatch() throws Exception {
+        File root = testDir.newFolder("images");
+        Random r = new Random(12345);
+        String[] classes = {"cat", "dog"};
+        for (String c : classes) {
+            File dir = new File(root, c);
+            assertTrue(dir.mkdirs());
+            for (int i = 0; i < 5; i++) {
+                writeRandomImage(new File(dir, i + ".png"), 20 + r.nextInt(20), 20 + r.nextInt(20), r);
+            }
+        }
+
+        int h = 16, w = 12, ch = 3;
+        InputSplit split = new FileSplit(root, new String[] {"png"}, true);
+        ImageRecordReader single = new ImageRecordReader(h, w, ch, new ParentPathLabelGenerator(), 255.0);
+        single.initialize(split);
+        BatchImageRecordReader batchReader = new BatchImageRecordReader(h, w, ch, new ParentPathLabelGenerator(),
+                        null, 255.0, 3);
+        batchReader.initialize(split);
+        assertEquals(single.getLabels(), batchReader.getLabels());
+
+        int count = 0;
+        int[] batchSizes = {4, 4, 2};
+        for (int b = 0; b < batchSizes.length; b++) {
+            assertTrue(batchReader.hasNext());
+            List<Writable> batch = batchReader.nextBatch(4);
+            assertEquals(2, batch.size());
+            INDArray features = ((NDArrayWritable) batch.get(0)).get();
+            INDArray labels = ((NDArrayWritable) batch.get(1)).get();
+            assertArrayEquals(new int[] {batchSizes[b], ch, h, w}, features.shape());
+            assertArrayEquals(new int[] {batchSizes[b], 2}, labels.shape());
+
+            for (int i = 0; i < batchSizes[b]; i++) {
+                List<Writable> record = single.next();
+                INDArray expFeatures = ((NDArrayWritable) record.get(0)).get();
+                INDArray actFeatures = features.get(NDArrayIndex.interval(i, i + 1), NDArrayIndex.all(),
+                                NDArrayIndex.all(), NDArrayIndex.all());
+                assertEquals(expFeatures, actFeatures);
+                assertTrue(actFeatures.maxNumber().doubleValue() <= 1.0);
+
+                int expLabel = record.get(1).toInt();
+                assertEquals(1.0, labels.getDouble(i, expLabel), 0.0);
+                assertEquals(1.0, labels.getRow(i).sumNumber().doubleValue(), 0.0);
+                count++;
+            }
+        }
+        assertEquals(10, count);
+        assertFalse(batchReader.hasNext());
+        batchReader.close();
+    }
+
+    @Test
+    public void testNextCountsTowardsAugmentationSeed() throws Exception {
+        File root = testDir.newFolder("images");
+        Random r = new Random(12345);
+        for (int i = 0; i < 6; i++) {
+            writeRandomImage(new File(root, i + ".png"), 20 + r.nextInt(20), 20 + r.nextInt(20), r);
+        }
+        InputSplit split = new FileSplit(root, new String[] {"png"}, false);
+
+        BatchImageRecordReader batchOnly = new BatchImageRecordReader(16, 12, 3, null,
+                        new FlipImageTransform(new Random(1)), 0.0, 2);
+        batchOnly.setAugmentationSeed(42);
+        batchOnly.initialize(split);
+        batchOnly.nextBatch(2);
+        INDArray expected = ((NDArrayWritable) batchOnly.nextBatch(4).get(0)).get();
+
+        //Two single images, then a minibatch: seeded as if the first two had been read as a minibatch
+        BatchImageRecordReader mixed = new BatchImageRecordReader(16, 12, 3, null,
+                        new FlipImageTransform(new Random(1)), 0.0, 2);
+        mixed.setAugmentationSeed(42);
+        mixed.initialize(split);
+        mixed.next();
+        mixed.next();
+        assertEquals(expected, ((NDArrayWritable) mixed.nextBatch(4).get(0)).get());
+
+        batchOnly.close();
+        mixed.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNextBatchRequiresImageSize() throws Exception {
+        File root = testDir.newFolder("images");
+        writeRandomImage(new File(root, "0.png"), 20, 20, new Random(12345));
+        BatchImageRecordReader reader = new BatchImageRecordReader(-1, -1, -1);
+        reader.initialize(new FileSplit(root));
+        reader.nextBatch(1);
+    }
+
+    private static void writeRandomImage(File f, int height, int width, Random r) {
+        Mat img = new Mat(height, width, CV_8UC(3));
+        UByteIndexer idx = img.createIndexer();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                for (int k = 0; k < 3; k++) {
+                    idx.put(i, j, k, r.nextInt(256));
+                }
+            }
+        }
+        imwrite(f.getAbsolutePath(), img);
+    }
+}
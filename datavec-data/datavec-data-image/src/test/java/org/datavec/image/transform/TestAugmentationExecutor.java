@@ -0,0 +1,106 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.image.transform;
+
+import org.bytedeco.javacpp.indexer.UByteIndexer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.bytedeco.javacpp.opencv_core.*;
+import static org.junit.Assert.*;
+
+public class TestAugmentationExecutor {
+
+    @Test
+    public void testSampleSeed() {
+        assertEquals(AugmentationExecutor.sampleSeed(42, 3, 17), AugmentationExecutor.sampleSeed(42, 3, 17));
+
+        Set<Long> seeds = new HashSet<>();
+        for (int epoch = 0; epoch < 10; epoch++) {
+            for (long index = 0; index < 100; index++) {
+                seeds.add(AugmentationExecutor.sampleSeed(42, epoch, index));
+            }
+        }
+        assertEquals(1000, seeds.size());
+        assertNotEquals(AugmentationExecutor.sampleSeed(42, 0, 0), AugmentationExecutor.sampleSeed(43, 0, 0));
+    }
+
+    @Test
+    public void testSameResultsForAnyNumberOfThreads() {
+        Random r = new Random(12345);
+        List<Mat> images = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            images.add(makeRandomImage(40 + r.nextInt(20), 40 + r.nextInt(20), 3, r));
+        }
+
+        ImageTransform transform = new MultiImageTransform(new Random(1), new CropImageTransform(10),
+                        new FlipImageTransform(), new ScaleImageTransform(10), new WarpImageTransform(5));
+
+        List<Mat> single;
+        List<Mat> multi;
+        List<Mat> nextEpoch;
+        try (AugmentationExecutor e1 = new AugmentationExecutor(transform, 123, 1);
+             AugmentationExecutor e4 = new AugmentationExecutor(transform, 123, 4)) {
+            single = e1.transform(images, 0, 0);
+            multi = e4.transform(images, 0, 0);
+            nextEpoch = e4.transform(images, 1, 0);
+
+            //Same sample index, whichever batch it is processed in
+            assertTrue(equal(single.get(5), e4.transform(images.subList(5, 10), 0, 5).get(0)));
+        }
+
+        assertEquals(images.size(), multi.size());
+        int differentNextEpoch = 0;
+        for (int i = 0; i < images.size(); i++) {
+            assertTrue(equal(single.get(i), multi.get(i)));
+            if (!equal(single.get(i), nextEpoch.get(i))) differentNextEpoch++;
+        }
+        assertTrue(differentNextEpoch > 0);
+    }
+
+    private static boolean equal(Mat a, Mat b) {
+        if (a.rows() != b.rows() || a.cols() != b.cols() || a.channels() != b.channels()) return false;
+        UByteIndexer ia = a.createIndexer();
+        UByteIndexer ib = b.createIndexer();
+        for (int i = 0; i < a.rows(); i++) {
+            for (int j = 0; j < a.cols(); j++) {
+                for (int k = 0; k < a.channels(); k++) {
+                    if (ia.get(i, j, k) != ib.get(i, j, k)) return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Mat makeRandomImage(int height, int width, int channels, Random r) {
+        Mat img = new Mat(height, width, CV_8UC(channels));
+        UByteIndexer idx = img.createIndexer();
+        for (int i = 0; i < height; i++) {
+            for (int j = 0; j < width; j++) {
+                for (int k = 0; k < channels; k++) {
+                    idx.put(i, j, k, r.nextInt(256));
+                }
+            }
+        }
+        return img;
+    }
+}
@@ -125,6 +125,32 @@ public class TestImageTransform {
         assertEquals(null, transform.transform(null));
     }
 
+    @Test
+    public void testTransformMat() throws Exception {
+        ImageWritable writable = makeRandomImage(0, 0, 3);
+        Mat mat = converter.convert(writable.getFrame());
+        BaseImageTransform transform = new MultiImageTransform(
+                new CropImageTransform(10), new FlipImageTransform(1),
+                new ResizeImageTransform(64, 48), new WarpImageTransform(5));
+
+        Mat expected = converter.convert(transform.transform(writable).getFrame()).clone();
+        Mat actual = transform.transformMat(mat);
+        assertEquals(48, actual.rows());
+        assertEquals(64, actual.cols());
+        assertEquals(3, actual.channels());
+
+        UByteIndexer expectedIdx = expected.createIndexer();
+        UByteIndexer actualIdx = actual.createIndexer();
+        for (int i = 0; i < actual.rows(); i++) {
+            for (int j = 0; j < actual.cols(); j++) {
+                for (int k = 0; k < actual.channels(); k++) {
+                    assertEquals(expectedIdx.get(i, j, k), actualIdx.get(i, j, k));
+                }
+            }
+        }
+        assertEquals(null, transform.transformMat(null));
+    }
+
     @Test
     public void testFilterImageTransform() throws Exception {
         ImageWritable writable = makeRandomImage(0, 0, 4);
@@ -20,13 +20,17 @@ package org.datavec.nlp.vectorizer;
 import org.datavec.api.berkeley.Counter;
 import org.datavec.api.writable.IntWritable;
 import org.datavec.api.records.reader.RecordReader;
+import org.datavec.api.util.Index;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Writable;
+import org.datavec.common.RecordConverter;
 import org.datavec.nlp.reader.TfidfRecordReader;
 import org.datavec.nlp.vectorizer.AbstractTfidfVectorizer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -39,14 +43,46 @@ import java.util.List;
 public class TfidfVectorizer extends AbstractTfidfVectorizer<INDArray> {
     @Override
     public INDArray createVector(Object[] args) {
-        INDArray ret = Nd4j.create(cache.vocabWords().size());
         Counter<String> docFrequencies = (Counter<String>)args[0];
-        for(int i = 0; i < cache.vocabWords().size(); i++) {
-            double freq = docFrequencies.getCount(cache.wordAt(i));
-            double tfidf = cache.tfidf(cache.wordAt(i),freq);
-            ret.putScalar(i,tfidf);
+        return Nd4j.create(createSparseVector(docFrequencies).toDense());
+    }
+
+    /**
+     * Create the tfidf vector for a document. Only the words present in the document are visited (words not in
+     * the document have a term frequency, and hence tfidf, of 0), rather than the entire vocabulary.
+     * @param docFrequencies the word counts for the document
+     * @return the sparse tfidf vector, of size equal to the vocabulary size
+     */
+    public SparseVectorWritable createSparseVector(Counter<String> docFrequencies) {
+        Index vocab = cache.vocabWords();
+        int[] indices = new int[docFrequencies.keySet().size()];
+        int n = 0;
+        for(String word : docFrequencies.keySet()) {
+            int idx = vocab.indexOf(word);
+            if(idx >= 0)
+                indices[n++] = idx;
         }
-        return ret;
+        indices = Arrays.copyOf(indices, n);
+        Arrays.sort(indices);
+
+        double[] values = new double[n];
+        int nnz = 0;
+        for(int i = 0; i < n; i++) {
+            String word = cache.wordAt(indices[i]);
+            double tfidf = cache.tfidf(word, docFrequencies.getCount(word));
+            if(tfidf != 0.0) {
+                indices[nnz] = indices[i];
+                values[nnz++] = tfidf;
+            }
+        }
+        return new SparseVectorWritable(vocab.size(), Arrays.copyOf(indices, nnz), Arrays.copyOf(values, nnz));
+    }
+
+    /**
+     * Transform a record to a sparse tfidf vector; see {@link #createSparseVector(Counter)}
+     */
+    public SparseVectorWritable transformSparse(Collection<Writable> record) {
+        return createSparseVector(wordFrequenciesForRecord(record));
     }
 
     @Override
@@ -70,16 +106,15 @@ public class TfidfVectorizer extends AbstractTfidfVectorizer<INDArray> {
 
         if(records.isEmpty())
             throw new IllegalStateException("No records found!");
-        INDArray ret = Nd4j.create(records.size(),cache.vocabWords().size());
-        int i = 0;
+        List<SparseVectorWritable> vectors = new ArrayList<>(records.size());
         for(Collection<Writable> record : records) {
-            ret.putRow(i++, transform(record));
+            vectors.add(transformSparse(record));
             if(callBack != null) {
                 callBack.onRecord(record);
             }
         }
 
-        return ret;
+        return RecordConverter.toMatrix(vectors);
     }
 
     @Override
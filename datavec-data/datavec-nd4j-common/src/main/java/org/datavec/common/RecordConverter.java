@@ -16,12 +16,16 @@
 
 package org.datavec.common;
 
+import org.datavec.api.writable.DoubleArrayRecord;
+import org.datavec.api.writable.LongArrayRecord;
+import org.datavec.api.writable.SparseVectorWritable;
 import org.datavec.api.writable.Writable;
 import org.datavec.common.data.NDArrayWritable;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -38,22 +42,39 @@ public class RecordConverter {
      * @return the array
      */
     public static INDArray toArray(Collection<Writable> record,int size) {
+        //Primitive array records: no per-value Writable objects or virtual calls
+        if(record instanceof DoubleArrayRecord) {
+            return Nd4j.create(Arrays.copyOf(((DoubleArrayRecord) record).getValues(),size));
+        }
+        if(record instanceof LongArrayRecord) {
+            long[] values = ((LongArrayRecord) record).getValues();
+            double[] arr = new double[size];
+            for(int i = 0; i < values.length && i < size; i++) {
+                arr[i] = values[i];
+            }
+            return Nd4j.create(arr);
+        }
+
         Iterator<Writable> writables = record.iterator();
         Writable firstWritable = writables.next();
         if(firstWritable instanceof NDArrayWritable) {
             NDArrayWritable ret = (NDArrayWritable) firstWritable;
             return ret.get();
         }
+        else if(firstWritable instanceof SparseVectorWritable) {
+            return toArray((SparseVectorWritable) firstWritable);
+        }
         else {
-            INDArray vector = Nd4j.create(size);
-            vector.putScalar(0,firstWritable.toDouble());
+            //Fill a primitive array first, rather than calling putScalar on the INDArray for every value
+            double[] arr = new double[size];
+            arr[0] = firstWritable.toDouble();
             int count = 1;
             while(writables.hasNext()) {
                 Writable w = writables.next();
-                vector.putScalar(count++,w.toDouble());
+                arr[count++] = w.toDouble();
             }
 
-            return vector;
+            return Nd4j.create(arr);
         }
 
 
@@ -70,6 +91,57 @@ public class RecordConverter {
 
 
 
+    /**
+     * Convert a sparse vector to a row vector. Only the non-zero entries are copied.
+     * @param vector the vector to convert
+     * @return a row vector of length {@link SparseVectorWritable#size()}
+     */
+    public static INDArray toArray(SparseVectorWritable vector) {
+        return Nd4j.create(vector.toDense());
+    }
+
+    /**
+     * Convert a list of sparse vectors (all of the same size) to a matrix, with one row per vector.
+     * The matrix is filled from a single primitive array, touching only the non-zero entries of each vector.
+     * @param vectors the vectors to convert
+     * @return the matrix, of shape [vectors.size(), size]
+     */
+    public static INDArray toMatrix(List<SparseVectorWritable> vectors) {
+        if(vectors.isEmpty())
+            throw new IllegalArgumentException("Cannot convert empty list of vectors to a matrix");
+        int rows = vectors.size();
+        int columns = vectors.get(0).size();
+        double[] data = new double[rows * columns];
+        for(int i = 0; i < rows; i++) {
+            SparseVectorWritable v = vectors.get(i);
+            if(v.size() != columns)
+                throw new IllegalArgumentException("Vector " + i + " has size " + v.size() + ", expected " + columns);
+            int[] indices = v.getIndices();
+            double[] values = v.getValues();
+            int offset = i * columns;
+            for(int j = 0; j < indices.length; j++) {
+                data[offset + indices[j]] = values[j];
+            }
+        }
+        return Nd4j.create(data, new int[]{rows, columns});
+    }
+
+    /**
+     * Convert a vector to a sparse vector writable, keeping only the non-zero entries
+     * @param vector the vector to convert
+     * @return the sparse vector
+     */
+    public static SparseVectorWritable toSparseVector(INDArray vector) {
+        if(!vector.isVector())
+            throw new IllegalArgumentException("Not a vector: shape " + Arrays.toString(vector.shape()));
+        int length = vector.length();
+        double[] dense = new double[length];
+        for(int i = 0; i < length; i++) {
+            dense[i] = vector.getDouble(i);
+        }
+        return SparseVectorWritable.fromDense(dense);
+    }
+
     /**
      * Convert an ndarray to a record
      * @param array the array to convert
@@ -25,15 +25,23 @@ import org.datavec.api.conf.Configuration;
 import org.datavec.api.writable.DoubleWritable;
 import org.datavec.api.writable.Text;
 import org.datavec.api.records.reader.impl.LineRecordReader;
+import org.datavec.api.records.reader.impl.misc.SparseVectorBuilder;
 import org.datavec.api.split.InputSplit;
 //import org.datavec.api.records.reader.impl.misc.SVMLightRecordReader;
 import org.datavec.api.writable.Writable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * SVMLight record reader: returns each line as [{@link org.datavec.api.writable.SparseVectorWritable}, label].
+ * The vector size is {@link org.datavec.api.records.reader.impl.misc.SVMLightRecordReader#NUM_ATTRIBUTES} if set in
+ * the configuration, or the maximum index on each line otherwise.
+ */
 public class SVMLightRecordReader extends LineRecordReader {
 	
     private static Logger log = LoggerFactory.getLogger(SVMLightRecordReader.class);
+    private int numAttributes = -1;
+    private final SparseVectorBuilder sparseBuilder = new SparseVectorBuilder();
 
     public SVMLightRecordReader() {
     }
@@ -41,6 +49,7 @@ public class SVMLightRecordReader extends LineRecordReader {
     @Override
     public void initialize(Configuration conf, InputSplit split) throws IOException, InterruptedException {
         initialize(split);
+        numAttributes = conf.getInt(org.datavec.api.records.reader.impl.misc.SVMLightRecordReader.NUM_ATTRIBUTES, -1);
     }
 
     @Override
@@ -61,39 +70,23 @@ public class SVMLightRecordReader extends LineRecordReader {
         
         
         String val = new String(t.getBytes());
-        List<Writable> ret = new ArrayList<>();
+        List<Writable> ret = new ArrayList<>(2);
         StringTokenizer tok;
-        int	index,max;
+        int	index;
         String	col;
         double	value;
 
         // actual data
         try {
-            // determine max index
-            max = 0;
-            tok = new StringTokenizer(val, " \t");
-            tok.nextToken();  // skip class
-            while (tok.hasMoreTokens()) {
-                col = tok.nextToken();
-                // finished?
-                if (col.startsWith("#"))
-                    break;
-                // qid is not supported
-                if (col.startsWith("qid:"))
-                    continue;
-                // actual value
-                index = Integer.parseInt(col.substring(0, col.indexOf(":")));
-                if (index > max)
-                    max = index;
-            }
-
+            // single pass: the max index is not needed to read the values
             // read values into array
             tok    = new StringTokenizer(val, " \t");
 
             // 1. class
             double classVal = Double.parseDouble(tok.nextToken());
 
-            // 2. attributes
+            // 2. attributes: only the non-zero values are stored
+            sparseBuilder.clear();
             while (tok.hasMoreTokens()) {
                 col  = tok.nextToken();
                 // finished?
@@ -102,12 +95,13 @@ public class SVMLightRecordReader extends LineRecordReader {
                 // qid is not supported
                 if (col.startsWith("qid:"))
                     continue;
-                // actual value
-                index = Integer.parseInt(col.substring(0, col.indexOf(":")));
+                // actual value (indices are 1-based)
+                index = Integer.parseInt(col.substring(0, col.indexOf(":"))) - 1;
                 value = Double.parseDouble(col.substring(col.indexOf(":") + 1));
-                ret.add(new DoubleWritable(value));
+                sparseBuilder.add(index, value);
             }
 
+            ret.add(sparseBuilder.build(numAttributes));
             ret.add(new DoubleWritable(classVal));
         }
         catch (Exception e) {
@@ -18,24 +18,36 @@ package org.datavec.spark.transform;
 
 import org.datavec.spark.transform.join.*;
 import org.datavec.spark.transform.misc.ColumnAsKeyPairFunction;
+import org.datavec.spark.transform.misc.IdentityFunction;
 import org.datavec.spark.transform.reduce.MapToPairForReducerFunction;
 import org.datavec.spark.transform.sequence.SparkMapToPairByColumnFunction;
 import org.datavec.spark.transform.transform.SequenceSplitFunction;
 import org.datavec.spark.transform.sequence.SparkGroupToSequenceFunction;
 import org.datavec.spark.transform.sequence.SparkSequenceFilterFunction;
 import org.datavec.spark.transform.sequence.SparkSequenceTransformFunction;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.apache.commons.math3.util.Pair;
 import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
 import org.apache.spark.api.java.function.Function;
+import org.apache.spark.storage.StorageLevel;
+import org.datavec.api.io.WritableUtils;
 import org.datavec.api.writable.Writable;
 import org.datavec.api.transform.DataAction;
 import org.datavec.api.transform.Transform;
 import org.datavec.api.transform.TransformProcess;
 import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.join.JoinKey;
+import org.datavec.api.transform.join.TaggedJoinKey;
+import org.datavec.api.transform.metrics.PipelineMetrics;
+import org.datavec.api.transform.metrics.StepMetrics;
 import org.datavec.api.transform.rank.CalculateSortedRank;
 import org.datavec.api.transform.sequence.ConvertToSequence;
 import org.datavec.api.transform.filter.Filter;
+import org.datavec.api.transform.reduce.AggregableReducer;
 import org.datavec.api.transform.reduce.IReducer;
 import org.datavec.api.transform.schema.Schema;
 import org.datavec.api.transform.schema.SequenceSchema;
@@ -43,19 +55,76 @@ import org.datavec.api.transform.sequence.SequenceSplit;
 import org.datavec.spark.transform.analysis.SequenceFlatMapFunction;
 import org.datavec.spark.transform.rank.UnzipForCalculateSortedRankFunction;
 import org.datavec.spark.transform.filter.SparkFilterFunction;
+import org.datavec.spark.transform.metrics.TimedFunction;
+import org.datavec.spark.transform.reduce.ReduceAggregateFunction;
+import org.datavec.spark.transform.reduce.ReduceFinishFunction;
+import org.datavec.spark.transform.reduce.ReduceMergeFunction;
 import org.datavec.spark.transform.reduce.ReducerFunction;
 import org.datavec.spark.transform.transform.SparkTransformFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.Tuple2;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class SparkTransformExecutor {
 
     private static final Logger log = LoggerFactory.getLogger(SparkTransformExecutor.class);
 
+    /**
+     * Default maximum number of examples on one side of a join, for that side to be broadcast (broadcast hash join)
+     * instead of executing a sort-merge join
+     */
+    public static final int DEFAULT_BROADCAST_JOIN_THRESHOLD = 10000;
+    /**
+     * Default maximum estimated size (serialized, in bytes) of one side of a join, for that side to be broadcast
+     */
+    public static final long DEFAULT_BROADCAST_JOIN_MAX_BYTES = 10 * 1024 * 1024;
+
+    private final PipelineMetrics metrics;
+    private final int broadcastJoinThreshold;
+    private final long broadcastJoinMaxBytes;
+
+    public SparkTransformExecutor() {
+        this(null);
+    }
+
+    /**
+     * @param metrics Metrics listener for per-step timing and records in/out of transform and filter steps (usually a
+     *                {@link org.datavec.spark.transform.metrics.SparkPipelineMetrics} instance). May be null.
+     */
+    public SparkTransformExecutor(PipelineMetrics metrics) {
+        this(metrics, DEFAULT_BROADCAST_JOIN_THRESHOLD);
+    }
+
+    /**
+     * @param metrics                Metrics listener (may be null). See {@link #SparkTransformExecutor(PipelineMetrics)}
+     * @param broadcastJoinThreshold Maximum number of examples on one side of a join for that side to be collected and
+     *                               broadcast (hash join without shuffling the other side). Joins where the broadcast
+     *                               candidate side is larger than this (and all full outer joins) are executed as
+     *                               sort-merge joins. Set to 0 to disable broadcast joins.
+     */
+    public SparkTransformExecutor(PipelineMetrics metrics, int broadcastJoinThreshold) {
+        this(metrics, broadcastJoinThreshold, DEFAULT_BROADCAST_JOIN_MAX_BYTES);
+    }
+
+    /**
+     * @param metrics                Metrics listener (may be null). See {@link #SparkTransformExecutor(PipelineMetrics)}
+     * @param broadcastJoinThreshold See {@link #SparkTransformExecutor(PipelineMetrics, int)}
+     * @param broadcastJoinMaxBytes  Maximum estimated size (serialized, in bytes) of one side of a join for that side
+     *                               to be broadcast
+     */
+    public SparkTransformExecutor(PipelineMetrics metrics, int broadcastJoinThreshold, long broadcastJoinMaxBytes) {
+        this.metrics = metrics;
+        this.broadcastJoinThreshold = broadcastJoinThreshold;
+        this.broadcastJoinMaxBytes = broadcastJoinMaxBytes;
+    }
 
     public JavaRDD<List<Writable>> execute(JavaRDD<List<Writable>> inputWritables, TransformProcess sequence ) {
         if(sequence.getFinalSchema() instanceof SequenceSchema){
@@ -101,25 +170,31 @@ public class SparkTransformExecutor {
 
         int count = 1;
         for(DataAction d : list){
-            log.info("Starting execution of stage {} of {}",count,list.size());
+            log.info("Starting execution of stage {} of {}: {}",count,list.size(),StepMetrics.nameOf(d));
 
             if(d.getTransform() != null) {
                 Transform t = d.getTransform();
                 if(currentWritables != null){
                     Function<List<Writable>, List<Writable>> function = new SparkTransformFunction(t);
+                    if(metrics != null) function = new TimedFunction<>(function,count-1,d,metrics);
                     currentWritables = currentWritables.map(function);
                 } else {
                     Function<List<List<Writable>>, List<List<Writable>>> function =
                             new SparkSequenceTransformFunction(t);
+                    if(metrics != null) function = new TimedFunction<>(function,count-1,d,metrics);
                     currentSequence = currentSequence.map(function);
                 }
             } else if(d.getFilter() != null ){
                 //Filter
                 Filter f = d.getFilter();
                 if(currentWritables != null){
-                    currentWritables = currentWritables.filter(new SparkFilterFunction(f));
+                    Function<List<Writable>,Boolean> function = new SparkFilterFunction(f);
+                    if(metrics != null) function = new TimedFunction<>(function,count-1,d,metrics);
+                    currentWritables = currentWritables.filter(function);
                 } else {
-                    currentSequence = currentSequence.filter(new SparkSequenceFilterFunction(f));
+                    Function<List<List<Writable>>,Boolean> function = new SparkSequenceFilterFunction(f);
+                    if(metrics != null) function = new TimedFunction<>(function,count-1,d,metrics);
+                    currentSequence = currentSequence.filter(function);
                 }
 
             } else if(d.getConvertToSequence() != null) {
@@ -156,7 +231,14 @@ public class SparkTransformExecutor {
                             + "Trying to execute a reduce operation on a sequence?");
                 JavaPairRDD<String, List<Writable>> pair = currentWritables.mapToPair(new MapToPairForReducerFunction(reducer));
 
-                currentWritables = pair.groupByKey().map(new ReducerFunction(reducer));
+                if(reducer instanceof AggregableReducer && ((AggregableReducer) reducer).isAggregable()) {
+                    //Incremental aggregation, with map-side combining: avoids shuffling and materializing all examples for each key
+                    AggregableReducer ar = (AggregableReducer) reducer;
+                    currentWritables = pair.aggregateByKey(ar.createAccumulator(), new ReduceAggregateFunction(ar),
+                            new ReduceMergeFunction(ar)).values().map(new ReduceFinishFunction(ar));
+                } else {
+                    currentWritables = pair.groupByKey().map(new ReducerFunction(reducer));
+                }
             } else if(d.getCalculateSortedRank() != null ){
                 CalculateSortedRank csr = d.getCalculateSortedRank();
 
@@ -187,21 +269,127 @@ public class SparkTransformExecutor {
         return new Pair<>(currentWritables,currentSequence);
     }
 
-
+    /**
+     * Execute a join on the specified data. For inner and left outer joins the right side is the broadcast candidate,
+     * for right outer joins the left side; full outer joins are always executed as sort-merge joins. If the candidate
+     * side has at most broadcastJoinThreshold examples and an estimated serialized size of at most
+     * broadcastJoinMaxBytes, it is collected and broadcast, and the other side is joined against it without shuffling.
+     * Otherwise a sort-merge join is executed. Keys are compared as typed values (not as Strings), and one-to-many and
+     * many-to-many joins are supported.<br>
+     * Note: to avoid computing the candidate side twice (once to check its size, once for the join), a copy of it is
+     * persisted ({@link StorageLevel#MEMORY_AND_DISK_SER()}) before being checked, unless the candidate RDD is already
+     * persisted (the storage level of the RDDs passed in is never changed). If the candidate side is broadcast, or a
+     * copy of it was persisted, the join output is persisted and computed before this method returns, so that the
+     * broadcast can be destroyed and the copy unpersisted; the returned RDD may then be unpersisted by the caller once
+     * it is no longer required.
+     *
+     * @param join  Join to execute
+     * @param left  Left data for join
+     * @param right Right data for join
+     * @return Joined data
+     */
     public JavaRDD<List<Writable>> executeJoin(Join join, JavaRDD<List<Writable>> left, JavaRDD<List<Writable>> right){
+        Join.JoinType joinType = join.getJoinType();
+        if(broadcastJoinThreshold <= 0 || joinType == Join.JoinType.FullOuter){
+            return sortMergeJoin(join, left, right);
+        }
+
+        //Broadcast hash join, if the candidate side is small enough
+        boolean broadcastLeft = (joinType == Join.JoinType.RightOuter);
+        JavaRDD<List<Writable>> other = (broadcastLeft ? right : left);
+        JavaRDD<List<Writable>> candidate = (broadcastLeft ? left : right);
+        boolean persisted = false;
+        if(StorageLevel.NONE().equals(candidate.getStorageLevel())){
+            //Persist a derived RDD that we own, rather than the caller's RDD
+            candidate = candidate.map(new IdentityFunction<List<Writable>>());
+            candidate.persist(StorageLevel.MEMORY_AND_DISK_SER());
+            persisted = true;
+        }
+
+        Map<JoinKey,List<List<Writable>>> table = collectIfSmall(join, candidate, broadcastLeft);
+        if(table != null){
+            if(persisted) candidate.unpersist(false);
+            Broadcast<Map<JoinKey,List<List<Writable>>>> b = JavaSparkContext.fromSparkContext(other.context()).broadcast(table);
+            JavaRDD<List<Writable>> out = other.flatMap(new BroadcastHashJoinFunction(join, !broadcastLeft, b));
+            materialize(out);
+            b.destroy();
+            return out;
+        }
+
+        //Otherwise: sort-merge join, on the persisted candidate side
+        JavaRDD<List<Writable>> out = (broadcastLeft ? sortMergeJoin(join, candidate, right) : sortMergeJoin(join, left, candidate));
+        if(persisted){
+            materialize(out);
+            candidate.unpersist(false);
+        }
+        return out;
+    }
+
+    /**
+     * Sort-merge join: partition both sides by key only, sort each partition by (key, side), then merge
+     */
+    private static JavaRDD<List<Writable>> sortMergeJoin(Join join, JavaRDD<List<Writable>> left, JavaRDD<List<Writable>> right){
+        JavaPairRDD<TaggedJoinKey,List<Writable>> leftKeyed = left.mapToPair(new MapToTaggedJoinKeyFunction(true, join));
+        JavaPairRDD<TaggedJoinKey,List<Writable>> rightKeyed = right.mapToPair(new MapToTaggedJoinKeyFunction(false, join));
+        int numPartitions = Math.max(left.partitions().size(), right.partitions().size());
+        JavaPairRDD<TaggedJoinKey,List<Writable>> sorted = leftKeyed.union(rightKeyed)
+                .repartitionAndSortWithinPartitions(new JoinKeyPartitioner(numPartitions), new TaggedJoinKeyComparator());
+        return sorted.mapPartitions(new SortMergeJoinFunction(join));
+    }
+
+    /**
+     * Persist and compute the given RDD, so that the RDDs and broadcasts it was computed from can be released
+     */
+    private static void materialize(JavaRDD<List<Writable>> rdd){
+        rdd.persist(StorageLevel.MEMORY_AND_DISK_SER());
+        rdd.count();
+    }
 
-        //Extract out the keys, then join
-        //This gives us a JavaPairRDD<String,JoinValue>
-        JavaPairRDD<String,JoinValue> leftJV = left.mapToPair(new MapToJoinValuesFunction(true,join));
-        JavaPairRDD<String,JoinValue> rightJV = right.mapToPair(new MapToJoinValuesFunction(false,join));
+    /**
+     * Collect one side of a join into a hash table (join key to examples), if it has at most
+     * {@link #broadcastJoinThreshold} examples and an estimated serialized size of at most
+     * {@link #broadcastJoinMaxBytes}. Otherwise returns null.
+     */
+    private Map<JoinKey,List<List<Writable>>> collectIfSmall(Join join, JavaRDD<List<Writable>> rdd, boolean left){
+        List<List<Writable>> examples = rdd.take(broadcastJoinThreshold + 1);
+        if(examples.size() > broadcastJoinThreshold) return null;
+        long sizeBytes = estimateSizeBytes(examples);
+        if(sizeBytes > broadcastJoinMaxBytes){
+            log.debug("Not broadcasting {} side of join: estimated size {} bytes exceeds limit of {} bytes",
+                    (left ? "left" : "right"), sizeBytes, broadcastJoinMaxBytes);
+            return null;
+        }
 
-        //Then merge, collect by key, execute the join. This is essentially an outer join
-        JavaPairRDD<String,JoinValue> both = leftJV.union(rightJV);
-        JavaPairRDD<String,Iterable<JoinValue>> grouped = both.groupByKey();
-        JavaRDD<JoinedValue> joined = grouped.map(new ExecuteJoinFunction(join));
+        int[] keyColumnIdxs = MapToTaggedJoinKeyFunction.keyColumnIndices(join, left);
+        Map<JoinKey,List<List<Writable>>> table = new HashMap<>();
+        for(List<Writable> example : examples){
+            JoinKey key = JoinKey.fromExample(example, keyColumnIdxs);
+            List<List<Writable>> list = table.get(key);
+            if(list == null){
+                list = new ArrayList<>(1);
+                table.put(key, list);
+            }
+            list.add(example);
+        }
+        log.debug("Executing broadcast hash join: broadcasting {} examples ({} keys, ~{} bytes) from the {} side",
+                examples.size(), table.size(), sizeBytes, (left ? "left" : "right"));
+        return table;
+    }
 
-        //Filter out values where we don't have one or the other (i.e., for inner, and left/right joins)
-        // and also flatten the JoinedValue -> List<Writable>.
-        return joined.flatMap(new FilterAndFlattenJoinedValues(join.getJoinType()));
+    /**
+     * Estimate the size of the given examples, as the number of bytes of their Writable serialization
+     */
+    private static long estimateSizeBytes(List<List<Writable>> examples){
+        CountingOutputStream cos = new CountingOutputStream(new NullOutputStream());
+        DataOutputStream dos = new DataOutputStream(cos);
+        try{
+            for(List<Writable> example : examples){
+                WritableUtils.writeRecord(example, dos);
+            }
+            dos.flush();
+        } catch(IOException e){
+            throw new RuntimeException(e);
+        }
+        return cos.getByteCount();
     }
 }
@@ -22,7 +22,10 @@ import java.io.Serializable;
 
 /**
  * Created by Alex on 23/06/2016.
+ *
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.ColumnSketch}
  */
+@Deprecated
 public interface AnalysisCounter<T extends AnalysisCounter> extends Serializable {
 
     T add(Writable writable);
@@ -23,7 +23,11 @@ import java.util.List;
 
 /**
  * Map a sequence to the size of that sequence
+ *
+ * @deprecated AnalyzeSpark now analyzes sequence lengths in the same pass as the columns: see
+ * {@link org.datavec.spark.transform.analysis.aggregate.SequenceAnalysisSketchAddFunction}
  */
+@Deprecated
 public class SequenceLengthFunction implements Function<List<List<Writable>>,Integer> {
     @Override
     public Integer call(List<List<Writable>> v1) throws Exception {
@@ -36,8 +36,10 @@ import java.util.List;
  * Add function used for undertaking analysis of a data set via Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchAddFunction}
  */
 @AllArgsConstructor
+@Deprecated
 public class AnalysisAddFunction implements Function2<List<AnalysisCounter>,List<Writable>,List<AnalysisCounter>> {
 
     private Schema schema;
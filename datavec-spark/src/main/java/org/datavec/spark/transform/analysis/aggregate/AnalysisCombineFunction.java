@@ -26,7 +26,9 @@ import java.util.List;
  * Combine function used for undertaking analysis of a data set via Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchMergeFunction}
  */
+@Deprecated
 public class AnalysisCombineFunction implements Function2<List<AnalysisCounter>,List<AnalysisCounter>,List<AnalysisCounter>> {
     @Override
     public List<AnalysisCounter> call(List<AnalysisCounter> l1, List<AnalysisCounter> l2) throws Exception {
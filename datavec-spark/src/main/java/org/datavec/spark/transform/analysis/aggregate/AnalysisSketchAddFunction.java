@@ -0,0 +1,34 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.analysis.aggregate;
+
+import org.apache.spark.api.java.function.Function2;
+import org.datavec.api.transform.analysis.sketch.DataAnalysisSketch;
+import org.datavec.api.writable.Writable;
+
+import java.util.List;
+
+/**
+ * Add function for single-pass analysis of a data set via Spark, using a {@link DataAnalysisSketch}
+ */
+public class AnalysisSketchAddFunction implements Function2<DataAnalysisSketch, List<Writable>, DataAnalysisSketch> {
+
+    @Override
+    public DataAnalysisSketch call(DataAnalysisSketch sketch, List<Writable> writables) throws Exception {
+        return sketch.add(writables);
+    }
+}
@@ -25,8 +25,10 @@ import org.datavec.api.writable.Writable;
  * A counter function for doing analysis on BytesWritable columns, on Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.BytesColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class BytesAnalysisCounter implements AnalysisCounter<BytesAnalysisCounter> {
     private long countTotal = 0;
 
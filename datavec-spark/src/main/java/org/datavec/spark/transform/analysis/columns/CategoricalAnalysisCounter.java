@@ -30,8 +30,10 @@ import java.util.Set;
  * A counter function for doing analysis on Categorical columns, on Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.CategoricalColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class CategoricalAnalysisCounter implements AnalysisCounter<CategoricalAnalysisCounter> {
 
     private Map<String,Long> counts = new HashMap<>();
@@ -25,8 +25,10 @@ import org.datavec.api.writable.Writable;
  * A counter function for doing analysis on Double columns, on Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.NumericalColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class DoubleAnalysisCounter implements AnalysisCounter<DoubleAnalysisCounter> {
 
     private long countZero;
@@ -25,8 +25,10 @@ import org.datavec.api.writable.Writable;
  * A counter function for doing analysis on integer columns, on Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.NumericalColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class IntegerAnalysisCounter implements AnalysisCounter<IntegerAnalysisCounter> {
 
     private long countZero;
@@ -27,8 +27,10 @@ import java.math.BigInteger;
  * A counter function for doing analysis on Long columns, on Spark
  *
  * @author Alex Black
+ * @deprecated Superseded by {@link org.datavec.api.transform.analysis.sketch.NumericalColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class LongAnalysisCounter implements AnalysisCounter<LongAnalysisCounter> {
 
     private long countZero;
@@ -26,7 +26,10 @@ import java.util.Map;
  * A counter for building histograms of Categorical columns
  *
  * @author Alex Black
+ * @deprecated Histograms are now calculated by the column sketches, in the same pass as the other
+ * statistics: see {@link org.datavec.api.transform.analysis.sketch.CategoricalColumnSketch}
  */
+@Deprecated
 public class CategoricalHistogramCounter implements HistogramCounter {
     private HashMap<String,Integer> counts = new HashMap<>();
 
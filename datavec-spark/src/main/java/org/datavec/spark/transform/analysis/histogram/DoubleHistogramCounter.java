@@ -22,7 +22,10 @@ import org.datavec.api.writable.Writable;
  * A counter for building histograms on a Double column
  *
  * @author Alex Black
+ * @deprecated Histograms are now calculated by the column sketches, in the same pass as the other
+ * statistics: see {@link org.datavec.api.transform.analysis.sketch.NumericalColumnSketch}
  */
+@Deprecated
 public class DoubleHistogramCounter implements HistogramCounter {
 
     private final double minValue;
@@ -30,8 +30,11 @@ import java.util.List;
  * An adder function used in the calculation of histograms
  *
  * @author Alex Black
+ * @deprecated No longer used by AnalyzeSpark, which calculates histograms in the same pass as the other
+ * statistics (see {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchAddFunction})
  */
 @AllArgsConstructor
+@Deprecated
 public class HistogramAddFunction implements Function2<List<HistogramCounter>,List<Writable>,List<HistogramCounter>> {
     private final int nBins;
     private final Schema schema;
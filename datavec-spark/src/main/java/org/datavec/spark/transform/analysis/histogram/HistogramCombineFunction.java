@@ -25,7 +25,9 @@ import java.util.List;
  * A combiner function used in the calculation of histograms
  *
  * @author Alex Black
+ * @deprecated No longer used by AnalyzeSpark: see {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchMergeFunction}
  */
+@Deprecated
 public class HistogramCombineFunction implements Function2<List<HistogramCounter>,List<HistogramCounter>,List<HistogramCounter>> {
     @Override
     public List<HistogramCounter> call(List<HistogramCounter> l1, List<HistogramCounter> l2) throws Exception {
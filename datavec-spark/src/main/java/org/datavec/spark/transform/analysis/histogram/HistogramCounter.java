@@ -24,7 +24,9 @@ import java.io.Serializable;
  * HistogramCounter: used to calculate histogram values for one column
  *
  * @author Alex Black
+ * @deprecated Histograms are now calculated by the column sketches: see {@link org.datavec.api.transform.analysis.sketch.ColumnSketch}
  */
+@Deprecated
 public interface HistogramCounter extends Serializable {
 
     HistogramCounter add(Writable w);
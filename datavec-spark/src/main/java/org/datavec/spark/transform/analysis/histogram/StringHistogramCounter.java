@@ -22,7 +22,10 @@ import org.datavec.api.writable.Writable;
  * A counter for building histograms (of String length) on a String column
  *
  * @author Alex Black
+ * @deprecated Histograms are now calculated by the column sketches, in the same pass as the other
+ * statistics: see {@link org.datavec.api.transform.analysis.sketch.StringColumnSketch}
  */
+@Deprecated
 public class StringHistogramCounter implements HistogramCounter {
 
     private final int minLength;
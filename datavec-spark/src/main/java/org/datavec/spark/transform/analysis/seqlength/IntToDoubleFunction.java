@@ -20,7 +20,10 @@ import org.apache.spark.api.java.function.DoubleFunction;
 
 /**
  * Created by Alex on 12/03/2016.
+ *
+ * @deprecated No longer used by AnalyzeSpark
  */
+@Deprecated
 public class IntToDoubleFunction implements DoubleFunction<Integer> {
     @Override
     public double call(Integer integer) throws Exception {
@@ -20,7 +20,10 @@ import org.apache.spark.api.java.function.Function2;
 
 /**
  * Created by Alex on 7/03/2016.
+ *
+ * @deprecated Superseded by {@link org.datavec.spark.transform.analysis.aggregate.SequenceAnalysisSketchAddFunction}
  */
+@Deprecated
 public class SequenceLengthAnalysisAddFunction implements Function2<SequenceLengthAnalysisCounter,Integer,SequenceLengthAnalysisCounter> {
 
     @Override
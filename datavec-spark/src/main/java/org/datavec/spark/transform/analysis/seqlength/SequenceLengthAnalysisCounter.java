@@ -23,8 +23,11 @@ import org.datavec.api.writable.Writable;
 
 /**
  * Created by Alex on 7/03/2016.
+ *
+ * @deprecated Sequence lengths are now analyzed using a {@link org.datavec.api.transform.analysis.sketch.NumericalColumnSketch}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class SequenceLengthAnalysisCounter implements AnalysisCounter<SequenceLengthAnalysisCounter> {
 
     private long countZeroLength;
@@ -20,7 +20,10 @@ import org.apache.spark.api.java.function.Function2;
 
 /**
  * Created by Alex on 5/03/2016.
+ *
+ * @deprecated Superseded by {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchMergeFunction}
  */
+@Deprecated
 public class SequenceLengthAnalysisMergeFunction implements Function2<SequenceLengthAnalysisCounter,SequenceLengthAnalysisCounter,SequenceLengthAnalysisCounter> {
     @Override
     public SequenceLengthAnalysisCounter call(SequenceLengthAnalysisCounter v1, SequenceLengthAnalysisCounter v2) throws Exception {
@@ -20,7 +20,10 @@ import org.apache.spark.api.java.function.Function2;
 
 /**
  * Created by Alex on 5/03/2016.
+ *
+ * @deprecated Superseded by {@link org.datavec.spark.transform.analysis.aggregate.AnalysisSketchMergeFunction}
  */
+@Deprecated
 public class StringAnalysisMergeFunction implements Function2<StringAnalysisCounter,StringAnalysisCounter,StringAnalysisCounter> {
     @Override
     public StringAnalysisCounter call(StringAnalysisCounter v1, StringAnalysisCounter v2) throws Exception {
@@ -0,0 +1,81 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.join.JoinKey;
+import org.datavec.api.writable.Writable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Broadcast hash join: one side of the {@link Join} (the "build" side) has been collected into a hash table
+ * (join key to examples) and broadcast; this function streams the examples of the other side, looking up matches in
+ * the table. Supports one-to-many and many-to-many joins; examples of the streamed side without a match are kept for
+ * the corresponding outer join (left outer when the right side was broadcast, right outer when the left side was
+ * broadcast). Full outer joins cannot be executed this way.
+ */
+public class BroadcastHashJoinFunction implements FlatMapFunction<List<Writable>, List<Writable>> {
+
+    private final Join join;
+    private final boolean broadcastRight;
+    private final Broadcast<Map<JoinKey, List<List<Writable>>>> table;
+    private final boolean keepUnmatched;
+    private transient int[] keyColumnIdxs;
+
+    /**
+     * @param join           Join to execute
+     * @param broadcastRight If true: the right side was broadcast, and the left side is streamed. Otherwise the reverse
+     * @param table          Broadcast hash table for the build side
+     */
+    public BroadcastHashJoinFunction(Join join, boolean broadcastRight, Broadcast<Map<JoinKey, List<List<Writable>>>> table) {
+        Join.JoinType joinType = join.getJoinType();
+        if (joinType == Join.JoinType.FullOuter
+                || (broadcastRight && joinType == Join.JoinType.RightOuter)
+                || (!broadcastRight && joinType == Join.JoinType.LeftOuter)) {
+            throw new IllegalArgumentException("Cannot execute " + joinType + " join by broadcasting the "
+                    + (broadcastRight ? "right" : "left") + " side");
+        }
+        this.join = join;
+        this.broadcastRight = broadcastRight;
+        this.table = table;
+        this.keepUnmatched = (joinType != Join.JoinType.Inner);
+    }
+
+    @Override
+    public Iterable<List<Writable>> call(List<Writable> example) throws Exception {
+        if (keyColumnIdxs == null) {
+            keyColumnIdxs = MapToTaggedJoinKeyFunction.keyColumnIndices(join, !broadcastRight);
+        }
+        List<List<Writable>> matches = table.value().get(JoinKey.fromExample(example, keyColumnIdxs));
+        if (matches == null) {
+            if (!keepUnmatched) return Collections.emptyList();
+            return Collections.singletonList(broadcastRight ? join.joinExamples(example, null) : join.joinExamples(null, example));
+        }
+
+        List<List<Writable>> out = new ArrayList<>(matches.size());
+        for (List<Writable> m : matches) {
+            out.add(broadcastRight ? join.joinExamples(example, m) : join.joinExamples(m, example));
+        }
+        return out;
+    }
+}
@@ -28,8 +28,12 @@ import java.util.List;
  * Execute a join
  *
  * @author Alex Black
+ * @deprecated No longer used by SparkTransformExecutor, which executes joins as broadcast hash joins
+ * ({@link BroadcastHashJoinFunction}) or sort-merge joins ({@link SortMergeJoinFunction}). Only supports one example
+ * per key on each side.
  */
 @AllArgsConstructor
+@Deprecated
 public class ExecuteJoinFunction implements Function<Tuple2<String,Iterable<JoinValue>>, JoinedValue> {
 
     private Join join;
@@ -30,8 +30,11 @@ import java.util.List;
  * (b) extract the List<Writable> values from the JoinedValue
  *
  * @author Alex Black
+ * @deprecated No longer used by SparkTransformExecutor: see {@link BroadcastHashJoinFunction} and
+ * {@link SortMergeJoinFunction}
  */
 @AllArgsConstructor
+@Deprecated
 public class FilterAndFlattenJoinedValues implements FlatMapFunction<JoinedValue,List<Writable>> {
 
     private final Join.JoinType joinType;
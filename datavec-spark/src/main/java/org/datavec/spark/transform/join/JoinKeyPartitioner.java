@@ -0,0 +1,54 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.apache.spark.Partitioner;
+import org.datavec.api.transform.join.TaggedJoinKey;
+
+/**
+ * Partitioner for sort-merge joins: partitions {@link TaggedJoinKey}s by the join key only, so that the left and
+ * right examples for a given key end up in the same partition.
+ */
+public class JoinKeyPartitioner extends Partitioner {
+
+    private final int numPartitions;
+
+    public JoinKeyPartitioner(int numPartitions) {
+        this.numPartitions = numPartitions;
+    }
+
+    @Override
+    public int numPartitions() {
+        return numPartitions;
+    }
+
+    @Override
+    public int getPartition(Object key) {
+        int hash = ((TaggedJoinKey) key).getKey().hashCode() % numPartitions;
+        return (hash < 0 ? hash + numPartitions : hash);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof JoinKeyPartitioner && ((JoinKeyPartitioner) o).numPartitions == numPartitions;
+    }
+
+    @Override
+    public int hashCode() {
+        return numPartitions;
+    }
+}
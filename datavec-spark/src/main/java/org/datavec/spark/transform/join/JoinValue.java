@@ -25,8 +25,11 @@ import java.util.List;
 
 /**
  * Simple helper class for executing joins
+ *
+ * @deprecated No longer used by SparkTransformExecutor: see {@link MapToTaggedJoinKeyFunction}
  */
 @AllArgsConstructor @Data
+@Deprecated
 public class JoinValue implements Serializable {
 
     private final boolean left;
@@ -29,8 +29,12 @@ import java.util.List;
  * Map an example to a Tuple2<String,JoinValue> for use in a {@link Join}
  *
  * @author Alex Black
+ * @deprecated No longer used by SparkTransformExecutor. Use {@link MapToTaggedJoinKeyFunction} instead, which keys
+ * examples by typed values: the String keys created here may be ambiguous for compound keys (for example, "a_b" + "c"
+ * vs. "a" + "b_c").
  */
 @AllArgsConstructor
+@Deprecated
 public class MapToJoinValuesFunction implements PairFunction<List<Writable>,String,JoinValue> {
 
     private boolean left;
@@ -0,0 +1,60 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.apache.spark.api.java.function.PairFunction;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.join.JoinKey;
+import org.datavec.api.transform.join.TaggedJoinKey;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.Writable;
+import scala.Tuple2;
+
+import java.util.List;
+
+/**
+ * Map an example to a Tuple2<TaggedJoinKey,List<Writable>>, for use in a sort-merge {@link Join}
+ */
+public class MapToTaggedJoinKeyFunction implements PairFunction<List<Writable>, TaggedJoinKey, List<Writable>> {
+
+    private final boolean left;
+    private final Join join;
+    private transient int[] keyColumnIdxs;
+
+    public MapToTaggedJoinKeyFunction(boolean left, Join join) {
+        this.left = left;
+        this.join = join;
+    }
+
+    @Override
+    public Tuple2<TaggedJoinKey, List<Writable>> call(List<Writable> writables) throws Exception {
+        if (keyColumnIdxs == null) {
+            keyColumnIdxs = keyColumnIndices(join, left);
+        }
+        return new Tuple2<>(new TaggedJoinKey(JoinKey.fromExample(writables, keyColumnIdxs), left), writables);
+    }
+
+    static int[] keyColumnIndices(Join join, boolean left) {
+        Schema schema = (left ? join.getLeftSchema() : join.getRightSchema());
+        String[] keyColumns = (left ? join.getKeyColumnsLeft() : join.getKeyColumnsRight());
+        int[] idxs = new int[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            idxs[i] = schema.getIndexOfColumn(keyColumns[i]);
+        }
+        return idxs;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.datavec.api.berkeley.Pair;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.join.MergeJoinIterator;
+import org.datavec.api.transform.join.TaggedJoinKey;
+import org.datavec.api.writable.Writable;
+import scala.Tuple2;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Execute the merge phase of a sort-merge {@link Join} on one partition. The partition must be sorted by
+ * {@link TaggedJoinKey} (see {@link TaggedJoinKeyComparator}), with all examples for a key in the same partition
+ * (see {@link JoinKeyPartitioner}). Output is generated lazily by a {@link MergeJoinIterator}.
+ */
+public class SortMergeJoinFunction implements FlatMapFunction<Iterator<Tuple2<TaggedJoinKey, List<Writable>>>, List<Writable>> {
+
+    private final Join join;
+
+    public SortMergeJoinFunction(Join join) {
+        this.join = join;
+    }
+
+    @Override
+    public Iterable<List<Writable>> call(final Iterator<Tuple2<TaggedJoinKey, List<Writable>>> iter) throws Exception {
+        final Iterator<Pair<TaggedJoinKey, List<Writable>>> pairs = new Iterator<Pair<TaggedJoinKey, List<Writable>>>() {
+            @Override
+            public boolean hasNext() {
+                return iter.hasNext();
+            }
+
+            @Override
+            public Pair<TaggedJoinKey, List<Writable>> next() {
+                Tuple2<TaggedJoinKey, List<Writable>> t2 = iter.next();
+                return new Pair<>(t2._1(), t2._2());
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        return new Iterable<List<Writable>>() {
+            @Override
+            public Iterator<List<Writable>> iterator() {
+                return new MergeJoinIterator(join, pairs);
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.datavec.api.transform.join.TaggedJoinKey;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+/**
+ * Serializable comparator for {@link TaggedJoinKey}s: sorts by join key, then left examples before right examples.
+ */
+public class TaggedJoinKeyComparator implements Comparator<TaggedJoinKey>, Serializable {
+
+    @Override
+    public int compare(TaggedJoinKey o1, TaggedJoinKey o2) {
+        return o1.compareTo(o2);
+    }
+}
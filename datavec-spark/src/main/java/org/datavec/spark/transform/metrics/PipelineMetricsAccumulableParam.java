@@ -0,0 +1,46 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.spark.transform.metrics;
+
+import org.apache.spark.AccumulableParam;
+import org.datavec.api.transform.metrics.LocalPipelineMetrics;
+
+/**
+ * AccumulableParam for {@link SparkPipelineMetrics}: step updates are added to a task-local
+ * {@link LocalPipelineMetrics} instance, and the per-task instances are merged on the driver.
+ */
+public class PipelineMetricsAccumulableParam implements AccumulableParam<LocalPipelineMetrics, StepUpdate> {
+
+    @Override
+    public LocalPipelineMetrics addAccumulator(LocalPipelineMetrics r, StepUpdate t) {
+        r.onStep(t.getStep(), t.getAction(), t.getRecordsIn(), t.getRecordsOut(), t.getDurationNanos(),
+                t.getAllocatedBytes());
+        return r;
+    }
+
+    @Override
+    public LocalPipelineMetrics addInPlace(LocalPipelineMetrics r1, LocalPipelineMetrics r2) {
+        r1.merge(r2);
+        return r1;
+    }
+
+    @Override
+    public LocalPipelineMetrics zero(LocalPipelineMetrics initialValue) {
+        return new LocalPipelineMetrics(initialValue.isMeasureAllocations());
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.spark.transform.metrics;
+
+import org.apache.spark.Accumulable;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.metrics.LocalPipelineMetrics;
+import org.datavec.api.transform.metrics.PipelineMetrics;
+
+/**
+ * {@link PipelineMetrics} implementation for Spark, backed by an accumulable: metrics are collected on the executors
+ * and merged on the driver, where they can be obtained after an action has been executed using {@link #getMetrics()}
+ * (and reported using the reporters in {@link org.datavec.api.transform.metrics}).<br>
+ * Note that (as with all Spark accumulators updated in transformations) values may be over-counted if tasks are
+ * re-executed.
+ */
+public class SparkPipelineMetrics implements PipelineMetrics {
+
+    private final Accumulable<LocalPipelineMetrics, StepUpdate> accumulable;
+    private final boolean measureAllocations;
+
+    /**
+     * Create a SparkPipelineMetrics instance that does not measure allocations
+     */
+    public SparkPipelineMetrics(JavaSparkContext sc) {
+        this(sc, false);
+    }
+
+    public SparkPipelineMetrics(JavaSparkContext sc, boolean measureAllocations) {
+        LocalPipelineMetrics initial = new LocalPipelineMetrics(measureAllocations);
+        this.measureAllocations = initial.isMeasureAllocations();
+        this.accumulable = sc.accumulable(initial, new PipelineMetricsAccumulableParam());
+    }
+
+    @Override
+    public boolean isMeasureAllocations() {
+        return measureAllocations;
+    }
+
+    @Override
+    public void onStep(int step, DataAction action, long recordsIn, long recordsOut, long durationNanos,
+                       long allocatedBytes) {
+        accumulable.add(new StepUpdate(step, action, recordsIn, recordsOut, durationNanos, allocatedBytes));
+    }
+
+    /**
+     * Get the merged metrics. Can only be called on the driver
+     */
+    public LocalPipelineMetrics getMetrics() {
+        return accumulable.value();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.spark.transform.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.datavec.api.transform.DataAction;
+
+/**
+ * A single step execution, added to the {@link SparkPipelineMetrics} accumulable from the executors
+ */
+@Data
+@AllArgsConstructor
+public class StepUpdate {
+
+    private final int step;
+    private final DataAction action;
+    private final long recordsIn;
+    private final long recordsOut;
+    private final long durationNanos;
+    private final long allocatedBytes;
+
+}
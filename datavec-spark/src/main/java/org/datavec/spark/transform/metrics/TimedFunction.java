@@ -0,0 +1,49 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+
+package org.datavec.spark.transform.metrics;
+
+import lombok.AllArgsConstructor;
+import org.apache.spark.api.java.function.Function;
+import org.datavec.api.transform.DataAction;
+import org.datavec.api.transform.metrics.PipelineMetrics;
+import org.datavec.api.transform.metrics.ThreadAllocation;
+
+/**
+ * Wraps a per-record transform or filter function, reporting the duration (and optionally allocations) of each call
+ * to a {@link PipelineMetrics} instance. For filter functions (Boolean return type), a return value of false is
+ * reported as the record being removed.
+ */
+@AllArgsConstructor
+public class TimedFunction<T, R> implements Function<T, R> {
+
+    private final Function<T, R> function;
+    private final int step;
+    private final DataAction action;
+    private final PipelineMetrics metrics;
+
+    @Override
+    public R call(T v1) throws Exception {
+        long alloc = (metrics.isMeasureAllocations() ? ThreadAllocation.currentThreadAllocatedBytes() : -1);
+        long start = System.nanoTime();
+        R out = function.call(v1);
+        long duration = System.nanoTime() - start;
+        long recordsOut = (out instanceof Boolean ? (((Boolean) out) ? 1 : 0) : 1);
+        metrics.onStep(step, action, 1, recordsOut, duration, ThreadAllocation.allocatedSince(alloc));
+        return out;
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.misc;
+
+import org.apache.spark.api.java.function.Function;
+
+/**
+ * Function that returns its input unchanged. Used to derive a new RDD from an existing one, for example so that the
+ * derived RDD can be persisted (and unpersisted) without changing the storage level of the original RDD.
+ */
+public class IdentityFunction<T> implements Function<T, T> {
+
+    @Override
+    public T call(T t) throws Exception {
+        return t;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.reduce;
+
+import lombok.AllArgsConstructor;
+import org.apache.spark.api.java.function.Function;
+import org.datavec.api.transform.reduce.AggregableReducer;
+import org.datavec.api.transform.reduce.ReduceAccumulator;
+import org.datavec.api.writable.Writable;
+
+import java.util.List;
+
+/**
+ * Spark function for converting an aggregated reduction into the reduced example, for executing an
+ * {@link AggregableReducer} with aggregateByKey
+ */
+@AllArgsConstructor
+public class ReduceFinishFunction implements Function<ReduceAccumulator,List<Writable>> {
+
+    private final AggregableReducer reducer;
+
+    @Override
+    public List<Writable> call(ReduceAccumulator accumulator) throws Exception {
+        return reducer.finish(accumulator);
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.reduce;
+
+import lombok.AllArgsConstructor;
+import org.apache.spark.api.java.function.Function2;
+import org.datavec.api.transform.reduce.AggregableReducer;
+import org.datavec.api.transform.reduce.ReduceAccumulator;
+
+/**
+ * Spark function for merging two partial reductions, for executing an {@link AggregableReducer} with aggregateByKey
+ */
+@AllArgsConstructor
+public class ReduceMergeFunction implements Function2<ReduceAccumulator,ReduceAccumulator,ReduceAccumulator> {
+
+    private final AggregableReducer reducer;
+
+    @Override
+    public ReduceAccumulator call(ReduceAccumulator first, ReduceAccumulator second) throws Exception {
+        return reducer.merge(first, second);
+    }
+}
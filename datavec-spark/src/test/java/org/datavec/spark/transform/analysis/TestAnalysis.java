@@ -107,6 +107,12 @@ public class TestAnalysis extends BaseSparkTest {
         assertEquals(10.0, bucketsD[bucketsD.length - 1], 0.0);
         assertEquals(1, countD[0]);
         assertEquals(1, countD[countD.length - 1]);
+
+        //Single pass sketches: unique counts and quantiles
+        assertEquals(4, ia.getCountUnique());
+        assertEquals(4, dba.getCountUnique());
+        assertEquals(-1.0, dba.getQuantile(0.01), 1e-6);
+        assertEquals(10.0, dba.getQuantile(0.99), 1e-6);
     }
 
 
@@ -0,0 +1,108 @@
+/*
+ *  * Copyright 2016 Skymind, Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ */
+
+package org.datavec.spark.transform.join;
+
+import org.apache.spark.api.java.JavaRDD;
+import org.datavec.api.transform.join.Join;
+import org.datavec.api.transform.local.LocalTransformExecutor;
+import org.datavec.api.transform.schema.Schema;
+import org.datavec.api.writable.IntWritable;
+import org.datavec.api.writable.Text;
+import org.datavec.api.writable.Writable;
+import org.datavec.spark.transform.BaseSparkTest;
+import org.datavec.spark.transform.SparkTransformExecutor;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for broadcast hash joins and sort-merge joins: results should match the local (single machine) join
+ */
+public class TestJoin extends BaseSparkTest {
+
+    private static final Schema LEFT_SCHEMA = new Schema.Builder().addColumnInteger("key").addColumnString("left").build();
+    private static final Schema RIGHT_SCHEMA = new Schema.Builder().addColumnInteger("key").addColumnString("right").build();
+
+    @Test
+    public void testOneToManyJoin() {
+        //Unique keys 0 to 19 on the left; keys 10 to 29 on the right, with 1 to 3 examples per key
+        List<List<Writable>> left = new ArrayList<>();
+        List<List<Writable>> right = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            left.add(Arrays.<Writable>asList(new IntWritable(i), new Text("left_" + i)));
+        }
+        for (int i = 10; i < 30; i++) {
+            for (int j = 0; j <= i % 3; j++) {
+                right.add(Arrays.<Writable>asList(new IntWritable(i), new Text("right_" + i + "_" + j)));
+            }
+        }
+
+        checkJoins(left, right);
+        //Reverse: many-to-one
+        checkJoins(right, left);
+    }
+
+    @Test
+    public void testManyToManyJoin() {
+        List<List<Writable>> left = new ArrayList<>();
+        List<List<Writable>> right = new ArrayList<>();
+        Random rng = new Random(12345);
+        for (int i = 0; i < 200; i++) {
+            left.add(Arrays.<Writable>asList(new IntWritable(rng.nextInt(30)), new Text("left_" + i)));
+            right.add(Arrays.<Writable>asList(new IntWritable(10 + rng.nextInt(30)), new Text("right_" + i)));
+        }
+
+        checkJoins(left, right);
+    }
+
+    private static void checkJoins(List<List<Writable>> left, List<List<Writable>> right) {
+        JavaRDD<List<Writable>> leftRdd = sc.parallelize(left, 3);
+        JavaRDD<List<Writable>> rightRdd = sc.parallelize(right, 4);
+
+        LocalTransformExecutor local = new LocalTransformExecutor();
+        //Threshold 0: always sort-merge. Threshold 5: too small to broadcast, so sort-merge after checking the size.
+        //Threshold 10000: broadcast hash join (except for full outer joins)
+        for (int threshold : new int[]{0, 5, 10000}) {
+            SparkTransformExecutor exec = new SparkTransformExecutor(null, threshold);
+            for (Join.JoinType joinType : Join.JoinType.values()) {
+                Join join = new Join.Builder(joinType).setKeyColumns("key").setSchemas(LEFT_SCHEMA, RIGHT_SCHEMA).build();
+
+                List<List<Writable>> expected = local.executeJoin(join, left, right);
+                List<List<Writable>> actual = exec.executeJoin(join, leftRdd, rightRdd).collect();
+                assertEquals(joinType + ", threshold " + threshold, asSortedStrings(expected), asSortedStrings(actual));
+            }
+            leftRdd.unpersist();
+            rightRdd.unpersist();
+        }
+
+        //Small enough by number of examples, but not by size: sort-merge join
+        SparkTransformExecutor exec = new SparkTransformExecutor(null, 10000, 100);
+        Join join = new Join.Builder(Join.JoinType.Inner).setKeyColumns("key").setSchemas(LEFT_SCHEMA, RIGHT_SCHEMA).build();
+        assertEquals(asSortedStrings(local.executeJoin(join, left, right)),
+                asSortedStrings(exec.executeJoin(join, leftRdd, rightRdd).collect()));
+        local.close();
+    }
+
+    private static List<String> asSortedStrings(List<List<Writable>> data) {
+        List<String> out = new ArrayList<>();
+        for (List<Writable> l : data) out.add(l.toString());
+        Collections.sort(out);
+        return out;
+    }
+}